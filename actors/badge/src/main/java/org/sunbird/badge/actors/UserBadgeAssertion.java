@@ -18,6 +18,7 @@ import org.sunbird.common.models.util.*;
 import org.sunbird.common.request.ExecutionContext;
 import org.sunbird.common.request.Request;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.UserProfileCache;
 import org.sunbird.learner.util.Util;
 import org.sunbird.learner.util.Util.DbInfo;
 import org.sunbird.telemetry.util.TelemetryUtil;
@@ -114,6 +115,7 @@ public class UserBadgeAssertion extends BaseActor {
 
     Future<Boolean> responseF = esUtil.update(typeName, identifier, data);
     boolean response = (boolean) ElasticSearchHelper.getResponseFromFuture(responseF);
+    UserProfileCache.getInstance().invalidate(identifier);
     if (!response) {
       ProjectLogger.log(
           "unbale to save the data inside ES for user badge " + identifier, LoggerEnum.INFO.name());
@@ -8,6 +8,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.commons.lang.StringUtils;
 import org.json.JSONException;
@@ -30,13 +35,25 @@ import org.sunbird.common.models.util.PropertiesCache;
 import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.ExpiringLruCache;
 import org.sunbird.learner.util.Util;
 import org.sunbird.telemetry.util.TelemetryUtil;
 
 /** @author Manzarul */
 public class BadgrServiceImpl implements BadgingService {
+  private static final String SUNBIRD_BADGR_SEARCH_CONCURRENCY_KEY =
+      "sunbird_badgr_search_concurrency";
+  private static final String SUNBIRD_BADGR_BADGE_CLASS_CACHE_TTL_KEY =
+      "sunbird_badgr_badge_class_cache_ttl";
+  private static final int DEFAULT_SEARCH_CONCURRENCY = 8;
+  private static final long DEFAULT_BADGE_CLASS_CACHE_TTL = 5 * 60 * 1000L;
+  private static final int BADGE_CLASS_CACHE_SIZE = 1000;
+  private static ExecutorService issuerExecutor;
   private BadgeClassExtensionService badgeClassExtensionService;
   private ObjectMapper mapper = new ObjectMapper();
+  // Badge class listing of each issuer as returned by Badgr, keyed by issuer slug.
+  private ExpiringLruCache<String, String> badgeClassListCache =
+      new ExpiringLruCache<>(BADGE_CLASS_CACHE_SIZE, getBadgeClassCacheTtl());
   private static CassandraOperation cassandraOperation = ServiceFactory.getInstance();
   public static Map<String, String> headerMap = new HashMap<>();
 
@@ -205,6 +222,7 @@ public class BadgrServiceImpl implements BadgingService {
       BadgeClassExtension badgeClassExt =
           new BadgeClassExtension(badgeId, issuerId, rootOrgId, type, subtype, rolesList);
       badgeClassExtensionService.save(badgeClassExt);
+      badgeClassListCache.invalidate(issuerId);
 
       BadgingUtil.prepareBadgeClassResponse(badgrResponseStr, badgeClassExt, response.getResult());
       targetObject =
@@ -286,10 +304,30 @@ public class BadgrServiceImpl implements BadgingService {
             .distinct()
             .collect(Collectors.toList());
 
-    List<Object> badges = new ArrayList<>();
+    Map<String, BadgeClassExtension> badgeClassExtMap =
+        badgeClassExtList
+            .stream()
+            .collect(
+                Collectors.toMap(
+                    BadgeClassExtension::getBadgeId, Function.identity(), (first, next) -> first));
 
-    for (String issuerSlug : filteredIssuerList) {
-      badges.addAll(listBadgeClassForIssuer(issuerSlug, badgeClassExtList));
+    List<Object> badges = new ArrayList<>();
+    if (filteredIssuerList.size() == 1) {
+      badges.addAll(listBadgeClassForIssuer(filteredIssuerList.get(0), badgeClassExtMap));
+    } else {
+      // Issuers are fetched concurrently and their badges are added in issuer order.
+      List<CompletableFuture<List<Object>>> futures =
+          filteredIssuerList
+              .stream()
+              .map(
+                  issuerSlug ->
+                      CompletableFuture.supplyAsync(
+                          () -> listBadgeClassForIssuer(issuerSlug, badgeClassExtMap),
+                          getIssuerExecutor()))
+              .collect(Collectors.toList());
+      for (CompletableFuture<List<Object>> future : futures) {
+        badges.addAll(joinIssuerFuture(future));
+      }
     }
 
     response.put(BadgingJsonKey.BADGES, badges);
@@ -297,30 +335,35 @@ public class BadgrServiceImpl implements BadgingService {
     return response;
   }
 
+  private List<Object> joinIssuerFuture(CompletableFuture<List<Object>> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof ProjectCommonException) {
+        throw (ProjectCommonException) e.getCause();
+      }
+      ProjectLogger.log(
+          "BadgrServiceImpl:joinIssuerFuture: Badge class listing failed", e.getCause());
+      BadgingUtil.throwBadgeClassExceptionOnErrorStatus(
+          ResponseCode.SERVER_ERROR.getResponseCode(),
+          e.getCause().getMessage(),
+          BadgingJsonKey.BADGE_CLASS);
+      return new ArrayList<>();
+    }
+  }
+
   private List<Object> listBadgeClassForIssuer(
-      String issuerSlug, List<BadgeClassExtension> badgeClassExtensionList)
+      String issuerSlug, Map<String, BadgeClassExtension> badgeClassExtMap)
       throws ProjectCommonException {
     List<Object> filteredBadges = new ArrayList<>();
 
     try {
-      Map<String, String> headers = BadgingUtil.getBadgrHeaders();
-      String badgrUrl = BadgingUtil.getBadgeClassUrl(issuerSlug);
-
-      HttpUtilResponse httpUtilResponse = HttpUtil.doGetRequest(badgrUrl, headers);
-      String badgrResponseStr = httpUtilResponse.getBody();
-
-      BadgingUtil.throwBadgeClassExceptionOnErrorStatus(
-          httpUtilResponse.getStatusCode(), badgrResponseStr, BadgingJsonKey.BADGE_CLASS);
-
-      List<Map<String, Object>> badges = mapper.readValue(badgrResponseStr, ArrayList.class);
+      List<Map<String, Object>> badges =
+          mapper.readValue(getBadgeClassList(issuerSlug), ArrayList.class);
 
       for (Map<String, Object> badge : badges) {
         BadgeClassExtension matchedBadgeClassExt =
-            badgeClassExtensionList
-                .stream()
-                .filter(x -> x.getBadgeId().equals(badge.get(BadgingJsonKey.SLUG)))
-                .findFirst()
-                .orElse(null);
+            badgeClassExtMap.get(badge.get(BadgingJsonKey.SLUG));
 
         if (matchedBadgeClassExt != null) {
           Map<String, Object> mappedBadge = new HashMap<>();
@@ -336,6 +379,55 @@ public class BadgrServiceImpl implements BadgingService {
     return filteredBadges;
   }
 
+  private String getBadgeClassList(String issuerSlug) throws IOException {
+    String badgrResponseStr = badgeClassListCache.get(issuerSlug);
+    if (badgrResponseStr != null) {
+      return badgrResponseStr;
+    }
+    Map<String, String> headers = BadgingUtil.getBadgrHeaders();
+    String badgrUrl = BadgingUtil.getBadgeClassUrl(issuerSlug);
+
+    HttpUtilResponse httpUtilResponse = HttpUtil.doGetRequest(badgrUrl, headers);
+    badgrResponseStr = httpUtilResponse.getBody();
+
+    BadgingUtil.throwBadgeClassExceptionOnErrorStatus(
+        httpUtilResponse.getStatusCode(), badgrResponseStr, BadgingJsonKey.BADGE_CLASS);
+    badgeClassListCache.put(issuerSlug, badgrResponseStr);
+    return badgrResponseStr;
+  }
+
+  private static synchronized ExecutorService getIssuerExecutor() {
+    if (issuerExecutor == null) {
+      issuerExecutor =
+          Executors.newFixedThreadPool(
+              getSearchConcurrency(),
+              runnable -> {
+                Thread thread = new Thread(runnable, "badgr-issuer-search");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    return issuerExecutor;
+  }
+
+  private static int getSearchConcurrency() {
+    try {
+      return Integer.parseInt(
+          ProjectUtil.getConfigValue(SUNBIRD_BADGR_SEARCH_CONCURRENCY_KEY).trim());
+    } catch (Exception e) {
+      return DEFAULT_SEARCH_CONCURRENCY;
+    }
+  }
+
+  private static long getBadgeClassCacheTtl() {
+    try {
+      return Long.parseLong(
+          ProjectUtil.getConfigValue(SUNBIRD_BADGR_BADGE_CLASS_CACHE_TTL_KEY).trim());
+    } catch (Exception e) {
+      return DEFAULT_BADGE_CLASS_CACHE_TTL;
+    }
+  }
+
   @Override
   public Response removeBadgeClass(Request requestMsg) throws ProjectCommonException {
     Response response = new Response();
@@ -357,6 +449,7 @@ public class BadgrServiceImpl implements BadgingService {
       BadgingUtil.throwBadgeClassExceptionOnErrorStatus(
           httpUtilResponse.getStatusCode(), badgrResponseStr, BadgingJsonKey.BADGE_CLASS);
 
+      invalidateBadgeClassList(badgeId);
       badgeClassExtensionService.delete(badgeId);
       response.put(JsonKey.MESSAGE, badgrResponseStr.replaceAll("^\"|\"$", ""));
       targetObject =
@@ -372,6 +465,22 @@ public class BadgrServiceImpl implements BadgingService {
     return response;
   }
 
+  private void invalidateBadgeClassList(String badgeId) {
+    BadgeClassExtension badgeClassExtension = null;
+    try {
+      badgeClassExtension = badgeClassExtensionService.get(badgeId);
+    } catch (ProjectCommonException e) {
+      ProjectLogger.log(
+          "BadgrServiceImpl:invalidateBadgeClassList: Issuer not found for badge " + badgeId,
+          LoggerEnum.INFO.name());
+    }
+    if (badgeClassExtension != null && badgeClassExtension.getIssuerId() != null) {
+      badgeClassListCache.invalidate(badgeClassExtension.getIssuerId());
+    } else {
+      badgeClassListCache.invalidateAll();
+    }
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public Response badgeAssertion(Request request) throws IOException {
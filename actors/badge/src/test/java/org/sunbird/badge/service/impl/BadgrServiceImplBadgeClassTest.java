@@ -17,6 +17,7 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import org.sunbird.badge.model.BadgeClassExtension;
 import org.sunbird.badge.service.BadgeClassExtensionService;
 import org.sunbird.badge.service.BadgingService;
+import org.sunbird.badge.util.BadgingUtil;
 import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.models.response.HttpUtilResponse;
 import org.sunbird.common.models.response.Response;
@@ -323,6 +324,66 @@ public class BadgrServiceImplBadgeClassTest {
     validateSuccessResponse(response.getResponseCode(), badges.get(0));
   }
 
+  @Test
+  public void testSearchBadgeClassSuccessMultipleIssuersCached() throws IOException {
+    String otherIssuerId = "other-university";
+    String otherBadgeId = "other-badge";
+    PowerMockito.when(
+            HttpUtil.doGetRequest(
+                Mockito.eq(BadgingUtil.getBadgeClassUrl(VALUE_ISSUER_ID)), Mockito.any()))
+        .thenReturn(new HttpUtilResponse(BADGE_CLASS_SEARCH_RESPONSE_SUCCESS, 200));
+    PowerMockito.when(
+            HttpUtil.doGetRequest(
+                Mockito.eq(BadgingUtil.getBadgeClassUrl(otherIssuerId)), Mockito.any()))
+        .thenReturn(
+            new HttpUtilResponse(
+                BADGE_CLASS_SEARCH_RESPONSE_SUCCESS.replace(VALUE_BADGE_ID, otherBadgeId), 200));
+    PowerMockito.when(
+            mockBadgeClassExtensionService.search(
+                Mockito.anyList(),
+                Mockito.anyList(),
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.anyList()))
+        .thenReturn(
+            new ArrayList<>(
+                Arrays.asList(
+                    new BadgeClassExtension(
+                        VALUE_BADGE_ID,
+                        VALUE_ISSUER_ID,
+                        VALUE_ROOT_ORG_ID,
+                        VALUE_TYPE,
+                        VALUE_SUBTYPE,
+                        VALUE_ROLES_LIST),
+                    new BadgeClassExtension(
+                        otherBadgeId,
+                        otherIssuerId,
+                        VALUE_ROOT_ORG_ID,
+                        VALUE_TYPE,
+                        VALUE_SUBTYPE,
+                        VALUE_ROLES_LIST))));
+
+    Map<String, Object> filtersMap = new HashMap<>();
+    filtersMap.put(BadgingJsonKey.ISSUER_LIST, new ArrayList<String>());
+    request.put(JsonKey.FILTERS, filtersMap);
+
+    Response response = badgrServiceImpl.searchBadgeClass(request);
+
+    List<Map<String, Object>> badges =
+        (List<Map<String, Object>>) response.getResult().get(BadgingJsonKey.BADGES);
+    assertEquals(2, badges.size());
+    validateSuccessResponse(response.getResponseCode(), badges.get(0));
+    assertEquals(otherBadgeId, badges.get(1).get(BadgingJsonKey.BADGE_ID));
+
+    // Listings of both issuers are cached, so Badgr is not called again
+    PowerMockito.when(HttpUtil.doGetRequest(Mockito.any(), Mockito.any()))
+        .thenThrow(new IOException());
+    response = badgrServiceImpl.searchBadgeClass(request);
+    badges = (List<Map<String, Object>>) response.getResult().get(BadgingJsonKey.BADGES);
+    assertEquals(2, badges.size());
+  }
+
   @Test
   public void testSearchBadgeClassSuccessEmpty() throws IOException {
     PowerMockito.when(HttpUtil.doGetRequest(Mockito.any(), Mockito.any()))
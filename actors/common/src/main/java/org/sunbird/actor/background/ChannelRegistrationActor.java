@@ -3,8 +3,10 @@ package org.sunbird.actor.background;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -17,12 +19,14 @@ import org.sunbird.common.inf.ElasticSearchService;
 import org.sunbird.common.models.response.Response;
 import org.sunbird.common.models.util.HttpUtil;
 import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.common.models.util.PropertiesCache;
 import org.sunbird.common.request.Request;
 import org.sunbird.dto.SearchDTO;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.HttpRequestExecutor;
 import org.sunbird.learner.util.Util;
 import scala.concurrent.Future;
 
@@ -33,6 +37,26 @@ import scala.concurrent.Future;
 )
 public class ChannelRegistrationActor extends BaseActor {
 
+  public static final String CHANNEL_REG_REPORT = "channelRegReport";
+  private static final String SUNBIRD_CHANNEL_REG_PAGE_SIZE_KEY = "sunbird_channel_reg_page_size";
+  private static final String SUNBIRD_CHANNEL_REG_CONCURRENCY_KEY =
+      "sunbird_channel_reg_concurrency";
+  private static final String SUNBIRD_CHANNEL_REG_MAX_RETRIES_KEY =
+      "sunbird_channel_reg_max_retries";
+  private static final String SUNBIRD_CHANNEL_REG_TIMEOUT_KEY = "sunbird_channel_reg_timeout";
+  private static final int DEFAULT_PAGE_SIZE = 500;
+  private static final int DEFAULT_CONCURRENCY = 5;
+  private static final int DEFAULT_MAX_RETRIES = 3;
+  private static final long DEFAULT_RETRY_DELAY = 200;
+  private static final int DEFAULT_TIMEOUT = 30000;
+  private static final String CHECKED = "checked";
+  private static final String REGISTERED = "registered";
+  private static final String FAILED = "failed";
+  private static final String COMPLETED = "completed";
+  private static final String DURATION = "duration";
+  private static final String ASC = "asc";
+  private static final String GT = ">";
+  private static ObjectMapper mapper = new ObjectMapper();
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
   private ElasticSearchService esService = EsClientFactory.getInstance(JsonKey.REST);
 
@@ -45,33 +69,106 @@ public class ChannelRegistrationActor extends BaseActor {
     }
   }
 
+  /**
+   * Registers with EkStep the channels of the root organisations which EkStep does not have. The
+   * root organisations are read from ES page by page and checked against the set of EkStep
+   * channels, and the missing channels of each page are registered concurrently. A registration
+   * is not sent again once EkStep may have received it, so that a channel is never created twice.
+   * The outcome of the run is stored in the system settings.
+   */
   private void registerChannel() {
     List<String> ekstepChannelList = getEkstepChannelList();
-    List<Map<String, Object>> sunbirdChannelList = null;
     if (null != ekstepChannelList) {
       ProjectLogger.log("channel list size from ekstep : " + ekstepChannelList.size());
-      sunbirdChannelList = getSunbirdChannelList();
-      ProjectLogger.log("channel list size from sunbird : " + sunbirdChannelList.size());
       if (!ekstepChannelList.isEmpty()) {
-        processChannelReg(ekstepChannelList, sunbirdChannelList);
+        processChannelReg(new HashSet<>(ekstepChannelList));
       }
     }
   }
 
-  private void processChannelReg(
-      List<String> ekstepChannelList, List<Map<String, Object>> sunbirdChannelList) {
-    Boolean bool = true;
-    for (Map<String, Object> map : sunbirdChannelList) {
-      ProjectLogger.log("processing start for hashTagId " + map.get(JsonKey.HASHTAGID));
-      if (!StringUtils.isBlank((String) map.get(JsonKey.HASHTAGID))
-          && (!ekstepChannelList.contains(map.get(JsonKey.HASHTAGID)))
-          && (!Util.registerChannel(map))) {
-        bool = false;
+  private void processChannelReg(Set<String> ekstepChannels) {
+    long startTime = System.currentTimeMillis();
+    int pageSize = getConfigValue(SUNBIRD_CHANNEL_REG_PAGE_SIZE_KEY, DEFAULT_PAGE_SIZE);
+    int checkedCount = 0;
+    int registeredCount = 0;
+    int failedCount = 0;
+    boolean completed = false;
+    try (HttpRequestExecutor requestExecutor =
+        new HttpRequestExecutor(
+            getConfigValue(SUNBIRD_CHANNEL_REG_CONCURRENCY_KEY, DEFAULT_CONCURRENCY),
+            getConfigValue(SUNBIRD_CHANNEL_REG_MAX_RETRIES_KEY, DEFAULT_MAX_RETRIES),
+            DEFAULT_RETRY_DELAY,
+            getConfigValue(SUNBIRD_CHANNEL_REG_TIMEOUT_KEY, DEFAULT_TIMEOUT),
+            false)) {
+      String url = Util.getChannelRegistrationUrl();
+      Map<String, String> headers = Util.getChannelRegistrationHeaders();
+      String lastId = null;
+      while (true) {
+        List<Map<String, Object>> orgList = getSunbirdChannelPage(lastId, pageSize);
+        if (orgList.isEmpty()) {
+          break;
+        }
+        lastId = (String) orgList.get(orgList.size() - 1).get(JsonKey.ID);
+        checkedCount += orgList.size();
+        List<String> hashTagIds = new ArrayList<>();
+        List<String> bodies = new ArrayList<>();
+        // Root orgs of a page sharing a hashTagId are registered once, they are posted together
+        Set<String> pageHashTagIds = new HashSet<>();
+        for (Map<String, Object> map : orgList) {
+          String hashTagId = (String) map.get(JsonKey.HASHTAGID);
+          if (StringUtils.isBlank(hashTagId)
+              || ekstepChannels.contains(hashTagId)
+              || !pageHashTagIds.add(hashTagId)) {
+            continue;
+          }
+          ProjectLogger.log("channel registration needed for hashTagId " + hashTagId);
+          try {
+            bodies.add(Util.getChannelRegistrationRequest(map));
+            hashTagIds.add(hashTagId);
+          } catch (Exception e) {
+            ProjectLogger.log("Failed to prepare channel registration for " + hashTagId, e);
+            failedCount++;
+          }
+        }
+        List<String> responses = requestExecutor.postAll(url, headers, bodies, count -> {});
+        for (int i = 0; i < responses.size(); i++) {
+          if (Util.isChannelRegistered(responses.get(i))) {
+            ekstepChannels.add(hashTagIds.get(i));
+            registeredCount++;
+          } else {
+            ProjectLogger.log(
+                "channel registration failed for hashTagId " + hashTagIds.get(i),
+                LoggerEnum.ERROR.name());
+            failedCount++;
+          }
+        }
+        if (orgList.size() < pageSize || lastId == null) {
+          break;
+        }
       }
+      completed = true;
+    } catch (Exception e) {
+      ProjectLogger.log("Channel reconciliation with EkStep failed " + e.getMessage(), e);
     }
-    if (bool) {
-      updateSystemSettingTable(bool);
+    ProjectLogger.log(
+        "channel list size from sunbird : "
+            + checkedCount
+            + " registered : "
+            + registeredCount
+            + " failed : "
+            + failedCount,
+        LoggerEnum.INFO.name());
+    if (completed && failedCount == 0) {
+      updateSystemSettingTable(true);
     }
+    Map<String, Object> report = new HashMap<>();
+    report.put(CHECKED, checkedCount);
+    report.put(REGISTERED, registeredCount);
+    report.put(FAILED, failedCount);
+    report.put(COMPLETED, completed);
+    report.put(DURATION, System.currentTimeMillis() - startTime);
+    report.put(JsonKey.LAST_UPDATED_ON, ProjectUtil.getFormattedDate());
+    updateReportInSystemSettings(report);
   }
 
   private void updateSystemSettingTable(Boolean bool) {
@@ -86,24 +183,57 @@ public class ChannelRegistrationActor extends BaseActor {
             + response.getResult().get(JsonKey.RESPONSE));
   }
 
-  private List<Map<String, Object>> getSunbirdChannelList() {
-    ProjectLogger.log("start call for getting List of channel from sunbird ES");
+  private void updateReportInSystemSettings(Map<String, Object> report) {
+    try {
+      Map<String, Object> map = new HashMap<>();
+      map.put(JsonKey.ID, CHANNEL_REG_REPORT);
+      map.put(JsonKey.FIELD, CHANNEL_REG_REPORT);
+      map.put(JsonKey.VALUE, mapper.writeValueAsString(report));
+      Response response =
+          cassandraOperation.upsertRecord("sunbird", JsonKey.SYSTEM_SETTINGS_DB, map);
+      ProjectLogger.log(
+          "Upsert operation result for channel reg report "
+              + report
+              + " = "
+              + response.getResult().get(JsonKey.RESPONSE));
+    } catch (Exception e) {
+      ProjectLogger.log("Failed to save channel reg report " + report, e);
+    }
+  }
+
+  private List<Map<String, Object>> getSunbirdChannelPage(String lastId, int pageSize) {
+    ProjectLogger.log("start call for getting page of channel from sunbird ES after " + lastId);
     SearchDTO searchDto = new SearchDTO();
     List<String> list = new ArrayList<>();
+    list.add(JsonKey.ID);
     list.add(JsonKey.HASHTAGID);
     list.add(JsonKey.DESCRIPTION);
     list.add(JsonKey.CHANNEL);
     searchDto.setFields(list);
+    searchDto.setLimit(pageSize);
+    searchDto.getSortBy().put(JsonKey.ID, ASC);
     Map<String, Object> filter = new HashMap<>();
     filter.put(JsonKey.IS_ROOT_ORG, true);
+    if (lastId != null) {
+      Map<String, Object> range = new HashMap<>();
+      range.put(GT, lastId);
+      filter.put(JsonKey.ID, range);
+    }
     searchDto.getAdditionalProperties().put(JsonKey.FILTERS, filter);
     Future<Map<String, Object>> esResponseF =
         esService.search(searchDto, ProjectUtil.EsType.organisation.getTypeName());
     Map<String, Object> esResponse =
         (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(esResponseF);
     List<Map<String, Object>> orgList = (List<Map<String, Object>>) esResponse.get(JsonKey.CONTENT);
-    ProjectLogger.log("End call for getting List of channel from sunbird ES");
-    return orgList;
+    return orgList != null ? orgList : new ArrayList<>();
+  }
+
+  private static int getConfigValue(String key, int defaultValue) {
+    try {
+      return Integer.parseInt(ProjectUtil.getConfigValue(key).trim());
+    } catch (Exception e) {
+      return defaultValue;
+    }
   }
 
   private List<String> getEkstepChannelList() {
@@ -0,0 +1,119 @@
+package org.sunbird.actor.serialization;
+
+import akka.serialization.JSerializer;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.CompatibleFieldSerializer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+
+/**
+ * Akka serializer for {@code Request} and {@code Response} messages based on Kryo. Class names are
+ * written along with the data so that the nested {@code Map<String, Object>} payloads keep their
+ * value types, and fields are written by name so that a message still decodes after fields are
+ * added to or removed from a class.
+ */
+public class KryoMessageSerializer extends JSerializer {
+
+  private static final int IDENTIFIER = 20190101;
+  private static final int BUFFER_SIZE = 4096;
+
+  private static final ThreadLocal<Kryo> kryo =
+      ThreadLocal.withInitial(
+          () -> {
+            Kryo instance = new Kryo();
+            instance.setRegistrationRequired(false);
+            instance.setReferences(true);
+            instance.setDefaultSerializer(CompatibleFieldSerializer.class);
+            instance.setInstantiatorStrategy(
+                new Kryo.DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+            // Read only lists and maps cannot be filled after instantiation, they are decoded as
+            // their mutable counterparts.
+            instance.addDefaultSerializer(Arrays.asList().getClass(), new CopyListSerializer());
+            instance.addDefaultSerializer(
+                Collections.unmodifiableList(new ArrayList<>()).getClass(),
+                new CopyListSerializer());
+            instance.addDefaultSerializer(
+                Collections.unmodifiableList(new LinkedList<>()).getClass(),
+                new CopyListSerializer());
+            instance.addDefaultSerializer(
+                Collections.unmodifiableMap(new HashMap<>()).getClass(), new CopyMapSerializer());
+            return instance;
+          });
+
+  @Override
+  public int identifier() {
+    return IDENTIFIER;
+  }
+
+  @Override
+  public boolean includeManifest() {
+    return false;
+  }
+
+  @Override
+  public byte[] toBinary(Object obj) {
+    try (Output output = new Output(BUFFER_SIZE, -1)) {
+      kryo.get().writeClassAndObject(output, obj);
+      return output.toBytes();
+    }
+  }
+
+  @Override
+  public Object fromBinaryJava(byte[] bytes, Class<?> manifest) {
+    try (Input input = new Input(bytes)) {
+      return kryo.get().readClassAndObject(input);
+    }
+  }
+
+  private static class CopyListSerializer extends Serializer<List<Object>> {
+
+    @Override
+    public void write(Kryo kryo, Output output, List<Object> list) {
+      output.writeInt(list.size(), true);
+      for (Object element : list) {
+        kryo.writeClassAndObject(output, element);
+      }
+    }
+
+    @Override
+    public List<Object> read(Kryo kryo, Input input, Class<List<Object>> type) {
+      int size = input.readInt(true);
+      List<Object> list = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        list.add(kryo.readClassAndObject(input));
+      }
+      return list;
+    }
+  }
+
+  private static class CopyMapSerializer extends Serializer<Map<Object, Object>> {
+
+    @Override
+    public void write(Kryo kryo, Output output, Map<Object, Object> map) {
+      output.writeInt(map.size(), true);
+      for (Map.Entry<Object, Object> entry : map.entrySet()) {
+        kryo.writeClassAndObject(output, entry.getKey());
+        kryo.writeClassAndObject(output, entry.getValue());
+      }
+    }
+
+    @Override
+    public Map<Object, Object> read(Kryo kryo, Input input, Class<Map<Object, Object>> type) {
+      int size = input.readInt(true);
+      Map<Object, Object> map = new HashMap<>();
+      for (int i = 0; i < size; i++) {
+        map.put(kryo.readClassAndObject(input), kryo.readClassAndObject(input));
+      }
+      return map;
+    }
+  }
+}
@@ -5,6 +5,12 @@ import com.datastax.driver.core.Row;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.util.concurrent.FutureCallback;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -24,6 +30,7 @@ import org.sunbird.feed.FeedUtil;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.util.UserFlagEnum;
 import org.sunbird.learner.util.UserFlagUtil;
+import org.sunbird.learner.util.UserProfileCache;
 import org.sunbird.learner.util.Util;
 import org.sunbird.models.user.UserType;
 import org.sunbird.services.sso.SSOManager;
@@ -32,16 +39,30 @@ import org.sunbird.telemetry.util.TelemetryUtil;
 import scala.concurrent.Future;
 
 public class ShadowUserProcessor {
+  private static final String SUNBIRD_SHADOW_USER_CLAIM_WORKERS_KEY =
+      "sunbird_shadow_user_claim_workers";
+  private static final String SUNBIRD_SHADOW_USER_CLAIM_BATCH_SIZE_KEY =
+      "sunbird_shadow_user_claim_batch_size";
+  private static final int DEFAULT_CLAIM_WORKERS = 4;
+  private static final int DEFAULT_CLAIM_BATCH_SIZE = 100;
+  private static final int MAX_ES_RESULT_SIZE = 10000;
   private Util.DbInfo usrDbInfo = Util.dbInfoMap.get(JsonKey.USER_DB);
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
   private ObjectMapper mapper = new ObjectMapper();
-  private Map<String, String> hashTagIdMap = new HashMap<>();
+  private Map<String, String> hashTagIdMap = new ConcurrentHashMap<>();
   private Util.DbInfo bulkUploadDbInfo = Util.dbInfoMap.get(JsonKey.BULK_OP_DB);
-  private Map<String, String> extOrgIdMap = new HashMap<>();
+  private Map<String, String> extOrgIdMap = new ConcurrentHashMap<>();
   private String custodianOrgId;
   private SSOManager keyCloakService = SSOServiceFactory.getInstance();
-  private Map<String, Map<String, Object>> processIdtelemetryCtxMap = new HashMap<>();
+  private Map<String, Map<String, Object>> processIdtelemetryCtxMap = new ConcurrentHashMap<>();
   private ElasticSearchService elasticSearchService = EsClientFactory.getInstance(JsonKey.REST);
+  private AtomicLong processedCount = new AtomicLong();
+  private AtomicLong matchedCount = new AtomicLong();
+  private AtomicLong multiMatchCount = new AtomicLong();
+  private AtomicLong eligibleCount = new AtomicLong();
+  private AtomicLong failedCount = new AtomicLong();
+  // Reads the unclaimed shadow users of one run, shut down with the claim workers of the run
+  private ExecutorService reader;
 
   public void process() {
     processAllUnclaimedUser();
@@ -50,14 +71,6 @@ public class ShadowUserProcessor {
         LoggerEnum.INFO.name());
   }
 
-  private void processSingleShadowUser(ShadowUser shadowUser) {
-    ProjectLogger.log(
-        "ShadowUserProcessor:processSingleShadowUser:started claiming  shadow user with processId: "
-            + shadowUser.getProcessId(),
-        LoggerEnum.INFO.name());
-    updateUser(shadowUser);
-  }
-
   /**
    * this method will be called when the user is already claimed need to update the user
    *
@@ -150,25 +163,25 @@ public class ShadowUserProcessor {
         LoggerEnum.INFO.name());
   }
 
-  private List<Map<String, Object>> getUserMatchedIdentifierFromES(ShadowUser shadowUser) {
-    Map<String, Object> request = new WeakHashMap<>();
-    Map<String, Object> filters = new WeakHashMap<>();
-    Map<String, Object> or = new WeakHashMap<>();
-    if (StringUtils.isNotBlank(shadowUser.getEmail())) {
-      or.put(JsonKey.EMAIL, shadowUser.getEmail());
-    }
-    if (StringUtils.isNotBlank(shadowUser.getPhone())) {
-      or.put(JsonKey.PHONE, shadowUser.getPhone());
+  /**
+   * Searches ES for the custodian org users having any of the given emails or phones, with one
+   * search per identifier type for the whole batch.
+   *
+   * @param identifierType Email or phone
+   * @param identifiers Encrypted emails or phones of the shadow users in the batch
+   * @return Matched users by their identifier in lower case
+   */
+  private Map<String, List<Map<String, Object>>> getUsersMatchedByIdentifierFromES(
+      String identifierType, Set<String> identifiers) {
+    Map<String, List<Map<String, Object>>> usersByIdentifier = new HashMap<>();
+    if (identifiers.isEmpty()) {
+      return usersByIdentifier;
     }
-    filters.put(JsonKey.ES_OR_OPERATION, or);
+    Map<String, Object> request = new HashMap<>();
+    Map<String, Object> filters = new HashMap<>();
+    filters.put(identifierType, new ArrayList<>(identifiers));
     filters.put(JsonKey.ROOT_ORG_ID, getCustodianOrgId());
     request.put(JsonKey.FILTERS, filters);
-    ProjectLogger.log(
-        "ShadowUserProcessor:getUserMatchedIdentifierFromES:the filter prepared for elastic search with processId: "
-            + shadowUser.getProcessId()
-            + " :filters are:"
-            + filters,
-        LoggerEnum.INFO.name());
     SearchDTO searchDTO = ElasticSearchHelper.createSearchDTO(request);
     searchDTO.setFields(
         new ArrayList<String>(
@@ -182,17 +195,61 @@ public class ShadowUserProcessor {
                 JsonKey.ORGANISATIONS,
                 JsonKey.IS_DELETED,
                 JsonKey.STATUS)));
+    searchDTO.setLimit(MAX_ES_RESULT_SIZE);
     Map<String, Object> response =
         (Map<String, Object>)
             ElasticSearchHelper.getResponseFromFuture(
                 elasticSearchService.search(searchDTO, JsonKey.USER));
     ProjectLogger.log(
-        "ShadowUserProcessor:getUserMatchedIdentifierFromES:response got from elasticSearch is with processId: "
-            + shadowUser.getProcessId()
-            + " :response is"
-            + response,
+        "ShadowUserProcessor:getUsersMatchedByIdentifierFromES:searched "
+            + identifiers.size()
+            + " "
+            + identifierType
+            + " values and got "
+            + (response != null ? response.get(JsonKey.COUNT) : null)
+            + " users",
         LoggerEnum.INFO.name());
-    return (List<Map<String, Object>>) response.get(JsonKey.CONTENT);
+    if (response == null || CollectionUtils.isEmpty((List) response.get(JsonKey.CONTENT))) {
+      return usersByIdentifier;
+    }
+    for (Map<String, Object> esUser : (List<Map<String, Object>>) response.get(JsonKey.CONTENT)) {
+      String identifier = (String) esUser.get(identifierType);
+      if (StringUtils.isNotBlank(identifier)) {
+        usersByIdentifier
+            .computeIfAbsent(identifier.toLowerCase(), key -> new ArrayList<>())
+            .add(esUser);
+      }
+    }
+    return usersByIdentifier;
+  }
+
+  /**
+   * Returns the users matched by the email or phone of the given shadow user, each user once.
+   *
+   * @param shadowUser Shadow user
+   * @param usersByEmail Users of the batch by email
+   * @param usersByPhone Users of the batch by phone
+   * @return Matched users
+   */
+  private List<Map<String, Object>> getMatchedUsers(
+      ShadowUser shadowUser,
+      Map<String, List<Map<String, Object>>> usersByEmail,
+      Map<String, List<Map<String, Object>>> usersByPhone) {
+    Map<String, Map<String, Object>> matchedUsers = new LinkedHashMap<>();
+    List<Map<String, Object>> emailMatches =
+        StringUtils.isNotBlank(shadowUser.getEmail())
+            ? usersByEmail.get(shadowUser.getEmail().toLowerCase())
+            : null;
+    List<Map<String, Object>> phoneMatches =
+        StringUtils.isNotBlank(shadowUser.getPhone())
+            ? usersByPhone.get(shadowUser.getPhone().toLowerCase())
+            : null;
+    for (List<Map<String, Object>> matches : Arrays.asList(emailMatches, phoneMatches)) {
+      if (matches != null) {
+        matches.forEach(esUser -> matchedUsers.put((String) esUser.get(JsonKey.ID), esUser));
+      }
+    }
+    return new ArrayList<>(matchedUsers.values());
   }
 
   /**
@@ -207,48 +264,81 @@ public class ShadowUserProcessor {
    *
    * @param shadowUser
    */
-  private void updateUser(ShadowUser shadowUser) {
-    List<Map<String, Object>> esUser = getUserMatchedIdentifierFromES(shadowUser);
-    ProjectLogger.log(
-        "ShadowUserProcessor:updateUser:GOT ES RESPONSE FOR USER WITH SIZE " + esUser.size(),
-        LoggerEnum.INFO.name());
-    if (CollectionUtils.isNotEmpty(esUser)) {
-      if (esUser.size() == 1) {
-        ProjectLogger.log(
-            "ShadowUserProcessor:updateUser:Got single user:"
-                + esUser
-                + " :with processId"
-                + shadowUser.getProcessId(),
-            LoggerEnum.INFO.name());
-        Map<String, Object> userMap = esUser.get(0);
-        if (!isSame(shadowUser, userMap)) {
-          ProjectLogger.log(
-              "ShadowUserProcessor:updateUser: provided user details doesn't match with existing user details with processId"
-                  + shadowUser.getProcessId()
-                  + userMap,
-              LoggerEnum.INFO.name());
-          List<String> userIds = new ArrayList<>();
-          userIds.add((String) userMap.get(JsonKey.ID));
-          updateUserInShadowDb(null, shadowUser, ClaimStatus.ELIGIBLE.getValue(), userIds);
+  private void processShadowUserBatch(List<ShadowUser> shadowUsers) {
+    Set<String> emails = new HashSet<>();
+    Set<String> phones = new HashSet<>();
+    for (ShadowUser shadowUser : shadowUsers) {
+      if (StringUtils.isNotBlank(shadowUser.getEmail())) {
+        emails.add(shadowUser.getEmail());
+      }
+      if (StringUtils.isNotBlank(shadowUser.getPhone())) {
+        phones.add(shadowUser.getPhone());
+      }
+    }
+    Map<String, List<Map<String, Object>>> usersByEmail;
+    Map<String, List<Map<String, Object>>> usersByPhone;
+    try {
+      usersByEmail = getUsersMatchedByIdentifierFromES(JsonKey.EMAIL, emails);
+      usersByPhone = getUsersMatchedByIdentifierFromES(JsonKey.PHONE, phones);
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "ShadowUserProcessor:processShadowUserBatch:failed to search users for batch of size "
+              + shadowUsers.size(),
+          e);
+      failedCount.addAndGet(shadowUsers.size());
+      processedCount.addAndGet(shadowUsers.size());
+      return;
+    }
+    List<Map<String, Map<String, Object>>> shadowUserUpdates = new ArrayList<>();
+    Map<ShadowUser, List<String>> eligibleUsers = new LinkedHashMap<>();
+    for (ShadowUser shadowUser : shadowUsers) {
+      try {
+        List<Map<String, Object>> esUser = getMatchedUsers(shadowUser, usersByEmail, usersByPhone);
+        if (esUser.size() == 1) {
+          matchedCount.incrementAndGet();
+          Map<String, Object> userMap = esUser.get(0);
+          if (!isSame(shadowUser, userMap)) {
+            List<String> userIds = new ArrayList<>();
+            userIds.add((String) userMap.get(JsonKey.ID));
+            shadowUserUpdates.add(
+                getShadowUserUpdate(null, shadowUser, ClaimStatus.ELIGIBLE.getValue(), userIds));
+            eligibleUsers.put(shadowUser, userIds);
+          }
+        } else if (esUser.size() > 1) {
           ProjectLogger.log(
-              "ShadowUserProcessor:updateUser: calling FeedUtil.saveFeed method for user id "
-                  + userIds.get(0),
+              "ShadowUserProcessor:processShadowUserBatch:multiple users matched with processId: "
+                  + shadowUser.getProcessId(),
               LoggerEnum.INFO.name());
-          FeedUtil.saveFeed(shadowUser, userIds);
+          shadowUserUpdates.add(
+              getShadowUserUpdate(
+                  null,
+                  shadowUser,
+                  ClaimStatus.MULTIMATCH.getValue(),
+                  getMatchingUserIds(esUser)));
+          multiMatchCount.incrementAndGet();
         }
-      } else if (esUser.size() > 1) {
+      } catch (Exception e) {
         ProjectLogger.log(
-            "ShadowUserProcessor:updateUser:GOT response from ES :" + esUser,
-            LoggerEnum.INFO.name());
-        updateUserInShadowDb(
-            null, shadowUser, ClaimStatus.MULTIMATCH.getValue(), getMatchingUserIds(esUser));
+            "ShadowUserProcessor:processShadowUserBatch:failed to match shadow user with "
+                + "processId: "
+                + shadowUser.getProcessId(),
+            e);
+        failedCount.incrementAndGet();
       }
+    }
+    if (!batchUpdateShadowUsers(shadowUserUpdates)) {
+      failedCount.addAndGet(shadowUserUpdates.size());
     } else {
-      ProjectLogger.log(
-          "ShadowUserProcessor:updateUser:SKIPPING SHADOW USER:" + shadowUser.toString(),
-          LoggerEnum.INFO.name());
+      eligibleUsers.forEach(
+          (shadowUser, userIds) -> {
+            eligibleCount.incrementAndGet();
+            FeedUtil.saveFeed(shadowUser, userIds);
+          });
     }
-    esUser.clear();
+    long processed = processedCount.addAndGet(shadowUsers.size());
+    ProjectLogger.log(
+        "ShadowUserProcessor:processShadowUserBatch:processed " + processed + " shadow users",
+        LoggerEnum.INFO.name());
   }
 
   private void generateTelemetry(String userId, String rootOrgId, ShadowUser shadowUser) {
@@ -364,37 +454,20 @@ public class ShadowUserProcessor {
     return custodianOrgId;
   }
 
+  /**
+   * Hands the result set of unclaimed shadow users over to a dedicated reader thread, so that the
+   * driver callback thread neither fetches further pages nor runs any claim work.
+   */
   private FutureCallback<ResultSet> getSyncCallback() {
     return new FutureCallback<ResultSet>() {
       @Override
       public void onSuccess(ResultSet result) {
-        Map<String, String> columnMap = CassandraUtil.fetchColumnsMapping(result);
-        try {
-          Iterator<Row> resultIterator = result.iterator();
-          while (resultIterator.hasNext()) {
-            Row row = resultIterator.next();
-            Map<String, Object> doc = syncDataForEachRow(row, columnMap);
-            ShadowUser singleShadowUser = mapper.convertValue(doc, ShadowUser.class);
-            processSingleShadowUser(singleShadowUser);
-            ProjectLogger.log(
-                "ShadowUserProcessor:getSyncCallback:SUCCESS:SYNC CALLBACK SUCCESSFULLY PROCESSED for Shadow user: "
-                    + singleShadowUser.toString(),
-                LoggerEnum.INFO.name());
-          }
-          ProjectLogger.log(
-              "ShadowUserProcessor:getSyncCallback:SUCCESS:SYNC CALLBACK SUCCESSFULLY MIGRATED  ALL Shadow user",
-              LoggerEnum.INFO.name());
-
-        } catch (Exception e) {
-          ProjectLogger.log(
-              "ShadowUserProcessor:getSyncCallback:SUCCESS:ERROR OCCURRED WHILE GETTING SYNC CALLBACKS"
-                  + e,
-              LoggerEnum.ERROR.name());
-        }
+        reader.execute(() -> claimUnclaimedUsers(result));
       }
 
       @Override
       public void onFailure(Throwable t) {
+        reader.shutdown();
         ProjectLogger.log(
             "ShadowUserProcessor:getSyncCallback:FAILURE:ERROR OCCURRED WHILE GETTING SYNC CALLBACKS"
                 + t,
@@ -403,6 +476,84 @@ public class ShadowUserProcessor {
     };
   }
 
+  /**
+   * Reads the unclaimed shadow users from the result set and hands them in batches to a bounded
+   * worker pool. Once the workers have two batches each in flight, reading blocks until one of
+   * them completes, which throttles reading to the pace of the workers.
+   */
+  private void claimUnclaimedUsers(ResultSet result) {
+    Map<String, String> columnMap = CassandraUtil.fetchColumnsMapping(result);
+    int workers = getConfigValue(SUNBIRD_SHADOW_USER_CLAIM_WORKERS_KEY, DEFAULT_CLAIM_WORKERS);
+    int batchSize =
+        getConfigValue(SUNBIRD_SHADOW_USER_CLAIM_BATCH_SIZE_KEY, DEFAULT_CLAIM_BATCH_SIZE);
+    ExecutorService claimExecutor = Executors.newFixedThreadPool(workers);
+    Semaphore inFlightBatches = new Semaphore(workers * 2);
+    List<CompletableFuture<Void>> batchFutures = new ArrayList<>();
+    long startTime = System.currentTimeMillis();
+    try {
+      List<ShadowUser> batch = new ArrayList<>(batchSize);
+      Iterator<Row> resultIterator = result.iterator();
+      while (resultIterator.hasNext()) {
+        Row row = resultIterator.next();
+        Map<String, Object> doc = syncDataForEachRow(row, columnMap);
+        batch.add(mapper.convertValue(doc, ShadowUser.class));
+        if (batch.size() == batchSize) {
+          batchFutures.add(submitBatch(batch, claimExecutor, inFlightBatches));
+          batch = new ArrayList<>(batchSize);
+        }
+      }
+      if (!batch.isEmpty()) {
+        batchFutures.add(submitBatch(batch, claimExecutor, inFlightBatches));
+      }
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "ShadowUserProcessor:claimUnclaimedUsers:ERROR OCCURRED WHILE READING UNCLAIMED USERS"
+              + e,
+          LoggerEnum.ERROR.name());
+    }
+    CompletableFuture.allOf(batchFutures.toArray(new CompletableFuture[batchFutures.size()]))
+        .whenComplete(
+            (ignored, e) -> {
+              claimExecutor.shutdown();
+              reader.shutdown();
+              logClaimStageMetrics(System.currentTimeMillis() - startTime);
+            });
+  }
+
+  private CompletableFuture<Void> submitBatch(
+      List<ShadowUser> batch, ExecutorService claimExecutor, Semaphore inFlightBatches)
+      throws InterruptedException {
+    inFlightBatches.acquire();
+    return CompletableFuture.runAsync(() -> processShadowUserBatch(batch), claimExecutor)
+        .whenComplete((ignored, e) -> inFlightBatches.release());
+  }
+
+  private void logClaimStageMetrics(long elapsedTime) {
+    long processed = processedCount.get();
+    ProjectLogger.log(
+        "ShadowUserProcessor:logClaimStageMetrics:processed = "
+            + processed
+            + " matched = "
+            + matchedCount.get()
+            + " multimatch = "
+            + multiMatchCount.get()
+            + " eligible = "
+            + eligibleCount.get()
+            + " failed = "
+            + failedCount.get()
+            + " rows/sec = "
+            + (processed * 1000 / Math.max(elapsedTime, 1)),
+        LoggerEnum.INFO.name());
+  }
+
+  private static int getConfigValue(String key, int defaultValue) {
+    try {
+      return Integer.parseInt(ProjectUtil.getConfigValue(key).trim());
+    } catch (Exception e) {
+      return defaultValue;
+    }
+  }
+
   private Map<String, Object> syncDataForEachRow(Row row, Map<String, String> columnMap) {
     Map<String, Object> rowMap = new HashMap<>();
     columnMap
@@ -427,6 +578,15 @@ public class ShadowUserProcessor {
   }
 
   private void getUnclaimedRowsFromShadowUserDb() {
+    // Resolved once here, as the claim workers read it concurrently
+    getCustodianOrgId();
+    reader =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "shadow-user-claim-reader");
+              thread.setDaemon(true);
+              return thread;
+            });
     Map<String, Object> propertiesMap = new WeakHashMap<>();
     propertiesMap.put(JsonKey.CLAIM_STATUS, ClaimStatus.UNCLAIMED.getValue());
     cassandraOperation.applyOperationOnRecordsAsync(
@@ -453,17 +613,14 @@ public class ShadowUserProcessor {
 
   private void updateUserInShadowDb(
       String userId, ShadowUser shadowUser, int claimStatus, List<String> matchingUserIds) {
-    Map<String, Object> propertiesMap = new HashMap<>();
-    propertiesMap.put(JsonKey.CLAIM_STATUS, claimStatus);
-    propertiesMap.put(JsonKey.PROCESS_ID, shadowUser.getProcessId());
-    propertiesMap.put(JsonKey.USER_ID, userId);
-    propertiesMap.put(JsonKey.USER_IDs, matchingUserIds);
-    Map<String, Object> compositeKeysMap = new HashMap<>();
-    compositeKeysMap.put(JsonKey.CHANNEL, shadowUser.getChannel());
-    compositeKeysMap.put(JsonKey.USER_EXT_ID, shadowUser.getUserExtId());
+    Map<String, Map<String, Object>> update =
+        getShadowUserUpdate(userId, shadowUser, claimStatus, matchingUserIds);
     Response response =
         cassandraOperation.updateRecord(
-            JsonKey.SUNBIRD, JsonKey.SHADOW_USER, propertiesMap, compositeKeysMap);
+            JsonKey.SUNBIRD,
+            JsonKey.SHADOW_USER,
+            update.get(JsonKey.NON_PRIMARY_KEY),
+            update.get(JsonKey.PRIMARY_KEY));
     ProjectLogger.log(
         "ShadowUserProcessor:updateUserInShadowDb:update:with processId: "
             + shadowUser.getProcessId()
@@ -472,6 +629,46 @@ public class ShadowUserProcessor {
         LoggerEnum.INFO.name());
   }
 
+  private Map<String, Map<String, Object>> getShadowUserUpdate(
+      String userId, ShadowUser shadowUser, int claimStatus, List<String> matchingUserIds) {
+    Map<String, Object> propertiesMap = new HashMap<>();
+    propertiesMap.put(JsonKey.CLAIM_STATUS, claimStatus);
+    propertiesMap.put(JsonKey.PROCESS_ID, shadowUser.getProcessId());
+    propertiesMap.put(JsonKey.USER_ID, userId);
+    propertiesMap.put(JsonKey.USER_IDs, matchingUserIds);
+    Map<String, Object> compositeKeysMap = new HashMap<>();
+    compositeKeysMap.put(JsonKey.CHANNEL, shadowUser.getChannel());
+    compositeKeysMap.put(JsonKey.USER_EXT_ID, shadowUser.getUserExtId());
+    Map<String, Map<String, Object>> update = new HashMap<>();
+    update.put(JsonKey.PRIMARY_KEY, compositeKeysMap);
+    update.put(JsonKey.NON_PRIMARY_KEY, propertiesMap);
+    return update;
+  }
+
+  private boolean batchUpdateShadowUsers(List<Map<String, Map<String, Object>>> updates) {
+    if (updates.isEmpty()) {
+      return true;
+    }
+    try {
+      Response response =
+          cassandraOperation.batchUpdate(JsonKey.SUNBIRD, JsonKey.SHADOW_USER, updates);
+      ProjectLogger.log(
+          "ShadowUserProcessor:batchUpdateShadowUsers:updated "
+              + updates.size()
+              + " shadow users and response is:"
+              + response,
+          LoggerEnum.INFO.name());
+      return true;
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "ShadowUserProcessor:batchUpdateShadowUsers:failed to update "
+              + updates.size()
+              + " shadow users",
+          e);
+      return false;
+    }
+  }
+
   private String getOrgId(ShadowUser shadowUser) {
     if (StringUtils.isNotBlank(shadowUser.getOrgExtId())) {
       String orgId =
@@ -500,10 +697,12 @@ public class ShadowUserProcessor {
           ((List<Map<String, Object>>) response.get(JsonKey.CONTENT));
       if (CollectionUtils.isNotEmpty(orgData)) {
         Map<String, Object> orgMap = orgData.get(0);
-        extOrgIdMap.put(
-            shadowUser.getChannel().concat(":").concat(shadowUser.getOrgExtId()),
-            (String) orgMap.get(JsonKey.ID));
-        return (String) orgMap.get(JsonKey.ID);
+        String id = (String) orgMap.get(JsonKey.ID);
+        if (StringUtils.isNotBlank(id)) {
+          extOrgIdMap.put(
+              shadowUser.getChannel().concat(":").concat(shadowUser.getOrgExtId()), id);
+          return id;
+        }
       }
     }
     return StringUtils.EMPTY;
@@ -524,7 +723,9 @@ public class ShadowUserProcessor {
     Map<String, Object> fullUserDetails = Util.getUserDetails(userId, null);
     try {
       Future<Boolean> future = elasticSearchService.update(JsonKey.USER, userId, fullUserDetails);
-      if ((boolean) ElasticSearchHelper.getResponseFromFuture(future)) {
+      boolean updated = (boolean) ElasticSearchHelper.getResponseFromFuture(future);
+      UserProfileCache.getInstance().invalidate(userId);
+      if (updated) {
         ProjectLogger.log(
             "ShadowUserMigrationScheduler:updateUserStatus: data successfully updated to elastic search with userId:"
                 .concat(userId + ""),
@@ -547,7 +748,9 @@ public class ShadowUserProcessor {
     String hashTagId = hashTagIdMap.get(organisationId);
     if (StringUtils.isBlank(hashTagId)) {
       hashTagId = Util.getHashTagIdFromOrgId(organisationId);
-      hashTagIdMap.put(organisationId, hashTagId);
+      if (StringUtils.isNotBlank(hashTagId)) {
+        hashTagIdMap.put(organisationId, hashTagId);
+      }
     }
     reqMap.put(JsonKey.HASHTAGID, hashTagId);
     reqMap.put(JsonKey.ID, ProjectUtil.getUniqueIdFromTimestamp(1));
@@ -4,6 +4,12 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.sql.Timestamp;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -31,10 +37,21 @@ import org.sunbird.learner.util.Util;
 
 public class ShadowUserMigrationScheduler extends BaseJob {
 
+  private static final String SUNBIRD_SHADOW_USER_MIGRATION_WORKERS_KEY =
+      "sunbird_shadow_user_migration_workers";
+  private static final String SUNBIRD_SHADOW_USER_MIGRATION_PROCESS_CONCURRENCY_KEY =
+      "sunbird_shadow_user_migration_process_concurrency";
+  private static final int DEFAULT_MIGRATION_WORKERS = 8;
+  private static final int DEFAULT_MIGRATION_PROCESS_CONCURRENCY = 4;
+  private static final int PROGRESS_LOG_INTERVAL = 1000;
+  private static final ExecutorService migrationExecutor =
+      Executors.newFixedThreadPool(
+          getConfigValue(SUNBIRD_SHADOW_USER_MIGRATION_WORKERS_KEY, DEFAULT_MIGRATION_WORKERS));
+
   private Util.DbInfo bulkUploadDbInfo = Util.dbInfoMap.get(JsonKey.BULK_OP_DB);
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
   private ObjectMapper mapper = new ObjectMapper();
-  private HashSet<String> verifiedChannelOrgExternalIdSet = new HashSet<>();
+  private Set<String> verifiedChannelOrgExternalIdSet = ConcurrentHashMap.newKeySet();
   private ElasticSearchService elasticSearchService = EsClientFactory.getInstance(JsonKey.REST);
   private DecryptionService decryptionService =
       org.sunbird.common.models.util.datasecurity.impl.ServiceFactory.getDecryptionServiceInstance(
@@ -102,16 +119,10 @@ public class ShadowUserMigrationScheduler extends BaseJob {
                     bulkMigrationUser.getId(),
                     ProjectUtil.BulkProcessStatus.IN_PROGRESS.getValue());
                 List<MigrationUser> migrationUserList = getMigrationUserAsList(bulkMigrationUser);
-                migrationUserList
-                    .parallelStream()
-                    .forEach(
-                        singleMigrationUser -> {
-                          encryptEmailAndPhone(singleMigrationUser);
-                          processSingleMigUser(
-                              bulkMigrationUser.getCreatedBy(),
-                              bulkMigrationUser.getId(),
-                              singleMigrationUser);
-                        });
+                processMigrationUsers(
+                    bulkMigrationUser.getCreatedBy(),
+                    bulkMigrationUser.getId(),
+                    migrationUserList);
                 updateMessageInBulkUserTable(
                     bulkMigrationUser.getId(), JsonKey.SUCCESS_RESULT, JsonKey.SUCCESS);
               } catch (Exception e) {
@@ -127,6 +138,85 @@ public class ShadowUserMigrationScheduler extends BaseJob {
         LoggerEnum.INFO.name());
   }
 
+  /**
+   * Processes the migration users of one bulk upload process on the migration executor. The users
+   * are split into at most {@code sunbird_shadow_user_migration_process_concurrency} slices, each
+   * of which has its email and phone encrypted as a batch and is then processed sequentially, so
+   * one large process can not occupy the whole executor.
+   *
+   * @param createdBy User who created the bulk upload process
+   * @param processId Bulk upload process ID
+   * @param migrationUserList Migration users of the process
+   */
+  private void processMigrationUsers(
+      String createdBy, String processId, List<MigrationUser> migrationUserList) {
+    int concurrency =
+        Math.min(
+            getConfigValue(
+                SUNBIRD_SHADOW_USER_MIGRATION_PROCESS_CONCURRENCY_KEY,
+                DEFAULT_MIGRATION_PROCESS_CONCURRENCY),
+            migrationUserList.size());
+    if (concurrency <= 0) {
+      return;
+    }
+    int sliceSize = (migrationUserList.size() + concurrency - 1) / concurrency;
+    AtomicLong processedCount = new AtomicLong();
+    long startTime = System.currentTimeMillis();
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (int from = 0; from < migrationUserList.size(); from += sliceSize) {
+      List<MigrationUser> slice =
+          migrationUserList.subList(from, Math.min(from + sliceSize, migrationUserList.size()));
+      futures.add(
+          CompletableFuture.runAsync(
+              () -> {
+                encryptEmailAndPhone(slice);
+                for (MigrationUser singleMigrationUser : slice) {
+                  processSingleMigUser(createdBy, processId, singleMigrationUser);
+                  long processed = processedCount.incrementAndGet();
+                  if (processed % PROGRESS_LOG_INTERVAL == 0) {
+                    logMigrationMetrics(
+                        processId, processed, migrationUserList.size(), startTime);
+                  }
+                }
+              },
+              migrationExecutor));
+    }
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    } finally {
+      logMigrationMetrics(processId, processedCount.get(), migrationUserList.size(), startTime);
+    }
+  }
+
+  private void logMigrationMetrics(String processId, long processed, int total, long startTime) {
+    long elapsedTime = Math.max(System.currentTimeMillis() - startTime, 1);
+    ProjectLogger.log(
+        "ShadowUserMigrationScheduler:logMigrationMetrics:processId = "
+            + processId
+            + " processed = "
+            + processed
+            + "/"
+            + total
+            + " elapsed ms = "
+            + elapsedTime
+            + " users/sec = "
+            + (processed * 1000 / elapsedTime),
+        LoggerEnum.INFO.name());
+  }
+
+  private static int getConfigValue(String key, int defaultValue) {
+    try {
+      return Integer.parseInt(ProjectUtil.getConfigValue(key).trim());
+    } catch (Exception e) {
+      return defaultValue;
+    }
+  }
+
   private void processSingleMigUser(
       String createdBy, String processId, MigrationUser singleMigrationUser) {
     ProjectLogger.log(
@@ -515,13 +605,21 @@ public class ShadowUserMigrationScheduler extends BaseJob {
     }
   }
 
-  private void encryptEmailAndPhone(MigrationUser migrationUser) {
-
-    if (StringUtils.isNotBlank(migrationUser.getEmail())) {
-      migrationUser.setEmail(encryptValue(migrationUser.getEmail().toLowerCase()));
-    }
-    if (StringUtils.isNotBlank(migrationUser.getPhone())) {
-      migrationUser.setPhone(encryptValue(migrationUser.getPhone()));
+  private void encryptEmailAndPhone(List<MigrationUser> migrationUsers) {
+    long startTime = System.currentTimeMillis();
+    for (MigrationUser migrationUser : migrationUsers) {
+      if (StringUtils.isNotBlank(migrationUser.getEmail())) {
+        migrationUser.setEmail(encryptValue(migrationUser.getEmail().toLowerCase()));
+      }
+      if (StringUtils.isNotBlank(migrationUser.getPhone())) {
+        migrationUser.setPhone(encryptValue(migrationUser.getPhone()));
+      }
     }
+    ProjectLogger.log(
+        "ShadowUserMigrationScheduler:encryptEmailAndPhone: encrypted "
+            + migrationUsers.size()
+            + " users in ms "
+            + (System.currentTimeMillis() - startTime),
+        LoggerEnum.INFO.name());
   }
 }
@@ -1,18 +1,24 @@
 package org.sunbird.common.quartz.scheduler;
 
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.google.common.util.concurrent.FutureCallback;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.sunbird.actor.background.BackgroundOperations;
 import org.sunbird.cassandra.CassandraOperation;
-import org.sunbird.common.models.response.Response;
+import org.sunbird.common.CassandraUtil;
 import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.common.request.Request;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.util.Util;
@@ -22,6 +28,17 @@ import org.sunbird.telemetry.util.TelemetryUtil;
 /** @author Amit Kumar */
 public class UpdateUserCountScheduler extends BaseJob {
 
+  private static final String SUNBIRD_USER_COUNT_SCHEDULER_BATCH_SIZE_KEY =
+      "sunbird_user_count_scheduler_batch_size";
+  private static final int DEFAULT_BATCH_SIZE = 1000;
+  private static final ExecutorService locationReader =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "user-count-location-reader");
+            thread.setDaemon(true);
+            return thread;
+          });
+
   @Override
   public void execute(JobExecutionContext ctx) throws JobExecutionException {
     ProjectLogger.log(
@@ -34,28 +51,91 @@ public class UpdateUserCountScheduler extends BaseJob {
         JsonKey.SYSTEM, ctx.getFireInstanceId(), JsonKey.SCHEDULER_JOB);
     Map<String, Object> logInfo =
         genarateLogInfo(JsonKey.SYSTEM, ctx.getJobDetail().getDescription());
-    List<Object> locIdList = new ArrayList<>();
     Util.DbInfo geoLocationDbInfo = Util.dbInfoMap.get(JsonKey.GEO_LOCATION_DB);
     CassandraOperation cassandraOperation = ServiceFactory.getInstance();
-    Response response =
-        cassandraOperation.getAllRecords(
-            geoLocationDbInfo.getKeySpace(), geoLocationDbInfo.getTableName());
-    List<Map<String, Object>> list = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
-    for (Map<String, Object> map : list) {
-      if (null == map.get(JsonKey.USER_COUNT) || 0 == ((int) map.get(JsonKey.USER_COUNT))) {
-        locIdList.add(map.get(JsonKey.ID));
+    cassandraOperation.applyOperationOnRecordsAsync(
+        geoLocationDbInfo.getKeySpace(),
+        geoLocationDbInfo.getTableName(),
+        new HashMap<>(),
+        null,
+        getLocationCallback());
+    TelemetryUtil.telemetryProcessingCall(logInfo, null, null, TelemetryEvents.LOG.getName());
+  }
+
+  /**
+   * Hands the result set of geo locations over to a dedicated reader thread, so that the driver
+   * callback thread does not block fetching the further pages.
+   */
+  private FutureCallback<ResultSet> getLocationCallback() {
+    return new FutureCallback<ResultSet>() {
+      @Override
+      public void onSuccess(ResultSet result) {
+        locationReader.execute(() -> readLocations(result));
       }
+
+      @Override
+      public void onFailure(Throwable t) {
+        ProjectLogger.log(
+            "UpdateUserCountScheduler:getLocationCallback: failed to read geo locations " + t,
+            LoggerEnum.ERROR.name());
+      }
+    };
+  }
+
+  /**
+   * Pages through the geo locations and sends the locations without a user count to the background
+   * actor in batches, instead of loading the whole table at once.
+   */
+  private void readLocations(ResultSet result) {
+    Map<String, String> columnMap = CassandraUtil.fetchColumnsMapping(result);
+    String idColumn = columnMap.get(JsonKey.ID);
+    String userCountColumn = columnMap.get(JsonKey.USER_COUNT);
+    int batchSize = getLocationBatchSize();
+    List<Object> locIdList = new ArrayList<>();
+    int total = 0;
+    try {
+      for (Row row : result) {
+        Object userCount = userCountColumn != null ? row.getObject(userCountColumn) : null;
+        if (null == userCount || 0 == ((int) userCount)) {
+          locIdList.add(row.getObject(idColumn));
+          if (locIdList.size() == batchSize) {
+            total += locIdList.size();
+            sendLocationIds(locIdList);
+            locIdList = new ArrayList<>();
+          }
+        }
+      }
+      if (!locIdList.isEmpty()) {
+        total += locIdList.size();
+        sendLocationIds(locIdList);
+      }
+    } catch (Exception e) {
+      ProjectLogger.log("UpdateUserCountScheduler:readLocations: failed to read geo locations", e);
     }
     ProjectLogger.log(
-        "UpdateUserCountScheduler:execute: size of total locId to processed = " + locIdList.size());
+        "UpdateUserCountScheduler:readLocations: size of total locId to processed = " + total,
+        LoggerEnum.INFO.name());
+  }
+
+  private void sendLocationIds(List<Object> locIdList) {
     Request request = new Request();
     request.setOperation(BackgroundOperations.updateUserCountToLocationID.name());
     request.getRequest().put(JsonKey.LOCATION_IDS, locIdList);
     request.getRequest().put(JsonKey.OPERATION, "UpdateUserCountScheduler");
     ProjectLogger.log(
-        "UpdateUserCountScheduler:execute: calling BackgroundService actor from scheduler");
+        "UpdateUserCountScheduler:sendLocationIds: calling BackgroundService actor for "
+            + locIdList.size()
+            + " locations");
     tellToBGRouter(request);
-    TelemetryUtil.telemetryProcessingCall(logInfo, null, null, TelemetryEvents.LOG.getName());
+  }
+
+  private static int getLocationBatchSize() {
+    try {
+      return Integer.parseInt(
+          ProjectUtil.getConfigValue(SUNBIRD_USER_COUNT_SCHEDULER_BATCH_SIZE_KEY).trim());
+    } catch (Exception e) {
+      return DEFAULT_BATCH_SIZE;
+    }
   }
 
   private Map<String, Object> genarateLogInfo(String logType, String message) {
@@ -1,5 +1,6 @@
 package org.sunbird.learner.actors;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -10,6 +11,7 @@ import org.sunbird.actor.core.BaseActor;
 import org.sunbird.actor.router.ActorConfig;
 import org.sunbird.cassandra.CassandraOperation;
 import org.sunbird.common.ElasticSearchHelper;
+import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.factory.EsClientFactory;
 import org.sunbird.common.inf.ElasticSearchService;
 import org.sunbird.common.models.response.Response;
@@ -17,6 +19,7 @@ import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.common.request.Request;
+import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.dto.SearchDTO;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.util.Util;
@@ -28,6 +31,16 @@ import scala.concurrent.Future;
 )
 public class BackGroundServiceActor extends BaseActor {
 
+  private static final String SUNBIRD_USER_COUNT_LOCATION_BATCH_SIZE_KEY =
+      "sunbird_user_count_location_batch_size";
+  private static final int DEFAULT_LOCATION_BATCH_SIZE = 100;
+  private static final int ORG_PAGE_SIZE = 10000;
+  private static final String ASC = "asc";
+  private static final String GT = ">";
+  private static final String LOCATIONS_AGGREGATION = "locations";
+  private static final String USER_ORG_ID_FIELD =
+      JsonKey.ORGANISATIONS + "." + JsonKey.ORGANISATION_ID + ".raw";
+  private static ObjectMapper mapper = new ObjectMapper();
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
   private static ElasticSearchService esService = EsClientFactory.getInstance(JsonKey.REST);
 
@@ -53,6 +66,7 @@ public class BackGroundServiceActor extends BaseActor {
             locDbInfo.getKeySpace(), locDbInfo.getTableName(), JsonKey.ID, locationIds);
     List<Map<String, Object>> list = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
     if (null != list && !list.isEmpty()) {
+      List<String> countLocationIds = new ArrayList<>();
       for (Map<String, Object> map : list) {
         String locationId = (String) map.get(JsonKey.ID);
         ProjectLogger.log("Processing start for LocationId " + locationId);
@@ -64,13 +78,7 @@ public class BackGroundServiceActor extends BaseActor {
             && !StringUtils.isBlank(operation)
             && operation.equalsIgnoreCase("UpdateUserCountScheduler")) {
           ProjectLogger.log("Processing start for LocationId for Scheduler " + locationId);
-          int count = getUserCount(locationId);
-          Map<String, Object> reqMap = new HashMap<>();
-          reqMap.put(JsonKey.ID, locationId);
-          reqMap.put(JsonKey.USER_COUNT, count);
-          reqMap.put(JsonKey.USER_COUNT_TTL, String.valueOf(System.currentTimeMillis()));
-          cassandraOperation.updateRecord(
-              locDbInfo.getKeySpace(), locDbInfo.getTableName(), reqMap);
+          countLocationIds.add(locationId);
         } else if (!StringUtils.isBlank(operation)
             && operation.equalsIgnoreCase("GeoLocationManagementActor")) {
           ProjectLogger.log(
@@ -91,60 +99,140 @@ public class BackGroundServiceActor extends BaseActor {
           int hours = (int) (diff / (1000 * 60 * 60));
           if (hours >= 24) {
             ProjectLogger.log("Updating user count for LocnId " + locationId);
-            int usrCount = getUserCount(locationId);
-            Map<String, Object> reqMap = new HashMap<>();
-            reqMap.put(JsonKey.ID, locationId);
-            reqMap.put(JsonKey.USER_COUNT, usrCount);
-            reqMap.put(JsonKey.USER_COUNT_TTL, String.valueOf(System.currentTimeMillis()));
-            cassandraOperation.updateRecord(
-                locDbInfo.getKeySpace(), locDbInfo.getTableName(), reqMap);
+            countLocationIds.add(locationId);
           }
         }
       }
+      int batchSize = getLocationBatchSize();
+      for (int from = 0; from < countLocationIds.size(); from += batchSize) {
+        List<String> batch =
+            countLocationIds.subList(from, Math.min(from + batchSize, countLocationIds.size()));
+        updateUserCounts(locDbInfo, batch);
+      }
       ProjectLogger.log("Processing end user count update ");
     }
   }
 
-  private static int getUserCount(String locationId) {
-    ProjectLogger.log("fetching user count start ");
+  private void updateUserCounts(Util.DbInfo locDbInfo, List<String> locationIds) {
+    Map<String, Integer> userCounts = getUserCounts(locationIds);
+    String userCountTTL = String.valueOf(System.currentTimeMillis());
+    List<Map<String, Object>> records = new ArrayList<>();
+    for (String locationId : locationIds) {
+      Map<String, Object> reqMap = new HashMap<>();
+      reqMap.put(JsonKey.ID, locationId);
+      reqMap.put(JsonKey.USER_COUNT, userCounts.getOrDefault(locationId, 0));
+      reqMap.put(JsonKey.USER_COUNT_TTL, userCountTTL);
+      records.add(reqMap);
+    }
+    cassandraOperation.batchUpdateById(locDbInfo.getKeySpace(), locDbInfo.getTableName(), records);
+  }
+
+  /**
+   * Counts the users of the organisations of each given location. The organisations of all the
+   * locations are read page by page, and the users are then counted with one ES filters
+   * aggregation holding a bucket per location, so a user belonging to several organisations of a
+   * location is counted once.
+   *
+   * @param locationIds Location IDs
+   * @return User count by location ID, locations without organisations are not included
+   */
+  private static Map<String, Integer> getUserCounts(List<String> locationIds) {
+    ProjectLogger.log("fetching user count start for locations " + locationIds.size());
+    Map<String, List<String>> orgIdsByLocation = new HashMap<>();
+    int orgCount = 0;
+    String lastId = null;
+    while (true) {
+      List<Map<String, Object>> orgList = getOrgPage(locationIds, lastId);
+      for (Map<String, Object> map : orgList) {
+        lastId = (String) map.get(JsonKey.ID);
+        String locationId = (String) map.get(JsonKey.LOCATION_ID);
+        if (StringUtils.isNotBlank(locationId)) {
+          orgIdsByLocation.computeIfAbsent(locationId, key -> new ArrayList<>()).add(lastId);
+        }
+      }
+      orgCount += orgList.size();
+      if (orgList.size() < ORG_PAGE_SIZE) {
+        break;
+      }
+    }
+    ProjectLogger.log(
+        "Total No of Organisation for " + locationIds.size() + " locations , " + orgCount);
+    Map<String, Integer> userCounts = new HashMap<>();
+    if (orgIdsByLocation.isEmpty()) {
+      return userCounts;
+    }
+    Map<String, Object> locationFilters = new HashMap<>();
+    for (Map.Entry<String, List<String>> entry : orgIdsByLocation.entrySet()) {
+      Map<String, Object> terms = new HashMap<>();
+      terms.put(USER_ORG_ID_FIELD, entry.getValue());
+      Map<String, Object> termsFilter = new HashMap<>();
+      termsFilter.put("terms", terms);
+      locationFilters.put(entry.getKey(), termsFilter);
+    }
+    Map<String, Object> filters = new HashMap<>();
+    filters.put(JsonKey.FILTERS, locationFilters);
+    Map<String, Object> locationsAggregation = new HashMap<>();
+    locationsAggregation.put(JsonKey.FILTERS, filters);
+    Map<String, Object> aggregations = new HashMap<>();
+    aggregations.put(LOCATIONS_AGGREGATION, locationsAggregation);
+    Map<String, Object> rawQueryMap = new HashMap<>();
+    rawQueryMap.put(JsonKey.SIZE, 0);
+    rawQueryMap.put("aggs", aggregations);
+    try {
+      String rawQuery = mapper.writeValueAsString(rawQueryMap);
+      Response response =
+          esService.searchMetricsData(ProjectUtil.EsType.user.getTypeName(), rawQuery);
+      Map<String, Object> result = (Map<String, Object>) response.get(JsonKey.RESPONSE);
+      Map<String, Object> buckets =
+          (Map<String, Object>)
+              ((Map<String, Object>)
+                      ((Map<String, Object>) result.get("aggregations")).get(LOCATIONS_AGGREGATION))
+                  .get("buckets");
+      for (Map.Entry<String, Object> bucket : buckets.entrySet()) {
+        Number docCount = (Number) ((Map<String, Object>) bucket.getValue()).get("doc_count");
+        userCounts.put(bucket.getKey(), docCount.intValue());
+      }
+    } catch (Exception e) {
+      ProjectLogger.log("Exception occurred while counting users by location " + e.getMessage(), e);
+      throw new ProjectCommonException(
+          ResponseCode.internalError.getErrorCode(),
+          ResponseCode.internalError.getErrorMessage(),
+          ResponseCode.SERVER_ERROR.getResponseCode());
+    }
+    ProjectLogger.log("Total No of User by Location Id " + userCounts);
+    return userCounts;
+  }
+
+  /** Returns the page of organisations of the given locations sorted by ID after the given ID. */
+  private static List<Map<String, Object>> getOrgPage(List<String> locationIds, String lastId) {
     SearchDTO searchDto = new SearchDTO();
     List<String> list = new ArrayList<>();
     list.add(JsonKey.ID);
+    list.add(JsonKey.LOCATION_ID);
     searchDto.setFields(list);
+    searchDto.setLimit(ORG_PAGE_SIZE);
+    searchDto.getSortBy().put(JsonKey.ID, ASC);
     Map<String, Object> filter = new HashMap<>();
-    filter.put(JsonKey.LOCATION_ID, locationId);
+    filter.put(JsonKey.LOCATION_ID, locationIds);
+    if (lastId != null) {
+      Map<String, Object> range = new HashMap<>();
+      range.put(GT, lastId);
+      filter.put(JsonKey.ID, range);
+    }
     searchDto.getAdditionalProperties().put(JsonKey.FILTERS, filter);
     Future<Map<String, Object>> esResponseF =
         esService.search(searchDto, ProjectUtil.EsType.organisation.getTypeName());
     Map<String, Object> esResponse =
         (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(esResponseF);
-    List<Map<String, Object>> orgList = (List<Map<String, Object>>) esResponse.get(JsonKey.CONTENT);
+    return (List<Map<String, Object>>) esResponse.get(JsonKey.CONTENT);
+  }
 
-    List<String> orgIdList = new ArrayList<>();
-    for (Map<String, Object> map : orgList) {
-      orgIdList.add((String) map.get(JsonKey.ID));
-    }
-    ProjectLogger.log(
-        "Total No of Organisation for Location Id " + locationId + " , " + orgIdList.size());
-    if (!orgIdList.isEmpty()) {
-      searchDto = new SearchDTO();
-      List<String> list2 = new ArrayList<>();
-      list2.add(JsonKey.ID);
-      searchDto.setFields(list2);
-      searchDto.setLimit(0);
-      Map<String, Object> filter2 = new HashMap<>();
-      filter2.put(JsonKey.ORGANISATIONS + "." + JsonKey.ORGANISATION_ID, orgIdList);
-      ProjectLogger.log("filter2.get(JsonKey.ORGANISATIONS.JsonKey.ORGANISATION_ID) " + orgIdList);
-      searchDto.getAdditionalProperties().put(JsonKey.FILTERS, filter2);
-      Future<Map<String, Object>> esResponse2F =
-          esService.search(searchDto, ProjectUtil.EsType.user.getTypeName());
-      Map<String, Object> esResponse2 =
-          (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(esResponse2F);
-      long userCount = (long) esResponse2.get(JsonKey.COUNT);
-      ProjectLogger.log("Total No of User for Location Id " + locationId + " , " + userCount);
-      return (int) userCount;
-    } else {
-      return 0;
+  private static int getLocationBatchSize() {
+    try {
+      return Integer.parseInt(
+          ProjectUtil.getConfigValue(SUNBIRD_USER_COUNT_LOCATION_BATCH_SIZE_KEY).trim());
+    } catch (Exception e) {
+      return DEFAULT_LOCATION_BATCH_SIZE;
     }
   }
 }
@@ -19,6 +19,9 @@ import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.ChannelRootOrgIndex;
+import org.sunbird.learner.util.OrgMetadataCache;
+import org.sunbird.learner.util.UserProfileCache;
 import org.sunbird.learner.util.Util;
 import org.sunbird.learner.util.Util.DbInfo;
 import scala.concurrent.Future;
@@ -266,6 +269,8 @@ public class BackgroundJobManager extends BaseActor {
           ProjectUtil.EsType.organisation.getTypeName(),
           id,
           esMap);
+      OrgMetadataCache.getInstance().invalidate(id);
+      ChannelRootOrgIndex.getInstance().invalidateOrg(id);
     }
   }
 
@@ -278,6 +283,8 @@ public class BackgroundJobManager extends BaseActor {
         ProjectUtil.EsType.organisation.getTypeName(),
         (String) orgMap.get(JsonKey.ID),
         orgMap);
+    OrgMetadataCache.getInstance().invalidate((String) orgMap.get(JsonKey.ID));
+    ChannelRootOrgIndex.getInstance().invalidateOrg((String) orgMap.get(JsonKey.ID));
   }
 
   private boolean updateDataToElastic(
@@ -292,10 +299,19 @@ public class BackgroundJobManager extends BaseActor {
     return false;
   }
 
+  @SuppressWarnings("unchecked")
   private void updateUserInfoToEs(Request actorMessage) {
+    List<String> userIds = (List<String>) actorMessage.getRequest().get(JsonKey.USER_IDs);
+    if (userIds != null) {
+      updateUserInfoToEs(userIds);
+      return;
+    }
     String userId = (String) actorMessage.getRequest().get(JsonKey.ID);
     Map<String, Object> userDetails =
         Util.getUserDetails(userId, getActorRef(ActorOperations.GET_SYSTEM_SETTING.getValue()));
+    if (userDetails == null) {
+      return;
+    }
     ProjectLogger.log(
         "BackGroundJobManager:updateUserInfoToEs userRootOrgId "
             + userDetails.get(JsonKey.ROOT_ORG_ID),
@@ -305,6 +321,24 @@ public class BackgroundJobManager extends BaseActor {
         ProjectUtil.EsType.user.getTypeName(),
         userId,
         userDetails);
+    UserProfileCache.getInstance().invalidate(userId);
+  }
+
+  private void updateUserInfoToEs(List<String> userIds) {
+    Map<String, Map<String, Object>> userDetailsMap =
+        Util.getUserDetails(userIds, getActorRef(ActorOperations.GET_SYSTEM_SETTING.getValue()));
+    ProjectLogger.log(
+        "BackGroundJobManager:updateUserInfoToEs: syncing "
+            + userDetailsMap.size()
+            + " of "
+            + userIds.size()
+            + " users",
+        LoggerEnum.INFO.name());
+    if (!userDetailsMap.isEmpty()) {
+      esService.bulkInsert(
+          ProjectUtil.EsType.user.getTypeName(), new ArrayList<>(userDetailsMap.values()));
+    }
+    userIds.forEach(UserProfileCache.getInstance()::invalidate);
   }
 
   /**
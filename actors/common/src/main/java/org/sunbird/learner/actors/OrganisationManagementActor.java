@@ -162,6 +162,7 @@ public class OrganisationManagementActor extends BaseActor {
                 .put(
                     ((String) request.get(JsonKey.NAME)).toLowerCase(),
                     (String) request.get(JsonKey.ID));
+            DataCacheHandler.publishChange();
           }
         }
       }.start();
@@ -221,6 +222,7 @@ public class OrganisationManagementActor extends BaseActor {
                 .put(
                     ((String) request.get(JsonKey.NAME)).toLowerCase(),
                     (String) request.get(JsonKey.ID));
+            DataCacheHandler.publishChange();
           }
         }
       }.start();
@@ -48,6 +48,7 @@ public abstract class BaseBulkUploadActor extends BaseActor {
   protected BulkUploadProcessDao bulkUploadDao = new BulkUploadProcessDaoImpl();
   protected Integer DEFAULT_BATCH_SIZE = 10;
   protected Integer CASSANDRA_BATCH_SIZE = getBatchSize(JsonKey.CASSANDRA_WRITE_BATCH_SIZE);
+  protected int DEFAULT_MAX_LINES = 10001;
   protected ObjectMapper mapper = new ObjectMapper();
 
   public void validateBulkUploadFields(
@@ -151,24 +152,31 @@ public abstract class BaseBulkUploadActor extends BaseActor {
     return csvReader;
   }
 
-  public List<String[]> parseCsvFile(byte[] byteArray, String processId) throws IOException {
-    CSVReader csvReader = null;
+  /**
+   * Parses the CSV file, failing as soon as the number of lines read goes beyond the given limit
+   * instead of after the whole file is parsed.
+   *
+   * @param byteArray CSV file content.
+   * @param processId Bulk upload process id, marked as failed if the file cannot be read.
+   * @param maxLines Max allowed lines in the file including the header line.
+   * @return List of CSV lines including the header line.
+   */
+  public List<String[]> parseCsvFile(byte[] byteArray, String processId, int maxLines)
+      throws IOException {
+    BulkUploadCsvReader csvReader = null;
     // Create List for holding objects
     List<String[]> rows = new ArrayList<>();
     try {
-      csvReader = getCsvReader(byteArray, ',', '"', 0);
-      String[] strArray;
+      csvReader = new BulkUploadCsvReader(getCsvReader(byteArray, ',', '"', 0));
+      String[] strArray = csvReader.readHeader();
       // Read one line at a time
-      while ((strArray = csvReader.readNext()) != null) {
-        if (ProjectUtil.isNotEmptyStringArray(strArray)) {
-          continue;
-        }
-        List<String> list = new ArrayList<>();
-        for (String token : strArray) {
-          list.add(token);
-        }
-        rows.add(list.toArray(list.toArray(new String[strArray.length])));
+      while (strArray != null) {
+        validateFileSizeAgainstLineNumbers(maxLines, csvReader.getLineCount());
+        rows.add(strArray);
+        strArray = csvReader.readNext();
       }
+    } catch (ProjectCommonException ex) {
+      throw ex;
     } catch (Exception ex) {
       ProjectLogger.log("Exception occurred while processing csv file : ", ex);
       BulkUploadProcess bulkUploadProcess =
@@ -176,11 +184,7 @@ public abstract class BaseBulkUploadActor extends BaseActor {
       bulkUploadDao.update(bulkUploadProcess);
       throw ex;
     } finally {
-      try {
-        IOUtils.closeQuietly(csvReader);
-      } catch (Exception e) {
-        ProjectLogger.log("Exception occurred while closing csv reader : ", e);
-      }
+      IOUtils.closeQuietly(csvReader);
     }
     return rows;
   }
@@ -235,66 +239,85 @@ public abstract class BaseBulkUploadActor extends BaseActor {
     return batchSize;
   }
 
+  /**
+   * Reads the max allowed lines of a bulk upload file, including the header line.
+   *
+   * @param key Configuration key of the limit
+   * @return Configured limit, or the default one if it is not configured
+   */
+  protected int getMaxLines(String key) {
+    int maxLines = DEFAULT_MAX_LINES;
+    try {
+      maxLines = Integer.parseInt(ProjectUtil.getConfigValue(key).trim());
+    } catch (Exception ex) {
+      ProjectLogger.log("Failed to read bulk upload max lines for:" + key, ex);
+    }
+    return maxLines;
+  }
+
   protected Integer validateAndParseRecords(
-      byte[] fileByteArray, String processId, Map<String, Object> additionalRowFields)
+      BulkUploadCsvReader csvReader,
+      String processId,
+      Map<String, Object> additionalRowFields,
+      int maxLines)
       throws IOException {
-    return validateAndParseRecords(fileByteArray, processId, additionalRowFields, null, false);
+    return validateAndParseRecords(
+        csvReader, processId, additionalRowFields, null, false, maxLines);
   }
 
+  /**
+   * Reads the data lines left in the CSV reader and writes them as bulk upload process tasks, one
+   * Cassandra batch at a time, so that only a single batch of rows is held in memory. The reader
+   * is closed once all lines are read. The upload fails, and its process is marked as failed, as
+   * soon as the file goes beyond the max allowed lines.
+   *
+   * @param csvReader CSV reader whose header line has already been read and validated.
+   * @param maxLines Max allowed lines in the file including the header line.
+   * @return Number of data lines written.
+   */
   protected Integer validateAndParseRecords(
-      byte[] fileByteArray,
+      BulkUploadCsvReader csvReader,
       String processId,
       Map<String, Object> additionalRowFields,
       Map<String, Object> csvColumnMap,
-      boolean toLowerCase)
+      boolean toLowerCase,
+      int maxLines)
       throws IOException {
 
     Integer sequence = 0;
-    Integer count = 0;
-    CSVReader csvReader = null;
     String[] csvLine;
-    String[] csvColumns = null;
+    String[] csvColumns = trimColumnAttributes(csvReader.getHeader());
     Map<String, Object> record = new HashMap<>();
-    List<BulkUploadProcessTask> records = new ArrayList<>();
+    List<BulkUploadProcessTask> records = new ArrayList<>(CASSANDRA_BATCH_SIZE);
     try {
-      csvReader = getCsvReader(fileByteArray, ',', '"', 0);
       while ((csvLine = csvReader.readNext()) != null) {
-        if (ProjectUtil.isNotEmptyStringArray(csvLine)) {
-          continue;
-        }
-        if (sequence == 0) {
-          csvColumns = trimColumnAttributes(csvLine);
-        } else {
-          for (int j = 0; j < csvColumns.length &&  j < csvLine.length; j++) {
-            String value = (csvLine[j].trim().length() == 0 ? null : csvLine[j].trim());
-            String coulumn = toLowerCase ? csvColumns[j].toLowerCase() : csvColumns[j];
-            if (csvColumnMap != null && csvColumnMap.get(coulumn) != null) {
-              record.put((String) csvColumnMap.get(coulumn), value);
-            } else {
-              record.put(csvColumns[j], value);
-            }
-          }
-          record.putAll(additionalRowFields);
-          BulkUploadProcessTask tasks = new BulkUploadProcessTask();
-          tasks.setStatus(ProjectUtil.BulkProcessStatus.NEW.getValue());
-          tasks.setSequenceId(sequence);
-          tasks.setProcessId(processId);
-          tasks.setData(mapper.writeValueAsString(record));
-          tasks.setCreatedOn(new Timestamp(System.currentTimeMillis()));
-          records.add(tasks);
-          count++;
-          if (count >= CASSANDRA_BATCH_SIZE) {
-            performBatchInsert(records);
-            records.clear();
-            count = 0;
+        sequence++;
+        validateFileSizeAgainstLineNumbers(maxLines, csvReader.getLineCount());
+        for (int j = 0; j < csvColumns.length && j < csvLine.length; j++) {
+          String value = (csvLine[j].trim().length() == 0 ? null : csvLine[j].trim());
+          String coulumn = toLowerCase ? csvColumns[j].toLowerCase() : csvColumns[j];
+          if (csvColumnMap != null && csvColumnMap.get(coulumn) != null) {
+            record.put((String) csvColumnMap.get(coulumn), value);
+          } else {
+            record.put(csvColumns[j], value);
           }
-          record.clear();
         }
-        sequence++;
+        record.putAll(additionalRowFields);
+        BulkUploadProcessTask tasks = new BulkUploadProcessTask();
+        tasks.setStatus(ProjectUtil.BulkProcessStatus.NEW.getValue());
+        tasks.setSequenceId(sequence);
+        tasks.setProcessId(processId);
+        tasks.setData(mapper.writeValueAsString(record));
+        tasks.setCreatedOn(new Timestamp(System.currentTimeMillis()));
+        records.add(tasks);
+        if (records.size() >= CASSANDRA_BATCH_SIZE) {
+          performBatchInsert(records);
+          records.clear();
+        }
+        record.clear();
       }
-      if (count != 0) {
+      if (!records.isEmpty()) {
         performBatchInsert(records);
-        count = 0;
         records.clear();
       }
     } catch (Exception ex) {
@@ -305,8 +328,7 @@ public abstract class BaseBulkUploadActor extends BaseActor {
     } finally {
       IOUtils.closeQuietly(csvReader);
     }
-    // since one record represents the header
-    return sequence - 1;
+    return sequence;
   }
 
   protected void performBatchInsert(List<BulkUploadProcessTask> records) {
@@ -347,22 +369,31 @@ public abstract class BaseBulkUploadActor extends BaseActor {
     }
   }
 
-  protected void validateFileHeaderFields(
+  protected BulkUploadCsvReader validateFileHeaderFields(
       Map<String, Object> req, String[] bulkAllowedFields, Boolean allFieldsMandatory)
       throws IOException {
-    validateFileHeaderFields(req, bulkAllowedFields, allFieldsMandatory, false, null, null);
+    return validateFileHeaderFields(req, bulkAllowedFields, allFieldsMandatory, false, null, null);
   }
 
-  protected void validateFileHeaderFields(
+  protected BulkUploadCsvReader validateFileHeaderFields(
       Map<String, Object> req,
       String[] bulkAllowedFields,
       Boolean allFieldsMandatory,
       boolean toLower)
       throws IOException {
-    validateFileHeaderFields(req, bulkAllowedFields, allFieldsMandatory, toLower, null, null);
+    return validateFileHeaderFields(
+        req, bulkAllowedFields, allFieldsMandatory, toLower, null, null);
   }
 
-  protected void validateFileHeaderFields(
+  /**
+   * Validates the header line of the uploaded file and checks that there is at least one data
+   * line.
+   *
+   * @return CSV reader positioned after the header line, to be passed on to {@link
+   *     #validateAndParseRecords(BulkUploadCsvReader, String, Map, Map, boolean, int)} so that the
+   *     file is read only once.
+   */
+  protected BulkUploadCsvReader validateFileHeaderFields(
       Map<String, Object> req,
       String[] bulkLocationAllowedFields,
       Boolean allFieldsMandatory,
@@ -372,38 +403,29 @@ public abstract class BaseBulkUploadActor extends BaseActor {
       throws IOException {
     byte[] fileByteArray = (byte[]) req.get(JsonKey.FILE);
 
-    CSVReader csvReader = null;
-    Boolean flag = true;
-    String[] csvLine;
+    BulkUploadCsvReader csvReader = null;
     try {
-      csvReader = getCsvReader(fileByteArray, ',', '"', 0);
-      while (flag) {
-        csvLine = csvReader.readNext();
-        if (csvLine == null) {
-          ProjectCommonException.throwClientErrorException(
-              ResponseCode.csvFileEmpty, ResponseCode.csvFileEmpty.getErrorMessage());
-        }
-        if (ProjectUtil.isNotEmptyStringArray(csvLine)) {
-          continue;
-        }
-        csvLine = trimColumnAttributes(csvLine);
-        validateBulkUploadFields(csvLine, bulkLocationAllowedFields, allFieldsMandatory, toLower);
-        if (mandatoryColumns != null) {
-          validateMandatoryColumns(mandatoryColumns, csvLine, supportedColumnsMap);
-        }
-        flag = false;
-      }
-      csvLine = csvReader.readNext();
+      csvReader = new BulkUploadCsvReader(getCsvReader(fileByteArray, ',', '"', 0));
+      String[] csvLine = csvReader.readHeader();
       if (csvLine == null) {
+        ProjectCommonException.throwClientErrorException(
+            ResponseCode.csvFileEmpty, ResponseCode.csvFileEmpty.getErrorMessage());
+      }
+      csvLine = trimColumnAttributes(csvLine);
+      validateBulkUploadFields(csvLine, bulkLocationAllowedFields, allFieldsMandatory, toLower);
+      if (mandatoryColumns != null) {
+        validateMandatoryColumns(mandatoryColumns, csvLine, supportedColumnsMap);
+      }
+      if (!csvReader.hasNext()) {
         ProjectCommonException.throwClientErrorException(
             ResponseCode.errorCsvNoDataRows, ResponseCode.errorCsvNoDataRows.getErrorMessage());
       }
+      return csvReader;
     } catch (Exception ex) {
       ProjectLogger.log(
           "BaseBulkUploadActor:validateFileHeaderFields: Exception = " + ex.getMessage(), ex);
-      throw ex;
-    } finally {
       IOUtils.closeQuietly(csvReader);
+      throw ex;
     }
   }
 
@@ -13,6 +13,10 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.io.FileUtils;
@@ -34,6 +38,9 @@ import org.sunbird.learner.actors.bulkupload.model.StorageDetails;
 
 public abstract class BaseBulkUploadBackgroundJobActor extends BaseBulkUploadActor {
 
+  private static final String SUNBIRD_BULK_UPLOAD_CONCURRENCY =
+      "sunbird_bulk_upload_{0}_concurrency";
+
   protected void setSuccessTaskStatus(
       BulkUploadProcessTask task,
       ProjectUtil.BulkProcessStatus status,
@@ -97,6 +104,13 @@ public abstract class BaseBulkUploadBackgroundJobActor extends BaseBulkUploadAct
     bulkUploadDao.update(bulkUploadProcess);
   }
 
+  /**
+   * Processes the tasks of a bulk upload page by page. While a page is processed the next page is
+   * read, and the status updates of a processed page are written in the background. A page is
+   * split into as many contiguous chunks as the concurrency configured for the object type, so
+   * rows keep their order within a chunk and all rows are processed in order when the
+   * concurrency is 1.
+   */
   public void processBulkUpload(
       BulkUploadProcess bulkUploadProcess,
       Function function,
@@ -107,59 +121,170 @@ public abstract class BaseBulkUploadBackgroundJobActor extends BaseBulkUploadAct
             "BaseBulkUploadBackGroundJobActor:processBulkUpload:{0}: ", bulkUploadProcess.getId());
     Integer sequence = 0;
     Integer taskCount = bulkUploadProcess.getTaskCount();
+    int concurrency = getConcurrency(bulkUploadProcess.getObjectType());
     List<Map<String, Object>> successList = new LinkedList<>();
     List<Map<String, Object>> failureList = new LinkedList<>();
-    while (sequence < taskCount) {
-      Integer nextSequence = sequence + CASSANDRA_BATCH_SIZE;
-      Map<String, Object> queryMap = new HashMap<>();
-      queryMap.put(JsonKey.PROCESS_ID, bulkUploadProcess.getId());
-      Map<String, Object> sequenceRange = new HashMap<>();
-      sequenceRange.put(Constants.GT, sequence);
-      sequenceRange.put(Constants.LTE, nextSequence);
-      queryMap.put(BulkUploadJsonKey.SEQUENCE_ID, sequenceRange);
-      List<BulkUploadProcessTask> tasks = bulkUploadProcessTaskDao.readByPrimaryKeys(queryMap);
-      if (tasks == null) {
-        ProjectLogger.log(
-            logMessagePrefix
-                + "No bulkUploadProcessTask found for process id: "
-                + bulkUploadProcess.getId()
-                + " and range "
-                + sequence
-                + ":"
-                + nextSequence,
-            LoggerEnum.INFO);
-        sequence = nextSequence;
-        continue;
-      }
-      function.apply(tasks);
+    long startTime = System.currentTimeMillis();
+    int processedCount = 0;
+    ExecutorService executor = Executors.newFixedThreadPool(concurrency + 2);
+    try {
+      CompletableFuture<Void> flushF = CompletableFuture.completedFuture(null);
+      CompletableFuture<List<BulkUploadProcessTask>> tasksF =
+          readTasksAsync(bulkUploadProcess.getId(), sequence, executor);
+      while (sequence < taskCount) {
+        Integer nextSequence = sequence + CASSANDRA_BATCH_SIZE;
+        List<BulkUploadProcessTask> tasks = await(tasksF);
+        if (nextSequence < taskCount) {
+          tasksF = readTasksAsync(bulkUploadProcess.getId(), nextSequence, executor);
+        }
+        if (tasks == null) {
+          ProjectLogger.log(
+              logMessagePrefix
+                  + "No bulkUploadProcessTask found for process id: "
+                  + bulkUploadProcess.getId()
+                  + " and range "
+                  + sequence
+                  + ":"
+                  + nextSequence,
+              LoggerEnum.INFO);
+          sequence = nextSequence;
+          continue;
+        }
+        processTasks(tasks, function, concurrency, executor);
 
-      try {
-        for (BulkUploadProcessTask task : tasks) {
-
-          if (task.getStatus().equals(ProjectUtil.BulkProcessStatus.FAILED.getValue())) {
-            failureList.add(
-                mapper.readValue(
-                    task.getFailureResult(), new TypeReference<Map<String, Object>>() {}));
-          } else if (task.getStatus().equals(ProjectUtil.BulkProcessStatus.COMPLETED.getValue())) {
-            successList.add(
-                mapper.readValue(
-                    task.getSuccessResult(), new TypeReference<Map<String, Object>>() {}));
+        try {
+          for (BulkUploadProcessTask task : tasks) {
+
+            if (task.getStatus().equals(ProjectUtil.BulkProcessStatus.FAILED.getValue())) {
+              failureList.add(
+                  mapper.readValue(
+                      task.getFailureResult(), new TypeReference<Map<String, Object>>() {}));
+            } else if (task.getStatus()
+                .equals(ProjectUtil.BulkProcessStatus.COMPLETED.getValue())) {
+              successList.add(
+                  mapper.readValue(
+                      task.getSuccessResult(), new TypeReference<Map<String, Object>>() {}));
+            }
           }
-        }
 
-      } catch (IOException e) {
-        ProjectLogger.log(
-            logMessagePrefix + "Exception occurred with error message = " + e.getMessage(),
-            LoggerEnum.INFO,
-            e);
+        } catch (IOException e) {
+          ProjectLogger.log(
+              logMessagePrefix + "Exception occurred with error message = " + e.getMessage(),
+              LoggerEnum.INFO,
+              e);
+        }
+        processedCount += tasks.size();
+        BulkUploadProcess progress =
+            getProgress(
+                bulkUploadProcess.getId(),
+                processedCount,
+                successList.size(),
+                failureList.size(),
+                startTime);
+        flushF =
+            flushF.thenRunAsync(
+                () -> {
+                  performBatchUpdate(tasks);
+                  updateProgress(progress);
+                },
+                executor);
+        sequence = nextSequence;
       }
-      performBatchUpdate(tasks);
-      sequence = nextSequence;
+      await(flushF);
+    } finally {
+      executor.shutdown();
     }
+    bulkUploadProcess.setProcessedCount(processedCount);
+    bulkUploadProcess.setSuccessCount(successList.size());
+    bulkUploadProcess.setFailureCount(failureList.size());
+    bulkUploadProcess.setThroughput(getThroughput(processedCount, startTime));
     setCompletionStatus(
         bulkUploadProcess, successList, failureList, outputColumnMap, outputColumnsOrder);
   }
 
+  private CompletableFuture<List<BulkUploadProcessTask>> readTasksAsync(
+      String processId, Integer sequence, ExecutorService executor) {
+    Map<String, Object> queryMap = new HashMap<>();
+    queryMap.put(JsonKey.PROCESS_ID, processId);
+    Map<String, Object> sequenceRange = new HashMap<>();
+    sequenceRange.put(Constants.GT, sequence);
+    sequenceRange.put(Constants.LTE, sequence + CASSANDRA_BATCH_SIZE);
+    queryMap.put(BulkUploadJsonKey.SEQUENCE_ID, sequenceRange);
+    return CompletableFuture.supplyAsync(
+        () -> bulkUploadProcessTaskDao.readByPrimaryKeys(queryMap), executor);
+  }
+
+  private void processTasks(
+      List<BulkUploadProcessTask> tasks,
+      Function function,
+      int concurrency,
+      ExecutorService executor) {
+    if (concurrency <= 1 || tasks.size() <= 1) {
+      function.apply(tasks);
+      return;
+    }
+    int chunkSize = (tasks.size() + concurrency - 1) / concurrency;
+    List<CompletableFuture<Object>> futures = new ArrayList<>();
+    for (int i = 0; i < tasks.size(); i += chunkSize) {
+      List<BulkUploadProcessTask> chunk = tasks.subList(i, Math.min(i + chunkSize, tasks.size()));
+      futures.add(CompletableFuture.supplyAsync(() -> function.apply(chunk), executor));
+    }
+    await(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])));
+  }
+
+  private BulkUploadProcess getProgress(
+      String processId, int processedCount, int successCount, int failureCount, long startTime) {
+    BulkUploadProcess progress = new BulkUploadProcess();
+    progress.setId(processId);
+    progress.setProcessedCount(processedCount);
+    progress.setSuccessCount(successCount);
+    progress.setFailureCount(failureCount);
+    progress.setThroughput(getThroughput(processedCount, startTime));
+    return progress;
+  }
+
+  private void updateProgress(BulkUploadProcess progress) {
+    try {
+      bulkUploadDao.update(progress);
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "BaseBulkUploadBackGroundJobActor:updateProgress: Failed to update progress for "
+              + progress.getId(),
+          e);
+    }
+  }
+
+  private Double getThroughput(int processedCount, long startTime) {
+    long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+    return Math.round(processedCount * 100000.0 / elapsed) / 100.0;
+  }
+
+  private int getConcurrency(String objectType) {
+    int concurrency = 1;
+    String key = MessageFormat.format(SUNBIRD_BULK_UPLOAD_CONCURRENCY, objectType);
+    try {
+      String value = ProjectUtil.getConfigValue(key);
+      if (StringUtils.isNotBlank(value)) {
+        concurrency = Math.max(1, Integer.parseInt(value.trim()));
+      }
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "BaseBulkUploadBackGroundJobActor:getConcurrency: Invalid value for " + key, e);
+    }
+    return concurrency;
+  }
+
+  private <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
   private void setCompletionStatus(
       BulkUploadProcess bulkUploadProcess,
       List successList,
@@ -0,0 +1,80 @@
+package org.sunbird.learner.actors.bulkupload;
+
+import com.opencsv.CSVReader;
+import java.io.Closeable;
+import java.io.IOException;
+import org.sunbird.common.models.util.ProjectUtil;
+
+/**
+ * Reads a bulk upload CSV file in a single pass. The header line is read first so that it can be
+ * validated, after which the data lines are handed out one at a time. Blank lines are skipped and
+ * the number of lines read, including the header, is counted as the file is read.
+ */
+public class BulkUploadCsvReader implements Closeable {
+
+  private final CSVReader csvReader;
+  private String[] header;
+  private String[] nextLine;
+  private int lineCount;
+
+  public BulkUploadCsvReader(CSVReader csvReader) {
+    this.csvReader = csvReader;
+  }
+
+  /**
+   * Reads the header line. Must be called before the data lines are read.
+   *
+   * @return Header line, or null if the file has no lines
+   */
+  public String[] readHeader() throws IOException {
+    header = readLine();
+    return header;
+  }
+
+  public String[] getHeader() {
+    return header;
+  }
+
+  /** Returns true if there is a data line left to read. */
+  public boolean hasNext() throws IOException {
+    if (nextLine == null) {
+      nextLine = readLine();
+    }
+    return nextLine != null;
+  }
+
+  /**
+   * Reads the next data line.
+   *
+   * @return Data line, or null once the end of the file is reached
+   */
+  public String[] readNext() throws IOException {
+    if (!hasNext()) {
+      return null;
+    }
+    String[] line = nextLine;
+    nextLine = null;
+    return line;
+  }
+
+  /** Returns the number of lines read so far, including the header line. */
+  public int getLineCount() {
+    return lineCount;
+  }
+
+  private String[] readLine() throws IOException {
+    String[] line;
+    while ((line = csvReader.readNext()) != null) {
+      if (!ProjectUtil.isNotEmptyStringArray(line)) {
+        lineCount++;
+        return line;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void close() throws IOException {
+    csvReader.close();
+  }
+}
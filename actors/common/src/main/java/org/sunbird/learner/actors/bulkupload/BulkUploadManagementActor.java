@@ -289,15 +289,15 @@ public class BulkUploadManagementActor extends BaseBulkUploadActor {
   private void processBulkOrgUpload(Map<String, Object> req, String processId) throws IOException {
 
     ProjectLogger.log("BulkUploadManagementActor: processBulkOrgUpload called.", LoggerEnum.INFO);
+    if (null != PropertiesCache.getInstance().getProperty(JsonKey.BULK_UPLOAD_ORG_DATA_SIZE)) {
+      orgDataSize =
+          (Integer.parseInt(
+              PropertiesCache.getInstance().getProperty(JsonKey.BULK_UPLOAD_ORG_DATA_SIZE)));
+      ProjectLogger.log("bulk upload org data size read from config file " + orgDataSize);
+    }
     List<String[]> orgList = null;
-    orgList = parseCsvFile((byte[]) req.get(JsonKey.FILE), processId);
+    orgList = parseCsvFile((byte[]) req.get(JsonKey.FILE), processId, orgDataSize);
     if (null != orgList) {
-      if (null != PropertiesCache.getInstance().getProperty(JsonKey.BULK_UPLOAD_ORG_DATA_SIZE)) {
-        orgDataSize =
-            (Integer.parseInt(
-                PropertiesCache.getInstance().getProperty(JsonKey.BULK_UPLOAD_ORG_DATA_SIZE)));
-        ProjectLogger.log("bulk upload org data size read from config file " + orgDataSize);
-      }
       validateFileSizeAgainstLineNumbers(orgDataSize, orgList.size());
       if (!orgList.isEmpty()) {
         String[] columns = orgList.get(0);
@@ -375,9 +375,18 @@ public class BulkUploadManagementActor extends BaseBulkUploadActor {
             ResponseCode.CLIENT_ERROR.getResponseCode());
       }
     }
+    if (StringUtils.isNotBlank(ProjectUtil.getConfigValue(JsonKey.BULK_UPLOAD_USER_DATA_SIZE))) {
+      userDataSize =
+          (Integer.parseInt(ProjectUtil.getConfigValue(JsonKey.BULK_UPLOAD_USER_DATA_SIZE).trim()));
+
+      ProjectLogger.log(
+          "BulkUploadManagementActor:processBulkUserUpload : bulk upload user data size"
+              + userDataSize,
+          LoggerEnum.INFO.name());
+    }
     List<String[]> userList = null;
     try {
-      userList = parseCsvFile((byte[]) req.get(JsonKey.FILE), processId);
+      userList = parseCsvFile((byte[]) req.get(JsonKey.FILE), processId, userDataSize);
     } catch (IOException e) {
       throw new ProjectCommonException(
           ResponseCode.csvError.getErrorCode(),
@@ -385,16 +394,6 @@ public class BulkUploadManagementActor extends BaseBulkUploadActor {
           ResponseCode.CLIENT_ERROR.getResponseCode());
     }
     if (null != userList) {
-      if (StringUtils.isNotBlank(ProjectUtil.getConfigValue(JsonKey.BULK_UPLOAD_USER_DATA_SIZE))) {
-        userDataSize =
-            (Integer.parseInt(
-                ProjectUtil.getConfigValue(JsonKey.BULK_UPLOAD_USER_DATA_SIZE).trim()));
-
-        ProjectLogger.log(
-            "BulkUploadManagementActor:processBulkUserUpload : bulk upload user data size"
-                + userDataSize,
-            LoggerEnum.INFO.name());
-      }
       validateFileSizeAgainstLineNumbers(userDataSize, userList.size());
       if (!userList.isEmpty()) {
         String[] columns = userList.get(0);
@@ -24,6 +24,9 @@ import org.sunbird.learner.util.Util;
 )
 public class LocationBulkUploadActor extends BaseBulkUploadActor {
 
+  private static final String SUNBIRD_LOCATION_BULK_UPLOAD_SIZE_KEY =
+      "sunbird_location_bulk_upload_size";
+
   String[] bulkLocationAllowedFields = {
     GeoLocationJsonKey.CODE,
     JsonKey.NAME,
@@ -48,26 +51,29 @@ public class LocationBulkUploadActor extends BaseBulkUploadActor {
 
   private void upload(Request request) throws IOException {
     Map<String, Object> req = (Map<String, Object>) request.getRequest().get(JsonKey.DATA);
-    validateFileHeaderFields(req, bulkLocationAllowedFields, true);
+    BulkUploadCsvReader csvReader =
+        validateFileHeaderFields(req, bulkLocationAllowedFields, true);
     BulkUploadProcess bulkUploadProcess =
         handleUpload(JsonKey.LOCATION, (String) req.get(JsonKey.CREATED_BY));
     String locationType = (String) req.get(GeoLocationJsonKey.LOCATION_TYPE);
-    processLocationBulkUpload(req, bulkUploadProcess.getId(), locationType, bulkUploadProcess);
+    processLocationBulkUpload(
+        csvReader, bulkUploadProcess.getId(), locationType, bulkUploadProcess);
   }
 
   private void processLocationBulkUpload(
-      Map<String, Object> req,
+      BulkUploadCsvReader csvReader,
       String processId,
       String locationType,
       BulkUploadProcess bulkUploadProcess)
       throws IOException {
-    byte[] fileByteArray = null;
-    if (null != req.get(JsonKey.FILE)) {
-      fileByteArray = (byte[]) req.get(JsonKey.FILE);
-    }
     Map<String, Object> additionalRowFields = new HashMap<>();
     additionalRowFields.put(GeoLocationJsonKey.LOCATION_TYPE, locationType);
-    Integer recordCount = validateAndParseRecords(fileByteArray, processId, additionalRowFields);
+    Integer recordCount =
+        validateAndParseRecords(
+            csvReader,
+            processId,
+            additionalRowFields,
+            getMaxLines(SUNBIRD_LOCATION_BULK_UPLOAD_SIZE_KEY));
     processBulkUpload(
         recordCount,
         processId,
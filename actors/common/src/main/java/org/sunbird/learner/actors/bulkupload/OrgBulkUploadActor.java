@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import org.apache.commons.io.IOUtils;
 import org.sunbird.actor.router.ActorConfig;
 import org.sunbird.actorutil.systemsettings.SystemSettingClient;
 import org.sunbird.actorutil.systemsettings.impl.SystemSettingClientImpl;
@@ -72,6 +73,7 @@ public class OrgBulkUploadActor extends BaseBulkUploadActor {
             new TypeReference<Map>() {});
     Map<String, Object> supportedColumnsMap = null;
     Map<String, Object> supportedColumnsLowerCaseMap = null;
+    BulkUploadCsvReader csvReader = null;
     if (dataObject != null) {
       supportedColumnsMap =
           ((Map<String, Object>) ((Map<String, Object>) dataObject).get("supportedColumns"));
@@ -96,45 +98,49 @@ public class OrgBulkUploadActor extends BaseBulkUploadActor {
           });
       List<String> mandatoryColumns =
           (List<String>) (((Map<String, Object>) dataObject).get("mandatoryColumns"));
-      validateFileHeaderFields(
-          req,
-          supportedColumnsList.toArray(new String[supportedColumnsList.size()]),
-          false,
-          true,
-          mandatoryColumns,
-          supportedColumnsLowerCaseMap);
+      csvReader =
+          validateFileHeaderFields(
+              req,
+              supportedColumnsList.toArray(new String[supportedColumnsList.size()]),
+              false,
+              true,
+              mandatoryColumns,
+              supportedColumnsLowerCaseMap);
     } else {
-      validateFileHeaderFields(req, bulkOrgAllowedFields, false, false);
+      csvReader = validateFileHeaderFields(req, bulkOrgAllowedFields, false, false);
     }
     BulkUploadProcess bulkUploadProcess =
         handleUpload(JsonKey.ORGANISATION, (String) req.get(JsonKey.CREATED_BY));
     processOrgBulkUpload(
-        req, bulkUploadProcess.getId(), bulkUploadProcess, supportedColumnsLowerCaseMap);
+        req, csvReader, bulkUploadProcess.getId(), bulkUploadProcess, supportedColumnsLowerCaseMap);
   }
 
   private void processOrgBulkUpload(
       Map<String, Object> req,
+      BulkUploadCsvReader csvReader,
       String processId,
       BulkUploadProcess bulkUploadProcess,
       Map<String, Object> supportedColumnsMap)
       throws IOException {
-    byte[] fileByteArray = null;
-    if (null != req.get(JsonKey.FILE)) {
-      fileByteArray = (byte[]) req.get(JsonKey.FILE);
-    }
     HashMap<String, Object> additionalInfo = new HashMap<>();
-    Map<String, Object> user = getUser((String) req.get(JsonKey.CREATED_BY));
-    if (user != null) {
-      String rootOrgId = (String) user.get(JsonKey.ROOT_ORG_ID);
-      Map<String, Object> org = getOrg(rootOrgId);
-      if (org != null) {
-        if (org.get(JsonKey.STATUS) == null
-            || (int) org.get(JsonKey.STATUS) == ProjectUtil.OrgStatus.ACTIVE.getValue()) {
-          additionalInfo.put(JsonKey.CHANNEL, org.get(JsonKey.CHANNEL));
+    try {
+      Map<String, Object> user = getUser((String) req.get(JsonKey.CREATED_BY));
+      if (user != null) {
+        String rootOrgId = (String) user.get(JsonKey.ROOT_ORG_ID);
+        Map<String, Object> org = getOrg(rootOrgId);
+        if (org != null) {
+          if (org.get(JsonKey.STATUS) == null
+              || (int) org.get(JsonKey.STATUS) == ProjectUtil.OrgStatus.ACTIVE.getValue()) {
+            additionalInfo.put(JsonKey.CHANNEL, org.get(JsonKey.CHANNEL));
+          }
         }
       }
+    } catch (Exception e) {
+      IOUtils.closeQuietly(csvReader);
+      throw e;
     }
     if (!additionalInfo.containsKey(JsonKey.CHANNEL)) {
+      IOUtils.closeQuietly(csvReader);
       bulkUploadProcess.setStatus(ProjectUtil.BulkProcessStatus.FAILED.getValue());
       bulkUploadProcess.setFailureResult(ResponseCode.errorNoRootOrgAssociated.getErrorMessage());
       bulkUploadDao.update(bulkUploadProcess);
@@ -144,7 +150,12 @@ public class OrgBulkUploadActor extends BaseBulkUploadActor {
     }
     Integer recordCount =
         validateAndParseRecords(
-            fileByteArray, processId, additionalInfo, supportedColumnsMap, true);
+            csvReader,
+            processId,
+            additionalInfo,
+            supportedColumnsMap,
+            true,
+            getMaxLines(JsonKey.BULK_UPLOAD_ORG_DATA_SIZE));
     processBulkUpload(
         recordCount,
         processId,
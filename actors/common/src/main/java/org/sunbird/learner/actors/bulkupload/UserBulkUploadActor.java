@@ -75,6 +75,7 @@ public class UserBulkUploadActor extends BaseBulkUploadActor {
             new TypeReference<Map>() {});
     Map<String, Object> supportedColumnsMap = null;
     Map<String, Object> supportedColumnsLowerCaseMap = null;
+    BulkUploadCsvReader csvReader = null;
     if (dataObject != null) {
       supportedColumnsMap =
           ((Map<String, Object>) ((Map<String, Object>) dataObject).get("supportedColumns"));
@@ -100,35 +101,38 @@ public class UserBulkUploadActor extends BaseBulkUploadActor {
           });
       List<String> mandatoryColumns =
           (List<String>) (((Map<String, Object>) dataObject).get("mandatoryColumns"));
-      validateFileHeaderFields(
-          req,
-          supportedColumnsList.toArray(new String[supportedColumnsList.size()]),
-          false,
-          true,
-          mandatoryColumns,
-          supportedColumnsLowerCaseMap);
+      csvReader =
+          validateFileHeaderFields(
+              req,
+              supportedColumnsList.toArray(new String[supportedColumnsList.size()]),
+              false,
+              true,
+              mandatoryColumns,
+              supportedColumnsLowerCaseMap);
 
     } else {
-      validateFileHeaderFields(req, bulkUserAllowedFields, false);
+      csvReader = validateFileHeaderFields(req, bulkUserAllowedFields, false);
     }
     BulkUploadProcess bulkUploadProcess =
         handleUpload(JsonKey.USER, (String) req.get(JsonKey.CREATED_BY));
     processUserBulkUpload(
-        req, bulkUploadProcess.getId(), bulkUploadProcess, supportedColumnsLowerCaseMap);
+        csvReader, bulkUploadProcess.getId(), bulkUploadProcess, supportedColumnsLowerCaseMap);
   }
 
   private void processUserBulkUpload(
-      Map<String, Object> req,
+      BulkUploadCsvReader csvReader,
       String processId,
       BulkUploadProcess bulkUploadProcess,
       Map<String, Object> supportedColumnsMap)
       throws IOException {
-    byte[] fileByteArray = null;
-    if (null != req.get(JsonKey.FILE)) {
-      fileByteArray = (byte[]) req.get(JsonKey.FILE);
-    }
     Integer recordCount =
-        validateAndParseRecords(fileByteArray, processId, new HashMap(), supportedColumnsMap, true);
+        validateAndParseRecords(
+            csvReader,
+            processId,
+            new HashMap(),
+            supportedColumnsMap,
+            true,
+            getMaxLines(JsonKey.BULK_UPLOAD_USER_DATA_SIZE));
     processBulkUpload(
         recordCount,
         processId,
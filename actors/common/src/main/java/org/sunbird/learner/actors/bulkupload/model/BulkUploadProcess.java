@@ -45,6 +45,10 @@ public class BulkUploadProcess implements Serializable {
   private Timestamp createdOn;
   private Timestamp lastUpdatedOn;
   private String storageDetails;
+  private Integer processedCount;
+  private Integer successCount;
+  private Integer failureCount;
+  private Double throughput;
 
   public String getId() {
     return id;
@@ -182,6 +186,38 @@ public class BulkUploadProcess implements Serializable {
     this.storageDetails = storageDetails;
   }
 
+  public Integer getProcessedCount() {
+    return processedCount;
+  }
+
+  public void setProcessedCount(Integer processedCount) {
+    this.processedCount = processedCount;
+  }
+
+  public Integer getSuccessCount() {
+    return successCount;
+  }
+
+  public void setSuccessCount(Integer successCount) {
+    this.successCount = successCount;
+  }
+
+  public Integer getFailureCount() {
+    return failureCount;
+  }
+
+  public void setFailureCount(Integer failureCount) {
+    this.failureCount = failureCount;
+  }
+
+  public Double getThroughput() {
+    return throughput;
+  }
+
+  public void setThroughput(Double throughput) {
+    this.throughput = throughput;
+  }
+
   @JsonIgnore
   public void setEncryptedStorageDetails(StorageDetails cloudStorageData) {
     try {
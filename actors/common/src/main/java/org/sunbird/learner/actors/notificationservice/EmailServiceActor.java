@@ -7,9 +7,14 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.velocity.VelocityContext;
 import org.sunbird.actor.background.BackgroundOperations;
 import org.sunbird.actor.core.BaseActor;
 import org.sunbird.actor.router.ActorConfig;
@@ -33,6 +38,7 @@ import org.sunbird.dto.SearchDTO;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.actors.notificationservice.dao.EmailTemplateDao;
 import org.sunbird.learner.actors.notificationservice.dao.impl.EmailTemplateDaoImpl;
+import org.sunbird.learner.util.OrgMetadataCache;
 import org.sunbird.learner.util.Util;
 import org.sunbird.notification.sms.provider.ISmsProvider;
 import org.sunbird.notification.utils.SMSFactory;
@@ -53,6 +59,11 @@ public class EmailServiceActor extends BaseActor {
           null);
   private ElasticSearchService esService = EsClientFactory.getInstance(JsonKey.REST);
   private static final String NOTIFICATION_MODE = "sms";
+  private static final String SUNBIRD_EMAIL_SENDER_POOL_SIZE_KEY = "sunbird_email_sender_pool_size";
+  private static final int DEFAULT_SENDER_POOL_SIZE = 4;
+  private static final int SENDER_QUEUE_SIZE = 1000;
+  private static final int RECIPIENT_PAGE_SIZE = 100;
+  private static ExecutorService mailSender;
 
   @Override
   public void onReceive(Request request) throws Throwable {
@@ -100,13 +111,16 @@ public class EmailServiceActor extends BaseActor {
 
     // Fetch public user emails from Elastic Search based on recipient search query given in
     // request.
-    getUserEmailsFromSearchQuery(request, emails, userIds);
+    int maxLimit = getRecipientsMaxLimit();
+    getUserEmailsFromSearchQuery(request, emails, userIds, maxLimit);
 
     validateUserIds(userIds, emails);
     validateRecipientsLimit(emails);
 
-    Map<String, Object> user = null;
-    if (CollectionUtils.isNotEmpty(emails)) {
+    // Sender details are only needed to address a single recipient by name or to find the org
+    // name when the request does not give it
+    Map<String, Object> user = Collections.emptyMap();
+    if (emails.size() == 1 || StringUtils.isBlank((String) request.get(JsonKey.ORG_NAME))) {
       user = getUserInfo(emails.get(0));
     }
 
@@ -119,7 +133,7 @@ public class EmailServiceActor extends BaseActor {
     }
 
     // fetch orgname inorder to set in the Template context
-    String orgName = getOrgName(request, (String) user.get(JsonKey.USER_ID));
+    String orgName = getOrgName(request, user);
 
     request.put(JsonKey.NAME, name);
     if (orgName != null) {
@@ -134,16 +148,53 @@ public class EmailServiceActor extends BaseActor {
     ProjectLogger.log(
         "EmailServiceActor:sendMail: Sending email to = " + emails.size() + " emails",
         LoggerEnum.INFO.name());
-    try {
-      SendMail.sendMailWithBody(
-          emails.toArray(new String[emails.size()]),
-          (String) request.get(JsonKey.SUBJECT),
-          ProjectUtil.getContext(request),
-          template);
-    } catch (Exception e) {
-      ProjectLogger.log(
-          "EmailServiceActor:sendMail: Exception occurred with message = " + e.getMessage(), e);
+    String[] recipients = emails.toArray(new String[emails.size()]);
+    String subject = (String) request.get(JsonKey.SUBJECT);
+    VelocityContext context = ProjectUtil.getContext(request);
+    getMailSender()
+        .execute(
+            () -> {
+              try {
+                SendMail.sendMailWithBody(recipients, subject, context, template);
+              } catch (Exception e) {
+                ProjectLogger.log(
+                    "EmailServiceActor:sendMail: Exception occurred with message = "
+                        + e.getMessage(),
+                    e);
+              }
+            });
+  }
+
+  /**
+   * Returns the pool on which emails are sent, so that the actor does not wait for the SMTP server.
+   * When the queue of the pool is full the email is sent on the calling thread, which slows down
+   * the senders instead of dropping emails.
+   */
+  private static synchronized ExecutorService getMailSender() {
+    if (mailSender == null) {
+      int poolSize = DEFAULT_SENDER_POOL_SIZE;
+      try {
+        poolSize =
+            Integer.parseInt(ProjectUtil.getConfigValue(SUNBIRD_EMAIL_SENDER_POOL_SIZE_KEY).trim());
+      } catch (Exception e) {
+        ProjectLogger.log(
+            "EmailServiceActor:getMailSender: Using default sender pool size", LoggerEnum.INFO);
+      }
+      mailSender =
+          new ThreadPoolExecutor(
+              poolSize,
+              poolSize,
+              0L,
+              TimeUnit.MILLISECONDS,
+              new ArrayBlockingQueue<>(SENDER_QUEUE_SIZE),
+              runnable -> {
+                Thread thread = new Thread(runnable, "email-sender");
+                thread.setDaemon(true);
+                return thread;
+              },
+              new ThreadPoolExecutor.CallerRunsPolicy());
     }
+    return mailSender;
   }
 
   /**
@@ -198,22 +249,25 @@ public class EmailServiceActor extends BaseActor {
           ResponseCode.emailNotSentRecipientsZero,
           ResponseCode.emailNotSentRecipientsZero.getErrorMessage());
     }
-    int maxLimit = 100;
+    int maxLimit = getRecipientsMaxLimit();
+    if (recipients.size() > maxLimit) {
+      ProjectCommonException.throwClientErrorException(
+          ResponseCode.emailNotSentRecipientsExceededMaxLimit,
+          MessageFormat.format(
+              ResponseCode.emailNotSentRecipientsExceededMaxLimit.getErrorMessage(), maxLimit));
+    }
+  }
+
+  private int getRecipientsMaxLimit() {
     try {
-      maxLimit =
-          Integer.parseInt(ProjectUtil.getConfigValue(JsonKey.SUNBIRD_EMAIL_MAX_RECEPIENT_LIMIT));
+      return Integer.parseInt(
+          ProjectUtil.getConfigValue(JsonKey.SUNBIRD_EMAIL_MAX_RECEPIENT_LIMIT));
     } catch (Exception exception) {
       ProjectLogger.log(
           "EmailServiceActor:validateEmailRecipientsLimit: Exception occurred with error message = "
               + exception.getMessage(),
           LoggerEnum.INFO);
-      maxLimit = 100;
-    }
-    if (recipients.size() > maxLimit) {
-      ProjectCommonException.throwClientErrorException(
-          ResponseCode.emailNotSentRecipientsExceededMaxLimit,
-          MessageFormat.format(
-              ResponseCode.emailNotSentRecipientsExceededMaxLimit.getErrorMessage(), maxLimit));
+      return 100;
     }
   }
 
@@ -289,8 +343,14 @@ public class EmailServiceActor extends BaseActor {
     return userList;
   }
 
+  /**
+   * Adds the recipients matching the recipient search query of the request. Matching users are read
+   * from ES page by page until all are read or there are more than the maximum number of
+   * recipients. Public emails of a page are decrypted together and users whose email is private
+   * are added to the user IDs, whose emails are then read from Cassandra in one query.
+   */
   private void getUserEmailsFromSearchQuery(
-      Map<String, Object> request, List<String> emails, List<String> userIds) {
+      Map<String, Object> request, List<String> emails, List<String> userIds, int maxLimit) {
     Map<String, Object> recipientSearchQuery =
         (Map<String, Object>) request.get(JsonKey.RECIPIENT_SEARCH_QUERY);
     if (MapUtils.isNotEmpty(recipientSearchQuery)) {
@@ -309,73 +369,113 @@ public class EmailServiceActor extends BaseActor {
       fields.add(JsonKey.USER_ID);
       fields.add(JsonKey.EMAIL);
       recipientSearchQuery.put(JsonKey.FIELDS, fields);
-      Map<String, Object> esResult = Collections.emptyMap();
-      try {
-        Future<Map<String, Object>> esResultF =
-            esService.search(
-                ElasticSearchHelper.createSearchDTO(recipientSearchQuery),
-                EsType.user.getTypeName());
-        esResult = (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(esResultF);
-      } catch (Exception ex) {
-        ProjectLogger.log(
-            "EmailServiceActor:getUserEmailsFromSearchQuery: Exception occurred with error message = "
-                + ex.getMessage(),
-            ex);
-        ProjectCommonException.throwClientErrorException(
-            ResponseCode.invalidParameterValue,
-            MessageFormat.format(
-                ResponseCode.invalidParameterValue.getErrorMessage(),
-                recipientSearchQuery,
-                JsonKey.RECIPIENT_SEARCH_QUERY));
-        return;
+      // A query with its own limit is run as given, otherwise all matching users are paged through
+      boolean paged = !recipientSearchQuery.containsKey(JsonKey.LIMIT);
+      int offset = 0;
+      if (paged && recipientSearchQuery.get(JsonKey.OFFSET) instanceof Integer) {
+        offset = (int) recipientSearchQuery.get(JsonKey.OFFSET);
       }
-      if (MapUtils.isNotEmpty(esResult)
-          && CollectionUtils.isNotEmpty((List) esResult.get(JsonKey.CONTENT))) {
-        List<Map<String, Object>> usersList =
-            (List<Map<String, Object>>) esResult.get(JsonKey.CONTENT);
-        usersList.forEach(
-            user -> {
-              if (StringUtils.isNotBlank((String) user.get(JsonKey.EMAIL))) {
-                String email = decryptionService.decryptData((String) user.get(JsonKey.EMAIL));
-                if (ProjectUtil.isEmailvalid(email)) {
-                  emails.add(email);
-                } else {
-                  ProjectLogger.log(
-                      "EmailServiceActor:sendMail: Email decryption failed for userId = "
-                          + user.get(JsonKey.USER_ID));
-                }
-              } else {
-                // If email is blank (or private) then fetch email from cassandra
-                userIds.add((String) user.get(JsonKey.USER_ID));
-              }
-            });
+      while (true) {
+        if (paged) {
+          recipientSearchQuery.put(JsonKey.OFFSET, offset);
+          recipientSearchQuery.put(JsonKey.LIMIT, RECIPIENT_PAGE_SIZE);
+        }
+        List<Map<String, Object>> usersList = searchRecipients(recipientSearchQuery);
+        addRecipients(usersList, emails, userIds);
+        offset += usersList.size();
+        if (!paged
+            || usersList.size() < RECIPIENT_PAGE_SIZE
+            || emails.size() + userIds.size() > maxLimit) {
+          break;
+        }
+      }
+    }
+  }
+
+  private List<Map<String, Object>> searchRecipients(Map<String, Object> recipientSearchQuery) {
+    Map<String, Object> esResult = Collections.emptyMap();
+    try {
+      Future<Map<String, Object>> esResultF =
+          esService.search(
+              ElasticSearchHelper.createSearchDTO(recipientSearchQuery),
+              EsType.user.getTypeName());
+      esResult = (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(esResultF);
+    } catch (Exception ex) {
+      ProjectLogger.log(
+          "EmailServiceActor:getUserEmailsFromSearchQuery: Exception occurred with error message = "
+              + ex.getMessage(),
+          ex);
+      ProjectCommonException.throwClientErrorException(
+          ResponseCode.invalidParameterValue,
+          MessageFormat.format(
+              ResponseCode.invalidParameterValue.getErrorMessage(),
+              recipientSearchQuery,
+              JsonKey.RECIPIENT_SEARCH_QUERY));
+    }
+    if (MapUtils.isNotEmpty(esResult)
+        && CollectionUtils.isNotEmpty((List) esResult.get(JsonKey.CONTENT))) {
+      return (List<Map<String, Object>>) esResult.get(JsonKey.CONTENT);
+    }
+    return Collections.emptyList();
+  }
+
+  private void addRecipients(
+      List<Map<String, Object>> usersList, List<String> emails, List<String> userIds) {
+    List<Map<String, Object>> encryptedEmails = new ArrayList<>();
+    List<String> encryptedEmailUserIds = new ArrayList<>();
+    for (Map<String, Object> user : usersList) {
+      if (StringUtils.isNotBlank((String) user.get(JsonKey.EMAIL))) {
+        Map<String, Object> encryptedEmail = new HashMap<>();
+        encryptedEmail.put(JsonKey.EMAIL, user.get(JsonKey.EMAIL));
+        encryptedEmails.add(encryptedEmail);
+        encryptedEmailUserIds.add((String) user.get(JsonKey.USER_ID));
+      } else {
+        // If email is blank (or private) then fetch email from cassandra
+        userIds.add((String) user.get(JsonKey.USER_ID));
+      }
+    }
+    if (encryptedEmails.isEmpty()) {
+      return;
+    }
+    List<Map<String, Object>> decryptedEmails = decryptionService.decryptData(encryptedEmails);
+    for (int i = 0; i < encryptedEmailUserIds.size(); i++) {
+      String email =
+          decryptedEmails != null && i < decryptedEmails.size()
+              ? (String) decryptedEmails.get(i).get(JsonKey.EMAIL)
+              : null;
+      if (ProjectUtil.isEmailvalid(email)) {
+        emails.add(email);
+      } else {
+        ProjectLogger.log(
+            "EmailServiceActor:sendMail: Email decryption failed for userId = "
+                + encryptedEmailUserIds.get(i));
       }
     }
   }
 
-  private String getOrgName(Map<String, Object> request, String usrId) {
+  private String getOrgName(Map<String, Object> request, Map<String, Object> user) {
     String orgName = (String) request.get(JsonKey.ORG_NAME);
     if (StringUtils.isNotBlank(orgName)) {
       return orgName;
     }
-    Future<Map<String, Object>> esUserResultF =
-        esService.getDataByIdentifier(EsType.user.getTypeName(), usrId);
-    Map<String, Object> esUserResult =
-        (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(esUserResultF);
-    if (null != esUserResult) {
-      String rootOrgId = (String) esUserResult.get(JsonKey.ROOT_ORG_ID);
-      if (!(StringUtils.isBlank(rootOrgId))) {
-
-        Future<Map<String, Object>> esOrgResultF =
-            esService.getDataByIdentifier(EsType.organisation.getTypeName(), rootOrgId);
-        Map<String, Object> esOrgResult =
-            (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(esOrgResultF);
-        if (null != esOrgResult) {
-          orgName =
-              (esOrgResult.get(JsonKey.ORG_NAME) != null
-                  ? (String) esOrgResult.get(JsonKey.ORGANISATION_NAME)
-                  : "");
-        }
+    // The user read by email already holds the root org ID, the user is only read again by ID
+    // when it does not
+    String rootOrgId = (String) user.get(JsonKey.ROOT_ORG_ID);
+    String usrId = (String) user.get(JsonKey.USER_ID);
+    if (StringUtils.isBlank(rootOrgId) && StringUtils.isNotBlank(usrId)) {
+      Future<Map<String, Object>> esUserResultF =
+          esService.getDataByIdentifier(EsType.user.getTypeName(), usrId);
+      Map<String, Object> esUserResult =
+          (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(esUserResultF);
+      if (null != esUserResult) {
+        rootOrgId = (String) esUserResult.get(JsonKey.ROOT_ORG_ID);
+      }
+    }
+    if (!(StringUtils.isBlank(rootOrgId))) {
+      Map<String, Object> rootOrg = OrgMetadataCache.getInstance().getOrg(rootOrgId);
+      if (null != rootOrg) {
+        orgName =
+            (rootOrg.get(JsonKey.ORG_NAME) != null ? (String) rootOrg.get(JsonKey.ORG_NAME) : "");
       }
     }
     return orgName;
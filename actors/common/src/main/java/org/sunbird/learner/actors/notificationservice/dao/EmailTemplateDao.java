@@ -3,7 +3,8 @@ package org.sunbird.learner.actors.notificationservice.dao;
 public interface EmailTemplateDao {
 
   /**
-   * Get email template information for given name.
+   * Get email template information for given name. Templates are cached, so a template changed in
+   * the database is used once its cached copy expires.
    *
    * @param templateName Email template name
    * @return String containing email template information
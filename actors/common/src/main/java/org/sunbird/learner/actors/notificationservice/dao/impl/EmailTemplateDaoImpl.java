@@ -9,8 +9,10 @@ import org.apache.commons.lang.StringUtils;
 import org.sunbird.cassandra.CassandraOperation;
 import org.sunbird.common.models.response.Response;
 import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.actors.notificationservice.dao.EmailTemplateDao;
+import org.sunbird.learner.util.ExpiringLruCache;
 
 public class EmailTemplateDaoImpl implements EmailTemplateDao {
 
@@ -18,6 +20,14 @@ public class EmailTemplateDaoImpl implements EmailTemplateDao {
   private static final String EMAIL_TEMPLATE = "email_template";
   private static final String DEFAULT_EMAIL_TEMPLATE_NAME = "default";
   private static final String TEMPLATE = "template";
+  private static final String SUNBIRD_EMAIL_TEMPLATE_CACHE_TTL_KEY =
+      "sunbird_email_template_cache_ttl";
+  private static final long DEFAULT_TEMPLATE_CACHE_TTL = 10 * 60 * 1000L;
+  private static final int TEMPLATE_CACHE_SIZE = 200;
+  // Templates are only written to the database directly, so there is nothing to invalidate the
+  // cache on and an edited template is read again once its cached copy expires
+  private ExpiringLruCache<String, String> templateCache =
+      new ExpiringLruCache<>(TEMPLATE_CACHE_SIZE, getTemplateCacheTtl());
 
   public static EmailTemplateDao getInstance() {
     if (emailTemplateDao == null) {
@@ -28,13 +38,21 @@ public class EmailTemplateDaoImpl implements EmailTemplateDao {
 
   @Override
   public String getTemplate(String templateName) {
+    String name = StringUtils.isBlank(templateName) ? DEFAULT_EMAIL_TEMPLATE_NAME : templateName;
+    String template = templateCache.get(name);
+    if (template == null) {
+      template = readTemplate(name);
+      // Missing templates are not cached so that a newly added template is used right away
+      if (StringUtils.isNotBlank(template)) {
+        templateCache.put(name, template);
+      }
+    }
+    return template;
+  }
 
+  private String readTemplate(String templateName) {
     List<String> idList = new ArrayList<>();
-    if (StringUtils.isBlank(templateName)) {
-      idList.add(DEFAULT_EMAIL_TEMPLATE_NAME);
-    } else {
-      idList.add(templateName);
-    }
+    idList.add(templateName);
     Response response =
         getCassandraOperation().getRecordsByPrimaryKeys(
             JsonKey.SUNBIRD, EMAIL_TEMPLATE, idList, JsonKey.NAME);
@@ -47,8 +65,16 @@ public class EmailTemplateDaoImpl implements EmailTemplateDao {
     return (String) map.get(TEMPLATE);
   }
 
-  private CassandraOperation getCassandraOperation(){
+  private CassandraOperation getCassandraOperation() {
     return ServiceFactory.getInstance();
   }
 
+  private static long getTemplateCacheTtl() {
+    try {
+      return Long.parseLong(
+          ProjectUtil.getConfigValue(SUNBIRD_EMAIL_TEMPLATE_CACHE_TTL_KEY).trim());
+    } catch (Exception e) {
+      return DEFAULT_TEMPLATE_CACHE_TTL;
+    }
+  }
 }
@@ -20,6 +20,7 @@ import org.sunbird.learner.util.OTPUtil;
 import org.sunbird.learner.util.Util;
 import org.sunbird.ratelimit.limiter.OtpRateLimiter;
 import org.sunbird.ratelimit.limiter.RateLimiter;
+import org.sunbird.ratelimit.service.InMemoryRateLimitServiceImpl;
 import org.sunbird.ratelimit.service.RateLimitService;
 import org.sunbird.ratelimit.service.RateLimitServiceImpl;
 
@@ -33,7 +34,9 @@ public class OTPActor extends BaseActor {
   private static final String SUNBIRD_OTP_ALLOWED_ATTEMPT = "sunbird_otp_allowed_attempt";
   private static final String REMAINING_ATTEMPT = "remainingAttempt";
   private static final String MAX_ALLOWED_ATTEMPT = "maxAllowedAttempt";
-  private RateLimitService rateLimitService = new RateLimitServiceImpl();
+  private static final String SUNBIRD_RATE_LIMIT_IN_MEMORY_ENABLED =
+      "sunbird_rate_limit_in_memory_enabled";
+  private RateLimitService rateLimitService = getRateLimitService();
   private LogMaskServiceImpl logMaskService = new LogMaskServiceImpl();
 
   @Override
@@ -49,6 +52,13 @@ public class OTPActor extends BaseActor {
     }
   }
 
+  private RateLimitService getRateLimitService() {
+    if (Boolean.parseBoolean(ProjectUtil.getConfigValue(SUNBIRD_RATE_LIMIT_IN_MEMORY_ENABLED))) {
+      return InMemoryRateLimitServiceImpl.getInstance();
+    }
+    return new RateLimitServiceImpl();
+  }
+
   private String maskOTP(String otp) {
     return logMaskService.maskOTP(otp);
   }
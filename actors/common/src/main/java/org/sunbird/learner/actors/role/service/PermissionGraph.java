@@ -0,0 +1,100 @@
+package org.sunbird.learner.actors.role.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.models.role.Role;
+import org.sunbird.models.role.group.RoleGroup;
+import org.sunbird.models.url.action.UrlAction;
+
+/**
+ * Immutable snapshot of the role, role group (action group) and URL action tables. The graph is
+ * built once from one read of each table into ID keyed maps, and the roles read response is
+ * computed while building it.
+ */
+public final class PermissionGraph {
+
+  private final Map<String, Object> roleNames;
+  private final Response rolesResponse;
+
+  private PermissionGraph(Map<String, Object> roleNames, Response rolesResponse) {
+    this.roleNames = Collections.unmodifiableMap(roleNames);
+    this.rolesResponse = rolesResponse;
+  }
+
+  /**
+   * Builds the graph from the rows of the role, role group and URL action tables.
+   *
+   * @param roles All roles
+   * @param roleGroups All role groups
+   * @param urlActions All URL actions
+   * @return Permission graph
+   */
+  public static PermissionGraph build(
+      List<Role> roles, List<RoleGroup> roleGroups, List<UrlAction> urlActions) {
+    Map<String, Map<String, Object>> urlActionsById = new HashMap<>();
+    for (UrlAction urlAction : nullToEmpty(urlActions)) {
+      Map<String, Object> urlActionMap = new HashMap<>();
+      urlActionMap.put(JsonKey.ID, urlAction.getId());
+      urlActionMap.put(JsonKey.NAME, urlAction.getName());
+      urlActionMap.put(
+          JsonKey.URL, urlAction.getUrl() != null ? urlAction.getUrl() : new ArrayList<>());
+      urlActionsById.put(urlAction.getId(), Collections.unmodifiableMap(urlActionMap));
+    }
+    Map<String, RoleGroup> roleGroupsById = new HashMap<>();
+    Map<String, Object> roleNames = new HashMap<>();
+    for (RoleGroup roleGroup : nullToEmpty(roleGroups)) {
+      roleGroupsById.put(roleGroup.getId(), roleGroup);
+      roleNames.put(roleGroup.getId(), roleGroup.getName());
+    }
+
+    List<Map<String, Object>> roleMapList = new ArrayList<>();
+    for (Role role : nullToEmpty(roles)) {
+      roleNames.put(role.getId(), role.getName());
+      Map<String, Object> roleMap = new HashMap<>();
+      roleMap.put(JsonKey.ID, role.getId());
+      roleMap.put(JsonKey.NAME, role.getName());
+      List<Map<String, Object>> actionGroupMapList = new ArrayList<>();
+      roleMap.put(JsonKey.ACTION_GROUPS, actionGroupMapList);
+      for (String roleGroupId : nullToEmpty(role.getRoleGroupId())) {
+        // A role group which no longer exists is listed without ID, name and actions
+        RoleGroup roleGroup = roleGroupsById.get(roleGroupId);
+        Map<String, Object> actionGroupMap = new HashMap<>();
+        actionGroupMap.put(JsonKey.ID, roleGroup != null ? roleGroup.getId() : null);
+        actionGroupMap.put(JsonKey.NAME, roleGroup != null ? roleGroup.getName() : null);
+        List<Map<String, Object>> urlActionMapList = new ArrayList<>();
+        List<String> urlActionIds =
+            roleGroup != null ? roleGroup.getUrlActionIds() : Collections.emptyList();
+        for (String urlActionId : nullToEmpty(urlActionIds)) {
+          Map<String, Object> urlActionMap = urlActionsById.get(urlActionId);
+          urlActionMapList.add(
+              urlActionMap != null ? urlActionMap : Collections.<String, Object>emptyMap());
+        }
+        actionGroupMap.put(JsonKey.ACTIONS, urlActionMapList);
+        actionGroupMapList.add(actionGroupMap);
+      }
+      roleMapList.add(roleMap);
+    }
+    Response rolesResponse = new Response();
+    rolesResponse.getResult().put(JsonKey.ROLES, roleMapList);
+    return new PermissionGraph(roleNames, rolesResponse);
+  }
+
+  /** Returns the names of all roles and role groups by their ID. */
+  public Map<String, Object> getRoleNames() {
+    return roleNames;
+  }
+
+  /** Returns the response of the roles read, with the action groups and actions of each role. */
+  public Response getRolesResponse() {
+    return rolesResponse;
+  }
+
+  private static <T> List<T> nullToEmpty(List<T> list) {
+    return list != null ? list : Collections.emptyList();
+  }
+}
@@ -0,0 +1,94 @@
+package org.sunbird.learner.actors.search;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.codec.language.Soundex;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+
+/**
+ * Fuzzy name index over one page of search results. Every word of every candidate is encoded once
+ * the same way {@link FuzzyMatcher} prepares a TEXT element (URL encoding, special character
+ * removal and soundex), so all query words are matched with map lookups instead of building and
+ * scoring a new document list per query word.
+ */
+public class FuzzyNameIndex {
+
+  private static final String ENCODING = "UTF-8";
+  private static final Soundex SOUNDEX = new Soundex();
+  // A word whose code equals the code of a candidate word scores 1.0 against it.
+  private static final float MATCH_SCORE = 1.0f;
+
+  private Map<String, Set<String>> idsByCode = new HashMap<>();
+  private float threshold;
+
+  /**
+   * @param attributesValueMap Map of candidate id to the value to be matched
+   * @param threshold Minimum score a candidate must exceed to be matched
+   */
+  public FuzzyNameIndex(Map<String, String> attributesValueMap, float threshold) {
+    this.threshold = threshold;
+    for (Map.Entry<String, String> entry : attributesValueMap.entrySet()) {
+      if (StringUtils.isBlank(entry.getValue())) {
+        continue;
+      }
+      for (String word : entry.getValue().split(" ")) {
+        String code = encode(word);
+        if (StringUtils.isNotEmpty(code)) {
+          idsByCode.computeIfAbsent(code, k -> new HashSet<>()).add(entry.getKey());
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the ids of the candidates having at least one word that matches one of the given
+   * words.
+   *
+   * @param words Query words
+   * @return Matched candidate ids
+   */
+  public Set<String> match(Collection<String> words) {
+    Set<String> matchedIds = new HashSet<>();
+    if (MATCH_SCORE <= threshold) {
+      return matchedIds;
+    }
+    for (String word : words) {
+      Set<String> ids = idsByCode.get(encode(word));
+      if (ids != null) {
+        matchedIds.addAll(ids);
+      }
+    }
+    ProjectLogger.log(
+        String.format(
+            "%s:%s:matched %s candidates for %s words",
+            "FuzzyNameIndex", "match", matchedIds.size(), words.size()),
+        LoggerEnum.INFO.name());
+    return matchedIds;
+  }
+
+  private static String encode(String word) {
+    try {
+      String encoded = URLEncoder.encode(word.trim(), ENCODING);
+      return SOUNDEX.encode(encoded.replaceAll("[^A-Za-z0-9 ]", "").toLowerCase());
+    } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+      ProjectLogger.log(
+          "FuzzyNameIndex:encode: Error occured during encoding of data " + e,
+          LoggerEnum.ERROR.name());
+      return null;
+    }
+  }
+
+  public static float getFuzzyThreshold() {
+    return Float.parseFloat(
+        PropertiesCache.getInstance().readProperty(JsonKey.SUNBIRD_FUZZY_SEARCH_THRESHOLD));
+  }
+}
@@ -24,17 +24,15 @@ public class FuzzySearchManager {
 
   protected List<Map<String, Object>> startFuzzySearch() {
     HashSet<String> resultSet = new HashSet<>();
+    float threshold = FuzzyNameIndex.getFuzzyThreshold();
     fuzzySearchMap
         .entrySet()
         .forEach(
             map -> {
               validateKeyInFuzzyMap(map.getKey());
-              String[] splittedName = map.getValue().toString().split(" ");
-              for (int i = 0; i < splittedName.length; i++) {
-                resultSet.addAll(
-                    FuzzyMatcher.matchDoc(
-                        splittedName[i].trim(), getFuzzyAttributeFromMap(map.getKey())));
-              }
+              FuzzyNameIndex index =
+                  new FuzzyNameIndex(getFuzzyAttributeFromMap(map.getKey()), threshold);
+              resultSet.addAll(index.match(Arrays.asList(map.getValue().toString().split(" "))));
             });
     ProjectLogger.log(
         String.format(
@@ -66,13 +64,6 @@ public class FuzzySearchManager {
               attributesValueMap.put(
                   (String) resultMap.get(JsonKey.ID), (String) resultMap.get(key));
             });
-    ProjectLogger.log(
-        String.format(
-            "%s:%s:the prepared Map for fuzzy search  %s",
-            this.getClass().getSimpleName(),
-            "getFuzzyAttributeFromMap",
-            Collections.singleton(attributesValueMap.toString())),
-        LoggerEnum.INFO.name());
     return attributesValueMap;
   }
 
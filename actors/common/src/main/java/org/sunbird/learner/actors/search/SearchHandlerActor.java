@@ -8,8 +8,6 @@ import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.sunbird.actor.core.BaseActor;
 import org.sunbird.actor.router.ActorConfig;
-import org.sunbird.actorutil.org.OrganisationClient;
-import org.sunbird.actorutil.org.impl.OrganisationClientImpl;
 import org.sunbird.common.ElasticSearchHelper;
 import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.factory.EsClientFactory;
@@ -22,9 +20,9 @@ import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.common.responsecode.ResponseMessage;
 import org.sunbird.dto.SearchDTO;
+import org.sunbird.learner.util.OrgMetadataCache;
 import org.sunbird.learner.util.UserUtility;
 import org.sunbird.learner.util.Util;
-import org.sunbird.models.organisation.Organisation;
 import org.sunbird.telemetry.util.TelemetryLmaxWriter;
 import org.sunbird.telemetry.util.TelemetryUtil;
 import scala.concurrent.Await;
@@ -43,7 +41,6 @@ public class SearchHandlerActor extends BaseActor {
 
   private List<String> supportedFields = Arrays.asList(JsonKey.ID, JsonKey.ORG_NAME);
   private String topn = PropertiesCache.getInstance().getProperty(JsonKey.SEARCH_TOP_N);
-  private OrganisationClient orgClient = new OrganisationClientImpl();
   private ElasticSearchService esService = EsClientFactory.getInstance(JsonKey.REST);
 
   @SuppressWarnings({"unchecked", "rawtypes"})
@@ -182,7 +179,7 @@ public class SearchHandlerActor extends BaseActor {
   @SuppressWarnings("unchecked")
   private void updateUserDetailsWithOrgName(
       String requestedFields, List<Map<String, Object>> userMapList) {
-    Map<String, Organisation> orgMap = null;
+    Map<String, Map<String, Object>> orgMap = null;
     if (StringUtils.isNotBlank(requestedFields)) {
       try {
         List<String> fields = Arrays.asList(requestedFields.toLowerCase().split(","));
@@ -201,21 +198,18 @@ public class SearchHandlerActor extends BaseActor {
         if (filteredRequestedFields.isEmpty()) {
           return;
         }
-        if (!filteredRequestedFields.contains(JsonKey.ID)) {
-          filteredRequestedFields.add(JsonKey.ID);
-        }
-        orgMap = fetchOrgDetails(userMapList, filteredRequestedFields);
+        orgMap = fetchOrgDetails(userMapList);
         if (fields.contains(JsonKey.ORG_NAME.toLowerCase())) {
-          Map<String, Organisation> filteredOrg = new HashMap<>(orgMap);
+          Map<String, Map<String, Object>> filteredOrg = new HashMap<>(orgMap);
           userMapList
               .stream()
               .forEach(
                   userMap -> {
                     String rootOrgId = (String) userMap.get(JsonKey.ROOT_ORG_ID);
                     if (StringUtils.isNotBlank(rootOrgId)) {
-                      Organisation org = filteredOrg.get(rootOrgId);
+                      Map<String, Object> org = filteredOrg.get(rootOrgId);
                       if (null != org) {
-                        userMap.put(JsonKey.ROOT_ORG_NAME, org.getOrgName());
+                        userMap.put(JsonKey.ROOT_ORG_NAME, org.get(JsonKey.ORG_NAME));
                       }
                     }
                     List<Map<String, Object>> userOrgList =
@@ -227,9 +221,9 @@ public class SearchHandlerActor extends BaseActor {
                               userOrg -> {
                                 String userOrgId = (String) userOrg.get(JsonKey.ORGANISATION_ID);
                                 if (StringUtils.isNotBlank(userOrgId)) {
-                                  Organisation org = filteredOrg.get(userOrgId);
+                                  Map<String, Object> org = filteredOrg.get(userOrgId);
                                   if (null != org) {
-                                    userOrg.put(JsonKey.ORG_NAME, org.getOrgName());
+                                    userOrg.put(JsonKey.ORG_NAME, org.get(JsonKey.ORG_NAME));
                                   }
                                 }
                               });
@@ -245,9 +239,12 @@ public class SearchHandlerActor extends BaseActor {
     }
   }
 
+  /**
+   * Reads the organisations of all users of a search page, serving them from the org metadata
+   * cache and reading the uncached ones from ES with a single lookup.
+   */
   @SuppressWarnings("unchecked")
-  private Map<String, Organisation> fetchOrgDetails(
-      List<Map<String, Object>> userMapList, List<String> filteredRequestedFileds) {
+  private Map<String, Map<String, Object>> fetchOrgDetails(List<Map<String, Object>> userMapList) {
     Set<String> orgIdList = new HashSet<>();
     userMapList
         .stream()
@@ -271,18 +268,7 @@ public class SearchHandlerActor extends BaseActor {
                         });
               }
             });
-
-    List<String> orgIds = new ArrayList<>(orgIdList);
-
-    List<Organisation> organisations = orgClient.esSearchOrgByIds(orgIds, filteredRequestedFileds);
-    Map<String, Organisation> orgMap = new HashMap<>();
-    organisations
-        .stream()
-        .forEach(
-            org -> {
-              orgMap.put(org.getId(), org);
-            });
-    return orgMap;
+    return OrgMetadataCache.getInstance().getOrgs(orgIdList);
   }
 
   private void generateSearchTelemetryEvent(
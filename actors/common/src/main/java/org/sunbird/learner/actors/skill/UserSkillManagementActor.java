@@ -43,6 +43,7 @@ import org.sunbird.dto.SearchDTO;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.actors.skill.dao.UserSkillDao;
 import org.sunbird.learner.actors.skill.dao.impl.UserSkillDaoImpl;
+import org.sunbird.learner.util.UserProfileCache;
 import org.sunbird.learner.util.Util;
 import org.sunbird.models.user.skill.Skill;
 import org.sunbird.telemetry.util.TelemetryUtil;
@@ -597,11 +598,14 @@ public class UserSkillManagementActor extends BaseActor {
             (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(visibilityMapF);
         if (MapUtils.isNotEmpty(visibilityMap)) {
           visibilityMap.putAll(esMap);
-          esService.save(EsType.userprofilevisibility.getTypeName(), userId, visibilityMap);
+          ElasticSearchHelper.getResponseFromFuture(
+              esService.save(EsType.userprofilevisibility.getTypeName(), userId, visibilityMap));
         }
       } else {
-        esService.update(EsType.user.getTypeName(), userId, esMap);
+        ElasticSearchHelper.getResponseFromFuture(
+            esService.update(EsType.user.getTypeName(), userId, esMap));
       }
+      UserProfileCache.getInstance().invalidate(userId);
     }
   }
 
@@ -0,0 +1,296 @@
+package org.sunbird.learner.actors.syncjobmanager;
+
+import akka.actor.ActorRef;
+import com.datastax.driver.core.ColumnMetadata;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.ElasticSearchHelper;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.inf.ElasticSearchService;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.responsecode.ResponseCode;
+import org.sunbird.helper.CassandraConnectionMngrFactory;
+import org.sunbird.helper.CassandraUtil;
+import org.sunbird.learner.util.Util;
+import scala.concurrent.Future;
+
+/**
+ * Full resync of a Cassandra table to Elastic Search with a fixed memory footprint. The table is
+ * walked in token order one page at a time, each page is written with a single ES bulk request
+ * which is awaited before the next page is read, and the last token written is saved in
+ * system_settings once the page is indexed, so that an interrupted or failed resync continues
+ * where it stopped.
+ */
+public class EsResyncStreamer {
+
+  public static final String CHECKPOINT_ID_PREFIX = "esSyncCheckpoint_";
+  private static final String SUNBIRD_ES_SYNC_BATCH_SIZE = "sunbird_es_sync_batch_size";
+  private static final int DEFAULT_BATCH_SIZE = 500;
+  private static final String SYNC_TOKEN = "sync_token";
+  private static final int MAX_BULK_ATTEMPTS = 3;
+  private static final BigDecimal TOKEN_RANGE =
+      BigDecimal.valueOf(Long.MAX_VALUE).subtract(BigDecimal.valueOf(Long.MIN_VALUE));
+
+  private CassandraOperation cassandraOperation;
+  private ElasticSearchService esService;
+
+  public EsResyncStreamer(CassandraOperation cassandraOperation, ElasticSearchService esService) {
+    this.cassandraOperation = cassandraOperation;
+    this.esService = esService;
+  }
+
+  /**
+   * Streams all organisations to ES.
+   *
+   * @param transformer Converts an organisation row to its ES document
+   */
+  public void syncOrganisations(Function<Map<String, Object>, Map<String, Object>> transformer) {
+    Util.DbInfo dbInfo = Util.dbInfoMap.get(JsonKey.ORG_DB);
+    stream(
+        JsonKey.ORGANISATION,
+        dbInfo,
+        null,
+        page -> page.stream().map(transformer).collect(Collectors.toList()),
+        ProjectUtil.EsType.organisation.getTypeName());
+  }
+
+  /**
+   * Streams all users to ES. Only the user ids are read from the table, the ES documents of each
+   * page are assembled with {@link Util#getUserDetails(List, ActorRef)}.
+   *
+   * @param actorRef Actor reference used to read the user profile config
+   */
+  public void syncUsers(ActorRef actorRef) {
+    Util.DbInfo dbInfo = Util.dbInfoMap.get(JsonKey.USER_DB);
+    stream(
+        JsonKey.USER,
+        dbInfo,
+        JsonKey.ID,
+        page -> {
+          List<String> userIds =
+              page.stream().map(row -> (String) row.get(JsonKey.ID)).collect(Collectors.toList());
+          return new ArrayList<>(Util.getUserDetails(userIds, actorRef).values());
+        },
+        ProjectUtil.EsType.user.getTypeName());
+  }
+
+  private void stream(
+      String objectType,
+      Util.DbInfo dbInfo,
+      String column,
+      Function<List<Map<String, Object>>, List<Map<String, Object>>> toDocuments,
+      String esType) {
+    int batchSize = getBatchSize();
+    Session session =
+        CassandraConnectionMngrFactory.getObject(
+                PropertiesCache.getInstance().getProperty(JsonKey.SUNBIRD_CASSANDRA_MODE))
+            .getSession(dbInfo.getKeySpace());
+    PreparedStatement statement =
+        session.prepare(
+            "SELECT token(id) AS "
+                + SYNC_TOKEN
+                + ", "
+                + getColumns(session, dbInfo, column)
+                + " FROM "
+                + dbInfo.getKeySpace()
+                + "."
+                + dbInfo.getTableName()
+                + " WHERE token(id) > ? LIMIT ?");
+
+    long lastToken = readCheckpoint(objectType);
+    long startTime = System.currentTimeMillis();
+    double startProgress = progress(lastToken);
+    long rowCount = 0;
+    ProjectLogger.log(
+        "EsResyncStreamer:stream: Resync of "
+            + objectType
+            + " started from token "
+            + lastToken
+            + " with batch size "
+            + batchSize,
+        LoggerEnum.INFO.name());
+    while (true) {
+      ResultSet resultSet = session.execute(statement.bind(lastToken, batchSize));
+      Map<String, String> columnMap = CassandraUtil.fetchColumnsMapping(resultSet);
+      List<Map<String, Object>> page = new ArrayList<>(batchSize);
+      for (Row row : resultSet) {
+        lastToken = row.getLong(SYNC_TOKEN);
+        page.add(toMap(row, columnMap));
+      }
+      if (page.isEmpty()) {
+        break;
+      }
+      List<Map<String, Object>> documents = toDocuments.apply(page);
+      if (CollectionUtils.isNotEmpty(documents)) {
+        bulkInsert(objectType, esType, documents);
+      }
+      rowCount += page.size();
+      writeCheckpoint(objectType, lastToken);
+      logProgress(objectType, rowCount, startTime, startProgress, lastToken);
+      if (page.size() < batchSize) {
+        break;
+      }
+    }
+    clearCheckpoint(objectType);
+    ProjectLogger.log(
+        "EsResyncStreamer:stream: Resync of "
+            + objectType
+            + " completed, rows synced = "
+            + rowCount
+            + " in "
+            + (System.currentTimeMillis() - startTime)
+            + " ms",
+        LoggerEnum.INFO.name());
+  }
+
+  /**
+   * Writes one page to ES, retrying a failed bulk request. When every attempt fails the resync is
+   * stopped without moving the checkpoint, so that the next resync starts again from the page.
+   */
+  private void bulkInsert(String objectType, String esType, List<Map<String, Object>> documents) {
+    for (int attempt = 1; ; attempt++) {
+      Object result = null;
+      try {
+        Future<Boolean> bulkF = esService.bulkInsert(esType, documents);
+        result = ElasticSearchHelper.getResponseFromFuture(bulkF);
+      } catch (Exception e) {
+        ProjectLogger.log(
+            "EsResyncStreamer:bulkInsert: Bulk insert of " + objectType + " failed", e);
+      }
+      if (Boolean.TRUE.equals(result)) {
+        return;
+      }
+      ProjectLogger.log(
+          "EsResyncStreamer:bulkInsert: Bulk insert of "
+              + documents.size()
+              + " "
+              + objectType
+              + " documents failed, attempt "
+              + attempt,
+          LoggerEnum.ERROR.name());
+      if (attempt >= MAX_BULK_ATTEMPTS) {
+        throw new ProjectCommonException(
+            ResponseCode.internalError.getErrorCode(),
+            ResponseCode.internalError.getErrorMessage(),
+            ResponseCode.SERVER_ERROR.getResponseCode());
+      }
+    }
+  }
+
+  private String getColumns(Session session, Util.DbInfo dbInfo, String column) {
+    if (StringUtils.isNotBlank(column)) {
+      return column;
+    }
+    return session
+        .getCluster()
+        .getMetadata()
+        .getKeyspace(dbInfo.getKeySpace())
+        .getTable(dbInfo.getTableName())
+        .getColumns()
+        .stream()
+        .map(ColumnMetadata::getName)
+        .collect(Collectors.joining(", "));
+  }
+
+  private Map<String, Object> toMap(Row row, Map<String, String> columnMap) {
+    Map<String, Object> rowMap = new HashMap<>();
+    for (Map.Entry<String, String> entry : columnMap.entrySet()) {
+      if (!SYNC_TOKEN.equals(entry.getValue())) {
+        rowMap.put(entry.getKey(), row.getObject(entry.getValue()));
+      }
+    }
+    return rowMap;
+  }
+
+  /** Logs rows per second and, from the position in the token ring, the estimated time left. */
+  private void logProgress(
+      String objectType, long rowCount, long startTime, double startProgress, long lastToken) {
+    long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+    double done = progress(lastToken) - startProgress;
+    double remaining = 1 - progress(lastToken);
+    long etaSeconds = done > 0 ? (long) (elapsed * remaining / done / 1000) : -1;
+    ProjectLogger.log(
+        "EsResyncStreamer:logProgress: type = "
+            + objectType
+            + ", rows = "
+            + rowCount
+            + ", rows/sec = "
+            + (rowCount * 1000 / elapsed)
+            + ", completed = "
+            + String.format("%.2f", progress(lastToken) * 100)
+            + "%, eta = "
+            + etaSeconds
+            + " s",
+        LoggerEnum.INFO.name());
+  }
+
+  private double progress(long token) {
+    return BigDecimal.valueOf(token)
+        .subtract(BigDecimal.valueOf(Long.MIN_VALUE))
+        .divide(TOKEN_RANGE, 6, BigDecimal.ROUND_HALF_UP)
+        .doubleValue();
+  }
+
+  @SuppressWarnings("unchecked")
+  private long readCheckpoint(String objectType) {
+    Response response =
+        cassandraOperation.getRecordById(
+            JsonKey.SUNBIRD, JsonKey.SYSTEM_SETTINGS_DB, CHECKPOINT_ID_PREFIX + objectType);
+    List<Map<String, Object>> responseList =
+        (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+    if (CollectionUtils.isNotEmpty(responseList)) {
+      String value = (String) responseList.get(0).get(JsonKey.VALUE);
+      if (StringUtils.isNotBlank(value)) {
+        ProjectLogger.log(
+            "EsResyncStreamer:readCheckpoint: Resuming resync of " + objectType + " from " + value,
+            LoggerEnum.INFO.name());
+        return Long.parseLong(value);
+      }
+    }
+    return Long.MIN_VALUE;
+  }
+
+  private void writeCheckpoint(String objectType, long token) {
+    Map<String, Object> map = new HashMap<>();
+    map.put(JsonKey.ID, CHECKPOINT_ID_PREFIX + objectType);
+    map.put(JsonKey.FIELD, CHECKPOINT_ID_PREFIX + objectType);
+    map.put(JsonKey.VALUE, String.valueOf(token));
+    cassandraOperation.upsertRecord(JsonKey.SUNBIRD, JsonKey.SYSTEM_SETTINGS_DB, map);
+  }
+
+  private void clearCheckpoint(String objectType) {
+    cassandraOperation.deleteRecord(
+        JsonKey.SUNBIRD, JsonKey.SYSTEM_SETTINGS_DB, CHECKPOINT_ID_PREFIX + objectType);
+  }
+
+  private int getBatchSize() {
+    int batchSize = DEFAULT_BATCH_SIZE;
+    try {
+      String value = ProjectUtil.getConfigValue(SUNBIRD_ES_SYNC_BATCH_SIZE);
+      if (StringUtils.isNotBlank(value)) {
+        batchSize = Integer.parseInt(value.trim());
+      }
+    } catch (Exception ex) {
+      ProjectLogger.log(
+          "EsResyncStreamer:getBatchSize: Invalid value for " + SUNBIRD_ES_SYNC_BATCH_SIZE, ex);
+    }
+    return batchSize;
+  }
+}
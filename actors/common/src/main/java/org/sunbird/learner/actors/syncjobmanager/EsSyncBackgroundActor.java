@@ -36,8 +36,11 @@ import org.sunbird.learner.util.Util.DbInfo;
 )
 public class EsSyncBackgroundActor extends BaseActor {
 
+  private static final int USER_SYNC_BATCH_SIZE = 100;
+
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
   private ElasticSearchService esService = EsClientFactory.getInstance(JsonKey.REST);
+  private EsResyncStreamer esResyncStreamer = new EsResyncStreamer(cassandraOperation, esService);
 
   @Override
   public void onReceive(Request request) throws Throwable {
@@ -115,27 +118,14 @@ public class EsSyncBackgroundActor extends BaseActor {
               + objectType
               + " as no IDs provided",
           LoggerEnum.INFO);
-
-      Response response =
-          cassandraOperation.getAllRecords(dbInfo.getKeySpace(), dbInfo.getTableName());
-      reponseList = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
-
-      ProjectLogger.log(
-          "EsSyncBackgroundActor:sync: Fetching all data for type = " + objectType + " completed",
-          LoggerEnum.INFO);
-
-      ProjectLogger.log(
-          "EsSyncBackgroundActor:sync: Number of entries to sync for type = "
-              + objectType
-              + " is "
-              + reponseList.size(),
-          LoggerEnum.INFO);
-
-      if (null != reponseList) {
-        for (Map<String, Object> map : reponseList) {
-          responseMap.put((String) map.get(JsonKey.ID), map);
-        }
+      if (objectType.equals(JsonKey.ORGANISATION)) {
+        esResyncStreamer.syncOrganisations(this::getOrgDetails);
+      } else {
+        ProjectLogger.log(
+            "EsSyncBackgroundActor:sync: Full sync is not supported for type = " + objectType,
+            LoggerEnum.ERROR);
       }
+      return;
     }
 
     Iterator<Entry<String, Object>> itr = responseMap.entrySet().iterator();
@@ -160,24 +150,28 @@ public class EsSyncBackgroundActor extends BaseActor {
 
   private void handleUserSyncRequest(List<Object> objectIds) {
     if (CollectionUtils.isEmpty(objectIds)) {
-      Response response =
-          cassandraOperation.getRecordsByProperties(
-              JsonKey.SUNBIRD, JsonKey.USER, null, Arrays.asList(JsonKey.ID));
-      List<Map<String, Object>> responseList =
-          (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
-      objectIds = responseList.stream().map(i -> i.get(JsonKey.ID)).collect(Collectors.toList());
+      esResyncStreamer.syncUsers(getActorRef(ActorOperations.GET_SYSTEM_SETTING.getValue()));
+      return;
     }
     invokeUserSync(objectIds);
   }
 
   private void invokeUserSync(List<Object> objectIds) {
     if (CollectionUtils.isNotEmpty(objectIds)) {
-      for (Object userId : objectIds) {
+      for (int from = 0; from < objectIds.size(); from += USER_SYNC_BATCH_SIZE) {
+        List<String> userIds =
+            objectIds
+                .subList(from, Math.min(from + USER_SYNC_BATCH_SIZE, objectIds.size()))
+                .stream()
+                .map(userId -> (String) userId)
+                .collect(Collectors.toList());
         Request userRequest = new Request();
         userRequest.setOperation(ActorOperations.UPDATE_USER_INFO_ELASTIC.getValue());
-        userRequest.getRequest().put(JsonKey.ID, userId);
+        userRequest.getRequest().put(JsonKey.USER_IDs, userIds);
         ProjectLogger.log(
-            "EsSyncBackgroundActor:invokeUserSync: Trigger sync of user details to ES");
+            "EsSyncBackgroundActor:invokeUserSync: Trigger sync of user details to ES for "
+                + userIds.size()
+                + " users");
         tellToAnother(userRequest);
       }
     }
@@ -194,8 +188,11 @@ public class EsSyncBackgroundActor extends BaseActor {
   }
 
   private Map<String, Object> getOrgDetails(Entry<String, Object> entry) {
+    return getOrgDetails((Map<String, Object>) entry.getValue());
+  }
+
+  private Map<String, Object> getOrgDetails(Map<String, Object> orgMap) {
     ProjectLogger.log("EsSyncBackgroundActor: getOrgDetails called", LoggerEnum.INFO);
-    Map<String, Object> orgMap = (Map<String, Object>) entry.getValue();
     orgMap.remove(JsonKey.ORG_TYPE);
     if (orgMap.containsKey(JsonKey.ADDRESS_ID)
         && !StringUtils.isBlank((String) orgMap.get(JsonKey.ADDRESS_ID))) {
@@ -10,6 +10,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.sunbird.actor.core.BaseActor;
 import org.sunbird.actor.router.ActorConfig;
 import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.ElasticSearchHelper;
 import org.sunbird.common.factory.EsClientFactory;
 import org.sunbird.common.inf.ElasticSearchService;
 import org.sunbird.common.models.response.Response;
@@ -20,6 +21,7 @@ import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.common.models.util.PropertiesCache;
 import org.sunbird.common.request.Request;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.UserProfileCache;
 import org.sunbird.learner.util.UserUtility;
 import org.sunbird.learner.util.Util;
 import org.sunbird.services.sso.SSOManager;
@@ -128,7 +130,9 @@ public class KeyCloakSyncActor extends BaseActor {
               map.put(JsonKey.ID, userId);
             }
             cassandraOperation.updateRecord(dbInfo.getKeySpace(), dbInfo.getTableName(), map);
-            esService.update(ProjectUtil.EsType.user.getTypeName(), userId, map);
+            ElasticSearchHelper.getResponseFromFuture(
+                esService.update(ProjectUtil.EsType.user.getTypeName(), userId, map));
+            UserProfileCache.getInstance().invalidate(userId);
           }
           ProjectLogger.log("User sync failed in KeyCloakSyncActor for userID : " + userId);
         }
@@ -0,0 +1,301 @@
+package org.sunbird.learner.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.sunbird.common.ElasticSearchHelper;
+import org.sunbird.common.factory.EsClientFactory;
+import org.sunbird.common.inf.ElasticSearchService;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.ProjectUtil.EsType;
+import org.sunbird.dto.SearchDTO;
+import org.sunbird.kafka.client.KafkaClient;
+import scala.concurrent.Future;
+
+/**
+ * In memory index of the root organisations by channel, holding the ID, name, status, hash tag ID
+ * and whether the organisation is the custodian organisation. The index is loaded from ES by
+ * {@link #run()}, which the scheduler calls at startup and periodically, and an organisation is
+ * dropped from it as soon as it is synced to ES. Channels which are not indexed are looked up in
+ * ES and added to the index when found.
+ *
+ * <p>When an invalidation topic is configured, each dropped organisation is also published on it
+ * and every node listens on it with its own consumer group, so that the other nodes drop it as
+ * well. Without the topic, the refresh interval bounds how long other nodes serve a stale entry.
+ */
+public class ChannelRootOrgIndex implements Runnable {
+
+  public static final String IS_CUSTODIAN_ORG = "isCustodianOrg";
+  private static final String SUNBIRD_CHANNEL_INDEX_PAGE_SIZE_KEY =
+      "sunbird_channel_index_page_size";
+  private static final String SUNBIRD_CHANNEL_INDEX_TOPIC_KEY =
+      "sunbird_channel_index_invalidation_topic";
+  private static final String SUNBIRD_CHANNEL_INDEX_KAFKA_SERVERS_KEY =
+      "sunbird_channel_index_kafka_servers";
+  private static final int DEFAULT_PAGE_SIZE = 1000;
+  private static final int METRICS_LOG_INTERVAL = 1000;
+  private static final long POLL_TIMEOUT = 1000L;
+  private static final String ASC = "asc";
+  private static final String GT = ">";
+  private static final List<String> FIELDS =
+      Arrays.asList(
+          JsonKey.ID, JsonKey.ORG_NAME, JsonKey.STATUS, JsonKey.HASHTAGID, JsonKey.CHANNEL);
+  private static ChannelRootOrgIndex instance;
+
+  private final ElasticSearchService esService;
+  private final String topic;
+  private final int pageSize;
+  private volatile Map<String, Map<String, Object>> rootOrgs = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong esLookups = new AtomicLong();
+
+  ChannelRootOrgIndex(ElasticSearchService esService, String topic, int pageSize) {
+    this.esService = esService;
+    this.topic = topic;
+    this.pageSize = pageSize;
+  }
+
+  public static synchronized ChannelRootOrgIndex getInstance() {
+    if (instance == null) {
+      String topic = getConfigValue(SUNBIRD_CHANNEL_INDEX_TOPIC_KEY);
+      instance = new ChannelRootOrgIndex(null, topic, getPageSize());
+      if (StringUtils.isNotBlank(topic)) {
+        instance.startInvalidationListener(getConfigValue(SUNBIRD_CHANNEL_INDEX_KAFKA_SERVERS_KEY));
+      }
+    }
+    return instance;
+  }
+
+  /** Reloads the whole index from ES, page by page in the order of the organisation IDs. */
+  @Override
+  public void run() {
+    try {
+      Map<String, Map<String, Object>> loadedRootOrgs = new ConcurrentHashMap<>();
+      String lastId = null;
+      while (true) {
+        List<Map<String, Object>> page = searchRootOrgs(null, lastId, pageSize);
+        for (Map<String, Object> rootOrg : page) {
+          lastId = (String) rootOrg.get(JsonKey.ID);
+          String channel = (String) rootOrg.get(JsonKey.CHANNEL);
+          if (StringUtils.isNotBlank(channel)) {
+            loadedRootOrgs.put(channel, toIndexEntry(rootOrg));
+          }
+        }
+        if (page.size() < pageSize || lastId == null) {
+          break;
+        }
+      }
+      rootOrgs = loadedRootOrgs;
+      ProjectLogger.log(
+          "ChannelRootOrgIndex:run: Loaded " + loadedRootOrgs.size() + " root organisations",
+          LoggerEnum.INFO.name());
+    } catch (Exception e) {
+      ProjectLogger.log("ChannelRootOrgIndex:run: Failed to load root organisations", e);
+    }
+  }
+
+  /**
+   * Returns the root organisation of the given channel, looking it up in ES if it is not indexed.
+   *
+   * @param channel Channel of the root organisation
+   * @return Copy of the index entry, or null if no root organisation has the channel
+   */
+  public Map<String, Object> getRootOrg(String channel) {
+    Map<String, Object> rootOrg = getIndexedRootOrg(channel);
+    if (rootOrg != null || StringUtils.isBlank(channel)) {
+      return rootOrg;
+    }
+    esLookups.incrementAndGet();
+    List<Map<String, Object>> found = searchRootOrgs(channel, null, 1);
+    if (found.isEmpty()) {
+      return null;
+    }
+    put(found.get(0));
+    return toIndexEntry(found.get(0));
+  }
+
+  /**
+   * Returns the root organisation of the given channel if it is indexed, without looking it up in
+   * ES.
+   *
+   * @param channel Channel of the root organisation
+   * @return Copy of the index entry, or null if the channel is not indexed
+   */
+  public Map<String, Object> getIndexedRootOrg(String channel) {
+    if (StringUtils.isBlank(channel)) {
+      return null;
+    }
+    Map<String, Object> rootOrg = rootOrgs.get(channel);
+    if (rootOrg != null) {
+      if (hits.incrementAndGet() % METRICS_LOG_INTERVAL == 0) {
+        ProjectLogger.log(
+            "ChannelRootOrgIndex:getIndexedRootOrg: ES lookups saved = "
+                + hits.get()
+                + " ES lookups = "
+                + esLookups.get()
+                + " size = "
+                + rootOrgs.size(),
+            LoggerEnum.INFO.name());
+      }
+      return new HashMap<>(rootOrg);
+    }
+    return null;
+  }
+
+  /**
+   * Adds the given root organisation, read from ES or the database, to the index.
+   *
+   * @param rootOrg Root organisation details
+   */
+  public void put(Map<String, Object> rootOrg) {
+    String channel = (String) rootOrg.get(JsonKey.CHANNEL);
+    String id = (String) rootOrg.get(JsonKey.ID);
+    if (StringUtils.isNotBlank(channel) && StringUtils.isNotBlank(id)) {
+      rootOrgs.put(channel, toIndexEntry(rootOrg));
+    }
+  }
+
+  /**
+   * Drops the given organisation from the index, whatever channel it is indexed with, on this node
+   * and, when an invalidation topic is configured, on all other nodes.
+   *
+   * @param orgId Organisation ID
+   */
+  public void invalidateOrg(String orgId) {
+    if (orgId == null) {
+      return;
+    }
+    remove(orgId);
+    if (StringUtils.isNotBlank(topic)) {
+      try {
+        KafkaClient.send(orgId, topic);
+      } catch (Exception e) {
+        ProjectLogger.log(
+            "ChannelRootOrgIndex:invalidateOrg: Failed to publish invalidation for org " + orgId,
+            e);
+      }
+    }
+  }
+
+  private void remove(String orgId) {
+    rootOrgs.values().removeIf(rootOrg -> orgId.equals(rootOrg.get(JsonKey.ID)));
+  }
+
+  /** Returns the number of channel lookups served from the index without an ES call. */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getEsLookupCount() {
+    return esLookups.get();
+  }
+
+  private static Map<String, Object> toIndexEntry(Map<String, Object> rootOrg) {
+    Map<String, Object> entry = new HashMap<>();
+    for (String field : FIELDS) {
+      entry.put(field, rootOrg.get(field));
+    }
+    String custodianOrgId = DataCacheHandler.getConfigSettings().get(JsonKey.CUSTODIAN_ORG_ID);
+    entry.put(
+        IS_CUSTODIAN_ORG,
+        custodianOrgId != null && custodianOrgId.equals(rootOrg.get(JsonKey.ID)));
+    return entry;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Map<String, Object>> searchRootOrgs(String channel, String lastId, int limit) {
+    Map<String, Object> filters = new HashMap<>();
+    filters.put(JsonKey.IS_ROOT_ORG, true);
+    if (channel != null) {
+      filters.put(JsonKey.CHANNEL, channel);
+    }
+    if (lastId != null) {
+      Map<String, Object> range = new HashMap<>();
+      range.put(GT, lastId);
+      filters.put(JsonKey.ID, range);
+    }
+    SearchDTO searchDTO = new SearchDTO();
+    searchDTO.getAdditionalProperties().put(JsonKey.FILTERS, filters);
+    searchDTO.setFields(FIELDS);
+    searchDTO.setLimit(limit);
+    searchDTO.getSortBy().put(JsonKey.ID, ASC);
+    ElasticSearchService service =
+        esService != null ? esService : EsClientFactory.getInstance(JsonKey.REST);
+    Future<Map<String, Object>> resultF =
+        service.search(searchDTO, EsType.organisation.getTypeName());
+    Map<String, Object> result =
+        (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(resultF);
+    if (result == null || CollectionUtils.isEmpty((List) result.get(JsonKey.CONTENT))) {
+      return Collections.emptyList();
+    }
+    return (List<Map<String, Object>>) result.get(JsonKey.CONTENT);
+  }
+
+  private void startInvalidationListener(String servers) {
+    if (StringUtils.isBlank(servers)) {
+      ProjectLogger.log(
+          "ChannelRootOrgIndex:startInvalidationListener: Kafka servers not configured",
+          LoggerEnum.ERROR.name());
+      return;
+    }
+    Properties properties = new Properties();
+    properties.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, servers);
+    // Every node uses its own group so that each of them receives every invalidation
+    properties.put(ConsumerConfig.GROUP_ID_CONFIG, "channel-root-org-index-" + UUID.randomUUID());
+    properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+    properties.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    properties.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    Thread listener =
+        new Thread(
+            () -> {
+              try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(properties)) {
+                consumer.subscribe(Collections.singletonList(topic));
+                while (!Thread.currentThread().isInterrupted()) {
+                  for (ConsumerRecord<String, String> record : consumer.poll(POLL_TIMEOUT)) {
+                    remove(record.value());
+                  }
+                }
+              } catch (Exception e) {
+                ProjectLogger.log(
+                    "ChannelRootOrgIndex:startInvalidationListener: Listener stopped, clearing", e);
+                rootOrgs = new ConcurrentHashMap<>();
+              }
+            },
+            "channel-root-org-index-invalidation");
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  private static int getPageSize() {
+    try {
+      return Integer.parseInt(
+          ProjectUtil.getConfigValue(SUNBIRD_CHANNEL_INDEX_PAGE_SIZE_KEY).trim());
+    } catch (Exception e) {
+      return DEFAULT_PAGE_SIZE;
+    }
+  }
+
+  private static String getConfigValue(String key) {
+    try {
+      String value = ProjectUtil.getConfigValue(key);
+      return StringUtils.isBlank(value) ? null : value.trim();
+    } catch (Exception e) {
+      return null;
+    }
+  }
+}
@@ -5,53 +5,166 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.sunbird.actor.background.ChannelRegistrationActor;
 import org.sunbird.cassandra.CassandraOperation;
 import org.sunbird.common.models.response.Response;
 import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.actors.role.service.PermissionGraph;
+import org.sunbird.learner.actors.syncjobmanager.EsResyncStreamer;
 import org.sunbird.learner.actors.role.service.RoleService;
 
 /**
- * This class will handle the data cache.
+ * This class will handle the data cache. Roles, org types, system settings and the role read
+ * response are loaded into a new snapshot which is swapped in as a whole, so readers never see a
+ * partially refreshed cache. Besides the periodic full refresh, a version row in system_settings
+ * is polled and the cache is reloaded as soon as a writer publishes a change through {@link
+ * #publishChange()}.
  *
  * @author Amit Kumar
  */
 public class DataCacheHandler implements Runnable {
 
-  private static Map<String, Object> roleMap = new ConcurrentHashMap<>();
-  private static Map<String, String> orgTypeMap = new ConcurrentHashMap<>();
-  private static Map<String, String> configSettings = new ConcurrentHashMap<>();
+  public static final String CACHE_VERSION_ID = "dataCacheVersion";
+  private static volatile Snapshot snapshot =
+      new Snapshot(
+          new ConcurrentHashMap<>(),
+          new ConcurrentHashMap<>(),
+          new ConcurrentHashMap<>(),
+          null,
+          null);
+  private static final AtomicLong configHits = new AtomicLong();
+  private static final AtomicLong configMisses = new AtomicLong();
+  private static final AtomicLong refreshCount = new AtomicLong();
+  private static final AtomicLong lastStalenessInMs = new AtomicLong(-1);
+  private static final Object refreshLock = new Object();
   private static Map<String, Map<String, List<Map<String, String>>>> frameworkCategoriesMap =
       new ConcurrentHashMap<>();
   private static Map<String, List<String>> frameworkFieldsConfig = new ConcurrentHashMap<>();
   private static Map<String, List<String>> hashtagIdFrameworkIdMap = new HashMap<>();
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
   private static final String KEY_SPACE_NAME = Util.KEY_SPACE_NAME;
-  private static Response roleCacheResponse;
 
   @Override
   public void run() {
     ProjectLogger.log("DataCacheHandler:run: Cache refresh started.", LoggerEnum.INFO.name());
-    roleCache(roleMap);
-    orgTypeCache(orgTypeMap);
-    cacheSystemConfig(configSettings);
-    cacheRoleForRead();
+    refresh(readVersion());
     ProjectLogger.log("DataCacheHandler:run: Cache refresh completed.", LoggerEnum.INFO.name());
   }
 
-  private void cacheRoleForRead() {
-    roleCacheResponse = RoleService.getUserRoles();
+  /** Reads the cache version row and reloads the cache only if the version has changed. */
+  public void refreshIfChanged() {
+    try {
+      String version = readVersion();
+      Snapshot current = snapshot;
+      if (version != null && !version.equals(current.version)) {
+        long changedAt = NumberUtils.toLong(version, 0);
+        lastStalenessInMs.set(changedAt > 0 ? System.currentTimeMillis() - changedAt : -1);
+        ProjectLogger.log(
+            "DataCacheHandler:refreshIfChanged: Cache version changed from "
+                + current.version
+                + " to "
+                + version
+                + ", staleness = "
+                + lastStalenessInMs.get()
+                + " ms",
+            LoggerEnum.INFO.name());
+        refresh(version);
+      }
+    } catch (Exception e) {
+      ProjectLogger.log("DataCacheHandler:refreshIfChanged: Version check failed.", e);
+    }
+  }
+
+  private void refresh(String version) {
+    synchronized (refreshLock) {
+      // The role map and the roles read response both come from one build of the permission graph
+      PermissionGraph permissionGraph = RoleService.buildPermissionGraph();
+      Map<String, Object> roleMap = new ConcurrentHashMap<>(permissionGraph.getRoleNames());
+      Map<String, String> orgTypeMap = new ConcurrentHashMap<>();
+      Map<String, String> configSettings = new ConcurrentHashMap<>();
+      orgTypeCache(orgTypeMap);
+      cacheSystemConfig(configSettings);
+      snapshot =
+          new Snapshot(
+              roleMap,
+              orgTypeMap,
+              configSettings,
+              permissionGraph.getRolesResponse(),
+              version);
+      refreshCount.incrementAndGet();
+      ProjectLogger.log(
+          "DataCacheHandler:refresh: Cache metrics " + getCacheMetrics(), LoggerEnum.INFO.name());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private String readVersion() {
+    Response response =
+        cassandraOperation.getRecordById(
+            KEY_SPACE_NAME, JsonKey.SYSTEM_SETTINGS_DB, CACHE_VERSION_ID);
+    List<Map<String, Object>> responseList =
+        (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+    if (null != responseList && !responseList.isEmpty()) {
+      return (String) responseList.get(0).get(JsonKey.VALUE);
+    }
+    return null;
+  }
+
+  /**
+   * Bumps the cache version row so that every node reloads its cache on the next version check.
+   * Should be called after writing a system setting, role or org type.
+   */
+  public static void publishChange() {
+    Map<String, Object> map = new HashMap<>();
+    map.put(JsonKey.ID, CACHE_VERSION_ID);
+    map.put(JsonKey.FIELD, CACHE_VERSION_ID);
+    map.put(JsonKey.VALUE, String.valueOf(System.currentTimeMillis()));
+    try {
+      ServiceFactory.getInstance().upsertRecord(KEY_SPACE_NAME, JsonKey.SYSTEM_SETTINGS_DB, map);
+    } catch (Exception e) {
+      ProjectLogger.log("DataCacheHandler:publishChange: Failed to bump cache version.", e);
+    }
+  }
+
+  /**
+   * Returns the cache metrics: config lookup hits and misses, number of refreshes, the version
+   * loaded and the age of the current snapshot in milliseconds.
+   */
+  public static Map<String, Object> getCacheMetrics() {
+    Snapshot current = snapshot;
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("configHits", configHits.get());
+    metrics.put("configMisses", configMisses.get());
+    metrics.put("refreshCount", refreshCount.get());
+    metrics.put("lastStalenessInMs", lastStalenessInMs.get());
+    metrics.put("version", current.version);
+    metrics.put("ageInMs", System.currentTimeMillis() - current.loadedAt);
+    return metrics;
   }
 
   public static Response getRoleResponse() {
-    return roleCacheResponse;
+    return snapshot.roleCacheResponse;
   }
 
   public static void setRoleResponse(Response response) {
-    if (response != null) roleCacheResponse = response;
+    if (response != null) {
+      synchronized (refreshLock) {
+        Snapshot current = snapshot;
+        snapshot =
+            new Snapshot(
+                current.roleMap,
+                current.orgTypeMap,
+                current.configSettings,
+                response,
+                current.version);
+      }
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -63,6 +176,9 @@ public class DataCacheHandler implements Runnable {
         (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
     if (null != responseList && !responseList.isEmpty()) {
       for (Map<String, Object> resultMap : responseList) {
+        if (isInternalSetting((String) resultMap.get(JsonKey.ID))) {
+          continue;
+        }
         if (((String) resultMap.get(JsonKey.FIELD)).equalsIgnoreCase(JsonKey.PHONE_UNIQUE)
             && StringUtils.isBlank((String) resultMap.get(JsonKey.VALUE))) {
           configSettings.put(((String) resultMap.get(JsonKey.FIELD)), String.valueOf(false));
@@ -94,53 +210,107 @@ public class DataCacheHandler implements Runnable {
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private void roleCache(Map<String, Object> roleMap) {
-    Response response = cassandraOperation.getAllRecords(KEY_SPACE_NAME, JsonKey.ROLE_GROUP);
-    List<Map<String, Object>> responseList =
-        (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
-    if (null != responseList && !responseList.isEmpty()) {
-      for (Map<String, Object> resultMap : responseList) {
-        roleMap.put((String) resultMap.get(JsonKey.ID), resultMap.get(JsonKey.NAME));
-      }
-    }
-    Response response2 = cassandraOperation.getAllRecords(KEY_SPACE_NAME, JsonKey.ROLE);
-    List<Map<String, Object>> responseList2 =
-        (List<Map<String, Object>>) response2.get(JsonKey.RESPONSE);
-    if (null != responseList2 && !responseList2.isEmpty()) {
-      for (Map<String, Object> resultMap2 : responseList2) {
-        roleMap.put((String) resultMap2.get(JsonKey.ID), resultMap2.get(JsonKey.NAME));
-      }
-    }
-  }
   /** @return the roleMap */
   public static Map<String, Object> getRoleMap() {
-    return roleMap;
+    return snapshot.roleMap;
   }
 
   /** @param roleMap the roleMap to set */
   public static void setRoleMap(Map<String, Object> roleMap) {
-    DataCacheHandler.roleMap = roleMap;
+    synchronized (refreshLock) {
+      Snapshot current = snapshot;
+      snapshot =
+          new Snapshot(
+              roleMap,
+              current.orgTypeMap,
+              current.configSettings,
+              current.roleCacheResponse,
+              current.version);
+    }
   }
 
   /** @return the orgTypeMap */
   public static Map<String, String> getOrgTypeMap() {
-    return orgTypeMap;
+    return snapshot.orgTypeMap;
   }
 
   /** @param orgTypeMap the orgTypeMap to set */
   public static void setOrgTypeMap(Map<String, String> orgTypeMap) {
-    DataCacheHandler.orgTypeMap = orgTypeMap;
+    synchronized (refreshLock) {
+      Snapshot current = snapshot;
+      snapshot =
+          new Snapshot(
+              current.roleMap,
+              orgTypeMap,
+              current.configSettings,
+              current.roleCacheResponse,
+              current.version);
+    }
   }
 
   /** @return the configSettings */
   public static Map<String, String> getConfigSettings() {
-    return configSettings;
+    return snapshot.configSettings;
   }
 
   /** @param configSettings the configSettings to set */
   public static void setConfigSettings(Map<String, String> configSettings) {
-    DataCacheHandler.configSettings = configSettings;
+    synchronized (refreshLock) {
+      Snapshot current = snapshot;
+      snapshot =
+          new Snapshot(
+              current.roleMap,
+              current.orgTypeMap,
+              configSettings,
+              current.roleCacheResponse,
+              current.version);
+    }
+  }
+
+  /**
+   * Adds a system setting read from the database to the cache. The cached settings are copied, so
+   * that the current snapshot is never modified.
+   *
+   * @param field System setting field
+   * @param value System setting value
+   */
+  public static void putConfigSetting(String field, String value) {
+    if (field == null || value == null) {
+      return;
+    }
+    synchronized (refreshLock) {
+      Map<String, String> configSettings = new ConcurrentHashMap<>(snapshot.configSettings);
+      configSettings.put(field, value);
+      setConfigSettings(configSettings);
+    }
+  }
+
+  /**
+   * Returns true if the given system_settings row ID or field holds the internal state of a job or
+   * of this cache rather than a setting. Such rows are neither cached nor served as settings.
+   *
+   * @param id Row ID or field
+   */
+  public static boolean isInternalSetting(String id) {
+    return CACHE_VERSION_ID.equals(id)
+        || ChannelRegistrationActor.CHANNEL_REG_REPORT.equals(id)
+        || StringUtils.startsWith(id, EsResyncStreamer.CHECKPOINT_ID_PREFIX);
+  }
+
+  /**
+   * Returns the cached value of a system setting and records the lookup as a hit or a miss.
+   *
+   * @param field System setting field
+   * @return Cached value, or null if the field is not cached
+   */
+  public static String getConfigSetting(String field) {
+    String value = snapshot.configSettings.get(field);
+    if (value != null) {
+      configHits.incrementAndGet();
+    } else {
+      configMisses.incrementAndGet();
+    }
+    return value;
   }
 
   public static Map<String, Map<String, List<Map<String, String>>>> getFrameworkCategoriesMap() {
@@ -176,4 +346,27 @@ public class DataCacheHandler implements Runnable {
   public static void updateHashtagIdFrameworkIdMap(String hashtagId, List<String> frameworkIds) {
     DataCacheHandler.hashtagIdFrameworkIdMap.put(hashtagId, frameworkIds);
   }
+
+  /** Cached data loaded by one refresh. */
+  private static class Snapshot {
+    private final Map<String, Object> roleMap;
+    private final Map<String, String> orgTypeMap;
+    private final Map<String, String> configSettings;
+    private final Response roleCacheResponse;
+    private final long loadedAt = System.currentTimeMillis();
+    private final String version;
+
+    private Snapshot(
+        Map<String, Object> roleMap,
+        Map<String, String> orgTypeMap,
+        Map<String, String> configSettings,
+        Response roleCacheResponse,
+        String version) {
+      this.roleMap = roleMap;
+      this.orgTypeMap = orgTypeMap;
+      this.configSettings = configSettings;
+      this.roleCacheResponse = roleCacheResponse;
+      this.version = version;
+    }
+  }
 }
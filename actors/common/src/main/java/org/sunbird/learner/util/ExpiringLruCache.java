@@ -0,0 +1,149 @@
+package org.sunbird.learner.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Size bounded in memory cache whose entries expire a fixed time after they are added. Once the
+ * cache is full the least recently used entry is evicted. A cache can also be bounded by the total
+ * weight of its values, such as their approximate size in bytes, in which case the least recently
+ * used entries are evicted until the total fits. All operations are synchronized, which suits
+ * caches in front of a database or ES lookup where the lookup dominates the cost.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class ExpiringLruCache<K, V> {
+
+  private final long ttlInMs;
+  private final long maxWeight;
+  private final ToLongFunction<V> weigher;
+  private final Map<K, Entry<V>> entries;
+  private long totalWeight;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private static class Entry<V> {
+    private final V value;
+    private final long expiresAt;
+    private final long weight;
+
+    private Entry(V value, long expiresAt, long weight) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+      this.weight = weight;
+    }
+  }
+
+  public ExpiringLruCache(int maxSize, long ttlInMs) {
+    this(maxSize, Long.MAX_VALUE, value -> 0, ttlInMs);
+  }
+
+  /**
+   * Creates a cache bounded by both the number of entries and the total weight of their values.
+   *
+   * @param maxSize Maximum number of entries
+   * @param maxWeight Maximum total weight of the cached values
+   * @param weigher Function returning the weight of a value, computed once when it is added
+   * @param ttlInMs Time to live of an entry in milliseconds
+   */
+  public ExpiringLruCache(int maxSize, long maxWeight, ToLongFunction<V> weigher, long ttlInMs) {
+    this.ttlInMs = ttlInMs;
+    this.maxWeight = maxWeight;
+    this.weigher = weigher;
+    this.entries =
+        new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            if (size() > maxSize) {
+              evictions.incrementAndGet();
+              totalWeight -= eldest.getValue().weight;
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Returns the cached value of the given key.
+   *
+   * @param key Key to look up
+   * @return Cached value, or null if the key is not cached or its entry has expired
+   */
+  public synchronized V get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry != null && entry.expiresAt < System.currentTimeMillis()) {
+      remove(key);
+      entry = null;
+    }
+    if (entry == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return entry.value;
+  }
+
+  public synchronized void put(K key, V value) {
+    if (key == null || value == null) {
+      return;
+    }
+    long weight = weigher.applyAsLong(value);
+    if (weight > maxWeight) {
+      remove(key);
+      return;
+    }
+    remove(key);
+    totalWeight += weight;
+    entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlInMs, weight));
+    Iterator<Entry<V>> itr = entries.values().iterator();
+    while (totalWeight > maxWeight && itr.hasNext()) {
+      totalWeight -= itr.next().weight;
+      itr.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  public synchronized void invalidate(K key) {
+    remove(key);
+  }
+
+  public synchronized void invalidateAll() {
+    entries.clear();
+    totalWeight = 0;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /** Returns the total weight of the cached values. */
+  public synchronized long getWeight() {
+    return totalWeight;
+  }
+
+  private void remove(K key) {
+    Entry<V> entry = entries.remove(key);
+    if (entry != null) {
+      totalWeight -= entry.weight;
+    }
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /** Returns the number of entries removed to keep the cache within its maximum size or weight. */
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+}
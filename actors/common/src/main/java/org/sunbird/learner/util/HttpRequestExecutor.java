@@ -0,0 +1,166 @@
+package org.sunbird.learner.util;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * Posts a list of requests to an API with a bounded number of requests in flight, retrying failed
+ * and timed out requests with exponential backoff. Used by jobs which need one call per user or
+ * organisation, which are otherwise made one after another. Requests which are not idempotent are
+ * retried only when they were rejected before being processed, that is when the connection could
+ * not be made or the API answered with status 429.
+ */
+public class HttpRequestExecutor implements AutoCloseable {
+
+  private final int maxRetries;
+  private final long retryDelay;
+  private final boolean idempotent;
+  private final ExecutorService executor;
+  private final CloseableHttpClient client;
+
+  public HttpRequestExecutor(int concurrency, int maxRetries, long retryDelay, int timeout) {
+    this(concurrency, maxRetries, retryDelay, timeout, true);
+  }
+
+  /**
+   * Creates an executor.
+   *
+   * @param concurrency Maximum number of requests in flight
+   * @param maxRetries Number of times a failed request is retried
+   * @param retryDelay Delay before the first retry in milliseconds, doubled on each retry
+   * @param timeout Connect, socket and connection pool timeout of a request in milliseconds
+   * @param idempotent Whether a request can be sent again after the API may have processed it
+   */
+  public HttpRequestExecutor(
+      int concurrency, int maxRetries, long retryDelay, int timeout, boolean idempotent) {
+    this.maxRetries = maxRetries;
+    this.retryDelay = retryDelay;
+    this.idempotent = idempotent;
+    this.executor = Executors.newFixedThreadPool(concurrency);
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(concurrency);
+    connectionManager.setDefaultMaxPerRoute(concurrency);
+    RequestConfig requestConfig =
+        RequestConfig.custom()
+            .setConnectTimeout(timeout)
+            .setSocketTimeout(timeout)
+            .setConnectionRequestTimeout(timeout)
+            .build();
+    this.client =
+        HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .build();
+  }
+
+  /**
+   * Posts each of the given bodies to the given URL and waits for all of them to complete.
+   *
+   * @param url Complete URL of the API
+   * @param headers Request headers
+   * @param bodies Request bodies
+   * @param onProgress Called with the number of requests of this call completed so far after each
+   *     completion, in increasing order
+   * @return Response bodies in the order of the request bodies, null for a request which failed
+   *     after all retries
+   */
+  public List<String> postAll(
+      String url, Map<String, String> headers, List<String> bodies, IntConsumer onProgress) {
+    List<CompletableFuture<String>> futures = new ArrayList<>(bodies.size());
+    AtomicInteger completedCount = new AtomicInteger();
+    for (String body : bodies) {
+      futures.add(
+          CompletableFuture.supplyAsync(() -> post(url, headers, body), executor)
+              .whenComplete((response, e) -> reportProgress(completedCount, onProgress)));
+    }
+    List<String> responses = new ArrayList<>(bodies.size());
+    for (CompletableFuture<String> future : futures) {
+      responses.add(future.join());
+    }
+    return responses;
+  }
+
+  private void reportProgress(AtomicInteger completedCount, IntConsumer onProgress) {
+    synchronized (completedCount) {
+      try {
+        onProgress.accept(completedCount.incrementAndGet());
+      } catch (Exception e) {
+        ProjectLogger.log("HttpRequestExecutor:reportProgress: Failed to report progress", e);
+      }
+    }
+  }
+
+  private String post(String url, Map<String, String> headers, String body) {
+    for (int attempt = 0; ; attempt++) {
+      try {
+        int statusCode;
+        String response;
+        HttpPost post = new HttpPost(url);
+        headers.forEach(post::addHeader);
+        post.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
+        try (CloseableHttpResponse httpResponse = client.execute(post)) {
+          statusCode = httpResponse.getStatusLine().getStatusCode();
+          response = EntityUtils.toString(httpResponse.getEntity(), StandardCharsets.UTF_8);
+        }
+        if (statusCode == 200) {
+          return response;
+        }
+        ProjectLogger.log(
+            "HttpRequestExecutor:post: Status code from " + url + " is " + statusCode,
+            LoggerEnum.INFO.name());
+        if (statusCode != 429 && (statusCode < 500 || !idempotent)) {
+          return null;
+        }
+      } catch (IOException e) {
+        ProjectLogger.log("HttpRequestExecutor:post: Request to " + url + " failed", e);
+        if (!idempotent && !isNotSent(e)) {
+          return null;
+        }
+      }
+      if (attempt >= maxRetries) {
+        return null;
+      }
+      try {
+        Thread.sleep(retryDelay << attempt);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+    }
+  }
+
+  /** Returns true if the request failed before it could reach the API. */
+  private static boolean isNotSent(IOException e) {
+    return e instanceof ConnectException || e instanceof ConnectTimeoutException;
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    try {
+      client.close();
+    } catch (IOException e) {
+      ProjectLogger.log("HttpRequestExecutor:close: Failed to close HTTP client", e);
+    }
+  }
+}
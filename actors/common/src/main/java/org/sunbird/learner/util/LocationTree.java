@@ -0,0 +1,243 @@
+package org.sunbird.learner.util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.GeoLocationJsonKey;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.helper.ServiceFactory;
+import org.sunbird.models.location.Location;
+
+/**
+ * In memory copy of the location master data indexed by id and code. It is loaded from the
+ * location table by {@link #run()}, which the scheduler calls at startup and periodically, while
+ * location upserts and deletes of this node are applied to it as they happen. Ancestor chains, type
+ * order and code to id resolution are answered without any I/O; callers fall back to their own
+ * lookup on a miss and may add the result with {@link #upsert(Location)}. As changes made on other
+ * nodes are only seen after the next load, the tree is not used for checks which must be current.
+ */
+public final class LocationTree implements Runnable {
+
+  private static final String LOCATION_TABLE_NAME = "location";
+  private static final LocationTree instance = new LocationTree();
+
+  private final ObjectMapper mapper =
+      new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  private final Map<String, Integer> typeOrderMap = new HashMap<>();
+  private volatile Index index = new Index();
+  // Writes made while a load is reading the table, applied again to the loaded index
+  private List<Consumer<Index>> pendingWrites;
+
+  private LocationTree() {
+    List<String> subTypeList =
+        Arrays.asList(
+            ProjectUtil.getConfigValue(GeoLocationJsonKey.SUNBIRD_VALID_LOCATION_TYPES).split(";"));
+    for (String str : subTypeList) {
+      List<String> typeList =
+          Arrays.stream(str.split(",")).map(String::toLowerCase).collect(Collectors.toList());
+      for (int i = 0; i < typeList.size(); i++) {
+        typeOrderMap.put(typeList.get(i), i);
+      }
+    }
+  }
+
+  public static LocationTree getInstance() {
+    return instance;
+  }
+
+  /**
+   * Returns the position of a location type within its hierarchy, 0 being the top level.
+   *
+   * @param type Location type
+   * @return Order of the type
+   */
+  public int getOrder(String type) {
+    return typeOrderMap.get(type.toLowerCase());
+  }
+
+  public Location getById(String id) {
+    return StringUtils.isBlank(id) ? null : index.locationById.get(id);
+  }
+
+  public Location getByCode(String code) {
+    Index current = index;
+    String id = StringUtils.isBlank(code) ? null : current.idByCode.get(code);
+    return id == null ? null : current.locationById.get(id);
+  }
+
+  /**
+   * Returns the given location followed by its ancestors up to the top level. The chain stops at
+   * the first ancestor missing from the tree.
+   *
+   * @param location Location whose ancestors are required
+   * @return Location and its known ancestors, nearest first
+   */
+  public Set<Location> getAncestors(Location location) {
+    Set<Location> locationSet = new LinkedHashSet<>();
+    locationSet.add(location);
+    Location current = location;
+    int count = getOrder(current.getType());
+    while (count > 0) {
+      Location parent = getById(current.getParentId());
+      if (parent == null) {
+        break;
+      }
+      locationSet.add(parent);
+      current = parent;
+      count--;
+    }
+    return locationSet;
+  }
+
+  /**
+   * Returns true if the tree holds every ancestor of the given location, so that {@link
+   * #getAncestors(Location)} returns the complete chain.
+   */
+  public boolean hasCompleteAncestry(Location location) {
+    Set<Location> ancestors = getAncestors(location);
+    return ancestors.size() == getOrder(location.getType()) + 1;
+  }
+
+  /**
+   * Applies a location create or update request to the tree. The request of an update may hold
+   * only the changed fields, so it is merged into the cached location and fields missing from it
+   * keep their cached values.
+   *
+   * @param location Location fields, including the ID
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized void upsert(Map<String, Object> location) {
+    if (location == null) {
+      return;
+    }
+    Location existing = getById((String) location.get(JsonKey.ID));
+    Map<String, Object> merged = new HashMap<>();
+    if (existing != null) {
+      merged.putAll(mapper.convertValue(existing, Map.class));
+    }
+    location.forEach(
+        (key, value) -> {
+          if (value != null) {
+            merged.put(key, value);
+          }
+        });
+    upsert(mapper.convertValue(merged, Location.class));
+  }
+
+  /**
+   * Adds or replaces the given location. A location without a type or code is not added, as the
+   * tree can not place it, and callers look it up again on a miss.
+   *
+   * @param location Complete location
+   */
+  public void upsert(Location location) {
+    if (isPlaceable(location)) {
+      write(current -> current.upsert(location));
+    }
+  }
+
+  public void remove(String id) {
+    if (StringUtils.isNotBlank(id)) {
+      write(current -> current.remove(id));
+    }
+  }
+
+  private synchronized void write(Consumer<Index> change) {
+    change.accept(index);
+    if (pendingWrites != null) {
+      pendingWrites.add(change);
+    }
+  }
+
+  private static boolean isPlaceable(Location location) {
+    return location != null
+        && StringUtils.isNotBlank(location.getId())
+        && StringUtils.isNotBlank(location.getType())
+        && StringUtils.isNotBlank(location.getCode());
+  }
+
+  /**
+   * Reloads the whole tree from the location table. The table is read without blocking lookups or
+   * writes, and the loaded tree then replaces the current one.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public void run() {
+    long startTime = System.currentTimeMillis();
+    synchronized (this) {
+      pendingWrites = new ArrayList<>();
+    }
+    List<Map<String, Object>> locations = Collections.emptyList();
+    try {
+      CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+      Response response =
+          cassandraOperation.getAllRecords(Util.KEY_SPACE_NAME, LOCATION_TABLE_NAME);
+      if (response != null && response.get(JsonKey.RESPONSE) != null) {
+        locations = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+      }
+    } catch (Exception e) {
+      ProjectLogger.log("LocationTree:run: Failed to read locations.", e);
+      synchronized (this) {
+        pendingWrites = null;
+      }
+      return;
+    }
+    Index loaded = new Index();
+    for (Map<String, Object> location : locations) {
+      Location row = mapper.convertValue(location, Location.class);
+      if (isPlaceable(row)) {
+        loaded.upsert(row);
+      }
+    }
+    synchronized (this) {
+      pendingWrites.forEach(change -> change.accept(loaded));
+      pendingWrites = null;
+      index = loaded;
+    }
+    ProjectLogger.log(
+        "LocationTree:run: Loaded "
+            + loaded.locationById.size()
+            + " locations in "
+            + (System.currentTimeMillis() - startTime)
+            + " ms",
+        LoggerEnum.INFO.name());
+  }
+
+  /** Locations indexed by id and code, replaced as a whole on each load. */
+  private static final class Index {
+
+    private final Map<String, Location> locationById = new ConcurrentHashMap<>();
+    private final Map<String, String> idByCode = new ConcurrentHashMap<>();
+
+    private void upsert(Location location) {
+      unlink(locationById.put(location.getId(), location));
+      idByCode.put(location.getCode(), location.getId());
+    }
+
+    private void remove(String id) {
+      unlink(locationById.remove(id));
+    }
+
+    private void unlink(Location old) {
+      if (old != null && StringUtils.isNotBlank(old.getCode())) {
+        idByCode.remove(old.getCode(), old.getId());
+      }
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package org.sunbird.learner.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.ElasticSearchHelper;
+import org.sunbird.common.factory.EsClientFactory;
+import org.sunbird.common.inf.ElasticSearchService;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.ProjectUtil.EsType;
+import scala.concurrent.Future;
+
+/**
+ * Cache of the organisation metadata needed to enrich users with their organisations: name,
+ * parent and root organisation, hash tag ID, channel and locations. Organisations which are not
+ * cached are read from ES with one lookup for all of them. Entries expire after a TTL and are
+ * dropped when the organisation is synced to ES.
+ */
+public class OrgMetadataCache {
+
+  private static final String SUNBIRD_ORG_METADATA_CACHE_SIZE_KEY =
+      "sunbird_org_metadata_cache_size";
+  private static final String SUNBIRD_ORG_METADATA_CACHE_TTL_KEY = "sunbird_org_metadata_cache_ttl";
+  private static final int DEFAULT_CACHE_SIZE = 10000;
+  private static final long DEFAULT_CACHE_TTL = 5 * 60 * 1000L;
+  private static final List<String> FIELDS =
+      Arrays.asList(
+          JsonKey.ID,
+          JsonKey.ORG_NAME,
+          JsonKey.PARENT_ORG_ID,
+          JsonKey.ROOT_ORG_ID,
+          JsonKey.HASHTAGID,
+          JsonKey.CHANNEL,
+          JsonKey.LOCATION_IDS);
+  private static OrgMetadataCache instance;
+
+  private final ElasticSearchService esService;
+  private final ExpiringLruCache<String, Map<String, Object>> cache;
+
+  OrgMetadataCache(ElasticSearchService esService, int size, long ttlInMs) {
+    this.esService = esService;
+    this.cache = new ExpiringLruCache<>(size, ttlInMs);
+  }
+
+  public static synchronized OrgMetadataCache getInstance() {
+    if (instance == null) {
+      int size = DEFAULT_CACHE_SIZE;
+      long ttl = DEFAULT_CACHE_TTL;
+      try {
+        size =
+            Integer.parseInt(
+                ProjectUtil.getConfigValue(SUNBIRD_ORG_METADATA_CACHE_SIZE_KEY).trim());
+      } catch (Exception e) {
+        ProjectLogger.log("OrgMetadataCache:getInstance: Using default cache size");
+      }
+      try {
+        ttl = Long.parseLong(ProjectUtil.getConfigValue(SUNBIRD_ORG_METADATA_CACHE_TTL_KEY).trim());
+      } catch (Exception e) {
+        ProjectLogger.log("OrgMetadataCache:getInstance: Using default cache TTL");
+      }
+      instance = new OrgMetadataCache(null, size, ttl);
+    }
+    return instance;
+  }
+
+  /**
+   * Returns the metadata of the given organisation.
+   *
+   * @param orgId Organisation ID
+   * @return Copy of the organisation metadata, or null if the organisation does not exist
+   */
+  public Map<String, Object> getOrg(String orgId) {
+    return getOrgs(Arrays.asList(orgId)).get(orgId);
+  }
+
+  /**
+   * Returns the metadata of the given organisations, reading those which are not cached from ES
+   * with a single lookup.
+   *
+   * @param orgIds Organisation IDs
+   * @return Map of organisation ID to a copy of its metadata, without the organisations which do
+   *     not exist
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, Map<String, Object>> getOrgs(Collection<String> orgIds) {
+    Map<String, Map<String, Object>> orgs = new HashMap<>();
+    List<String> missingIds = new ArrayList<>();
+    for (String orgId : new LinkedHashSet<>(orgIds)) {
+      if (StringUtils.isBlank(orgId)) {
+        continue;
+      }
+      Map<String, Object> org = cache.get(orgId);
+      if (org != null) {
+        orgs.put(orgId, new HashMap<>(org));
+      } else {
+        missingIds.add(orgId);
+      }
+    }
+    if (!missingIds.isEmpty()) {
+      Future<Map<String, Map<String, Object>>> orgsF =
+          getEsService()
+              .getEsResultByListOfIds(missingIds, FIELDS, EsType.organisation.getTypeName());
+      Map<String, Map<String, Object>> esOrgs =
+          (Map<String, Map<String, Object>>) ElasticSearchHelper.getResponseFromFuture(orgsF);
+      if (esOrgs != null) {
+        for (Map.Entry<String, Map<String, Object>> esOrg : esOrgs.entrySet()) {
+          cache.put(esOrg.getKey(), new HashMap<>(esOrg.getValue()));
+          orgs.put(esOrg.getKey(), new HashMap<>(esOrg.getValue()));
+        }
+      }
+    }
+    return orgs;
+  }
+
+  public void invalidate(String orgId) {
+    if (orgId != null) {
+      cache.invalidate(orgId);
+    }
+  }
+
+  private ElasticSearchService getEsService() {
+    return esService != null ? esService : EsClientFactory.getInstance(JsonKey.REST);
+  }
+}
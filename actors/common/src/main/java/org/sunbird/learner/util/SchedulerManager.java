@@ -3,13 +3,24 @@ package org.sunbird.learner.util;
 
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
 import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
 
 /** @author Manzarul All the scheduler job will be handle by this class. */
 public class SchedulerManager {
 
   private static final int TTL = 4;
+  private static final String SUNBIRD_CACHE_VERSION_CHECK_INTERVAL =
+      "sunbird_cache_version_check_interval";
+  private static final int DEFAULT_CACHE_VERSION_CHECK_INTERVAL = 60;
+  private static final String SUNBIRD_CHANNEL_INDEX_REFRESH_INTERVAL =
+      "sunbird_channel_index_refresh_interval";
+  private static final int DEFAULT_CHANNEL_INDEX_REFRESH_INTERVAL = 30;
+  private static final String SUNBIRD_LOCATION_TREE_REFRESH_INTERVAL =
+      "sunbird_location_tree_refresh_interval";
+  private static final int DEFAULT_LOCATION_TREE_REFRESH_INTERVAL = 60;
 
   /*
    * service ScheduledExecutorService object
@@ -18,9 +29,36 @@ public class SchedulerManager {
 
   /** all scheduler job will be configure here. */
   public static void schedule() {
-    service.scheduleWithFixedDelay(new DataCacheHandler(), 0, TTL, TimeUnit.HOURS);
+    DataCacheHandler dataCacheHandler = new DataCacheHandler();
+    service.scheduleWithFixedDelay(dataCacheHandler, 0, TTL, TimeUnit.HOURS);
+    int interval =
+        getInterval(SUNBIRD_CACHE_VERSION_CHECK_INTERVAL, DEFAULT_CACHE_VERSION_CHECK_INTERVAL);
+    service.scheduleWithFixedDelay(
+        dataCacheHandler::refreshIfChanged, interval, interval, TimeUnit.SECONDS);
+    // The index is reloaded periodically to pick up organisations synced on other nodes
+    int channelIndexInterval =
+        getInterval(SUNBIRD_CHANNEL_INDEX_REFRESH_INTERVAL, DEFAULT_CHANNEL_INDEX_REFRESH_INTERVAL);
+    service.scheduleWithFixedDelay(
+        ChannelRootOrgIndex.getInstance(), 0, channelIndexInterval, TimeUnit.MINUTES);
+    int locationTreeInterval =
+        getInterval(SUNBIRD_LOCATION_TREE_REFRESH_INTERVAL, DEFAULT_LOCATION_TREE_REFRESH_INTERVAL);
+    service.scheduleWithFixedDelay(
+        LocationTree.getInstance(), 0, locationTreeInterval, TimeUnit.MINUTES);
     ProjectLogger.log(
         "SchedulerManager:schedule: Started scheduler job for cache refresh.",
         LoggerEnum.INFO.name());
   }
+
+  private static int getInterval(String key, int defaultInterval) {
+    int interval = defaultInterval;
+    try {
+      String value = ProjectUtil.getConfigValue(key);
+      if (StringUtils.isNotBlank(value)) {
+        interval = Integer.parseInt(value.trim());
+      }
+    } catch (Exception ex) {
+      ProjectLogger.log("SchedulerManager:getInterval: Invalid value for " + key, ex);
+    }
+    return interval;
+  }
 }
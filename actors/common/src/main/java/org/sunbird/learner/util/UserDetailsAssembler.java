@@ -0,0 +1,308 @@
+package org.sunbird.learner.util;
+
+import akka.actor.ActorRef;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.ElasticSearchHelper;
+import org.sunbird.common.factory.EsClientFactory;
+import org.sunbird.common.inf.ElasticSearchService;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.ProjectUtil.EsType;
+import org.sunbird.helper.ServiceFactory;
+import scala.concurrent.Future;
+
+/**
+ * Builds the ES user document for a page of users. The per user Cassandra reads (address,
+ * education, job profile, user org, badges and skills) run concurrently on a bounded pool, and the
+ * nested address and organisation lookups of the whole page are resolved with one batched read
+ * each.
+ */
+public final class UserDetailsAssembler {
+
+  private static final String SUNBIRD_USER_DETAILS_FETCH_POOL_SIZE =
+      "sunbird_user_details_fetch_pool_size";
+  private static final int DEFAULT_POOL_SIZE = 8;
+  private static final List<String> ORG_FIELDS =
+      Arrays.asList(JsonKey.ORG_NAME, JsonKey.PARENT_ORG_ID, JsonKey.ID);
+
+  private static CassandraOperation cassandraOperation = ServiceFactory.getInstance();
+  private static ElasticSearchService esService = EsClientFactory.getInstance(JsonKey.REST);
+  private static ExecutorService executor = Executors.newFixedThreadPool(getPoolSize());
+
+  private UserDetailsAssembler() {}
+
+  /**
+   * Builds the ES user document for each of the given users.
+   *
+   * @param userIds Ids of the users to assemble
+   * @param actorRef Actor reference used to read the user profile config, may be null
+   * @return Map of user id to user document, users missing in Cassandra are not present
+   */
+  @SuppressWarnings("unchecked")
+  public static Map<String, Map<String, Object>> getUserDetails(
+      List<String> userIds, ActorRef actorRef) {
+    Map<String, Map<String, Object>> userDetailsMap = new HashMap<>();
+    if (CollectionUtils.isEmpty(userIds)) {
+      return userDetailsMap;
+    }
+    Util.DbInfo userDbInfo = Util.dbInfoMap.get(JsonKey.USER_DB);
+    List<Map<String, Object>> userList = new ArrayList<>();
+    try {
+      Response response =
+          cassandraOperation.getRecordsByIdsWithSpecifiedColumns(
+              userDbInfo.getKeySpace(), userDbInfo.getTableName(), null, userIds);
+      userList = (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+    } catch (Exception e) {
+      ProjectLogger.log(e.getMessage(), e);
+    }
+    if (CollectionUtils.isEmpty(userList)) {
+      ProjectLogger.log(
+          "UserDetailsAssembler:getUserDetails: User data not available for userIds : " + userIds,
+          LoggerEnum.INFO.name());
+      return userDetailsMap;
+    }
+
+    Map<String, UserRecords> userRecordsMap = new HashMap<>();
+    for (Map<String, Object> user : userList) {
+      String userId = (String) user.get(JsonKey.ID);
+      userRecordsMap.put(userId, new UserRecords(userId, user));
+    }
+    CompletableFuture.allOf(
+            userRecordsMap
+                .values()
+                .stream()
+                .flatMap(records -> records.futures().stream())
+                .toArray(CompletableFuture[]::new))
+        .join();
+
+    Set<Object> addressIds = new HashSet<>();
+    Set<String> orgIds = new HashSet<>();
+    for (UserRecords records : userRecordsMap.values()) {
+      collectAddressIds(records.education.join(), addressIds);
+      collectAddressIds(records.jobProfile.join(), addressIds);
+      for (Map<String, Object> userOrg : records.userOrgs.join()) {
+        orgIds.add((String) userOrg.get(JsonKey.ORGANISATION_ID));
+      }
+      String rootOrgId = (String) records.user.get(JsonKey.ROOT_ORG_ID);
+      if (StringUtils.isNotBlank(rootOrgId)) {
+        orgIds.add(rootOrgId);
+      }
+    }
+    CompletableFuture<Map<String, Map<String, Object>>> addressFuture =
+        supply(() -> getAddressByIds(addressIds), new HashMap<>());
+    CompletableFuture<Map<String, Map<String, Object>>> orgFuture =
+        supply(() -> getOrgsByIds(orgIds), new HashMap<>());
+    Map<String, Map<String, Object>> addressMap = addressFuture.join();
+    Map<String, Map<String, Object>> orgMap = orgFuture.join();
+
+    for (UserRecords records : userRecordsMap.values()) {
+      userDetailsMap.put(records.userId, assemble(records, addressMap, orgMap, actorRef));
+    }
+    return userDetailsMap;
+  }
+
+  private static Map<String, Object> assemble(
+      UserRecords records,
+      Map<String, Map<String, Object>> addressMap,
+      Map<String, Map<String, Object>> orgMap,
+      ActorRef actorRef) {
+    Map<String, Object> userDetails = records.user;
+    String username = (String) userDetails.get(JsonKey.USERNAME);
+    userDetails.put(JsonKey.ADDRESS, records.address.join());
+    userDetails.put(JsonKey.EDUCATION, attachAddress(records.education.join(), addressMap));
+    userDetails.put(JsonKey.JOB_PROFILE, attachAddress(records.jobProfile.join(), addressMap));
+    userDetails.put(JsonKey.ORGANISATIONS, attachOrgDetails(records.userOrgs.join(), orgMap));
+    userDetails.put(JsonKey.BADGE_ASSERTIONS, records.badges.join());
+    userDetails.put(JsonKey.SKILLS, records.skills.join());
+    Map<String, Object> rootOrg = orgMap.get(userDetails.get(JsonKey.ROOT_ORG_ID));
+    if (MapUtils.isNotEmpty(rootOrg)) {
+      userDetails.put(JsonKey.ROOT_ORG_NAME, rootOrg.get(JsonKey.ORG_NAME));
+    } else {
+      userDetails.put(JsonKey.ROOT_ORG_NAME, "");
+    }
+    // save masked email and phone number
+    Util.addMaskEmailAndPhone(userDetails);
+    Util.checkProfileCompleteness(userDetails);
+    if (actorRef != null) {
+      Util.checkUserProfileVisibility(userDetails, actorRef);
+    }
+    userDetails.remove(JsonKey.PASSWORD);
+    Util.addEmailAndPhone(userDetails);
+    Util.checkEmailAndPhoneVerified(userDetails);
+    userDetails.put(JsonKey.USERNAME, username);
+    return userDetails;
+  }
+
+  private static void collectAddressIds(List<Map<String, Object>> records, Set<Object> addressIds) {
+    for (Map<String, Object> record : records) {
+      String addressId = (String) record.get(JsonKey.ADDRESS_ID);
+      if (StringUtils.isNotBlank(addressId)) {
+        addressIds.add(addressId);
+      }
+    }
+  }
+
+  private static List<Map<String, Object>> attachAddress(
+      List<Map<String, Object>> records, Map<String, Map<String, Object>> addressMap) {
+    for (Map<String, Object> record : records) {
+      Map<String, Object> address = addressMap.get(record.get(JsonKey.ADDRESS_ID));
+      if (MapUtils.isNotEmpty(address)) {
+        record.put(JsonKey.ADDRESS, address);
+      }
+    }
+    return records;
+  }
+
+  private static List<Map<String, Object>> attachOrgDetails(
+      List<Map<String, Object>> userOrgs, Map<String, Map<String, Object>> orgMap) {
+    List<Map<String, Object>> userOrganisations = new ArrayList<>();
+    for (Map<String, Object> userOrg : userOrgs) {
+      Map<String, Object> esOrgMap = orgMap.get(userOrg.get(JsonKey.ORGANISATION_ID));
+      if (MapUtils.isNotEmpty(esOrgMap)) {
+        Map<String, Object> orgDetails = new HashMap<>(esOrgMap);
+        orgDetails.remove(JsonKey.ID);
+        userOrg.putAll(orgDetails);
+      }
+      userOrganisations.add(userOrg);
+    }
+    return userOrganisations;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Map<String, Object>> getAddressByIds(Set<Object> addressIds) {
+    Map<String, Map<String, Object>> addressMap = new HashMap<>();
+    if (addressIds.isEmpty()) {
+      return addressMap;
+    }
+    Util.DbInfo addrDbInfo = Util.dbInfoMap.get(JsonKey.ADDRESS_DB);
+    Response response =
+        cassandraOperation.getRecordsByProperty(
+            addrDbInfo.getKeySpace(),
+            addrDbInfo.getTableName(),
+            JsonKey.ID,
+            new ArrayList<>(addressIds));
+    List<Map<String, Object>> addressList =
+        (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+    for (Map<String, Object> address : addressList) {
+      addressMap.put((String) address.get(JsonKey.ID), address);
+    }
+    return addressMap;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Map<String, Object>> getOrgsByIds(Set<String> orgIds) {
+    if (orgIds.isEmpty()) {
+      return new HashMap<>();
+    }
+    Future<Map<String, Map<String, Object>>> orgInfoMapF =
+        esService.getEsResultByListOfIds(
+            new ArrayList<>(orgIds), ORG_FIELDS, EsType.organisation.getTypeName());
+    Map<String, Map<String, Object>> orgInfoMap =
+        (Map<String, Map<String, Object>>) ElasticSearchHelper.getResponseFromFuture(orgInfoMapF);
+    return orgInfoMap != null ? orgInfoMap : new HashMap<>();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> getRecordsByUserId(String dbKey, String userId) {
+    Util.DbInfo dbInfo = Util.dbInfoMap.get(dbKey);
+    Response response =
+        cassandraOperation.getRecordsByIndexedProperty(
+            dbInfo.getKeySpace(), dbInfo.getTableName(), JsonKey.USER_ID, userId);
+    return (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> getUserOrgs(String userId) {
+    Map<String, Object> reqMap = new HashMap<>();
+    reqMap.put(JsonKey.USER_ID, userId);
+    reqMap.put(JsonKey.IS_DELETED, false);
+    Util.DbInfo orgUsrDbInfo = Util.dbInfoMap.get(JsonKey.USER_ORG_DB);
+    Response response =
+        cassandraOperation.getRecordsByProperties(
+            orgUsrDbInfo.getKeySpace(), orgUsrDbInfo.getTableName(), reqMap);
+    return (List<Map<String, Object>>) response.get(JsonKey.RESPONSE);
+  }
+
+  /**
+   * Runs the given read on the fetch pool. A failed or empty read is logged and replaced by the
+   * fallback value, so that one failing table does not fail the whole user document.
+   */
+  private static <T> CompletableFuture<T> supply(Supplier<T> supplier, T fallback) {
+    return CompletableFuture.supplyAsync(supplier, executor)
+        .handle(
+            (result, ex) -> {
+              if (ex != null) {
+                ProjectLogger.log(
+                    "UserDetailsAssembler:supply: Failed to fetch user details " + ex.getMessage(),
+                    ex);
+                return fallback;
+              }
+              return result != null ? result : fallback;
+            });
+  }
+
+  private static int getPoolSize() {
+    int poolSize = DEFAULT_POOL_SIZE;
+    try {
+      String value = ProjectUtil.getConfigValue(SUNBIRD_USER_DETAILS_FETCH_POOL_SIZE);
+      if (StringUtils.isNotBlank(value)) {
+        poolSize = Integer.parseInt(value.trim());
+      }
+    } catch (Exception ex) {
+      ProjectLogger.log(
+          "UserDetailsAssembler:getPoolSize: Invalid value for "
+              + SUNBIRD_USER_DETAILS_FETCH_POOL_SIZE,
+          ex);
+    }
+    return poolSize;
+  }
+
+  /** Independent per user reads, all started as soon as the user row is known. */
+  private static class UserRecords {
+    private final String userId;
+    private final Map<String, Object> user;
+    private final CompletableFuture<List<Map<String, Object>>> address;
+    private final CompletableFuture<List<Map<String, Object>>> education;
+    private final CompletableFuture<List<Map<String, Object>>> jobProfile;
+    private final CompletableFuture<List<Map<String, Object>>> userOrgs;
+    private final CompletableFuture<List<Map<String, Object>>> badges;
+    private final CompletableFuture<List<Map<String, Object>>> skills;
+
+    private UserRecords(String userId, Map<String, Object> user) {
+      this.userId = userId;
+      this.user = user;
+      this.address = supply(() -> Util.getAddressDetails(userId, null), new ArrayList<>());
+      this.education =
+          supply(() -> getRecordsByUserId(JsonKey.EDUCATION_DB, userId), new ArrayList<>());
+      this.jobProfile =
+          supply(() -> getRecordsByUserId(JsonKey.JOB_PROFILE_DB, userId), new ArrayList<>());
+      this.userOrgs = supply(() -> getUserOrgs(userId), new ArrayList<>());
+      this.badges =
+          supply(
+              () -> getRecordsByUserId(JsonKey.USER_BADGE_ASSERTION_DB, userId), new ArrayList<>());
+      this.skills =
+          supply(() -> getRecordsByUserId(JsonKey.USER_SKILL_DB, userId), new ArrayList<>());
+    }
+
+    private List<CompletableFuture<List<Map<String, Object>>>> futures() {
+      return Arrays.asList(address, education, jobProfile, userOrgs, badges, skills);
+    }
+  }
+}
@@ -0,0 +1,257 @@
+package org.sunbird.learner.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.kafka.client.KafkaClient;
+
+/**
+ * Optional read-through cache of user profile read responses. Each user has one entry holding the
+ * profile for each variant of the read, where a variant is identified by the read mode (public or
+ * private), whether the user reads his own profile and the requested fields. The entries of a user
+ * are dropped whenever his profile is written. The cache is bounded by the number of users, the
+ * number of variants per user and the approximate size of the cached profiles.
+ *
+ * <p>When an invalidation topic is configured, each invalidation is also published on it and every
+ * node listens on it with its own consumer group, so that the profiles cached on other nodes are
+ * dropped as well. Without the topic, the time to live bounds how long other nodes serve a stale
+ * profile.
+ */
+public class UserProfileCache {
+
+  private static final String SUNBIRD_USER_PROFILE_CACHE_ENABLED_KEY =
+      "sunbird_user_profile_cache_enabled";
+  private static final String SUNBIRD_USER_PROFILE_CACHE_SIZE_KEY =
+      "sunbird_user_profile_cache_size";
+  private static final String SUNBIRD_USER_PROFILE_CACHE_TTL_KEY = "sunbird_user_profile_cache_ttl";
+  private static final String SUNBIRD_USER_PROFILE_CACHE_TOPIC_KEY =
+      "sunbird_user_profile_cache_invalidation_topic";
+  private static final String SUNBIRD_USER_PROFILE_CACHE_KAFKA_SERVERS_KEY =
+      "sunbird_user_profile_cache_kafka_servers";
+  private static final String SUNBIRD_USER_PROFILE_CACHE_MAX_BYTES_KEY =
+      "sunbird_user_profile_cache_max_bytes";
+  private static final int DEFAULT_CACHE_SIZE = 10000;
+  private static final long DEFAULT_CACHE_MAX_BYTES = 64 * 1024 * 1024L;
+  private static final int MAX_VARIANTS_PER_USER = 8;
+  private static final long DEFAULT_CACHE_TTL = 60 * 1000L;
+  private static final long POLL_TIMEOUT = 1000L;
+  private static final int METRICS_LOG_INTERVAL = 10000;
+  private static UserProfileCache instance;
+
+  private final boolean enabled;
+  private final ExpiringLruCache<String, Map<String, Map<String, Object>>> cache;
+  private final String topic;
+  private final AtomicLong lookups = new AtomicLong();
+
+  UserProfileCache(boolean enabled, int size, long maxBytes, long ttlInMs, String topic) {
+    this.enabled = enabled;
+    this.cache = new ExpiringLruCache<>(size, maxBytes, UserProfileCache::estimateSize, ttlInMs);
+    this.topic = topic;
+  }
+
+  public static synchronized UserProfileCache getInstance() {
+    if (instance == null) {
+      boolean enabled =
+          Boolean.parseBoolean(getConfigValue(SUNBIRD_USER_PROFILE_CACHE_ENABLED_KEY, "false"));
+      int size = DEFAULT_CACHE_SIZE;
+      long maxBytes = DEFAULT_CACHE_MAX_BYTES;
+      long ttl = DEFAULT_CACHE_TTL;
+      try {
+        size = Integer.parseInt(getConfigValue(SUNBIRD_USER_PROFILE_CACHE_SIZE_KEY, null));
+      } catch (Exception e) {
+        ProjectLogger.log("UserProfileCache:getInstance: Using default cache size");
+      }
+      try {
+        maxBytes = Long.parseLong(getConfigValue(SUNBIRD_USER_PROFILE_CACHE_MAX_BYTES_KEY, null));
+      } catch (Exception e) {
+        ProjectLogger.log("UserProfileCache:getInstance: Using default cache max bytes");
+      }
+      try {
+        ttl = Long.parseLong(getConfigValue(SUNBIRD_USER_PROFILE_CACHE_TTL_KEY, null));
+      } catch (Exception e) {
+        ProjectLogger.log("UserProfileCache:getInstance: Using default cache TTL");
+      }
+      String topic = enabled ? getConfigValue(SUNBIRD_USER_PROFILE_CACHE_TOPIC_KEY, null) : null;
+      instance = new UserProfileCache(enabled, size, maxBytes, ttl, topic);
+      if (StringUtils.isNotBlank(topic)) {
+        instance.startInvalidationListener(
+            getConfigValue(SUNBIRD_USER_PROFILE_CACHE_KAFKA_SERVERS_KEY, null));
+      }
+    }
+    return instance;
+  }
+
+  /**
+   * Returns the variant key of a profile read.
+   *
+   * @param isPrivate Whether the profile is read from the database rather than ES
+   * @param isSelfRead Whether the user reads his own profile
+   * @param fields Additional fields requested
+   * @return Variant key
+   */
+  public static String getVariant(boolean isPrivate, boolean isSelfRead, String fields) {
+    return (isPrivate ? "private" : "public")
+        + ":"
+        + (isSelfRead ? "self" : "other")
+        + ":"
+        + StringUtils.defaultString(fields);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the cached profile of the given user and variant.
+   *
+   * @param userId User ID
+   * @param variant Variant key from {@link #getVariant(boolean, boolean, String)}
+   * @return Copy of the cached profile, or null if it is not cached
+   */
+  public Map<String, Object> get(String userId, String variant) {
+    if (!enabled || userId == null) {
+      return null;
+    }
+    if (lookups.incrementAndGet() % METRICS_LOG_INTERVAL == 0) {
+      logMetrics();
+    }
+    Map<String, Map<String, Object>> variants = cache.get(userId);
+    Map<String, Object> profile = variants == null ? null : variants.get(variant);
+    return profile == null ? null : new HashMap<>(profile);
+  }
+
+  public void put(String userId, String variant, Map<String, Object> profile) {
+    if (!enabled || userId == null || profile == null) {
+      return;
+    }
+    // The variants are copied on write so that the size of the entry is known when it is added
+    Map<String, Map<String, Object>> cached = cache.get(userId);
+    Map<String, Map<String, Object>> variants =
+        cached == null || cached.size() >= MAX_VARIANTS_PER_USER
+            ? new HashMap<>()
+            : new HashMap<>(cached);
+    variants.put(variant, new HashMap<>(profile));
+    cache.put(userId, Collections.unmodifiableMap(variants));
+  }
+
+  /**
+   * Drops the cached profiles of the given user on this node and, when an invalidation topic is
+   * configured, on all other nodes.
+   *
+   * @param userId User ID
+   */
+  public void invalidate(String userId) {
+    if (!enabled || userId == null) {
+      return;
+    }
+    cache.invalidate(userId);
+    if (StringUtils.isNotBlank(topic)) {
+      try {
+        KafkaClient.send(userId, topic);
+      } catch (Exception e) {
+        ProjectLogger.log(
+            "UserProfileCache:invalidate: Failed to publish invalidation for user " + userId, e);
+      }
+    }
+  }
+
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  public long getEvictionCount() {
+    return cache.getEvictionCount();
+  }
+
+  public double getHitRatio() {
+    long total = getHitCount() + getMissCount();
+    return total == 0 ? 0 : (double) getHitCount() / total;
+  }
+
+  /** Approximates the size of cached profiles in bytes from their string form. */
+  private static long estimateSize(Map<String, Map<String, Object>> variants) {
+    long chars = 0;
+    for (Map<String, Object> profile : variants.values()) {
+      chars += String.valueOf(profile).length();
+    }
+    return chars * 2;
+  }
+
+  private void logMetrics() {
+    ProjectLogger.log(
+        "UserProfileCache:logMetrics: size = "
+            + cache.size()
+            + " bytes = "
+            + cache.getWeight()
+            + " hitRatio = "
+            + getHitRatio()
+            + " hits = "
+            + getHitCount()
+            + " misses = "
+            + getMissCount()
+            + " evictions = "
+            + getEvictionCount(),
+        LoggerEnum.INFO.name());
+  }
+
+  private void startInvalidationListener(String servers) {
+    if (StringUtils.isBlank(servers)) {
+      ProjectLogger.log(
+          "UserProfileCache:startInvalidationListener: Kafka servers not configured",
+          LoggerEnum.ERROR.name());
+      return;
+    }
+    Properties properties = new Properties();
+    properties.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, servers);
+    // Every node uses its own group so that each of them receives every invalidation
+    properties.put(ConsumerConfig.GROUP_ID_CONFIG, "user-profile-cache-" + UUID.randomUUID());
+    properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+    properties.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    properties.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    Thread listener =
+        new Thread(
+            () -> {
+              try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(properties)) {
+                consumer.subscribe(Collections.singletonList(topic));
+                while (!Thread.currentThread().isInterrupted()) {
+                  for (ConsumerRecord<String, String> record : consumer.poll(POLL_TIMEOUT)) {
+                    cache.invalidate(record.value());
+                  }
+                }
+              } catch (Exception e) {
+                ProjectLogger.log(
+                    "UserProfileCache:startInvalidationListener: Listener stopped, "
+                        + "invalidating all",
+                    e);
+                cache.invalidateAll();
+              }
+            },
+            "user-profile-cache-invalidation");
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  private static String getConfigValue(String key, String defaultValue) {
+    try {
+      String value = ProjectUtil.getConfigValue(key);
+      return StringUtils.isBlank(value) ? defaultValue : value.trim();
+    } catch (Exception e) {
+      return defaultValue;
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package org.sunbird.learner.util;
 
 import akka.actor.ActorRef;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.typesafe.config.Config;
 import java.io.IOException;
@@ -40,7 +41,6 @@ import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.models.util.ProjectUtil;
-import org.sunbird.common.models.util.ProjectUtil.EsIndex;
 import org.sunbird.common.models.util.ProjectUtil.EsType;
 import org.sunbird.common.models.util.ProjectUtil.OrgStatus;
 import org.sunbird.common.models.util.PropertiesCache;
@@ -666,15 +666,12 @@ public final class Util {
   }
 
   public static String getRootOrgIdOrNameFromChannel(String channel, boolean isName) {
-    Map<String, Object> filters = new HashMap<>();
-    filters.put(JsonKey.IS_ROOT_ORG, true);
-    if (StringUtils.isNotBlank(channel)) {
-      filters.put(JsonKey.CHANNEL, channel);
-    } else {
+    String rootOrgChannel = channel;
+    if (StringUtils.isBlank(rootOrgChannel)) {
       // If channel value is not coming in request then read the default channel value provided from
       // ENV.
       if (StringUtils.isNotBlank(ProjectUtil.getConfigValue(JsonKey.SUNBIRD_DEFAULT_CHANNEL))) {
-        filters.put(JsonKey.CHANNEL, ProjectUtil.getConfigValue(JsonKey.SUNBIRD_DEFAULT_CHANNEL));
+        rootOrgChannel = ProjectUtil.getConfigValue(JsonKey.SUNBIRD_DEFAULT_CHANNEL);
       } else {
         throw new ProjectCommonException(
             ResponseCode.mandatoryParamsMissing.getErrorCode(),
@@ -683,15 +680,10 @@ public final class Util {
             ResponseCode.CLIENT_ERROR.getResponseCode());
       }
     }
-    Map<String, Object> esResult =
-        elasticSearchComplexSearch(
-            filters, EsIndex.sunbird.getIndexName(), EsType.organisation.getTypeName());
-    if (MapUtils.isNotEmpty(esResult)
-        && CollectionUtils.isNotEmpty((List) esResult.get(JsonKey.CONTENT))) {
-      Map<String, Object> esContent =
-          ((List<Map<String, Object>>) esResult.get(JsonKey.CONTENT)).get(0);
-      if (!isName) return (String) esContent.get(JsonKey.ID);
-      else return (String) esContent.get(JsonKey.ORG_NAME);
+    Map<String, Object> rootOrg = ChannelRootOrgIndex.getInstance().getRootOrg(rootOrgChannel);
+    if (rootOrg != null) {
+      if (!isName) return (String) rootOrg.get(JsonKey.ID);
+      else return (String) rootOrg.get(JsonKey.ORG_NAME);
     } else {
       if (StringUtils.isNotBlank(channel)) {
         throw new ProjectCommonException(
@@ -709,16 +701,6 @@ public final class Util {
     }
   }
 
-  private static Map<String, Object> elasticSearchComplexSearch(
-      Map<String, Object> filters, String index, String type) {
-
-    SearchDTO searchDTO = new SearchDTO();
-    searchDTO.getAdditionalProperties().put(JsonKey.FILTERS, filters);
-
-    Future<Map<String, Object>> mapF = esService.search(searchDTO, type);
-    return (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(mapF);
-  }
-
   public static String validateRoles(List<String> roleList) {
     Map<String, Object> roleMap = DataCacheHandler.getRoleMap();
     if (null != roleMap && !roleMap.isEmpty()) {
@@ -738,53 +720,18 @@ public final class Util {
     ProjectLogger.log(
         "channel registration for hashTag Id = " + req.get(JsonKey.HASHTAGID) + "",
         LoggerEnum.INFO.name());
-    Map<String, String> headerMap = new HashMap<>();
-    String header = System.getenv(JsonKey.EKSTEP_AUTHORIZATION);
-    if (StringUtils.isBlank(header)) {
-      header = PropertiesCache.getInstance().getProperty(JsonKey.EKSTEP_AUTHORIZATION);
-    } else {
-      header = JsonKey.BEARER + header;
-    }
-    headerMap.put(JsonKey.AUTHORIZATION, header);
-    headerMap.put("Content-Type", "application/json");
-    headerMap.put("user-id", "");
-    String reqString = "";
     String regStatus = "";
     try {
       ProjectLogger.log(
           "start call for registering the channel for hashTag id ==" + req.get(JsonKey.HASHTAGID),
           LoggerEnum.INFO.name());
-      String ekStepBaseUrl = System.getenv(JsonKey.EKSTEP_BASE_URL);
-      if (StringUtils.isBlank(ekStepBaseUrl)) {
-        ekStepBaseUrl = PropertiesCache.getInstance().getProperty(JsonKey.EKSTEP_BASE_URL);
-      }
-      Map<String, Object> map = new HashMap<>();
-      Map<String, Object> reqMap = new HashMap<>();
-      Map<String, Object> channelMap = new HashMap<>();
-      channelMap.put(JsonKey.NAME, req.get(JsonKey.CHANNEL));
-      channelMap.put(JsonKey.DESCRIPTION, req.get(JsonKey.DESCRIPTION));
-      channelMap.put(JsonKey.CODE, req.get(JsonKey.HASHTAGID));
-      if (req.containsKey(JsonKey.LICENSE)
-          && StringUtils.isNotBlank((String) req.get(JsonKey.LICENSE))) {
-        channelMap.put(JsonKey.DEFAULT_LICENSE, req.get(JsonKey.LICENSE));
-      }
-
-      String defaultFramework = (String) req.get(JsonKey.DEFAULT_FRAMEWORK);
-      if (StringUtils.isNotBlank(defaultFramework))
-        channelMap.put(JsonKey.DEFAULT_FRAMEWORK, defaultFramework);
-      reqMap.put(JsonKey.CHANNEL, channelMap);
-      map.put(JsonKey.REQUEST, reqMap);
-
-      reqString = mapper.writeValueAsString(map);
+      String reqString = getChannelRegistrationRequest(req);
       ProjectLogger.log(
           "Util:registerChannel: Channel registration request data = " + reqString,
           LoggerEnum.DEBUG.name());
       regStatus =
           HttpUtil.sendPostRequest(
-              (ekStepBaseUrl
-                  + PropertiesCache.getInstance().getProperty(JsonKey.EKSTEP_CHANNEL_REG_API_URL)),
-              reqString,
-              headerMap);
+              getChannelRegistrationUrl(), reqString, getChannelRegistrationHeaders());
       ProjectLogger.log(
           "end call for channel registration for hashTag id ==" + req.get(JsonKey.HASHTAGID),
           LoggerEnum.INFO.name());
@@ -794,7 +741,69 @@ public final class Util {
           LoggerEnum.ERROR.name());
     }
 
-    return regStatus.contains("OK");
+    return isChannelRegistered(regStatus);
+  }
+
+  /** Returns the URL of the EkStep channel registration API. */
+  public static String getChannelRegistrationUrl() {
+    String ekStepBaseUrl = System.getenv(JsonKey.EKSTEP_BASE_URL);
+    if (StringUtils.isBlank(ekStepBaseUrl)) {
+      ekStepBaseUrl = PropertiesCache.getInstance().getProperty(JsonKey.EKSTEP_BASE_URL);
+    }
+    return ekStepBaseUrl
+        + PropertiesCache.getInstance().getProperty(JsonKey.EKSTEP_CHANNEL_REG_API_URL);
+  }
+
+  /** Returns the headers of the EkStep channel registration API. */
+  public static Map<String, String> getChannelRegistrationHeaders() {
+    Map<String, String> headerMap = new HashMap<>();
+    String header = System.getenv(JsonKey.EKSTEP_AUTHORIZATION);
+    if (StringUtils.isBlank(header)) {
+      header = PropertiesCache.getInstance().getProperty(JsonKey.EKSTEP_AUTHORIZATION);
+    } else {
+      header = JsonKey.BEARER + header;
+    }
+    headerMap.put(JsonKey.AUTHORIZATION, header);
+    headerMap.put("Content-Type", "application/json");
+    headerMap.put("user-id", "");
+    return headerMap;
+  }
+
+  /**
+   * Returns the body of the EkStep channel registration request for the given root organisation.
+   *
+   * @param req Root organisation with hash tag ID, channel, description, license and default
+   *     framework
+   * @return Request body
+   */
+  public static String getChannelRegistrationRequest(Map<String, Object> req)
+      throws JsonProcessingException {
+    Map<String, Object> map = new HashMap<>();
+    Map<String, Object> reqMap = new HashMap<>();
+    Map<String, Object> channelMap = new HashMap<>();
+    channelMap.put(JsonKey.NAME, req.get(JsonKey.CHANNEL));
+    channelMap.put(JsonKey.DESCRIPTION, req.get(JsonKey.DESCRIPTION));
+    channelMap.put(JsonKey.CODE, req.get(JsonKey.HASHTAGID));
+    if (req.containsKey(JsonKey.LICENSE)
+        && StringUtils.isNotBlank((String) req.get(JsonKey.LICENSE))) {
+      channelMap.put(JsonKey.DEFAULT_LICENSE, req.get(JsonKey.LICENSE));
+    }
+
+    String defaultFramework = (String) req.get(JsonKey.DEFAULT_FRAMEWORK);
+    if (StringUtils.isNotBlank(defaultFramework))
+      channelMap.put(JsonKey.DEFAULT_FRAMEWORK, defaultFramework);
+    reqMap.put(JsonKey.CHANNEL, channelMap);
+    map.put(JsonKey.REQUEST, reqMap);
+    return mapper.writeValueAsString(map);
+  }
+
+  /**
+   * Returns whether the given response of the EkStep channel registration API is a success.
+   *
+   * @param regStatus Response body, null if the request failed
+   */
+  public static boolean isChannelRegistered(String regStatus) {
+    return regStatus != null && regStatus.contains("OK");
   }
 
   /** @param req Map<String,Object> */
@@ -1423,59 +1432,30 @@ public final class Util {
         });
   }
 
-  @SuppressWarnings("unchecked")
   public static Map<String, Object> getUserDetails(String userId, ActorRef actorRef) {
     ProjectLogger.log("get user profile method call started user Id : " + userId);
-    Util.DbInfo userDbInfo = Util.dbInfoMap.get(JsonKey.USER_DB);
-    Response response = null;
-    List<Map<String, Object>> userList = null;
-    Map<String, Object> userDetails = null;
-    try {
-      response =
-          cassandraOperation.getRecordById(
-              userDbInfo.getKeySpace(), userDbInfo.getTableName(), userId);
-      userList = (List<Map<String, Object>>) response.getResult().get(JsonKey.RESPONSE);
-      ProjectLogger.log(
-          "Util:getUserProfile: collecting user data to save for userId : " + userId,
-          LoggerEnum.INFO.name());
-    } catch (Exception e) {
-      ProjectLogger.log(e.getMessage(), e);
-    }
-    String username = "";
-    if (!(userList.isEmpty())) {
-      userDetails = userList.get(0);
-      username = (String) userDetails.get(JsonKey.USERNAME);
-      ProjectLogger.log("Util:getUserDetails: userId = " + userId, LoggerEnum.INFO.name());
-      userDetails.put(JsonKey.ADDRESS, getAddressDetails(userId, null));
-      userDetails.put(JsonKey.EDUCATION, getUserEducationDetails(userId));
-      userDetails.put(JsonKey.JOB_PROFILE, getJobProfileDetails(userId));
-      userDetails.put(JsonKey.ORGANISATIONS, getUserOrgDetails(userId));
-      userDetails.put(JsonKey.BADGE_ASSERTIONS, getUserBadge(userId));
-      userDetails.put(JsonKey.SKILLS, getUserSkills(userId));
-      Map<String, Object> orgMap = getOrgDetails((String) userDetails.get(JsonKey.ROOT_ORG_ID));
-      if (!MapUtils.isEmpty(orgMap)) {
-        userDetails.put(JsonKey.ROOT_ORG_NAME, orgMap.get(JsonKey.ORG_NAME));
-      } else {
-        userDetails.put(JsonKey.ROOT_ORG_NAME, "");
-      }
-      // save masked email and phone number
-      addMaskEmailAndPhone(userDetails);
-      checkProfileCompleteness(userDetails);
-      if (actorRef != null) {
-        checkUserProfileVisibility(userDetails, actorRef);
-      }
-      userDetails.remove(JsonKey.PASSWORD);
-      addEmailAndPhone(userDetails);
-      checkEmailAndPhoneVerified(userDetails);
-    } else {
+    Map<String, Object> userDetails =
+        UserDetailsAssembler.getUserDetails(Arrays.asList(userId), actorRef).get(userId);
+    if (userDetails == null) {
       ProjectLogger.log(
           "Util:getUserProfile: User data not available to save in ES for userId : " + userId,
           LoggerEnum.INFO.name());
     }
-    userDetails.put(JsonKey.USERNAME, username);
     return userDetails;
   }
 
+  /**
+   * Builds the ES user documents for a page of users in one go.
+   *
+   * @param userIds List of user ids
+   * @param actorRef Actor reference used to read the user profile config, may be null
+   * @return Map of user id to user document
+   */
+  public static Map<String, Map<String, Object>> getUserDetails(
+      List<String> userIds, ActorRef actorRef) {
+    return UserDetailsAssembler.getUserDetails(userIds, actorRef);
+  }
+
   public static Map<String, Object> getUserDetails(
       Map<String, Object> userDetails, Map<String, Object> orgMap) {
     String userId = (String) userDetails.get(JsonKey.USER_ID);
@@ -1658,19 +1638,13 @@ public final class Util {
                 .map(m -> (String) m.get(JsonKey.ORGANISATION_ID))
                 .distinct()
                 .collect(Collectors.toList());
-        List<String> fields = Arrays.asList(JsonKey.ORG_NAME, JsonKey.PARENT_ORG_ID, JsonKey.ID);
-
-        Future<Map<String, Map<String, Object>>> orgInfoMapF =
-            esService.getEsResultByListOfIds(
-                organisationIds, fields, EsType.organisation.getTypeName());
         Map<String, Map<String, Object>> orgInfoMap =
-            (Map<String, Map<String, Object>>)
-                ElasticSearchHelper.getResponseFromFuture(orgInfoMapF);
+            OrgMetadataCache.getInstance().getOrgs(organisationIds);
 
         for (Map<String, Object> userOrg : userOrgList) {
           Map<String, Object> esOrgMap = orgInfoMap.get(userOrg.get(JsonKey.ORGANISATION_ID));
-          esOrgMap.remove(JsonKey.ID);
-          userOrg.putAll(esOrgMap);
+          userOrg.put(JsonKey.ORG_NAME, esOrgMap.get(JsonKey.ORG_NAME));
+          userOrg.put(JsonKey.PARENT_ORG_ID, esOrgMap.get(JsonKey.PARENT_ORG_ID));
           userOrganisations.add(userOrg);
         }
       }
@@ -352,12 +352,7 @@ public abstract class BaseMetricsActor extends BaseActor {
   public static String makePostRequest(String baseURL, String apiURL, String body)
       throws IOException {
     ProjectLogger.log("Request to Ekstep for Metrics" + body);
-    String authKey = System.getenv(JsonKey.EKSTEP_AUTHORIZATION);
-    if (StringUtils.isBlank(authKey)) {
-      authKey = PropertiesCache.getInstance().getProperty(JsonKey.EKSTEP_AUTHORIZATION);
-    } else {
-      authKey = JsonKey.BEARER + authKey;
-    }
+    String authKey = getAuthKey();
     HttpClient client = HttpClientBuilder.create().build();
     HttpPost post = new HttpPost(baseURL + PropertiesCache.getInstance().getProperty(apiURL));
     post.addHeader("Content-Type", "application/json; charset=utf-8");
@@ -397,6 +392,28 @@ public abstract class BaseMetricsActor extends BaseActor {
     return result.toString();
   }
 
+  /**
+   * Returns the headers to be sent with requests to the analytics API.
+   *
+   * @return Map of header name to value
+   */
+  public static Map<String, String> getAnalyticsHeaders() {
+    Map<String, String> headers = new HashMap<>();
+    headers.put("Content-Type", "application/json; charset=utf-8");
+    headers.put(JsonKey.AUTHORIZATION, getAuthKey());
+    return headers;
+  }
+
+  private static String getAuthKey() {
+    String authKey = System.getenv(JsonKey.EKSTEP_AUTHORIZATION);
+    if (StringUtils.isBlank(authKey)) {
+      authKey = PropertiesCache.getInstance().getProperty(JsonKey.EKSTEP_AUTHORIZATION);
+    } else {
+      authKey = JsonKey.BEARER + authKey;
+    }
+    return authKey;
+  }
+
   public static String makePostRequest(String apiURL, String body) throws IOException {
     String baseSearchUrl = System.getenv(JsonKey.EKSTEP_BASE_URL);
     if (StringUtils.isBlank(baseSearchUrl)) {
@@ -44,6 +44,7 @@ import org.sunbird.learner.util.Util;
 )
 public class MetricsBackGroundJobActor extends BaseActor {
 
+  private static final String CSV_FORMAT = "csv";
   private Util.DbInfo reportTrackingdbInfo = Util.dbInfoMap.get(JsonKey.REPORT_TRACKING_DB);
   private Util.DbInfo organisationDbInfo = Util.dbInfoMap.get(JsonKey.ORG_DB);
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
@@ -162,20 +163,44 @@ public class MetricsBackGroundJobActor extends BaseActor {
     }
     Map<String, Object> reportDbInfo = responseList.get(0);
     String fileFormat = (String) reportDbInfo.get(JsonKey.FORMAT);
-    FileUtil fileUtil = FileUtil.getFileUtil(fileFormat);
+    String spillFileName = (String) reportDbInfo.get(ReportSpillFile.DATA_FILE);
+    if (StringUtils.isBlank(spillFileName)) {
+      ProjectLogger.log("No report data for request " + requestId);
+      throw new ProjectCommonException(
+          ResponseCode.invalidRequestData.getErrorCode(),
+          ResponseCode.invalidRequestData.getErrorMessage(),
+          ResponseCode.CLIENT_ERROR.getResponseCode());
+    }
+    File spillFile = ReportSpillFile.getFile(spillFileName);
 
     Map<String, Object> dbReqMap = new HashMap<>();
     dbReqMap.put(JsonKey.ID, requestId);
+    if (!spillFile.isFile()) {
+      // The data was generated on another node or before a restart, see ReportSpillFile
+      ProjectLogger.log(
+          "MetricsBackGroundJobActor:fileGenerationAndUpload: Spill file "
+              + spillFile
+              + " of request "
+              + requestId
+              + " not found",
+          LoggerEnum.ERROR.name());
+      dbReqMap.put(JsonKey.UPDATED_DATE, simpleDateFormat.format(new Date()));
+      dbReqMap.put(JsonKey.STATUS, ReportTrackingStatus.FAILED.getValue());
+      dbReqMap.put(ReportSpillFile.DATA_FILE, null);
+      cassandraOperation.updateRecord(
+          reportTrackingdbInfo.getKeySpace(), reportTrackingdbInfo.getTableName(), dbReqMap);
+      return;
+    }
 
-    List<List<Object>> finalList = (List<List<Object>>) map.get(JsonKey.DATA);
     String fileName = (String) map.get(JsonKey.FILE_NAME);
     if (StringUtils.isBlank(fileName)) {
       fileName = "File-" + requestId;
     }
     File file = null;
     try {
-      file = fileUtil.writeToFile(fileName, finalList);
+      file = writeReportFile(fileName, fileFormat, spillFile);
     } catch (Exception ex) {
+      spillFile.delete();
       ProjectLogger.log("PROCESS FAILED WHILE CONVERTING THE DATA TO FILE .", ex);
       // update DB as status failed since unable to convert data to file
       dbReqMap.put(JsonKey.UPDATED_DATE, simpleDateFormat.format(new Date()));
@@ -209,12 +234,14 @@ public class MetricsBackGroundJobActor extends BaseActor {
       if (ProjectUtil.isNotNull(file)) {
         file.delete();
       }
+      spillFile.delete();
     }
 
     reportDbInfo.put(JsonKey.FILE_URL, storageUrl);
     dbReqMap.put(JsonKey.FILE_URL, storageUrl);
     dbReqMap.put(JsonKey.UPDATED_DATE, simpleDateFormat.format(new Date()));
     dbReqMap.put(JsonKey.DATA, null);
+    dbReqMap.put(ReportSpillFile.DATA_FILE, null);
     dbReqMap.put(JsonKey.STATUS, ReportTrackingStatus.UPLOADING_FILE_SUCCESS.getValue());
     cassandraOperation.updateRecord(
         reportTrackingdbInfo.getKeySpace(), reportTrackingdbInfo.getTableName(), dbReqMap);
@@ -230,6 +257,22 @@ public class MetricsBackGroundJobActor extends BaseActor {
     self().tell(backGroundRequest, self());
   }
 
+  /**
+   * Writes the report file from the rows in the spill file. A CSV report is copied from the spill
+   * file row by row, other formats are written from a list which reads the rows as it is iterated.
+   */
+  private File writeReportFile(String fileName, String fileFormat, File spillFile)
+      throws IOException {
+    if (CSV_FORMAT.equalsIgnoreCase(fileFormat)) {
+      File file = new File(spillFile.getParentFile(), fileName + "." + CSV_FORMAT);
+      ReportSpillFile.writeCsv(spillFile, file);
+      return file;
+    }
+    try (ReportSpillFile.Rows rows = ReportSpillFile.readRows(spillFile)) {
+      return FileUtil.getFileUtil(fileFormat).writeToFile(fileName, rows);
+    }
+  }
+
   private boolean processMailSending(
       Map<String, Object> reportDbInfo, Map<String, Object> requestMap) {
 
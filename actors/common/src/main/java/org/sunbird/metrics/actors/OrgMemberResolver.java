@@ -0,0 +1,180 @@
+package org.sunbird.metrics.actors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import org.sunbird.common.ElasticSearchHelper;
+import org.sunbird.common.factory.EsClientFactory;
+import org.sunbird.common.inf.ElasticSearchService;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.ProjectUtil.EsType;
+import org.sunbird.common.models.util.datasecurity.DecryptionService;
+import org.sunbird.dto.SearchDTO;
+import org.sunbird.learner.util.ExpiringLruCache;
+import scala.concurrent.Future;
+
+/**
+ * Resolves the members of an organisation and the user details needed by the org reports. Members
+ * are read from ES in pages ordered by user ID, each page starting after the last ID of the
+ * previous one, so that no result window limits the number of members. Looked up users are kept
+ * in a short lived cache shared by all report jobs.
+ */
+public class OrgMemberResolver {
+
+  private static final String SUNBIRD_REPORT_USER_PAGE_SIZE_KEY = "sunbird_report_user_page_size";
+  private static final int DEFAULT_PAGE_SIZE = 1000;
+  private static final int CACHE_SIZE = 50000;
+  private static final long CACHE_TTL = 10 * 60 * 1000L;
+  private static final String ASC = "asc";
+  private static final List<String> USER_FIELDS =
+      Arrays.asList(
+          JsonKey.ID, JsonKey.USER_ID, JsonKey.USERNAME, JsonKey.USER_NAME, JsonKey.CREATED_DATE);
+  private static final ExpiringLruCache<String, Map<String, Object>> userCache =
+      new ExpiringLruCache<>(CACHE_SIZE, CACHE_TTL);
+  private static OrgMemberResolver instance;
+
+  private final ElasticSearchService esService;
+  private final DecryptionService decryptionService;
+  private final int pageSize;
+
+  /** Receives the members of an organisation one page at a time. */
+  public interface PageConsumer {
+
+    /**
+     * @param users Users of the page
+     * @param totalCount Total number of members of the organisation
+     */
+    void accept(List<Map<String, Object>> users, long totalCount) throws Exception;
+  }
+
+  OrgMemberResolver(
+      ElasticSearchService esService, DecryptionService decryptionService, int pageSize) {
+    this.esService = esService;
+    this.decryptionService = decryptionService;
+    this.pageSize = pageSize;
+  }
+
+  public static synchronized OrgMemberResolver getInstance() {
+    if (instance == null) {
+      instance =
+          new OrgMemberResolver(
+              EsClientFactory.getInstance(JsonKey.REST),
+              org.sunbird.common.models.util.datasecurity.impl.ServiceFactory
+                  .getDecryptionServiceInstance(null),
+              getPageSize());
+    }
+    return instance;
+  }
+
+  /**
+   * Reads all members of the given organisation and passes them to the consumer page by page.
+   *
+   * @param orgId Organisation ID
+   * @param consumer Consumer of the pages
+   */
+  public void forEachMemberPage(String orgId, PageConsumer consumer) throws Exception {
+    String lastId = null;
+    long totalCount = -1;
+    while (true) {
+      Map<String, Object> filters = new HashMap<>();
+      filters.put("organisations.organisationId", orgId);
+      if (lastId != null) {
+        Map<String, Object> range = new HashMap<>();
+        range.put(BaseMetricsActor.GT, lastId);
+        filters.put(JsonKey.ID, range);
+      }
+      SearchDTO searchDTO = createSearchDTO(filters, pageSize);
+      searchDTO.getSortBy().put(JsonKey.ID, ASC);
+      Map<String, Object> result = search(searchDTO);
+      List<Map<String, Object>> users = getContent(result);
+      if (users.isEmpty()) {
+        return;
+      }
+      lastId = (String) users.get(users.size() - 1).get(JsonKey.ID);
+      users = decryptAndCache(users);
+      if (totalCount < 0) {
+        // Later pages only count the members after the last ID of the previous page
+        Object count = result.get(JsonKey.COUNT);
+        totalCount = count instanceof Number ? ((Number) count).longValue() : users.size();
+      }
+      consumer.accept(users, totalCount);
+      if (users.size() < pageSize || lastId == null) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the details of the given users, looking up those which are not cached with one ES
+   * search per page of IDs.
+   *
+   * @param userIds User IDs
+   * @return Map of user ID to user details, without the users which do not exist
+   */
+  public Map<String, Map<String, Object>> getUsers(Collection<String> userIds) {
+    Map<String, Map<String, Object>> users = new HashMap<>();
+    List<String> missingIds = new ArrayList<>();
+    for (String userId : new LinkedHashSet<>(userIds)) {
+      Map<String, Object> user = userCache.get(userId);
+      if (user != null) {
+        users.put(userId, user);
+      } else {
+        missingIds.add(userId);
+      }
+    }
+    for (int i = 0; i < missingIds.size(); i += pageSize) {
+      List<String> ids = missingIds.subList(i, Math.min(i + pageSize, missingIds.size()));
+      Map<String, Object> filters = new HashMap<>();
+      filters.put(JsonKey.ID, new ArrayList<>(ids));
+      for (Map<String, Object> user :
+          decryptAndCache(getContent(search(createSearchDTO(filters, ids.size()))))) {
+        users.put((String) user.get(JsonKey.ID), user);
+      }
+    }
+    return users;
+  }
+
+  private List<Map<String, Object>> decryptAndCache(List<Map<String, Object>> users) {
+    List<Map<String, Object>> decryptedUsers = decryptionService.decryptData(users);
+    for (Map<String, Object> user : decryptedUsers) {
+      userCache.put((String) user.get(JsonKey.ID), user);
+    }
+    return decryptedUsers;
+  }
+
+  private SearchDTO createSearchDTO(Map<String, Object> filters, int limit) {
+    SearchDTO searchDTO = new SearchDTO();
+    searchDTO.getAdditionalProperties().put(JsonKey.FILTERS, filters);
+    searchDTO.setFields(USER_FIELDS);
+    searchDTO.setLimit(limit);
+    return searchDTO;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> search(SearchDTO searchDTO) {
+    Future<Map<String, Object>> resultF = esService.search(searchDTO, EsType.user.getTypeName());
+    Map<String, Object> result =
+        (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(resultF);
+    return result == null ? new HashMap<>() : result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> getContent(Map<String, Object> result) {
+    List<Map<String, Object>> content = (List<Map<String, Object>>) result.get(JsonKey.CONTENT);
+    return content == null ? new ArrayList<>() : content;
+  }
+
+  private static int getPageSize() {
+    try {
+      return Integer.parseInt(
+          ProjectUtil.getConfigValue(SUNBIRD_REPORT_USER_PAGE_SIZE_KEY).trim());
+    } catch (Exception e) {
+      return DEFAULT_PAGE_SIZE;
+    }
+  }
+}
@@ -10,29 +10,25 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntConsumer;
 import org.apache.commons.lang3.StringUtils;
 import org.sunbird.actor.router.ActorConfig;
 import org.sunbird.cassandra.CassandraOperation;
-import org.sunbird.common.ElasticSearchHelper;
 import org.sunbird.common.exception.ProjectCommonException;
-import org.sunbird.common.factory.EsClientFactory;
-import org.sunbird.common.inf.ElasticSearchService;
 import org.sunbird.common.models.response.Response;
 import org.sunbird.common.models.util.ActorOperations;
 import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.models.util.ProjectUtil;
-import org.sunbird.common.models.util.ProjectUtil.EsType;
 import org.sunbird.common.models.util.ProjectUtil.ReportTrackingStatus;
 import org.sunbird.common.models.util.PropertiesCache;
-import org.sunbird.common.models.util.datasecurity.DecryptionService;
 import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.HttpRequestExecutor;
 import org.sunbird.learner.util.Util;
 import org.sunbird.metrics.actors.OrganisationMetricsUtil.ContentStatus;
-import scala.concurrent.Future;
 
 @ActorConfig(
   tasks = {},
@@ -40,14 +36,23 @@ import scala.concurrent.Future;
 )
 public class OrganisationMetricsBackgroundActor extends BaseMetricsActor {
 
+  private static final String SUNBIRD_ANALYTICS_API_CONCURRENCY_KEY =
+      "sunbird_analytics_api_concurrency";
+  private static final String SUNBIRD_ANALYTICS_API_MAX_RETRIES_KEY =
+      "sunbird_analytics_api_max_retries";
+  private static final String SUNBIRD_ANALYTICS_API_TIMEOUT_KEY = "sunbird_analytics_api_timeout";
+  private static final int DEFAULT_ANALYTICS_API_CONCURRENCY = 10;
+  private static final int DEFAULT_ANALYTICS_API_MAX_RETRIES = 3;
+  private static final long DEFAULT_ANALYTICS_API_RETRY_DELAY = 200;
+  private static final int DEFAULT_ANALYTICS_API_TIMEOUT = 30000;
+  private static final String PROCESSED_COUNT = "processedCount";
+  private static final String TOTAL_COUNT = "totalCount";
+  private static final int PROGRESS_INTERVAL = 500;
   private static ObjectMapper mapper = new ObjectMapper();
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
   private Util.DbInfo reportTrackingdbInfo = Util.dbInfoMap.get(JsonKey.REPORT_TRACKING_DB);
   private static Map<String, String> conceptsList = new HashMap<>();
-  private DecryptionService decryptionService =
-      org.sunbird.common.models.util.datasecurity.impl.ServiceFactory.getDecryptionServiceInstance(
-          null);
-  private ElasticSearchService esService = EsClientFactory.getInstance(JsonKey.REST);
+  private OrgMemberResolver orgMemberResolver = OrgMemberResolver.getInstance();
 
   @Override
   public void onReceive(Request request) throws Throwable {
@@ -93,18 +98,26 @@ public class OrganisationMetricsBackgroundActor extends BaseMetricsActor {
       headers.add("contentCreationTimeSpent");
       headers.add("contentCreationTotalSessions");
       headers.add("contentCreationAvgTimePerSession");
-      List<List<Object>> csvRecords = new ArrayList<>();
-      csvRecords.add(headers);
-      for (String operation : OrganisationMetricsUtil.operationList) {
-        String requestStr = getRequestObject(operation, requestId);
+      ReportSpillFile spillFile = ReportSpillFile.create(requestId);
+      try {
+        spillFile.write(headers);
+        for (String operation : OrganisationMetricsUtil.operationList) {
+          String requestStr = getRequestObject(operation, requestId);
 
-        String baseSearchUrl = ProjectUtil.getConfigValue(JsonKey.SEARCH_SERVICE_API_BASE_URL);
-        String ekStepResponse =
-            makePostRequest(baseSearchUrl, JsonKey.EKSTEP_CONTENT_SEARCH_URL, requestStr);
-        List<Map<String, Object>> ekstepData = getDataFromResponse(ekStepResponse, headers, orgId);
-        List<Map<String, Object>> userData = getUserDetailsFromES(ekstepData);
-        csvRecords.addAll(generateDataList(userData, headers));
+          String baseSearchUrl = ProjectUtil.getConfigValue(JsonKey.SEARCH_SERVICE_API_BASE_URL);
+          String ekStepResponse =
+              makePostRequest(baseSearchUrl, JsonKey.EKSTEP_CONTENT_SEARCH_URL, requestStr);
+          List<Map<String, Object>> ekstepData =
+              getDataFromResponse(ekStepResponse, headers, orgId);
+          List<Map<String, Object>> userData = getUserDetailsFromES(ekstepData);
+          spillFile.writeAll(generateDataList(userData, headers));
+        }
+      } catch (Exception e) {
+        spillFile.close();
+        spillFile.getFile().delete();
+        throw e;
       }
+      spillFile.close();
       String period = (String) requestData.get(JsonKey.PERIOD);
       String fileName =
           "CreationReport"
@@ -115,14 +128,13 @@ public class OrganisationMetricsBackgroundActor extends BaseMetricsActor {
               + FILENAMESEPARATOR
               + period;
 
-      saveData(csvRecords, requestId, "Creation Report");
+      saveData(spillFile, requestId, "Creation Report");
       Request backGroundRequest = new Request();
       backGroundRequest.setOperation(ActorOperations.FILE_GENERATION_AND_UPLOAD.getValue());
 
       Map<String, Object> innerMap = new HashMap<>();
       innerMap.put(JsonKey.REQUEST_ID, requestId);
       innerMap.put(JsonKey.FILE_NAME, fileName);
-      innerMap.put(JsonKey.DATA, csvRecords);
       backGroundRequest.setRequest(innerMap);
       tellToAnother(backGroundRequest);
     } catch (Exception e) {
@@ -163,23 +175,70 @@ public class OrganisationMetricsBackgroundActor extends BaseMetricsActor {
       headers.add("totalTimeSpentOnConsumingContent");
       headers.add("totalPiecesOfContentConsumed");
       headers.add("avgTimeSpentPerVisit");
-      List<Map<String, Object>> consumptionData = new ArrayList<>();
-      List<Map<String, Object>> usersData = getUserDetailsUsingOrg(orgId);
-      for (Map<String, Object> userData : usersData) {
-        String request =
-            OrganisationMetricsUtil.getOrgMetricsRequest(
-                actorMessage, periodStr, orgHashId, (String) userData.get(JsonKey.ID), channel);
-        String analyticsBaseUrl = ProjectUtil.getConfigValue(JsonKey.ANALYTICS_API_BASE_URL);
-        String esResponse =
-            makePostRequest(analyticsBaseUrl, JsonKey.EKSTEP_METRICS_API_URL, request);
-        Map<String, Object> ekstepData =
-            getConsumptionDataFromResponse(esResponse, userData, (List<String>) (Object) headers);
-        consumptionData.add(ekstepData);
+      String url =
+          ProjectUtil.getConfigValue(JsonKey.ANALYTICS_API_BASE_URL)
+              + PropertiesCache.getInstance().getProperty(JsonKey.EKSTEP_METRICS_API_URL);
+      Map<String, String> analyticsHeaders = getAnalyticsHeaders();
+      int[] userCount = new int[1];
+      int[] failureCount = new int[1];
+      ReportSpillFile spillFile = ReportSpillFile.create(requestId);
+      try (HttpRequestExecutor executor =
+          new HttpRequestExecutor(
+              getConfigValue(
+                  SUNBIRD_ANALYTICS_API_CONCURRENCY_KEY, DEFAULT_ANALYTICS_API_CONCURRENCY),
+              getConfigValue(
+                  SUNBIRD_ANALYTICS_API_MAX_RETRIES_KEY, DEFAULT_ANALYTICS_API_MAX_RETRIES),
+              DEFAULT_ANALYTICS_API_RETRY_DELAY,
+              getConfigValue(SUNBIRD_ANALYTICS_API_TIMEOUT_KEY, DEFAULT_ANALYTICS_API_TIMEOUT))) {
+        spillFile.write(headers);
+        orgMemberResolver.forEachMemberPage(
+            orgId,
+            (usersData, totalCount) -> {
+              List<String> requests = new ArrayList<>(usersData.size());
+              for (Map<String, Object> userData : usersData) {
+                requests.add(
+                    OrganisationMetricsUtil.getOrgMetricsRequest(
+                        actorMessage,
+                        periodStr,
+                        orgHashId,
+                        (String) userData.get(JsonKey.ID),
+                        channel));
+              }
+              List<String> responses =
+                  postPage(
+                      executor,
+                      url,
+                      analyticsHeaders,
+                      requests,
+                      userCount[0],
+                      processedCount ->
+                          updateProgress(requestId, processedCount, (int) totalCount));
+              for (int i = 0; i < usersData.size(); i++) {
+                if (responses.get(i) == null) {
+                  failureCount[0]++;
+                }
+                Map<String, Object> consumptionData =
+                    getConsumptionDataFromResponse(
+                        responses.get(i), usersData.get(i), (List<String>) (Object) headers);
+                spillFile.write(getDataRow(consumptionData, headers));
+              }
+              userCount[0] += usersData.size();
+            });
+      } catch (Exception e) {
+        spillFile.close();
+        spillFile.getFile().delete();
+        throw e;
       }
-      List<List<Object>> csvRecords = new ArrayList<>();
-      csvRecords.add(headers);
-      csvRecords.addAll(generateDataList(consumptionData, headers));
-
+      spillFile.close();
+      ProjectLogger.log(
+          "OrganisationMetricsBackgroundActor:orgConsumptionMetricsData: Fetched metrics of "
+              + userCount[0]
+              + " users for request "
+              + requestId
+              + " with "
+              + failureCount[0]
+              + " failures",
+          LoggerEnum.INFO.name());
       String fileName =
           "ConsumptionReport"
               + FILENAMESEPARATOR
@@ -188,14 +247,13 @@ public class OrganisationMetricsBackgroundActor extends BaseMetricsActor {
               + System.currentTimeMillis()
               + FILENAMESEPARATOR
               + periodStr;
-      saveData(csvRecords, requestId, "Consumption Report");
+      saveData(spillFile, requestId, "Consumption Report");
       Request backGroundRequest = new Request();
       backGroundRequest.setOperation(ActorOperations.FILE_GENERATION_AND_UPLOAD.getValue());
 
       Map<String, Object> innerMap = new HashMap<>();
       innerMap.put(JsonKey.REQUEST_ID, requestId);
       innerMap.put(JsonKey.FILE_NAME, fileName);
-      innerMap.put(JsonKey.DATA, csvRecords);
       backGroundRequest.setRequest(innerMap);
       tellToAnother(backGroundRequest);
     } catch (Exception e) {
@@ -211,60 +269,46 @@ public class OrganisationMetricsBackgroundActor extends BaseMetricsActor {
       List<Map<String, Object>> aggregationMap, List<Object> headers) {
     List<List<Object>> result = new ArrayList<>();
     for (Map<String, Object> data : aggregationMap) {
-      List<Object> dataResult = new ArrayList<>();
-      for (Object header : headers) {
-        dataResult.add(data.get(header));
-      }
-      result.add(dataResult);
+      result.add(getDataRow(data, headers));
     }
     return result;
   }
 
-  @SuppressWarnings("unchecked")
+  private List<Object> getDataRow(Map<String, Object> data, List<Object> headers) {
+    List<Object> dataResult = new ArrayList<>();
+    for (Object header : headers) {
+      dataResult.add(data.get(header));
+    }
+    return dataResult;
+  }
+
   private List<Map<String, Object>> getUserDetailsFromES(List<Map<String, Object>> ekstepData) {
-    List<String> coursefields = new ArrayList<>();
-    List<Map<String, Object>> userResult = new ArrayList<>();
-    coursefields.add(JsonKey.USER_ID);
-    coursefields.add(JsonKey.USERNAME);
-    coursefields.add(JsonKey.CREATED_DATE);
-    String userId = "";
+    List<String> userIds = new ArrayList<>();
     for (Map<String, Object> userData : ekstepData) {
-      Map<String, Object> data = new HashMap<>();
       if (userData.containsKey("userId")) {
-        userId = (String) userData.get("userId");
-      } else {
-        data.putAll(userData);
-        userResult.add(data);
-        continue;
+        userIds.add((String) userData.get("userId"));
       }
-      Map<String, Object> filter = new HashMap<>();
-      filter.put(JsonKey.IDENTIFIER, userId);
-      try {
-        Future<Map<String, Object>> resultF =
-            esService.search(
-                createESRequest(filter, null, coursefields), EsType.user.getTypeName());
-        Map<String, Object> result =
-            (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(resultF);
-        if (null != result && !result.isEmpty()) {
-          List<Map<String, Object>> resultList =
-              (List<Map<String, Object>>) result.get(JsonKey.CONTENT);
-          if (null != resultList && !resultList.isEmpty()) {
-            for (Map<String, Object> dataObject : resultList) {
-              data.putAll(dataObject);
-            }
-          }
-          data.putAll(userData);
-          userResult.add(data);
-        }
-      } catch (Exception e) {
-        throw new ProjectCommonException(
-            ResponseCode.esError.getErrorCode(),
-            ResponseCode.esError.getErrorMessage(),
-            ResponseCode.SERVER_ERROR.getResponseCode());
+    }
+    Map<String, Map<String, Object>> users;
+    try {
+      users = orgMemberResolver.getUsers(userIds);
+    } catch (Exception e) {
+      throw new ProjectCommonException(
+          ResponseCode.esError.getErrorCode(),
+          ResponseCode.esError.getErrorMessage(),
+          ResponseCode.SERVER_ERROR.getResponseCode());
+    }
+    List<Map<String, Object>> userResult = new ArrayList<>(ekstepData.size());
+    for (Map<String, Object> userData : ekstepData) {
+      Map<String, Object> data = new HashMap<>();
+      Map<String, Object> user = users.get(userData.get("userId"));
+      if (user != null) {
+        data.putAll(user);
       }
+      data.putAll(userData);
+      userResult.add(data);
     }
-    // decrypt the userdata and return
-    return decryptionService.decryptData(userResult);
+    return userResult;
   }
 
   private String getRequestObject(String operation, String requestId) {
@@ -449,52 +493,20 @@ public class OrganisationMetricsBackgroundActor extends BaseMetricsActor {
     return domainList;
   }
 
-  @SuppressWarnings("unchecked")
-  private List<Map<String, Object>> getUserDetailsUsingOrg(String orgId) {
-    List<String> coursefields = new ArrayList<>();
-    List<Map<String, Object>> userResult = new ArrayList<>();
-    coursefields.add(JsonKey.USER_ID);
-    coursefields.add(JsonKey.USER_NAME);
-    coursefields.add(JsonKey.CREATED_DATE);
-    Map<String, Object> filter = new HashMap<>();
-    filter.put("organisations.organisationId", orgId);
-    try {
-      Future<Map<String, Object>> resultF =
-          esService.search(createESRequest(filter, null, coursefields), EsType.user.getTypeName());
-      Map<String, Object> result =
-          (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(resultF);
-
-      if (null != result && !result.isEmpty()) {
-        List<Map<String, Object>> resultList =
-            (List<Map<String, Object>>) result.get(JsonKey.CONTENT);
-        if (null != resultList && !resultList.isEmpty()) {
-          for (Map<String, Object> dataObject : resultList) {
-            userResult.add(dataObject);
-          }
-        }
-      }
-      // decrypt the userdata
-      userResult = decryptionService.decryptData(userResult);
-      return userResult;
-    } catch (Exception e) {
-      throw new ProjectCommonException(
-          ResponseCode.esError.getErrorCode(),
-          ResponseCode.esError.getErrorMessage(),
-          ResponseCode.SERVER_ERROR.getResponseCode());
-    }
-  }
-
   @SuppressWarnings("unchecked")
   private Map<String, Object> getConsumptionDataFromResponse(
       String responseData, Map<String, Object> userData, List<String> headers) {
     Map<String, Object> resultMap = new HashMap<>();
+    resultMap.put(headers.get(0), userData.get(JsonKey.ID));
+    resultMap.put(headers.get(1), userData.get(JsonKey.USERNAME));
+    resultMap.put(headers.get(2), userData.get(JsonKey.CREATED_DATE));
+    if (responseData == null) {
+      return resultMap;
+    }
     try {
       Map<String, Object> resultData = mapper.readValue(responseData, Map.class);
       resultData = (Map<String, Object>) resultData.get(JsonKey.RESULT);
       Map<String, Object> result = (Map<String, Object>) resultData.get(JsonKey.SUMMARY);
-      resultMap.put(headers.get(0), userData.get(JsonKey.ID));
-      resultMap.put(headers.get(1), userData.get(JsonKey.USERNAME));
-      resultMap.put(headers.get(2), userData.get(JsonKey.CREATED_DATE));
       resultMap.put(headers.get(3), result.get("m_total_sessions"));
       resultMap.put(headers.get(4), result.get("m_total_ts"));
       resultMap.put(headers.get(5), result.get("m_total_content_count"));
@@ -505,13 +517,13 @@ public class OrganisationMetricsBackgroundActor extends BaseMetricsActor {
     return resultMap;
   }
 
-  private void saveData(List<List<Object>> data, String requestId, String type) {
+  private void saveData(ReportSpillFile spillFile, String requestId, String type) {
     Map<String, Object> dbReqMap = new HashMap<>();
     SimpleDateFormat format = ProjectUtil.getDateFormatter();
     format.setLenient(false);
     dbReqMap.put(JsonKey.ID, requestId);
-    String dataStr = getJsonString(data);
-    dbReqMap.put(JsonKey.DATA, dataStr);
+    dbReqMap.put(ReportSpillFile.DATA_FILE, spillFile.getFile().getName());
+    dbReqMap.put(ReportSpillFile.ROW_COUNT, spillFile.getRowCount());
     dbReqMap.put(JsonKey.STATUS, ReportTrackingStatus.GENERATING_DATA.getValue());
     dbReqMap.put(JsonKey.UPDATED_DATE, format.format(new Date()));
     dbReqMap.put(JsonKey.TYPE, type);
@@ -519,6 +531,40 @@ public class OrganisationMetricsBackgroundActor extends BaseMetricsActor {
         reportTrackingdbInfo.getKeySpace(), reportTrackingdbInfo.getTableName(), dbReqMap);
   }
 
+  /**
+   * Posts the metrics requests of one page of members.
+   *
+   * @param processedBefore Number of members processed in the previous pages
+   * @param onProgress Called with the number of members processed in all pages so far
+   * @return Response bodies in the order of the requests
+   */
+  static List<String> postPage(
+      HttpRequestExecutor executor,
+      String url,
+      Map<String, String> headers,
+      List<String> requests,
+      int processedBefore,
+      IntConsumer onProgress) {
+    return executor.postAll(
+        url,
+        headers,
+        requests,
+        processedCount -> onProgress.accept(processedBefore + processedCount));
+  }
+
+  private void updateProgress(String requestId, int processedCount, int totalCount) {
+    if (processedCount % PROGRESS_INTERVAL != 0 && processedCount != totalCount) {
+      return;
+    }
+    Map<String, Object> dbReqMap = new HashMap<>();
+    dbReqMap.put(JsonKey.ID, requestId);
+    dbReqMap.put(PROCESSED_COUNT, processedCount);
+    dbReqMap.put(TOTAL_COUNT, totalCount);
+    dbReqMap.put(JsonKey.UPDATED_DATE, ProjectUtil.getDateFormatter().format(new Date()));
+    cassandraOperation.updateRecord(
+        reportTrackingdbInfo.getKeySpace(), reportTrackingdbInfo.getTableName(), dbReqMap);
+  }
+
   @SuppressWarnings("unchecked")
   private Map<String, Object> getData(String requestId) {
     Response response =
@@ -532,17 +578,11 @@ public class OrganisationMetricsBackgroundActor extends BaseMetricsActor {
     return responseList.get(0);
   }
 
-  private String getJsonString(Object requestObject) {
-    ObjectMapper mapper = new ObjectMapper();
-    String data = "";
+  private static int getConfigValue(String key, int defaultValue) {
     try {
-      data = mapper.writeValueAsString(requestObject);
-    } catch (JsonProcessingException e) {
-      throw new ProjectCommonException(
-          ResponseCode.invalidJsonData.getErrorCode(),
-          ResponseCode.invalidJsonData.getErrorMessage(),
-          ResponseCode.SERVER_ERROR.getResponseCode());
+      return Integer.parseInt(ProjectUtil.getConfigValue(key).trim());
+    } catch (Exception e) {
+      return defaultValue;
     }
-    return data;
   }
 }
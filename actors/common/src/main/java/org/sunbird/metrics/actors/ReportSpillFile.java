@@ -0,0 +1,281 @@
+package org.sunbird.metrics.actors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.AbstractSequentialList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+
+/**
+ * Local file to which the rows of a report are written as they are produced, so that a report is
+ * never held in memory, in a report_tracking row or in an actor message as a whole. Each row is
+ * written as one JSON array per line, which keeps the value types for the file formats that need
+ * them. The report_tracking row holds the name of the file and the number of rows written.
+ *
+ * <p>The file is written by the actor which generates the data and read by the actor which uploads
+ * the report, which may run on another node or after a restart. The spill directory configured by
+ * sunbird_report_spill_dir must therefore be storage shared by all nodes running these actors, the
+ * default temp directory only works when one node handles both steps. A report whose spill file is
+ * not found is marked as failed.
+ */
+public class ReportSpillFile implements Closeable {
+
+  /** Column of report_tracking which holds the name of the spill file in the spill directory. */
+  public static final String DATA_FILE = "dataFile";
+  /** Column of report_tracking which holds the number of rows in the spill file. */
+  public static final String ROW_COUNT = "rowCount";
+
+  private static final String SUNBIRD_REPORT_SPILL_DIR_KEY = "sunbird_report_spill_dir";
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private final File file;
+  private final BufferedWriter writer;
+  private int rowCount;
+
+  private ReportSpillFile(File file) throws IOException {
+    this.file = file;
+    this.writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Creates an empty spill file for the given report request.
+   *
+   * @param requestId Report request ID
+   * @return Spill file open for writing
+   */
+  public static ReportSpillFile create(String requestId) throws IOException {
+    return new ReportSpillFile(File.createTempFile("report-" + requestId + "-", ".json", getDir()));
+  }
+
+  public void write(List<Object> row) throws IOException {
+    writer.write(mapper.writeValueAsString(row));
+    writer.newLine();
+    rowCount++;
+  }
+
+  public void writeAll(List<List<Object>> rows) throws IOException {
+    for (List<Object> row : rows) {
+      write(row);
+    }
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * Resolves the name of a spill file stored in report_tracking against the spill directory.
+   *
+   * @param name Name of the spill file, or an absolute path
+   * @return Spill file, which may not exist on this node
+   */
+  public static File getFile(String name) {
+    return getDir().toPath().resolve(name).toFile();
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+
+  /**
+   * Copies the rows of a spill file to a CSV file one row at a time.
+   *
+   * @param spillFile Spill file to read
+   * @param csvFile CSV file to write
+   */
+  @SuppressWarnings("unchecked")
+  public static void writeCsv(File spillFile, File csvFile) throws IOException {
+    try (BufferedReader reader =
+            Files.newBufferedReader(spillFile.toPath(), StandardCharsets.UTF_8);
+        Writer fileWriter = Files.newBufferedWriter(csvFile.toPath(), StandardCharsets.UTF_8);
+        CSVWriter csvWriter = new CSVWriter(fileWriter)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        List<Object> row = mapper.readValue(line, List.class);
+        String[] values = new String[row.size()];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = row.get(i) == null ? "" : String.valueOf(row.get(i));
+        }
+        csvWriter.writeNext(values);
+      }
+    }
+  }
+
+  /**
+   * Returns the rows of a spill file, for file formats which can only be written from a list. The
+   * rows are read from the file as the list is iterated and are never held in memory as a whole.
+   *
+   * @param spillFile Spill file to read
+   * @return Rows of the report, to be closed once written
+   */
+  public static Rows readRows(File spillFile) {
+    return new Rows(spillFile);
+  }
+
+  /**
+   * List view of the rows of a spill file. Iterating it reads the file one line at a time, reading
+   * a row by index reads the file up to that row.
+   */
+  public static class Rows extends AbstractSequentialList<List<Object>> implements Closeable {
+
+    private final File spillFile;
+    private final List<BufferedReader> readers = new ArrayList<>();
+    private int size = -1;
+
+    private Rows(File spillFile) {
+      this.spillFile = spillFile;
+    }
+
+    @Override
+    public int size() {
+      if (size < 0) {
+        int count = 0;
+        ListIterator<List<Object>> iterator = listIterator(0);
+        while (iterator.hasNext()) {
+          iterator.next();
+          count++;
+        }
+        size = count;
+      }
+      return size;
+    }
+
+    @Override
+    public ListIterator<List<Object>> listIterator(int index) {
+      BufferedReader reader;
+      try {
+        reader = Files.newBufferedReader(spillFile.toPath(), StandardCharsets.UTF_8);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      synchronized (readers) {
+        readers.add(reader);
+      }
+      RowIterator iterator = new RowIterator(reader);
+      for (int i = 0; i < index; i++) {
+        iterator.next();
+      }
+      return iterator;
+    }
+
+    @Override
+    public void close() throws IOException {
+      synchronized (readers) {
+        for (BufferedReader reader : readers) {
+          reader.close();
+        }
+        readers.clear();
+      }
+    }
+  }
+
+  private static class RowIterator implements ListIterator<List<Object>> {
+
+    private final BufferedReader reader;
+    private String nextLine;
+    private int nextIndex;
+
+    private RowIterator(BufferedReader reader) {
+      this.reader = reader;
+      this.nextLine = readLine();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextLine != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object> next() {
+      if (nextLine == null) {
+        throw new NoSuchElementException();
+      }
+      try {
+        List<Object> row = mapper.readValue(nextLine, List.class);
+        nextLine = readLine();
+        nextIndex++;
+        return row;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public int nextIndex() {
+      return nextIndex;
+    }
+
+    @Override
+    public int previousIndex() {
+      return nextIndex - 1;
+    }
+
+    @Override
+    public boolean hasPrevious() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Object> previous() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void set(List<Object> row) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void add(List<Object> row) {
+      throw new UnsupportedOperationException();
+    }
+
+    private String readLine() {
+      try {
+        return reader.readLine();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private static File getDir() {
+    String dir = null;
+    try {
+      dir = ProjectUtil.getConfigValue(SUNBIRD_REPORT_SPILL_DIR_KEY);
+    } catch (Exception e) {
+      ProjectLogger.log("ReportSpillFile:getDir: Spill directory is not configured", e);
+    }
+    if (StringUtils.isBlank(dir)) {
+      dir = System.getProperty("java.io.tmpdir");
+    }
+    File file = new File(dir);
+    file.mkdirs();
+    return file;
+  }
+}
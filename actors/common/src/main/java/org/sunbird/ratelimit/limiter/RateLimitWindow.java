@@ -0,0 +1,101 @@
+package org.sunbird.ratelimit.limiter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.sunbird.common.models.util.JsonKey;
+
+/**
+ * Fixed window counter for one rate limit unit of a key. The window starts with the first request
+ * and expires after the TTL of the unit, same as a rate_limit row written with a TTL. The count
+ * includes the requests taken on this node which are not yet merged into the stored row.
+ */
+public class RateLimitWindow {
+
+  private final String unit;
+  private final int limit;
+  private volatile long expiresAt;
+  private final AtomicInteger count;
+  private int mergedCount;
+
+  public RateLimitWindow(String unit, int limit, int count, int ttl, long now) {
+    this.unit = unit;
+    this.limit = limit;
+    this.count = new AtomicInteger(count);
+    this.mergedCount = count;
+    this.expiresAt = now + ttl * 1000L;
+  }
+
+  public String getUnit() {
+    return unit;
+  }
+
+  public int getCount() {
+    return count.get();
+  }
+
+  public boolean isExpired(long now) {
+    return now >= expiresAt;
+  }
+
+  /**
+   * Takes one request from the window without locking.
+   *
+   * @return true if the request is within the limit, false otherwise
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      int current = count.get();
+      if (current >= limit) {
+        return false;
+      }
+      if (count.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /** Gives back a request taken with {@link #tryAcquire()}. */
+  public void release() {
+    count.decrementAndGet();
+  }
+
+  /**
+   * Merges the stored row of this unit, which holds the requests counted by all nodes, into the
+   * window. The requests taken on this node since the last merge are added to the stored count,
+   * and the window takes over the expiry of the stored row so that all nodes count in the same
+   * window. Callers must not take requests from the window while it is merged.
+   *
+   * @param storedCount Count of the stored row, 0 if there is none
+   * @param storedTTL Remaining TTL of the stored row in seconds, 0 if there is none
+   * @param now Current time
+   * @return true if this node took requests since the last merge, so the merged count has to be
+   *     written back
+   */
+  public boolean merge(int storedCount, int storedTTL, long now) {
+    int localCount = count.get() - mergedCount;
+    if (storedTTL > 0) {
+      expiresAt = now + storedTTL * 1000L;
+    } else {
+      storedCount = 0;
+    }
+    int total = storedCount + Math.max(localCount, 0);
+    count.set(total);
+    mergedCount = total;
+    return localCount > 0;
+  }
+
+  /** Remaining life of the window in seconds, rounded up. */
+  public int getRemainingTTL(long now) {
+    return (int) ((expiresAt - now + 999) / 1000);
+  }
+
+  public RateLimit toRateLimit(String key, long now) {
+    Map<String, Object> rateLimitMap = new HashMap<>();
+    rateLimitMap.put(JsonKey.RATE_LIMIT_UNIT, unit);
+    rateLimitMap.put(JsonKey.RATE, limit);
+    rateLimitMap.put(JsonKey.COUNT, count.get());
+    rateLimitMap.put(JsonKey.TTL, getRemainingTTL(now));
+    return new RateLimit(key, rateLimitMap);
+  }
+}
@@ -0,0 +1,212 @@
+package org.sunbird.ratelimit.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.responsecode.ResponseCode;
+import org.sunbird.learner.util.ExecutorManager;
+import org.sunbird.ratelimit.limiter.RateLimit;
+import org.sunbird.ratelimit.limiter.RateLimitWindow;
+import org.sunbird.ratelimit.limiter.RateLimiter;
+
+/**
+ * Rate limit service which keeps the counters of each key in memory. The counters of a key are
+ * merged with its rows in Cassandra when the key is used after more than a flush interval and on
+ * every background flush, where the requests taken on this node are added to the stored counts, so
+ * the limit holds across nodes up to the requests taken within one flush interval. A throttle
+ * call costs no round trip while the key is in use on this node.
+ */
+public class InMemoryRateLimitServiceImpl extends RateLimitServiceImpl {
+
+  private static final long FLUSH_INTERVAL_MILLIS = 1000;
+  private static final int FLUSH_BATCH_SIZE = 100;
+  private static volatile InMemoryRateLimitServiceImpl rateLimitService;
+
+  private Map<String, KeyWindows> windowsByKey = new ConcurrentHashMap<>();
+  private Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+
+  /** Windows of one key by unit. The instance is the lock for its windows. */
+  private static class KeyWindows {
+    private final Map<String, RateLimitWindow> windows = new HashMap<>();
+    private long mergedAt;
+  }
+
+  public static RateLimitService getInstance() {
+    if (rateLimitService == null) {
+      synchronized (InMemoryRateLimitServiceImpl.class) {
+        if (rateLimitService == null) {
+          InMemoryRateLimitServiceImpl service = new InMemoryRateLimitServiceImpl();
+          ExecutorManager.getExecutorService()
+              .scheduleWithFixedDelay(
+                  service::flush,
+                  FLUSH_INTERVAL_MILLIS,
+                  FLUSH_INTERVAL_MILLIS,
+                  TimeUnit.MILLISECONDS);
+          rateLimitService = service;
+        }
+      }
+    }
+    return rateLimitService;
+  }
+
+  @Override
+  public void throttleByKey(String key, RateLimiter[] rateLimiters) {
+    if (!isRateLimitOn()) {
+      ProjectLogger.log(
+          "InMemoryRateLimitServiceImpl:throttleByKey: Rate limiter is disabled", LoggerEnum.INFO);
+      return;
+    }
+    while (true) {
+      KeyWindows keyWindows = windowsByKey.computeIfAbsent(key, k -> new KeyWindows());
+      synchronized (keyWindows) {
+        if (windowsByKey.get(key) != keyWindows) {
+          // Evicted by a flush after it was looked up
+          continue;
+        }
+        long now = System.currentTimeMillis();
+        // Counts taken since the last flush are merged by the next flush
+        if (!dirtyKeys.contains(key) && now - keyWindows.mergedAt >= FLUSH_INTERVAL_MILLIS) {
+          merge(key, keyWindows, rateLimitDao.getRateLimits(key), now);
+        }
+        List<RateLimitWindow> acquired = new ArrayList<>();
+        for (RateLimiter rateLimiter : rateLimiters) {
+          RateLimitWindow window = getWindow(keyWindows.windows, rateLimiter, now);
+          if (window == null) {
+            continue;
+          }
+          if (!window.tryAcquire()) {
+            acquired.forEach(RateLimitWindow::release);
+            ProjectLogger.log(
+                "InMemoryRateLimitServiceImpl:throttleByKey: Rate limit threshold crossed for "
+                    + "key = "
+                    + key,
+                LoggerEnum.ERROR);
+            throw new ProjectCommonException(
+                ResponseCode.errorRateLimitExceeded.getErrorCode(),
+                ResponseCode.errorRateLimitExceeded.getErrorMessage(),
+                ResponseCode.TOO_MANY_REQUESTS.getResponseCode(),
+                window.getUnit().toLowerCase());
+          }
+          acquired.add(window);
+        }
+        dirtyKeys.add(key);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the live window of the given unit, opening a new one when there is none or the last
+   * one has expired. Units without a configured rate are not throttled unless a window for them
+   * was read from Cassandra.
+   */
+  private RateLimitWindow getWindow(
+      Map<String, RateLimitWindow> windows, RateLimiter rateLimiter, long now) {
+    return windows.compute(
+        rateLimiter.name(),
+        (unit, current) -> {
+          if (current != null && !current.isExpired(now)) {
+            return current;
+          }
+          Integer limit = rateLimiter.getRateLimit();
+          if (limit == null) {
+            return null;
+          }
+          return new RateLimitWindow(unit, limit, 0, rateLimiter.getTTL(), now);
+        });
+  }
+
+  /**
+   * Merges the stored rows of a key into its windows. Must be called holding the lock of the key.
+   *
+   * @return Counts to write back for the windows in which this node took requests
+   */
+  private List<RateLimit> merge(
+      String key, KeyWindows keyWindows, List<Map<String, Object>> ratesByKey, long now) {
+    Map<String, RateLimit> storedByUnit = new HashMap<>();
+    if (CollectionUtils.isNotEmpty(ratesByKey)) {
+      for (Map<String, Object> rate : ratesByKey) {
+        if (MapUtils.isNotEmpty(rate)) {
+          RateLimit rateLimit = new RateLimit(key, rate);
+          storedByUnit.put(rateLimit.getUnit(), rateLimit);
+        }
+      }
+    }
+    List<RateLimit> changed = new ArrayList<>();
+    Iterator<RateLimitWindow> itr = keyWindows.windows.values().iterator();
+    while (itr.hasNext()) {
+      RateLimitWindow window = itr.next();
+      RateLimit stored = storedByUnit.remove(window.getUnit());
+      if (window.isExpired(now) && stored == null) {
+        itr.remove();
+        continue;
+      }
+      boolean localRequests =
+          stored != null
+              ? window.merge(stored.getCount(), stored.getTTL(), now)
+              : window.merge(0, 0, now);
+      if (localRequests && !window.isExpired(now)) {
+        changed.add(window.toRateLimit(key, now));
+      }
+    }
+    for (RateLimit stored : storedByUnit.values()) {
+      keyWindows.windows.put(
+          stored.getUnit(),
+          new RateLimitWindow(
+              stored.getUnit(), stored.getLimit(), stored.getCount(), stored.getTTL(), now));
+    }
+    keyWindows.mergedAt = now;
+    return changed;
+  }
+
+  /**
+   * Merges the counters changed since the last flush with the stored counts, writes the merged
+   * counts to Cassandra and drops keys whose windows have all expired.
+   */
+  void flush() {
+    try {
+      List<RateLimit> rateLimits = new ArrayList<>();
+      for (String key : new ArrayList<>(dirtyKeys)) {
+        KeyWindows keyWindows = windowsByKey.get(key);
+        if (keyWindows == null) {
+          dirtyKeys.remove(key);
+          continue;
+        }
+        List<Map<String, Object>> ratesByKey = rateLimitDao.getRateLimits(key);
+        synchronized (keyWindows) {
+          dirtyKeys.remove(key);
+          rateLimits.addAll(merge(key, keyWindows, ratesByKey, System.currentTimeMillis()));
+        }
+        if (rateLimits.size() >= FLUSH_BATCH_SIZE) {
+          rateLimitDao.insertRateLimits(rateLimits);
+          rateLimits = new ArrayList<>();
+        }
+      }
+      rateLimitDao.insertRateLimits(rateLimits);
+      long now = System.currentTimeMillis();
+      for (Map.Entry<String, KeyWindows> entry : windowsByKey.entrySet()) {
+        KeyWindows keyWindows = entry.getValue();
+        synchronized (keyWindows) {
+          if (!dirtyKeys.contains(entry.getKey())
+              && keyWindows.windows.values().stream().allMatch(w -> w.isExpired(now))) {
+            windowsByKey.remove(entry.getKey(), keyWindows);
+          }
+        }
+      }
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "InMemoryRateLimitServiceImpl:flush: Failed to persist rate limits " + e.getMessage(),
+          e);
+    }
+  }
+}
@@ -20,7 +20,7 @@ import org.sunbird.ratelimit.limiter.RateLimiter;
 
 public class RateLimitServiceImpl implements RateLimitService {
 
-  private RateLimitDao rateLimitDao = RateLimitDaoImpl.getInstance();
+  protected RateLimitDao rateLimitDao = RateLimitDaoImpl.getInstance();
 
   public boolean isRateLimitOn() {
     return Boolean.TRUE
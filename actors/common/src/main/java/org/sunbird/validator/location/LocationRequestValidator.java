@@ -4,7 +4,6 @@ import akka.actor.ActorRef;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +18,7 @@ import org.sunbird.common.models.util.GeoLocationJsonKey;
 import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.common.responsecode.ResponseCode;
+import org.sunbird.learner.util.LocationTree;
 import org.sunbird.models.location.Location;
 
 /**
@@ -122,38 +122,31 @@ public class LocationRequestValidator extends BaseLocationRequestValidator {
    * @return Set of locationId.
    */
   public Set<String> getValidatedLocationSet(ActorRef actorRef, List<Location> locationList) {
-    Set<Location> locationSet = new HashSet<>();
+    Map<String, Location> locationByType = new HashMap<>();
     for (Location requestedLocation : locationList) {
-      Set<Location> parentLocnSet = getParentLocations(actorRef, requestedLocation);
-      if (CollectionUtils.sizeIsEmpty(locationSet)) {
-        locationSet.addAll(parentLocnSet);
-      } else {
-        for (Location currentLocation : parentLocnSet) {
-          String type = currentLocation.getType();
-          locationSet
-              .stream()
-              .forEach(
-                  location -> {
-                    if (type.equalsIgnoreCase(location.getType())
-                        && !(currentLocation.getId().equals(location.getId()))) {
-                      throw new ProjectCommonException(
-                          ResponseCode.conflictingOrgLocations.getErrorCode(),
-                          ProjectUtil.formatMessage(
-                              ResponseCode.conflictingOrgLocations.getErrorMessage(),
-                              requestedLocation.getCode(),
-                              location.getCode(),
-                              type),
-                          ResponseCode.CLIENT_ERROR.getResponseCode());
-                    }
-                  });
-          locationSet.add(currentLocation);
+      for (Location currentLocation : getParentLocations(actorRef, requestedLocation)) {
+        String type = currentLocation.getType().toLowerCase();
+        Location location = locationByType.putIfAbsent(type, currentLocation);
+        if (location != null && !(currentLocation.getId().equals(location.getId()))) {
+          throw new ProjectCommonException(
+              ResponseCode.conflictingOrgLocations.getErrorCode(),
+              ProjectUtil.formatMessage(
+                  ResponseCode.conflictingOrgLocations.getErrorMessage(),
+                  requestedLocation.getCode(),
+                  location.getCode(),
+                  currentLocation.getType()),
+              ResponseCode.CLIENT_ERROR.getResponseCode());
         }
       }
     }
-    return locationSet.stream().map(Location::getId).collect(Collectors.toSet());
+    return locationByType.values().stream().map(Location::getId).collect(Collectors.toSet());
   }
 
   private Set<Location> getParentLocations(ActorRef actorRef, Location locationObj) {
+    LocationTree locationTree = LocationTree.getInstance();
+    if (locationTree.hasCompleteAncestry(locationObj)) {
+      return locationTree.getAncestors(locationObj);
+    }
     Set<Location> locationSet = new LinkedHashSet<>();
     Location location = locationObj;
     int count = getOrder(location.getType());
@@ -163,7 +156,11 @@ public class LocationRequestValidator extends BaseLocationRequestValidator {
       if (getOrder(location.getType()) == 0 && StringUtils.isNotEmpty(location.getId())) {
         parent = locationClient.getLocationById(actorRef, location.getId());
       } else if (StringUtils.isNotEmpty(location.getParentId())) {
-        parent = locationClient.getLocationById(actorRef, location.getParentId());
+        parent = locationTree.getById(location.getParentId());
+        if (null == parent) {
+          parent = locationClient.getLocationById(actorRef, location.getParentId());
+          locationTree.upsert(parent);
+        }
       }
       if (null != parent) {
         locationSet.add(parent);
@@ -0,0 +1,97 @@
+package org.sunbird.actor.serialization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Test;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.request.Request;
+import org.sunbird.common.responsecode.ResponseCode;
+
+public class KryoMessageSerializerTest {
+
+  private KryoMessageSerializer serializer = new KryoMessageSerializer();
+
+  @Test
+  public void testRequestRoundTripSuccess() {
+    Request request = new Request();
+    request.setOperation("processBulkUpload");
+    request.setRequest(getPayload());
+    Map<String, Object> context = new HashMap<>();
+    context.put(JsonKey.REQUESTED_BY, "requestedBy");
+    request.setContext(context);
+
+    Request decoded = (Request) serializer.fromBinary(serializer.toBinary(request));
+
+    assertEquals(request.getOperation(), decoded.getOperation());
+    assertEquals(request.getRequest(), decoded.getRequest());
+    assertEquals(request.getContext(), decoded.getContext());
+  }
+
+  @Test
+  public void testResponseRoundTripSuccess() {
+    Response response = new Response();
+    response.setResponseCode(ResponseCode.OK);
+    response.getResult().putAll(getPayload());
+
+    Response decoded = (Response) serializer.fromBinary(serializer.toBinary(response));
+
+    assertEquals(ResponseCode.OK, decoded.getResponseCode());
+    assertEquals(response.getResult(), decoded.getResult());
+  }
+
+  @Test
+  public void testValueTypesPreservedSuccess() {
+    Response response = new Response();
+    response.getResult().putAll(getPayload());
+
+    Response decoded = (Response) serializer.fromBinary(serializer.toBinary(response));
+
+    assertTrue(decoded.getResult().get(JsonKey.CREATED_DATE) instanceof Timestamp);
+    assertTrue(decoded.getResult().get(JsonKey.DATA) instanceof ConcurrentHashMap);
+  }
+
+  @Test
+  public void testSmallerThanJavaSerializationSuccess() throws IOException {
+    Request request = new Request();
+    request.setOperation("processBulkUpload");
+    request.setRequest(getPayload());
+
+    ByteArrayOutputStream javaBytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(javaBytes)) {
+      out.writeObject(request);
+    }
+
+    assertTrue(serializer.toBinary(request).length < javaBytes.size());
+  }
+
+  private Map<String, Object> getPayload() {
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Map<String, Object> row = new HashMap<>();
+      row.put(JsonKey.ID, "id" + i);
+      row.put(JsonKey.FIRST_NAME, "name" + i);
+      row.put(JsonKey.ROLES, Arrays.asList("PUBLIC", "CONTENT_CREATOR"));
+      row.put(JsonKey.STATUS, i);
+      rows.add(row);
+    }
+    Map<String, Object> data = new ConcurrentHashMap<>();
+    data.put(JsonKey.RESPONSE, rows);
+    Map<String, Object> payload = new HashMap<>();
+    payload.put(JsonKey.DATA, data);
+    payload.put(JsonKey.CREATED_DATE, new Timestamp(System.currentTimeMillis()));
+    payload.put(JsonKey.COUNT, 100L);
+    return payload;
+  }
+}
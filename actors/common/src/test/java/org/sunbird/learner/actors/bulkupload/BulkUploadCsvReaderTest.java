@@ -0,0 +1,51 @@
+package org.sunbird.learner.actors.bulkupload;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.opencsv.CSVReader;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.Test;
+
+public class BulkUploadCsvReaderTest {
+
+  @Test
+  public void testReadHeaderAndLinesSuccess() throws IOException {
+    try (BulkUploadCsvReader reader = getReader("name,code\nstate1,code1\nstate2,code2\n")) {
+      assertArrayEquals(new String[] {"name", "code"}, reader.readHeader());
+      assertTrue(reader.hasNext());
+      assertArrayEquals(new String[] {"state1", "code1"}, reader.readNext());
+      assertArrayEquals(new String[] {"state2", "code2"}, reader.readNext());
+      assertFalse(reader.hasNext());
+      assertNull(reader.readNext());
+      assertEquals(3, reader.getLineCount());
+    }
+  }
+
+  @Test
+  public void testReadHeaderOnlySuccess() throws IOException {
+    try (BulkUploadCsvReader reader = getReader("name,code\n")) {
+      reader.readHeader();
+      assertArrayEquals(new String[] {"name", "code"}, reader.getHeader());
+      assertFalse(reader.hasNext());
+      assertEquals(1, reader.getLineCount());
+    }
+  }
+
+  @Test
+  public void testReadEmptyFileSuccess() throws IOException {
+    try (BulkUploadCsvReader reader = getReader("")) {
+      assertNull(reader.readHeader());
+      assertFalse(reader.hasNext());
+      assertEquals(0, reader.getLineCount());
+    }
+  }
+
+  private static BulkUploadCsvReader getReader(String content) {
+    return new BulkUploadCsvReader(new CSVReader(new StringReader(content), ','));
+  }
+}
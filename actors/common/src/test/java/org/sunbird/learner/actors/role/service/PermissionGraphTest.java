@@ -0,0 +1,69 @@
+package org.sunbird.learner.actors.role.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.models.role.Role;
+import org.sunbird.models.role.group.RoleGroup;
+import org.sunbird.models.url.action.UrlAction;
+
+public class PermissionGraphTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testBuildRolesResponseSuccess() {
+    PermissionGraph graph = buildGraph();
+    List<Map<String, Object>> roles =
+        (List<Map<String, Object>>) graph.getRolesResponse().getResult().get(JsonKey.ROLES);
+    assertEquals(1, roles.size());
+    List<Map<String, Object>> actionGroups =
+        (List<Map<String, Object>>) roles.get(0).get(JsonKey.ACTION_GROUPS);
+    assertEquals(3, actionGroups.size());
+    List<Map<String, Object>> actions =
+        (List<Map<String, Object>>) actionGroups.get(0).get(JsonKey.ACTIONS);
+    assertEquals("Read", actions.get(0).get(JsonKey.NAME));
+    assertNull(actionGroups.get(2).get(JsonKey.ID));
+    assertTrue(((List<Object>) actionGroups.get(2).get(JsonKey.ACTIONS)).isEmpty());
+  }
+
+  @Test
+  public void testGetRoleNamesSuccess() {
+    Map<String, Object> roleNames = buildGraph().getRoleNames();
+    assertEquals("Admin", roleNames.get("ADMIN"));
+    assertEquals("Writers", roleNames.get("writers"));
+  }
+
+  private static PermissionGraph buildGraph() {
+    Role role = new Role();
+    role.setId("ADMIN");
+    role.setName("Admin");
+    // The missing role group is listed without ID and name
+    role.setRoleGroupId(Arrays.asList("readers", "writers", "missing"));
+    return PermissionGraph.build(
+        Collections.singletonList(role),
+        Arrays.asList(roleGroup("readers", "read"), roleGroup("writers", "write")),
+        Arrays.asList(urlAction("read", "Read"), urlAction("write", "Write")));
+  }
+
+  private static RoleGroup roleGroup(String id, String urlActionId) {
+    RoleGroup roleGroup = new RoleGroup();
+    roleGroup.setId(id);
+    roleGroup.setName(Character.toUpperCase(id.charAt(0)) + id.substring(1));
+    roleGroup.setUrlActionIds(Collections.singletonList(urlActionId));
+    return roleGroup;
+  }
+
+  private static UrlAction urlAction(String id, String name) {
+    UrlAction urlAction = new UrlAction();
+    urlAction.setId(id);
+    urlAction.setName(name);
+    return urlAction;
+  }
+}
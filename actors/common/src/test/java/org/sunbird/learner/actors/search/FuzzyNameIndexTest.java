@@ -0,0 +1,69 @@
+package org.sunbird.learner.actors.search;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class FuzzyNameIndexTest {
+
+  private static final float THRESHOLD = 0.5f;
+
+  @Test
+  public void testMatchSoundsAlike() {
+    FuzzyNameIndex index = new FuzzyNameIndex(getCandidates(), THRESHOLD);
+    Set<String> matched = index.match(Arrays.asList("Robert"));
+    assertEquals(new HashSet<>(Arrays.asList("1", "2")), matched);
+  }
+
+  @Test
+  public void testMatchAllWordsInOnePass() {
+    FuzzyNameIndex index = new FuzzyNameIndex(getCandidates(), THRESHOLD);
+    Set<String> matched = index.match(Arrays.asList("Rupert", "Smyth"));
+    assertEquals(new HashSet<>(Arrays.asList("1", "2", "3")), matched);
+  }
+
+  @Test
+  public void testMatchNone() {
+    FuzzyNameIndex index = new FuzzyNameIndex(getCandidates(), THRESHOLD);
+    assertTrue(index.match(Arrays.asList("Kumar")).isEmpty());
+  }
+
+  @Test
+  public void testMatchSkipsEmptyValues() {
+    Map<String, String> candidates = getCandidates();
+    candidates.put("5", null);
+    FuzzyNameIndex index = new FuzzyNameIndex(candidates, THRESHOLD);
+    assertEquals(new HashSet<>(Arrays.asList("4")), index.match(Arrays.asList("Anand")));
+  }
+
+  @Test
+  public void testMatchNoneAboveThreshold() {
+    FuzzyNameIndex index = new FuzzyNameIndex(getCandidates(), 1.0f);
+    assertTrue(index.match(Arrays.asList("Robert")).isEmpty());
+  }
+
+  @Test
+  public void testMatchSameAsFuzzyMatcher() {
+    Map<String, String> candidates = getCandidates();
+    FuzzyNameIndex index = new FuzzyNameIndex(candidates, FuzzyNameIndex.getFuzzyThreshold());
+    for (String word : Arrays.asList("Robert", "Smith", "Anand", "Kumar", "Jon")) {
+      assertEquals(
+          new HashSet<>(FuzzyMatcher.matchDoc(word, candidates)),
+          index.match(Arrays.asList(word)));
+    }
+  }
+
+  private Map<String, String> getCandidates() {
+    Map<String, String> candidates = new HashMap<>();
+    candidates.put("1", "Robert Brown");
+    candidates.put("2", "Rupert Green");
+    candidates.put("3", "John Smith");
+    candidates.put("4", "Anand");
+    return candidates;
+  }
+}
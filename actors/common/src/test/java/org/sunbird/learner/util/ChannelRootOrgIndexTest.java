@@ -0,0 +1,102 @@
+package org.sunbird.learner.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import akka.dispatch.Futures;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sunbird.common.inf.ElasticSearchService;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.dto.SearchDTO;
+import scala.concurrent.Promise;
+
+public class ChannelRootOrgIndexTest {
+
+  private ElasticSearchService esService;
+  private ChannelRootOrgIndex index;
+
+  @Before
+  public void setUp() {
+    esService = mock(ElasticSearchService.class);
+    when(esService.search(Mockito.any(SearchDTO.class), Mockito.anyString()))
+        .thenAnswer(invocation -> search((SearchDTO) invocation.getArguments()[0]));
+    index = new ChannelRootOrgIndex(esService, null, 1000);
+  }
+
+  @Test
+  public void testGetRootOrgReadsIndexAfterLoadSuccess() {
+    index.run();
+    assertEquals("rootOrg-channel1", index.getRootOrg("channel1").get(JsonKey.ID));
+    assertEquals("rootOrg-channel2", index.getRootOrg("channel2").get(JsonKey.ID));
+    assertEquals(2, index.getHitCount());
+    assertEquals(0, index.getEsLookupCount());
+    verify(esService, times(1)).search(Mockito.any(SearchDTO.class), Mockito.anyString());
+  }
+
+  @Test
+  public void testGetRootOrgReadsIndexAfterPagedLoadSuccess() {
+    index = new ChannelRootOrgIndex(esService, null, 1);
+    index.run();
+    assertEquals("rootOrg-channel1", index.getRootOrg("channel1").get(JsonKey.ID));
+    assertEquals("rootOrg-channel2", index.getRootOrg("channel2").get(JsonKey.ID));
+    assertEquals(0, index.getEsLookupCount());
+    verify(esService, times(3)).search(Mockito.any(SearchDTO.class), Mockito.anyString());
+  }
+
+  @Test
+  public void testGetRootOrgLooksUpChannelOnceSuccess() {
+    index.getRootOrg("channel1");
+    index.getRootOrg("channel1");
+    assertEquals(1, index.getEsLookupCount());
+    assertEquals(1, index.getHitCount());
+  }
+
+  @Test
+  public void testGetRootOrgAfterInvalidateOrgSuccess() {
+    index.getRootOrg("channel1");
+    index.invalidateOrg("rootOrg-channel1");
+    index.getRootOrg("channel1");
+    assertEquals(2, index.getEsLookupCount());
+  }
+
+  @Test
+  public void testGetRootOrgUnknownChannelSuccess() {
+    assertNull(index.getRootOrg("unknown"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static scala.concurrent.Future<Map<String, Object>> search(SearchDTO searchDTO) {
+    Map<String, Object> filters =
+        (Map<String, Object>) searchDTO.getAdditionalProperties().get(JsonKey.FILTERS);
+    String channel = (String) filters.get(JsonKey.CHANNEL);
+    Map<String, Object> idRange = (Map<String, Object>) filters.get(JsonKey.ID);
+    String lastId = idRange == null ? "" : (String) idRange.get(">");
+    List<Map<String, Object>> content = new ArrayList<>();
+    for (String rootOrgChannel : new String[] {"channel1", "channel2"}) {
+      if (content.size() < searchDTO.getLimit()
+          && (channel == null || channel.equals(rootOrgChannel))
+          && ("rootOrg-" + rootOrgChannel).compareTo(lastId) > 0) {
+        Map<String, Object> rootOrg = new HashMap<>();
+        rootOrg.put(JsonKey.ID, "rootOrg-" + rootOrgChannel);
+        rootOrg.put(JsonKey.CHANNEL, rootOrgChannel);
+        rootOrg.put(JsonKey.STATUS, 1);
+        content.add(rootOrg);
+      }
+    }
+    Map<String, Object> result = new HashMap<>();
+    result.put(JsonKey.CONTENT, content);
+    Promise<Map<String, Object>> promise = Futures.promise();
+    promise.success(result);
+    return promise.future();
+  }
+}
@@ -0,0 +1,170 @@
+package org.sunbird.learner.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Runs the executor against a local stub of an API. */
+public class HttpRequestExecutorTest {
+
+  private static final int CONCURRENCY = 8;
+  private static final long LATENCY = 20;
+  private static final int TIMEOUT = 5000;
+
+  private HttpServer server;
+  private ExecutorService serverExecutor;
+  private String url;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/metrics", this::handle);
+    serverExecutor = Executors.newFixedThreadPool(4 * CONCURRENCY);
+    server.setExecutor(serverExecutor);
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort() + "/metrics";
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+    serverExecutor.shutdownNow();
+  }
+
+  @Test
+  public void testPostAllOrderedAndBoundedSuccess() {
+    List<String> bodies = getBodies("user", 200);
+    List<Integer> progress = new ArrayList<>();
+    List<String> responses;
+    try (HttpRequestExecutor executor = new HttpRequestExecutor(CONCURRENCY, 0, 1, TIMEOUT)) {
+      responses = executor.postAll(url, new HashMap<>(), bodies, progress::add);
+    }
+    for (int i = 0; i < bodies.size(); i++) {
+      assertEquals("summary:" + bodies.get(i), responses.get(i));
+    }
+    assertEquals(bodies.size(), progress.size());
+    assertEquals(bodies.size(), (int) progress.get(progress.size() - 1));
+    assertTrue(maxInFlight.get() <= CONCURRENCY);
+  }
+
+  @Test
+  public void testPostAllProgressPerCallSuccess() {
+    List<Integer> firstProgress = new ArrayList<>();
+    List<Integer> secondProgress = new ArrayList<>();
+    try (HttpRequestExecutor executor = new HttpRequestExecutor(CONCURRENCY, 0, 1, TIMEOUT)) {
+      executor.postAll(url, new HashMap<>(), getBodies("first", 20), firstProgress::add);
+      executor.postAll(url, new HashMap<>(), getBodies("second", 10), secondProgress::add);
+    }
+    assertEquals(20, (int) firstProgress.get(firstProgress.size() - 1));
+    assertEquals(1, (int) secondProgress.get(0));
+    assertEquals(10, (int) secondProgress.get(secondProgress.size() - 1));
+  }
+
+  @Test
+  public void testPostAllRetriesServerErrorSuccess() {
+    List<String> bodies = getBodies("retry", 10);
+    List<String> responses;
+    try (HttpRequestExecutor executor = new HttpRequestExecutor(CONCURRENCY, 3, 1, TIMEOUT)) {
+      responses = executor.postAll(url, new HashMap<>(), bodies, count -> {});
+    }
+    for (int i = 0; i < bodies.size(); i++) {
+      assertEquals("summary:" + bodies.get(i), responses.get(i));
+      assertEquals(3, attempts.get(bodies.get(i)).get());
+    }
+  }
+
+  @Test
+  public void testPostAllClientErrorFailure() {
+    List<String> bodies = getBodies("invalid", 1);
+    List<String> responses;
+    try (HttpRequestExecutor executor = new HttpRequestExecutor(CONCURRENCY, 3, 1, TIMEOUT)) {
+      responses = executor.postAll(url, new HashMap<>(), bodies, count -> {});
+    }
+    assertNull(responses.get(0));
+    assertEquals(1, attempts.get(bodies.get(0)).get());
+  }
+
+  @Test
+  public void testPostAllNotIdempotentServerErrorFailure() {
+    List<String> bodies = getBodies("retry", 1);
+    List<String> responses;
+    try (HttpRequestExecutor executor =
+        new HttpRequestExecutor(CONCURRENCY, 3, 1, TIMEOUT, false)) {
+      responses = executor.postAll(url, new HashMap<>(), bodies, count -> {});
+    }
+    assertNull(responses.get(0));
+    assertEquals(1, attempts.get(bodies.get(0)).get());
+  }
+
+  @Test
+  public void testPostAllTimeoutFailure() {
+    List<String> bodies = getBodies("slow", 1);
+    List<String> responses;
+    try (HttpRequestExecutor executor =
+        new HttpRequestExecutor(CONCURRENCY, 1, 1, (int) LATENCY)) {
+      responses = executor.postAll(url, new HashMap<>(), bodies, count -> {});
+    }
+    assertNull(responses.get(0));
+    assertEquals(2, attempts.get(bodies.get(0)).get());
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    int current = inFlight.incrementAndGet();
+    maxInFlight.accumulateAndGet(current, Math::max);
+    String body = IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8);
+    int attempt = attempts.computeIfAbsent(body, key -> new AtomicInteger()).incrementAndGet();
+    try {
+      Thread.sleep(body.startsWith("slow") ? 10 * LATENCY : LATENCY);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // Leave before responding, the client may send its next request once it has the response
+    inFlight.decrementAndGet();
+    if (body.startsWith("retry") && attempt < 3) {
+      respond(exchange, 503, "unavailable");
+    } else if (body.startsWith("invalid")) {
+      respond(exchange, 400, "invalid");
+    } else {
+      respond(exchange, 200, "summary:" + body);
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int statusCode, String body)
+      throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(statusCode, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static List<String> getBodies(String prefix, int count) {
+    List<String> bodies = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      bodies.add(prefix + i);
+    }
+    return bodies;
+  }
+}
@@ -0,0 +1,114 @@
+package org.sunbird.learner.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.cassandra.CassandraOperation;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.helper.ServiceFactory;
+import org.sunbird.models.location.Location;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({ServiceFactory.class})
+@PowerMockIgnore({"javax.management.*"})
+public class LocationTreeTest {
+
+  private LocationTree locationTree;
+  private CassandraOperation cassandraOperation;
+  private Response response;
+
+  @Before
+  public void setUp() {
+    cassandraOperation = Mockito.mock(CassandraOperation.class);
+    PowerMockito.mockStatic(ServiceFactory.class);
+    when(ServiceFactory.getInstance()).thenReturn(cassandraOperation);
+    List<Map<String, Object>> locations = new ArrayList<>();
+    locations.add(getLocation("stateId", "stateCode", "state", null));
+    locations.add(getLocation("districtId", "districtCode", "district", "stateId"));
+    locations.add(getLocation("blockId", "blockCode", "block", "districtId"));
+    response = new Response();
+    response.put(JsonKey.RESPONSE, locations);
+    when(cassandraOperation.getAllRecords(Mockito.anyString(), Mockito.anyString()))
+        .thenReturn(response);
+    locationTree = LocationTree.getInstance();
+    locationTree.run();
+  }
+
+  @Test
+  public void testGetAncestorsSuccess() {
+    Location block = locationTree.getByCode("blockCode");
+    Set<String> ancestorIds =
+        locationTree
+            .getAncestors(block)
+            .stream()
+            .map(Location::getId)
+            .collect(Collectors.toSet());
+    assertEquals(3, ancestorIds.size());
+    assertTrue(ancestorIds.contains("stateId"));
+    assertTrue(locationTree.hasCompleteAncestry(block));
+  }
+
+  @Test
+  public void testUpsertAndRemoveSuccess() {
+    locationTree.upsert(getLocation("otherBlockId", "otherBlockCode", "block", "districtId"));
+    assertEquals("otherBlockId", locationTree.getByCode("otherBlockCode").getId());
+    locationTree.upsert(getLocation("otherBlockId", "renamedBlockCode", "block", "districtId"));
+    assertNull(locationTree.getByCode("otherBlockCode"));
+    locationTree.remove("otherBlockId");
+    assertNull(locationTree.getByCode("renamedBlockCode"));
+  }
+
+  @Test
+  public void testUpsertDuringLoadKeptSuccess() {
+    when(cassandraOperation.getAllRecords(Mockito.anyString(), Mockito.anyString()))
+        .thenAnswer(
+            invocation -> {
+              locationTree.upsert(getLocation("newBlockId", "newBlockCode", "block", "districtId"));
+              return response;
+            });
+    locationTree.run();
+    assertEquals("newBlockId", locationTree.getByCode("newBlockCode").getId());
+    locationTree.remove("newBlockId");
+    assertNull(locationTree.getByCode("newBlockCode"));
+  }
+
+  @Test
+  public void testUpsertPartialUpdateKeepsCachedFieldsSuccess() {
+    Map<String, Object> update = new HashMap<>();
+    update.put(JsonKey.ID, "blockId");
+    update.put(JsonKey.NAME, "renamedBlock");
+    locationTree.upsert(update);
+    Location block = locationTree.getById("blockId");
+    assertEquals("renamedBlock", block.getName());
+    assertEquals("block", block.getType());
+    assertEquals("blockId", locationTree.getByCode("blockCode").getId());
+    assertTrue(locationTree.hasCompleteAncestry(block));
+  }
+
+  private static Map<String, Object> getLocation(
+      String id, String code, String type, String parentId) {
+    Map<String, Object> location = new HashMap<>();
+    location.put(JsonKey.ID, id);
+    location.put(JsonKey.CODE, code);
+    location.put(JsonKey.TYPE, type);
+    location.put(JsonKey.PARENT_ID, parentId);
+    return location;
+  }
+}
@@ -0,0 +1,77 @@
+package org.sunbird.learner.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import akka.dispatch.Futures;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sunbird.common.inf.ElasticSearchService;
+import org.sunbird.common.models.util.JsonKey;
+import scala.concurrent.Promise;
+
+public class OrgMetadataCacheTest {
+
+  private ElasticSearchService esService;
+  private OrgMetadataCache cache;
+
+  @Before
+  public void setUp() {
+    esService = mock(ElasticSearchService.class);
+    when(esService.getEsResultByListOfIds(
+            Mockito.anyList(), Mockito.anyList(), Mockito.anyString()))
+        .thenAnswer(invocation -> getOrgs((List<String>) invocation.getArguments()[0]));
+    cache = new OrgMetadataCache(esService, 10, 60000L);
+  }
+
+  @Test
+  public void testGetOrgsReadsOnlyUncachedOrgsSuccess() {
+    Map<String, Map<String, Object>> orgs = cache.getOrgs(Arrays.asList("org1", "org2"));
+    assertEquals("name-org2", orgs.get("org2").get(JsonKey.ORG_NAME));
+    orgs = cache.getOrgs(Arrays.asList("org1", "org2", "org3"));
+    assertEquals(3, orgs.size());
+    verify(esService, times(1))
+        .getEsResultByListOfIds(
+            Mockito.eq(Arrays.asList("org3")), Mockito.anyList(), Mockito.anyString());
+  }
+
+  @Test
+  public void testGetOrgAfterInvalidateReadsOrgAgainSuccess() {
+    cache.getOrg("org1");
+    cache.invalidate("org1");
+    cache.getOrg("org1");
+    verify(esService, times(2))
+        .getEsResultByListOfIds(
+            Mockito.eq(Arrays.asList("org1")), Mockito.anyList(), Mockito.anyString());
+  }
+
+  @Test
+  public void testGetOrgNotFoundSuccess() {
+    assertNull(cache.getOrg("unknown"));
+  }
+
+  private static scala.concurrent.Future<Map<String, Map<String, Object>>> getOrgs(
+      List<String> orgIds) {
+    Map<String, Map<String, Object>> orgs = new HashMap<>();
+    for (String orgId : orgIds) {
+      if (orgId.startsWith("org")) {
+        Map<String, Object> org = new HashMap<>();
+        org.put(JsonKey.ID, orgId);
+        org.put(JsonKey.ORG_NAME, "name-" + orgId);
+        orgs.put(orgId, org);
+      }
+    }
+    Promise<Map<String, Map<String, Object>>> promise = Futures.promise();
+    promise.success(orgs);
+    return promise.future();
+  }
+}
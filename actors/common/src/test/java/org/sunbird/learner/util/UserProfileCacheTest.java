@@ -0,0 +1,64 @@
+package org.sunbird.learner.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+
+public class UserProfileCacheTest {
+
+  private static final String SELF_VARIANT = UserProfileCache.getVariant(false, true, null);
+  private static final String OTHER_VARIANT = UserProfileCache.getVariant(false, false, null);
+
+  @Test
+  public void testGetReturnsCachedVariantSuccess() {
+    UserProfileCache cache = new UserProfileCache(true, 10, 1024L, 60000L, null);
+    cache.put("userId", SELF_VARIANT, getProfile());
+    assertEquals("userId", cache.get("userId", SELF_VARIANT).get(JsonKey.ID));
+    assertNull(cache.get("userId", OTHER_VARIANT));
+    assertEquals(0.5, cache.getHitRatio(), 0);
+  }
+
+  @Test
+  public void testGetReturnsCopyOfCachedProfileSuccess() {
+    UserProfileCache cache = new UserProfileCache(true, 10, 1024L, 60000L, null);
+    cache.put("userId", SELF_VARIANT, getProfile());
+    cache.get("userId", SELF_VARIANT).remove(JsonKey.ID);
+    assertEquals("userId", cache.get("userId", SELF_VARIANT).get(JsonKey.ID));
+  }
+
+  @Test
+  public void testInvalidateDropsAllVariantsSuccess() {
+    UserProfileCache cache = new UserProfileCache(true, 10, 1024L, 60000L, null);
+    cache.put("userId", SELF_VARIANT, getProfile());
+    cache.put("userId", OTHER_VARIANT, getProfile());
+    cache.invalidate("userId");
+    assertNull(cache.get("userId", SELF_VARIANT));
+    assertNull(cache.get("userId", OTHER_VARIANT));
+  }
+
+  @Test
+  public void testPutEvictsWhenMaxBytesExceededSuccess() {
+    UserProfileCache cache = new UserProfileCache(true, 10, 30L, 60000L, null);
+    cache.put("userId", SELF_VARIANT, getProfile());
+    cache.put("otherUserId", SELF_VARIANT, getProfile());
+    assertNull(cache.get("userId", SELF_VARIANT));
+    assertEquals("userId", cache.get("otherUserId", SELF_VARIANT).get(JsonKey.ID));
+  }
+
+  @Test
+  public void testGetWhenDisabledSuccess() {
+    UserProfileCache cache = new UserProfileCache(false, 10, 1024L, 60000L, null);
+    cache.put("userId", SELF_VARIANT, getProfile());
+    assertNull(cache.get("userId", SELF_VARIANT));
+  }
+
+  private static Map<String, Object> getProfile() {
+    Map<String, Object> profile = new HashMap<>();
+    profile.put(JsonKey.ID, "userId");
+    return profile;
+  }
+}
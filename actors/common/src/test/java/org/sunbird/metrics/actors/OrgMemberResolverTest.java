@@ -0,0 +1,105 @@
+package org.sunbird.metrics.actors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import akka.dispatch.Futures;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sunbird.common.inf.ElasticSearchService;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.datasecurity.DecryptionService;
+import org.sunbird.dto.SearchDTO;
+import scala.concurrent.Promise;
+
+public class OrgMemberResolverTest {
+
+  private static final int MEMBER_COUNT = 2500;
+
+  private ElasticSearchService esService;
+  private OrgMemberResolver resolver;
+  private List<String> memberIds = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    for (int i = 0; i < MEMBER_COUNT; i++) {
+      memberIds.add(String.format("member%05d", i));
+    }
+    esService = mock(ElasticSearchService.class);
+    when(esService.search(Mockito.any(SearchDTO.class), Mockito.anyString()))
+        .thenAnswer(invocation -> search((SearchDTO) invocation.getArguments()[0]));
+    DecryptionService decryptionService = mock(DecryptionService.class);
+    when(decryptionService.decryptData(Mockito.anyList()))
+        .thenAnswer(invocation -> invocation.getArguments()[0]);
+    resolver = new OrgMemberResolver(esService, decryptionService, 1000);
+  }
+
+  @Test
+  public void testForEachMemberPageReadsAllMembersSuccess() throws Exception {
+    List<String> readIds = new ArrayList<>();
+    List<Long> totalCounts = new ArrayList<>();
+    resolver.forEachMemberPage(
+        "orgId",
+        (users, totalCount) -> {
+          users.forEach(user -> readIds.add((String) user.get(JsonKey.ID)));
+          totalCounts.add(totalCount);
+        });
+    assertEquals(memberIds, readIds);
+    assertEquals(Arrays.asList(2500L, 2500L, 2500L), totalCounts);
+  }
+
+  @Test
+  public void testGetUsersLooksUpOnlyUncachedUsersSuccess() {
+    List<String> userIds = Arrays.asList("user1", "user2", "user1");
+    Map<String, Map<String, Object>> users = resolver.getUsers(userIds);
+    assertEquals(2, users.size());
+    assertEquals("name-user2", users.get("user2").get(JsonKey.USERNAME));
+    users = resolver.getUsers(Arrays.asList("user1", "user2", "user3"));
+    assertEquals(3, users.size());
+    // The second lookup searches only for user3
+    verify(esService, times(2)).search(Mockito.any(SearchDTO.class), Mockito.anyString());
+  }
+
+  @SuppressWarnings("unchecked")
+  private scala.concurrent.Future<Map<String, Object>> search(SearchDTO searchDTO) {
+    Map<String, Object> filters =
+        (Map<String, Object>) searchDTO.getAdditionalProperties().get(JsonKey.FILTERS);
+    Object idFilter = filters.get(JsonKey.ID);
+    List<String> ids;
+    long count;
+    if (idFilter instanceof List) {
+      ids = (List<String>) idFilter;
+      count = ids.size();
+    } else {
+      Map<String, Object> range = (Map<String, Object>) idFilter;
+      String lastId = range == null ? "" : (String) range.get(BaseMetricsActor.GT);
+      List<String> remainingIds =
+          memberIds.stream().filter(id -> id.compareTo(lastId) > 0).collect(Collectors.toList());
+      count = remainingIds.size();
+      ids = remainingIds.subList(0, Math.min(searchDTO.getLimit(), remainingIds.size()));
+    }
+    List<Map<String, Object>> content = new ArrayList<>();
+    for (String id : ids) {
+      Map<String, Object> user = new HashMap<>();
+      user.put(JsonKey.ID, id);
+      user.put(JsonKey.USERNAME, "name-" + id);
+      content.add(user);
+    }
+    Map<String, Object> result = new HashMap<>();
+    result.put(JsonKey.CONTENT, content);
+    result.put(JsonKey.COUNT, count);
+    Promise<Map<String, Object>> promise = Futures.promise();
+    promise.success(result);
+    return promise.future();
+  }
+}
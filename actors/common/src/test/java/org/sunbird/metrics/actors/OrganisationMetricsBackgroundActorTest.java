@@ -0,0 +1,72 @@
+package org.sunbird.metrics.actors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sunbird.learner.util.HttpRequestExecutor;
+
+/** Posts pages of metrics requests to a local stub of the analytics API. */
+public class OrganisationMetricsBackgroundActorTest {
+
+  private HttpServer server;
+  private ExecutorService serverExecutor;
+  private String url;
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/metrics", OrganisationMetricsBackgroundActorTest::handle);
+    serverExecutor = Executors.newFixedThreadPool(4);
+    server.setExecutor(serverExecutor);
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort() + "/metrics";
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+    serverExecutor.shutdownNow();
+  }
+
+  @Test
+  public void testPostPageProgressAcrossPagesSuccess() {
+    List<List<String>> pages =
+        Arrays.asList(Arrays.asList("user1", "user2", "user3"), Arrays.asList("user4", "user5"));
+    List<Integer> progress = new ArrayList<>();
+    int processedCount = 0;
+    try (HttpRequestExecutor executor = new HttpRequestExecutor(2, 0, 1, 5000)) {
+      for (List<String> page : pages) {
+        List<String> responses =
+            OrganisationMetricsBackgroundActor.postPage(
+                executor, url, new HashMap<>(), page, processedCount, progress::add);
+        assertEquals(page.size(), responses.size());
+        processedCount += page.size();
+      }
+    }
+    assertEquals(Arrays.asList(1, 2, 3, 4, 5), progress);
+    assertTrue(progress.contains(processedCount));
+  }
+
+  private static void handle(HttpExchange exchange) throws IOException {
+    byte[] bytes = "{}".getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(200, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
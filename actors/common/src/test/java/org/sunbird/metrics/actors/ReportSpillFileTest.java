@@ -0,0 +1,72 @@
+package org.sunbird.metrics.actors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class ReportSpillFileTest {
+
+  @Test
+  public void testReadRowsSuccess() throws IOException {
+    ReportSpillFile spillFile = writeSpillFile();
+    try (ReportSpillFile.Rows rows = ReportSpillFile.readRows(spillFile.getFile())) {
+      assertEquals(3, rows.size());
+      assertEquals(Arrays.asList("userId", "userName", "totalTimeSpent"), rows.get(0));
+      assertEquals(Arrays.asList("id1", "name, with comma", 120), rows.get(1));
+      assertEquals(Arrays.asList("id2", null, null), rows.get(2));
+      List<List<Object>> copy = new ArrayList<>();
+      for (List<Object> row : rows) {
+        copy.add(row);
+      }
+      assertEquals(rows.size(), copy.size());
+    } finally {
+      spillFile.getFile().delete();
+    }
+  }
+
+  @Test
+  public void testWriteCsvSuccess() throws IOException {
+    ReportSpillFile spillFile = writeSpillFile();
+    File csvFile = File.createTempFile("report", ".csv");
+    try {
+      ReportSpillFile.writeCsv(spillFile.getFile(), csvFile);
+      List<String> lines = Files.readAllLines(csvFile.toPath(), StandardCharsets.UTF_8);
+      assertEquals(3, lines.size());
+      assertEquals("\"id1\",\"name, with comma\",\"120\"", lines.get(1));
+      assertEquals("\"id2\",\"\",\"\"", lines.get(2));
+    } finally {
+      spillFile.getFile().delete();
+      csvFile.delete();
+    }
+  }
+
+  @Test
+  public void testGetFileByNameSuccess() throws IOException {
+    ReportSpillFile spillFile = writeSpillFile();
+    try {
+      File file = ReportSpillFile.getFile(spillFile.getFile().getName());
+      assertEquals(spillFile.getFile().getAbsoluteFile(), file.getAbsoluteFile());
+      assertTrue(file.isFile());
+    } finally {
+      spillFile.getFile().delete();
+    }
+  }
+
+  private static ReportSpillFile writeSpillFile() throws IOException {
+    try (ReportSpillFile spillFile = ReportSpillFile.create("requestId")) {
+      spillFile.write(Arrays.<Object>asList("userId", "userName", "totalTimeSpent"));
+      spillFile.write(Arrays.<Object>asList("id1", "name, with comma", 120));
+      spillFile.write(Arrays.<Object>asList("id2", null, null));
+      assertEquals(3, spillFile.getRowCount());
+      return spillFile;
+    }
+  }
+}
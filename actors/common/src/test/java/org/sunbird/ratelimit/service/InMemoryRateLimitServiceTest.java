@@ -0,0 +1,159 @@
+package org.sunbird.ratelimit.service;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.responsecode.ResponseCode;
+import org.sunbird.ratelimit.dao.RateLimitDao;
+import org.sunbird.ratelimit.limiter.OtpRateLimiter;
+import org.sunbird.ratelimit.limiter.RateLimit;
+import org.sunbird.ratelimit.limiter.RateLimiter;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({ProjectUtil.class})
+@PowerMockIgnore({"javax.management.*"})
+public class InMemoryRateLimitServiceTest {
+
+  private static final String KEY = "9999888898";
+  private static final int HOUR_LIMIT = 10;
+
+  @InjectMocks
+  private InMemoryRateLimitServiceImpl rateLimitService = new InMemoryRateLimitServiceImpl();
+
+  @Mock private RateLimitDao rateLimitdDao;
+
+  private RateLimiter hourRateLimiter = OtpRateLimiter.HOUR;
+
+  @Before
+  public void beforeEachTest() {
+    MockitoAnnotations.initMocks(this);
+    PowerMockito.mockStatic(ProjectUtil.class);
+    when(ProjectUtil.getConfigValue(JsonKey.SUNBIRD_RATE_LIMIT_ENABLED)).thenReturn("true");
+    when(ProjectUtil.getConfigValue(OtpRateLimiter.HOUR.getLimitKey()))
+        .thenReturn(String.valueOf(HOUR_LIMIT));
+    doNothing().when(rateLimitdDao).insertRateLimits(anyList());
+  }
+
+  @Test
+  public void testThrottleByKeyReadsCassandraOnlyOnce() {
+    when(rateLimitdDao.getRateLimits(anyString())).thenReturn(getRateLimitRecords(5));
+    rateLimitService.throttleByKey(KEY, new RateLimiter[] {hourRateLimiter});
+    rateLimitService.throttleByKey(KEY, new RateLimiter[] {hourRateLimiter});
+    verify(rateLimitdDao, times(1)).getRateLimits(KEY);
+  }
+
+  @Test
+  public void testFlushPersistsCount() {
+    when(rateLimitdDao.getRateLimits(anyString())).thenReturn(getRateLimitRecords(5));
+    rateLimitService.throttleByKey(KEY, new RateLimiter[] {hourRateLimiter});
+    rateLimitService.throttleByKey(KEY, new RateLimiter[] {hourRateLimiter});
+    AtomicInteger persistedCount = new AtomicInteger();
+    doAnswer(
+            (Answer)
+                invocation -> {
+                  List<RateLimit> rateLimits = invocation.getArgumentAt(0, List.class);
+                  rateLimits.forEach(rateLimit -> persistedCount.set(rateLimit.getCount()));
+                  return null;
+                })
+        .when(rateLimitdDao)
+        .insertRateLimits(anyList());
+    rateLimitService.flush();
+    assertEquals(7, persistedCount.get());
+  }
+
+  @Test
+  public void testFlushMergesCountOfOtherNodes() {
+    when(rateLimitdDao.getRateLimits(anyString())).thenReturn(null);
+    rateLimitService.throttleByKey(KEY, new RateLimiter[] {hourRateLimiter});
+    rateLimitService.throttleByKey(KEY, new RateLimiter[] {hourRateLimiter});
+    // Another node has counted 5 requests in the meantime
+    when(rateLimitdDao.getRateLimits(anyString())).thenReturn(getRateLimitRecords(5));
+    AtomicInteger persistedCount = new AtomicInteger();
+    doAnswer(
+            (Answer)
+                invocation -> {
+                  List<RateLimit> rateLimits = invocation.getArgumentAt(0, List.class);
+                  rateLimits.forEach(rateLimit -> persistedCount.set(rateLimit.getCount()));
+                  return null;
+                })
+        .when(rateLimitdDao)
+        .insertRateLimits(anyList());
+    rateLimitService.flush();
+    assertEquals(7, persistedCount.get());
+  }
+
+  @Test(expected = ProjectCommonException.class)
+  public void testThrottleByKeyFailure() {
+    when(rateLimitdDao.getRateLimits(anyString())).thenReturn(getRateLimitRecords(HOUR_LIMIT));
+    try {
+      rateLimitService.throttleByKey(KEY, new RateLimiter[] {hourRateLimiter});
+    } catch (ProjectCommonException e) {
+      assertEquals(ResponseCode.TOO_MANY_REQUESTS.getResponseCode(), e.getResponseCode());
+      throw e;
+    }
+  }
+
+  @Test
+  public void testThrottleByKeyUnderContention() throws InterruptedException {
+    when(rateLimitdDao.getRateLimits(anyString())).thenReturn(null);
+    int threads = 8;
+    int attemptsPerThread = 50;
+    AtomicInteger allowed = new AtomicInteger();
+    CountDownLatch latch = new CountDownLatch(threads);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int i = 0; i < threads; i++) {
+      executor.submit(
+          () -> {
+            for (int j = 0; j < attemptsPerThread; j++) {
+              try {
+                rateLimitService.throttleByKey(KEY, new RateLimiter[] {hourRateLimiter});
+                allowed.incrementAndGet();
+              } catch (ProjectCommonException e) {
+                // expected once the limit is reached
+              }
+            }
+            latch.countDown();
+          });
+    }
+    latch.await(10, TimeUnit.SECONDS);
+    executor.shutdown();
+    assertEquals(HOUR_LIMIT, allowed.get());
+  }
+
+  private List<Map<String, Object>> getRateLimitRecords(int count) {
+    List<Map<String, Object>> results = new ArrayList<>();
+    Map<String, Object> record = new HashMap<>();
+    record.put(JsonKey.KEY, KEY);
+    record.put(JsonKey.RATE_LIMIT_UNIT, OtpRateLimiter.HOUR.name());
+    record.put(JsonKey.RATE, HOUR_LIMIT);
+    record.put(JsonKey.TTL, 3500);
+    record.put(JsonKey.COUNT, count);
+    results.add(record);
+    return results;
+  }
+}
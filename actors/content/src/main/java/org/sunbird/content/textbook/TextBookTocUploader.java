@@ -42,13 +42,12 @@ import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
@@ -69,8 +68,14 @@ public class TextBookTocUploader {
 
   private Map<String, Object> row;
 
-  private List<Map<String, Object>> rows = new ArrayList<>();
-  private List<Map<String, Object>> parentChildHierarchyMapList = new ArrayList<>();
+  // Rows are written to the printer as the hierarchy is walked, none is written while it is null
+  private CSVPrinter printer;
+  private int[] columnIndexes;
+  private int rowCount;
+  private Map<String, Object> bgmsData = new HashMap<>();
+  private String linkedContentColumnName;
+  // Children of each collection, keyed by the lower case identifier of the collection
+  private Map<String, List<Map<String, Object>>> parentChildHierarchyMap = new HashMap<>();
 
   public TextBookTocUploader(String textBookTocFileName, FileExtension fileExtension) {
     this.textBookTocFileName = textBookTocFileName;
@@ -84,9 +89,18 @@ public class TextBookTocUploader {
   public String execute(Map<String, Object> content, String textbookId, String versionKey) {
 
     if (!HIERARCHY.filter(h -> 0 != h.size()).isPresent()) return "";
-    parentChildHierarchyMapList =
+    for (Map<String, Object> hierarchy :
         getParentChildHierarchy(
-            textbookId, (List<Map<String, Object>>) content.get(JsonKey.CHILDREN));
+            textbookId, (List<Map<String, Object>>) content.get(JsonKey.CHILDREN))) {
+      for (Entry<String, Object> entry : hierarchy.entrySet()) {
+        parentChildHierarchyMap.putIfAbsent(
+            entry.getKey().toLowerCase(),
+            (List<Map<String, Object>>)
+                ((Map<String, Object>) entry.getValue()).get(JsonKey.CHILDREN));
+      }
+    }
+    linkedContentColumnName =
+        ProjectUtil.getConfigValue(JsonKey.SUNBIRD_TOC_LINKED_CONTENT_COLUMN_NAME);
     log(
         "Creating CSV for TextBookToC | Id: " + textbookId + "Version Key: " + versionKey,
         INFO.name());
@@ -100,7 +114,10 @@ public class TextBookTocUploader {
       populateDataIntoFile(content, file);
       log(
           "Timed:TextBookTocUploader:execute time taken in processing "
-              + (Instant.now().getEpochSecond() - startTime.getEpochSecond()),
+              + (Instant.now().toEpochMilli() - startTime.toEpochMilli())
+              + " ms for "
+              + rowCount
+              + " rows",
           INFO.name());
       log(
           "Uploading "
@@ -145,78 +162,35 @@ public class TextBookTocUploader {
 
   private void populateDataIntoFile(Map<String, Object> content, File file) {
     OutputStreamWriter out = null;
-    CSVPrinter printer = null;
     try {
+      log("Processing Hierarchy for TextBook | Id: " + content.get(IDENTIFIER), INFO.name());
+      bgmsData = getBGMSData(content);
+      String[] columns;
       if (SUPPRESS_EMPTY_COLUMNS) {
-        log("Processing Hierarchy for TextBook | Id: " + content.get(IDENTIFIER), INFO.name());
+        // Columns to show are known only once the whole hierarchy is read, so the hierarchy is
+        // walked once to find them and once more to write the rows
         processHierarchySuppressColumns(content);
-
-        String[] columns =
+        columnIndexes =
             IntStream.range(0, KEY_NAMES.size())
-                .mapToObj(
-                    i -> {
-                      if (viewableColumns.contains(KEY_NAMES.get(i))) return COLUMN_NAMES.get(i);
-                      else return null;
-                    })
-                .filter(Objects::nonNull)
-                .toArray(String[]::new);
-        out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
-        out.write(ByteOrderMark.UTF_BOM);
-        log(
-            "Writing Headers to Output Stream for Textbook | Id " + content.get(IDENTIFIER),
-            INFO.name());
-        printer = new CSVPrinter(out, DEFAULT.withHeader(columns));
-
-        log(
-            "Writing Data to Output Stream for Textbook | Id " + content.get(IDENTIFIER),
-            INFO.name());
-        for (Map<String, Object> row : rows) {
-          updateBGMSData(row, content);
-          Object[] tempRow =
-              IntStream.range(0, KEY_NAMES.size())
-                  .mapToObj(
-                      i -> {
-                        if (viewableColumns.contains(KEY_NAMES.get(i))) {
-                          Object o = row.get(KEY_NAMES.get(i));
-                          return null == o ? "" : o;
-                        }
-                        return null;
-                      })
-                  .filter(Objects::nonNull)
-                  .toArray(Object[]::new);
-          printer.printRecord(tempRow);
-        }
-
-        log(
-            "Flushing Data to File | Location:"
-                + file.getAbsolutePath()
-                + " | for TextBook  | Id: "
-                + content.get(IDENTIFIER));
+                .filter(i -> viewableColumns.contains(KEY_NAMES.get(i)))
+                .toArray();
+        columns =
+            Arrays.stream(columnIndexes).mapToObj(COLUMN_NAMES::get).toArray(String[]::new);
       } else {
-        log("Processing Hierarchy for TextBook | Id: " + content.get(IDENTIFIER), INFO.name());
-        processHierarchy(content);
-
-        out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
-        out.write(ByteOrderMark.UTF_BOM);
-
-        log(
-            "Writing Headers to Output Stream for Textbook | Id " + content.get(IDENTIFIER),
-            INFO.name());
-        printer = new CSVPrinter(out, DEFAULT.withHeader(COLUMN_NAMES_ARRAY));
-
-        log(
-            "Writing Data to Output Stream for Textbook | Id " + content.get(IDENTIFIER),
-            INFO.name());
-        for (Map<String, Object> row : rows) {
-          updateBGMSData(row, content);
-          Object[] tempRow =
-              IntStream.range(0, KEY_NAMES.size())
-                  .mapToObj(i -> row.get(KEY_NAMES.get(i)))
-                  .toArray(Object[]::new);
-
-          printer.printRecord(tempRow);
-        }
+        columnIndexes = IntStream.range(0, KEY_NAMES.size()).toArray();
+        columns = COLUMN_NAMES_ARRAY;
       }
+      out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+      out.write(ByteOrderMark.UTF_BOM);
+      log(
+          "Writing Headers to Output Stream for Textbook | Id " + content.get(IDENTIFIER),
+          INFO.name());
+      printer = new CSVPrinter(out, DEFAULT.withHeader(columns));
+
+      log(
+          "Writing Data to Output Stream for Textbook | Id " + content.get(IDENTIFIER),
+          INFO.name());
+      processHierarchy(content);
     } catch (IOException e) {
       log(
           "Error writing data to file | TextBook Id:"
@@ -267,14 +241,15 @@ public class TextBookTocUploader {
     return k;
   }
 
-  private void processHierarchy(Map<String, Object> contentHierarchy) {
+  private void processHierarchy(Map<String, Object> contentHierarchy) throws IOException {
     initializeRow();
     int level = 0;
     updateRowWithData(contentHierarchy, HIERARCHY_PROPERTY, level);
     processHierarchyRecursive(contentHierarchy, level);
   }
 
-  private void processHierarchyRecursive(Map<String, Object> contentHierarchy, int level) {
+  private void processHierarchyRecursive(Map<String, Object> contentHierarchy, int level)
+      throws IOException {
     List<Map<String, Object>> children = (List<Map<String, Object>>) contentHierarchy.get(CHILDREN);
     if (null != children && !children.isEmpty()) {
       if (LEVELS - 1 == level) return;
@@ -301,28 +276,11 @@ public class TextBookTocUploader {
     updateRowWithLinkedContent();
   }
 
-  @SuppressWarnings("unchecked")
   private void updateRowWithLinkedContent() {
     String identifier = (String) row.get(JsonKey.IDENTIFIER);
     if (StringUtils.isNotBlank(identifier)) {
-      Optional<Map<String, Object>> contentMap =
-          parentChildHierarchyMapList
-              .stream()
-              .filter(
-                  s -> {
-                    for (Entry<String, Object> entry : s.entrySet()) {
-                      if (identifier.equalsIgnoreCase(entry.getKey())) {
-                        return true;
-                      }
-                    }
-                    return false;
-                  })
-              .findFirst();
-      if (contentMap.isPresent()) {
-        Map<String, Object> childrenMap = contentMap.get();
-        List<Map<String, Object>> children =
-            (List<Map<String, Object>>)
-                ((Map<String, Object>) childrenMap.get(identifier)).get(JsonKey.CHILDREN);
+      List<Map<String, Object>> children = parentChildHierarchyMap.get(identifier.toLowerCase());
+      if (null != children) {
         AtomicInteger linkedContent = new AtomicInteger(1);
         children
             .stream()
@@ -338,10 +296,7 @@ public class TextBookTocUploader {
             .forEach(
                 s -> {
                   String key =
-                      MessageFormat.format(
-                          ProjectUtil.getConfigValue(
-                              JsonKey.SUNBIRD_TOC_LINKED_CONTENT_COLUMN_NAME),
-                          linkedContent.getAndAdd(1));
+                      MessageFormat.format(linkedContentColumnName, linkedContent.getAndAdd(1));
                   if (ROW_METADATA.contains(key)) {
                     row.put(key, (String) s.get(JsonKey.IDENTIFIER));
                   }
@@ -376,13 +331,20 @@ public class TextBookTocUploader {
     return hierarchyList;
   }
 
-  private void appendRow() {
-    Map<String, Object> tempRow = new HashMap<>();
-    tempRow.putAll(row);
-    rows.add(tempRow);
+  private void appendRow() throws IOException {
+    if (null == printer) return;
+    Object[] record = new Object[columnIndexes.length];
+    for (int i = 0; i < columnIndexes.length; i++) {
+      String key = KEY_NAMES.get(columnIndexes[i]);
+      Object o = bgmsData.containsKey(key) ? bgmsData.get(key) : row.get(key);
+      record[i] = null == o ? "" : o;
+    }
+    printer.printRecord(record);
+    rowCount++;
   }
 
-  private void processHierarchySuppressColumns(Map<String, Object> contentHierarchy) {
+  private void processHierarchySuppressColumns(Map<String, Object> contentHierarchy)
+      throws IOException {
     initializeRow();
     int level = 0;
     updateRowWithDataSuppressColumns(contentHierarchy, HIERARCHY_PROPERTY, level);
@@ -390,7 +352,7 @@ public class TextBookTocUploader {
   }
 
   private void processHierarchyRecursiveSuppressColumns(
-      Map<String, Object> contentHierarchy, int level) {
+      Map<String, Object> contentHierarchy, int level) throws IOException {
     List<Map<String, Object>> children = (List<Map<String, Object>>) contentHierarchy.get(CHILDREN);
     if (null != children && !children.isEmpty()) {
       if (LEVELS - 1 == level) return;
@@ -409,8 +371,15 @@ public class TextBookTocUploader {
     }
   }
 
+  /**
+   * Returns the framework category values of the textbook, which are the same for every row.
+   *
+   * @param contentHierarchy Textbook hierarchy
+   * @return Map of framework category to its value
+   */
   @SuppressWarnings("unchecked")
-  private void updateBGMSData(Map<String, Object> row, Map<String, Object> contentHierarchy) {
+  private Map<String, Object> getBGMSData(Map<String, Object> contentHierarchy) {
+    Map<String, Object> row = new HashMap<>();
     Map<String, Object> outputMapping =
         getObjectFrom(getConfigValue(JsonKey.TEXTBOOK_TOC_OUTPUT_MAPPING), Map.class);
     Map<String, Object> frameworkCategories =
@@ -423,6 +392,7 @@ public class TextBookTocUploader {
         row.put(key, stringify(contentHierarchy.get(key)));
       }
     }
+    return row;
   }
 
   private void updateRowWithDataSuppressColumns(
@@ -13,6 +13,7 @@ import org.sunbird.common.request.ExecutionContext;
 import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.dto.SearchDTO;
+import org.sunbird.learner.util.LocationTree;
 import org.sunbird.learner.util.Util;
 import org.sunbird.location.dao.LocationDao;
 import org.sunbird.location.dao.impl.LocationDaoFactory;
@@ -36,7 +37,6 @@ import org.sunbird.models.location.apirequest.UpsertLocationRequest;
   asyncTasks = {}
 )
 public class LocationActor extends BaseLocationActor {
-  private Map<String, Integer> orderMap;
   private ObjectMapper mapper = new ObjectMapper();
   private LocationDao locationDao = LocationDaoFactory.getInstance();
  
@@ -44,7 +44,6 @@ public class LocationActor extends BaseLocationActor {
   public void onReceive(Request request) throws Throwable {
     Util.initializeContext(request, TelemetryEnvKey.LOCATION);
     ExecutionContext.setRequestId(request.getRequestId());
-    initOrderMap();
 
     String operation = request.getOperation();
     switch (operation) {
@@ -68,25 +67,6 @@ public class LocationActor extends BaseLocationActor {
     }
   }
 
-  private void initOrderMap() {
-    if (orderMap == null) {
-      orderMap = new HashMap<>();
-
-      List<String> subTypeList =
-          Arrays.asList(
-              ProjectUtil.getConfigValue(GeoLocationJsonKey.SUNBIRD_VALID_LOCATION_TYPES)
-                  .split(";"));
-      for (String str : subTypeList) {
-        List<String> typeList =
-            (((Arrays.asList(str.split(","))).stream().map(String::toLowerCase))
-                .collect(Collectors.toList()));
-        for (int i = 0; i < typeList.size(); i++) {
-          orderMap.put(typeList.get(i), i);
-        }
-      }
-    }
-  }
-
   private void getRelatedLocationIds(Request request) {
     Response response = new Response();
     List<String> relatedLocationIds =
@@ -164,6 +144,7 @@ public class LocationActor extends BaseLocationActor {
   private void saveDataToES(Map<String, Object> locData, String opType) {
     if (isEventSyncEnabled()) {
       ProjectLogger.log("LocationActor:saveDataToES: Event sync is enabled", LoggerEnum.INFO);
+      LocationTree.getInstance().upsert(locData);
       return;
     }
     Request request = new Request();
@@ -185,6 +166,7 @@ public class LocationActor extends BaseLocationActor {
   private void deleteDataFromES(String locId) {
     if (isEventSyncEnabled()) {
       ProjectLogger.log("LocationActor:deleteDataFromES: Event sync is enabled", LoggerEnum.INFO);
+      LocationTree.getInstance().remove(locId);
       return;
     }
     Request request = new Request();
@@ -207,7 +189,7 @@ public class LocationActor extends BaseLocationActor {
   public List<String> getValidatedRelatedLocationIds(List<String> codeList) {
     Set<String> locationIds = null;
     List<String> codes = new ArrayList<>(codeList);
-    List<Location> locationList = getSearchResult(JsonKey.CODE, codeList);
+    List<Location> locationList = getLocationsByCodes(codeList);
     List<String> locationIdList = new ArrayList<>();
     if (CollectionUtils.isNotEmpty(locationList)) {
       if (locationList.size() != codes.size()) {
@@ -226,6 +208,26 @@ public class LocationActor extends BaseLocationActor {
     return locationIdList;
   }
 
+  private List<Location> getLocationsByCodes(List<String> codeList) {
+    LocationTree locationTree = LocationTree.getInstance();
+    List<Location> locationList = new ArrayList<>();
+    List<String> missingCodes = new ArrayList<>();
+    for (String code : codeList) {
+      Location location = locationTree.getByCode(code);
+      if (location != null) {
+        locationList.add(location);
+      } else {
+        missingCodes.add(code);
+      }
+    }
+    if (!missingCodes.isEmpty()) {
+      List<Location> searchResult = getSearchResult(JsonKey.CODE, missingCodes);
+      searchResult.forEach(locationTree::upsert);
+      locationList.addAll(searchResult);
+    }
+    return locationList;
+  }
+
   private List<Location> getSearchResult(String param, Object value) {
     Map<String, Object> filters = new HashMap<>();
     Map<String, Object> searchRequestMap = new HashMap<>();
@@ -245,9 +247,14 @@ public class LocationActor extends BaseLocationActor {
   }
 
   private Location getLocation(String locationId) {
+    LocationTree locationTree = LocationTree.getInstance();
+    Location location = locationTree.getById(locationId);
+    if (location != null) return location;
+
     List<Location> locations = getSearchResult(JsonKey.ID, locationId);
     if (locations.isEmpty()) return null;
 
+    locationTree.upsert(locations.get(0));
     return locations.get(0);
   }
 
@@ -260,35 +267,24 @@ public class LocationActor extends BaseLocationActor {
   }
 
   public Set<String> getValidatedRelatedLocationSet(List<Location> locationList) {
-    Set<Location> locationSet = new HashSet<>();
+    Map<String, Location> locationByType = new HashMap<>();
     for (Location requestedLocation : locationList) {
-      Set<Location> parentLocnSet = getParentLocations(requestedLocation);
-      if (CollectionUtils.sizeIsEmpty(locationSet)) {
-        locationSet.addAll(parentLocnSet);
-      } else {
-        for (Location currentLocation : parentLocnSet) {
-          String type = currentLocation.getType();
-          locationSet
-              .stream()
-              .forEach(
-                  location -> {
-                    if (type.equalsIgnoreCase(location.getType())
-                        && !(currentLocation.getId().equals(location.getId()))) {
-                      throw new ProjectCommonException(
-                          ResponseCode.conflictingOrgLocations.getErrorCode(),
-                          ProjectUtil.formatMessage(
-                              ResponseCode.conflictingOrgLocations.getErrorMessage(),
-                              requestedLocation.getCode(),
-                              location.getCode(),
-                              type),
-                          ResponseCode.CLIENT_ERROR.getResponseCode());
-                    }
-                  });
-          locationSet.add(currentLocation);
+      for (Location currentLocation : getParentLocations(requestedLocation)) {
+        String type = currentLocation.getType().toLowerCase();
+        Location location = locationByType.putIfAbsent(type, currentLocation);
+        if (location != null && !(currentLocation.getId().equals(location.getId()))) {
+          throw new ProjectCommonException(
+              ResponseCode.conflictingOrgLocations.getErrorCode(),
+              ProjectUtil.formatMessage(
+                  ResponseCode.conflictingOrgLocations.getErrorMessage(),
+                  requestedLocation.getCode(),
+                  location.getCode(),
+                  currentLocation.getType()),
+              ResponseCode.CLIENT_ERROR.getResponseCode());
         }
       }
     }
-    return locationSet.stream().map(Location::getId).collect(Collectors.toSet());
+    return locationByType.values().stream().map(Location::getId).collect(Collectors.toSet());
   }
 
   private Set<Location> getParentLocations(Location locationObj) {
@@ -298,9 +294,7 @@ public class LocationActor extends BaseLocationActor {
     locationSet.add(location);
     while (count > 0) {
       Location parent = null;
-      if (getOrder(location.getType()) == 0 && StringUtils.isNotEmpty(location.getId())) {
-        parent = getLocation(location.getId());
-      } else if (StringUtils.isNotEmpty(location.getParentId())) {
+      if (StringUtils.isNotEmpty(location.getParentId())) {
         parent = getLocation(location.getParentId());
       }
       if (null != parent) {
@@ -313,6 +307,6 @@ public class LocationActor extends BaseLocationActor {
   }
 
   public int getOrder(String type) {
-    return orderMap.get(type);
+    return LocationTree.getInstance().getOrder(type);
   }
 }
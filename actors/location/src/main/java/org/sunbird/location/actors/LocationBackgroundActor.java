@@ -8,6 +8,7 @@ import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.common.request.Request;
+import org.sunbird.learner.util.LocationTree;
 
 /**
  * This class will handle all background service for locationActor.
@@ -41,11 +42,13 @@ public class LocationBackgroundActor extends BaseLocationActor {
   private void deleteLocationDataFromES(Request request) {
     String locationId = (String) request.get(JsonKey.LOCATION_ID);
     esService.delete(ProjectUtil.EsType.location.getTypeName(), locationId);
+    LocationTree.getInstance().remove(locationId);
   }
 
   private void upsertLocationDataToES(Request request) {
     Map<String, Object> location = (Map<String, Object>) request.getRequest().get(JsonKey.LOCATION);
     esService.upsert(
         ProjectUtil.EsType.location.getTypeName(), (String) location.get(JsonKey.ID), location);
+    LocationTree.getInstance().upsert(location);
   }
 }
@@ -22,9 +22,11 @@ import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.dto.SearchDTO;
+import org.sunbird.learner.util.LocationTree;
 import org.sunbird.learner.util.Util;
 import org.sunbird.location.dao.LocationDao;
 import org.sunbird.location.dao.impl.LocationDaoImpl;
+import org.sunbird.models.location.Location;
 import org.sunbird.models.location.apirequest.UpsertLocationRequest;
 import scala.concurrent.Future;
 
@@ -227,6 +229,10 @@ public class LocationRequestValidator {
    * @return Map<String, Object> location details
    */
   private static Map<String, Object> getLocationById(String id, String parameter) {
+    Location cachedLocation = LocationTree.getInstance().getById(id);
+    if (cachedLocation != null) {
+      return mapper.convertValue(cachedLocation, Map.class);
+    }
     Future<Map<String, Object>> locationF =
         esUtil.getDataByIdentifier(ProjectUtil.EsType.location.getTypeName(), id);
     Map<String, Object> location =
@@ -247,6 +253,10 @@ public class LocationRequestValidator {
    * @return location details Map<String, Object>
    */
   private static Map<String, Object> getLocation(String code) {
+    Location cachedLocation = LocationTree.getInstance().getByCode(code);
+    if (cachedLocation != null) {
+      return mapper.convertValue(cachedLocation, Map.class);
+    }
     Map<String, Object> filters = new HashMap<>();
     filters.put(GeoLocationJsonKey.CODE, code);
     Map<String, Object> map = new HashMap<>();
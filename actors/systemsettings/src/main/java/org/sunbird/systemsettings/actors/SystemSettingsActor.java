@@ -4,7 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.text.MessageFormat;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import org.sunbird.actor.core.BaseActor;
 import org.sunbird.actor.router.ActorConfig;
 import org.sunbird.cassandra.CassandraOperation;
@@ -54,22 +54,24 @@ public class SystemSettingsActor extends BaseActor {
   private void getSystemSetting(Request actorMessage) {
     ProjectLogger.log("SystemSettingsActor:getSystemSetting: request is " + actorMessage.getRequest(), LoggerEnum.INFO.name());
     SystemSetting setting = null;
-    String value = DataCacheHandler.getConfigSettings().get((String) actorMessage.getContext().get(JsonKey.FIELD));
+    String field = (String) actorMessage.getContext().get(JsonKey.FIELD);
+    if (DataCacheHandler.isInternalSetting(field)) {
+      throw new ProjectCommonException(
+              ResponseCode.resourceNotFound.getErrorCode(),
+              ResponseCode.resourceNotFound.getErrorMessage(),
+              ResponseCode.RESOURCE_NOT_FOUND.getResponseCode());
+    }
+    String value = DataCacheHandler.getConfigSetting(field);
     ProjectLogger.log("SystemSettingsActor:getSystemSetting:the value got for field from cache is:"+ value,LoggerEnum.INFO.name());
     if (value != null) {
-      setting =
-              new SystemSetting(
-                      (String) actorMessage.getContext().get(JsonKey.FIELD),
-                      (String) actorMessage.getContext().get(JsonKey.FIELD),
-                      value);
+      setting = new SystemSetting(field, field, value);
     }
 
     if (setting == null) {
-      setting =
-              systemSettingDaoImpl.readByField((String) actorMessage.getContext().get(JsonKey.FIELD));
+      setting = systemSettingDaoImpl.readByField(field);
       ProjectLogger.log("SystemSettingsActor:getSystemSetting:the value got for field from db",LoggerEnum.INFO.name());
       if(null!=setting){
-        DataCacheHandler.getConfigSettings().put((String) actorMessage.getContext().get(JsonKey.FIELD), setting.getValue());
+        DataCacheHandler.putConfigSetting(field, setting.getValue());
       }
     }
     if (setting == null) {
@@ -85,7 +87,12 @@ public class SystemSettingsActor extends BaseActor {
 
   private void getAllSystemSettings() {
     ProjectLogger.log("SystemSettingsActor: getAllSystemSettings called", LoggerEnum.DEBUG.name());
-    List<SystemSetting> allSystemSettings = systemSettingDaoImpl.readAll();
+    List<SystemSetting> allSystemSettings =
+            systemSettingDaoImpl
+                    .readAll()
+                    .stream()
+                    .filter(setting -> !DataCacheHandler.isInternalSetting(setting.getId()))
+                    .collect(Collectors.toList());
     Response response = new Response();
     response.put(JsonKey.RESPONSE, allSystemSettings);
     sender().tell(response, self());
@@ -100,7 +107,9 @@ public class SystemSettingsActor extends BaseActor {
     if (JsonKey.PHONE_UNIQUE.equalsIgnoreCase(field)
             || JsonKey.EMAIL_UNIQUE.equalsIgnoreCase(field)
             || JsonKey.PHONE_UNIQUE.equalsIgnoreCase(id)
-            || JsonKey.EMAIL_UNIQUE.equalsIgnoreCase(id)) {
+            || JsonKey.EMAIL_UNIQUE.equalsIgnoreCase(id)
+            || DataCacheHandler.isInternalSetting(field)
+            || DataCacheHandler.isInternalSetting(id)) {
       ProjectCommonException.throwClientErrorException(
               ResponseCode.errorUpdateSettingNotAllowed,
               MessageFormat.format(ResponseCode.errorUpdateSettingNotAllowed.getErrorMessage(), field));
@@ -108,6 +117,7 @@ public class SystemSettingsActor extends BaseActor {
 
     SystemSetting systemSetting = mapper.convertValue(request, SystemSetting.class);
     Response response = systemSettingDaoImpl.write(systemSetting);
+    DataCacheHandler.publishChange();
     sender().tell(response, self());
   }
 }
\ No newline at end of file
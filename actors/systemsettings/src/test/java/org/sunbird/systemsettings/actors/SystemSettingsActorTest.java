@@ -32,6 +32,8 @@ import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.DataCacheHandler;
+import org.sunbird.models.systemsetting.SystemSetting;
 import scala.concurrent.duration.FiniteDuration;
 
 @RunWith(PowerMockRunner.class)
@@ -136,6 +138,24 @@ public class SystemSettingsActorTest {
     Assert.assertTrue(null != response && response.getResponseCode() == ResponseCode.OK);
   }
 
+  @Test
+  public void testGetAllSystemSettingsSkipsInternalSettingsSuccess() {
+    Response dbResponse = getSystemSettingResponse();
+    Map<String, Object> versionRow = new HashMap<>();
+    versionRow.put(JsonKey.ID, DataCacheHandler.CACHE_VERSION_ID);
+    versionRow.put(JsonKey.FIELD, DataCacheHandler.CACHE_VERSION_ID);
+    versionRow.put(JsonKey.VALUE, VALUE);
+    ((List<Map<String, Object>>) dbResponse.get(JsonKey.RESPONSE)).add(versionRow);
+    when(cassandraOperation.getAllRecords(Mockito.anyString(), Mockito.anyString()))
+        .thenReturn(dbResponse);
+    actorMessage.setOperation(ActorOperations.GET_ALL_SYSTEM_SETTINGS.getValue());
+    subject.tell(actorMessage, probe.getRef());
+    Response response = probe.expectMsgAnyClassOf(ACTOR_MAX_WAIT_DURATION, Response.class);
+    List<SystemSetting> settings = (List<SystemSetting>) response.get(JsonKey.RESPONSE);
+    Assert.assertEquals(1, settings.size());
+    Assert.assertEquals(ROOT_ORG_ID, settings.get(0).getId());
+  }
+
   @Test
   public void testGetAllSystemSettingsSuccessWithEmptyResponse() {
     when(cassandraOperation.getAllRecords(Mockito.anyString(), Mockito.anyString()))
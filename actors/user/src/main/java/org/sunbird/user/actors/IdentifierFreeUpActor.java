@@ -20,6 +20,7 @@ import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.util.UserFlagEnum;
+import org.sunbird.learner.util.UserProfileCache;
 import org.sunbird.learner.util.Util;
 import scala.concurrent.Future;
 
@@ -138,7 +139,9 @@ public class IdentifierFreeUpActor extends BaseActor {
     Future<Boolean> future =
         getEsUtil().update(
             ProjectUtil.EsType.user.getTypeName(), (String) userDbMap.get(JsonKey.ID), userDbMap);
-    return (boolean) ElasticSearchHelper.getResponseFromFuture(future);
+    boolean response = (boolean) ElasticSearchHelper.getResponseFromFuture(future);
+    UserProfileCache.getInstance().invalidate((String) userDbMap.get(JsonKey.ID));
+    return response;
   }
 
   private boolean isNullifyOperationValid(String identifier) {
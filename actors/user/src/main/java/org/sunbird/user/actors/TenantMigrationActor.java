@@ -39,6 +39,7 @@ import org.sunbird.feed.impl.FeedFactory;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.organisation.external.identity.service.OrgExternalService;
 import org.sunbird.learner.util.UserFlagEnum;
+import org.sunbird.learner.util.UserProfileCache;
 import org.sunbird.learner.util.Util;
 import org.sunbird.models.user.User;
 import org.sunbird.services.sso.SSOManager;
@@ -139,6 +140,7 @@ public class TenantMigrationActor extends BaseActor {
       // throw exception for migration failed
       ProjectCommonException.throwServerErrorException(ResponseCode.errorUserMigrationFailed);
     }
+    UserProfileCache.getInstance().invalidate((String) userUpdateRequest.get(JsonKey.ID));
     if (null != userUpdateRequest.get(JsonKey.IS_DELETED)
         && (Boolean) userUpdateRequest.get(JsonKey.IS_DELETED)) {
       deactivateUserFromKC((String) userUpdateRequest.get(JsonKey.ID));
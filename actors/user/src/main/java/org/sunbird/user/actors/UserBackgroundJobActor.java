@@ -13,6 +13,7 @@ import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.common.request.Request;
+import org.sunbird.learner.util.UserProfileCache;
 import org.sunbird.models.user.User;
 import org.sunbird.user.util.UserUtil;
 import scala.concurrent.Future;
@@ -139,5 +140,6 @@ public class UserBackgroundJobActor extends BaseActor {
             + "  "
             + ElasticSearchHelper.getResponseFromFuture(bool),
         LoggerEnum.INFO.name());
+    UserProfileCache.getInstance().invalidate(id);
   }
 }
@@ -21,6 +21,7 @@ import org.sunbird.common.responsecode.ResponseMessage;
 import org.sunbird.common.util.ConfigUtil;
 import org.sunbird.kafka.client.KafkaClient;
 import org.sunbird.learner.util.DataCacheHandler;
+import org.sunbird.learner.util.UserProfileCache;
 import org.sunbird.learner.util.Util;
 import org.sunbird.models.systemsetting.SystemSetting;
 import org.sunbird.models.user.User;
@@ -93,6 +94,8 @@ public class UserMergeActor extends UserBaseActor {
       prepareMergeeAccountData(mergee, mergeeDBMap);
       userRequest.put(JsonKey.USER_MERGEE_ACCOUNT, mergeeDBMap);
       Response mergeeResponse = getUserDao().updateUser(mergeeDBMap);
+      UserProfileCache.getInstance().invalidate(mergeeId);
+      UserProfileCache.getInstance().invalidate(mergerId);
       String mergeeResponseStr = (String) mergeeResponse.get(JsonKey.RESPONSE);
       ProjectLogger.log(
           "UserMergeActor: updateUserMergeDetails: mergeeResponseStr = " + mergeeResponseStr,
@@ -3,7 +3,10 @@ package org.sunbird.user.actors;
 import static org.sunbird.learner.util.Util.isNotNull;
 
 import akka.actor.ActorRef;
+import akka.dispatch.ExecutionContexts;
+import akka.dispatch.Futures;
 import akka.dispatch.Mapper;
+import akka.dispatch.Recover;
 import akka.pattern.Patterns;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,6 +14,9 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import java.text.MessageFormat;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
@@ -35,6 +41,8 @@ import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.dto.SearchDTO;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.util.DataCacheHandler;
+import org.sunbird.learner.util.OrgMetadataCache;
+import org.sunbird.learner.util.UserProfileCache;
 import org.sunbird.learner.util.UserUtility;
 import org.sunbird.learner.util.Util;
 import org.sunbird.models.user.User;
@@ -45,7 +53,8 @@ import org.sunbird.user.dao.impl.UserDaoImpl;
 import org.sunbird.user.dao.impl.UserExternalIdentityDaoImpl;
 import org.sunbird.user.util.UserUtil;
 import scala.Tuple2;
-import scala.concurrent.Await;
+import scala.concurrent.ExecutionContextExecutor;
+import scala.concurrent.ExecutionContextExecutorService;
 import scala.concurrent.Future;
 
 @ActorConfig(
@@ -60,6 +69,20 @@ import scala.concurrent.Future;
 )
 public class UserProfileReadActor extends BaseActor {
 
+  private static final String SUNBIRD_USER_PROFILE_READ_WORKERS_KEY =
+      "sunbird_user_profile_read_workers";
+  private static final int DEFAULT_PROFILE_READ_WORKERS = 16;
+  // Runs the blocking Cassandra reads and actor asks of a profile read off the actor dispatcher
+  private static final ExecutionContextExecutorService blockingEc =
+      ExecutionContexts.fromExecutorService(
+          Executors.newFixedThreadPool(
+              getConfigValue(SUNBIRD_USER_PROFILE_READ_WORKERS_KEY, DEFAULT_PROFILE_READ_WORKERS),
+              runnable -> {
+                Thread thread = new Thread(runnable, "user-profile-read");
+                thread.setDaemon(true);
+                return thread;
+              }));
+
   private CassandraOperation cassandraOperation = ServiceFactory.getInstance();
   private EncryptionService encryptionService =
       org.sunbird.common.models.util.datasecurity.impl.ServiceFactory.getEncryptionServiceInstance(
@@ -106,11 +129,61 @@ public class UserProfileReadActor extends BaseActor {
    * @param actorMessage Request containing user ID
    */
   private void getUserProfile(Request actorMessage) {
-    Response response = getUserProfileData(actorMessage);
-    sender().tell(response, self());
+    pipeProfileResponse(getUserProfileData(actorMessage));
   }
 
-  private Response getUserProfileData(Request actorMessage) {
+  /**
+   * Sends the profile response to the sender once it is ready. A failed profile read is sent as
+   * the exception which caused it, as the synchronous profile read did.
+   *
+   * @param responseF Future of the profile response
+   */
+  private void pipeProfileResponse(Future<Response> responseF) {
+    ExecutionContextExecutor ec = getContext().dispatcher();
+    Future<Object> replyF =
+        responseF
+            .map(
+                new Mapper<Response, Object>() {
+                  @Override
+                  public Object apply(Response response) {
+                    return response;
+                  }
+                },
+                ec)
+            .recover(
+                new Recover<Object>() {
+                  @Override
+                  public Object recover(Throwable failure) {
+                    if (failure instanceof ProjectCommonException) {
+                      return failure;
+                    }
+                    ProjectLogger.log(
+                        "UserProfileReadActor:pipeProfileResponse: Profile read failed", failure);
+                    return new ProjectCommonException(
+                        ResponseCode.internalError.getErrorCode(),
+                        ResponseCode.internalError.getErrorMessage(),
+                        ResponseCode.SERVER_ERROR.getResponseCode());
+                  }
+                },
+                ec);
+    Patterns.pipe(replyF, ec).to(sender());
+  }
+
+  /**
+   * Reads the profile of a user without blocking the actor. Once the user document is read, the
+   * root organisation, the private profile data and the external IDs are fetched concurrently and
+   * the response is built when all of them are available. The blocking steps run on a dedicated
+   * executor rather than the actor dispatcher. Built responses are kept in the user profile cache,
+   * when enabled, until the profile is written.
+   *
+   * @param actorMessage Request containing user ID
+   * @return Future of the profile response
+   */
+  @SuppressWarnings("unchecked")
+  private Future<Response> getUserProfileData(Request actorMessage) {
+    ExecutionContextExecutor ec = getContext().dispatcher();
+    long startTime = System.currentTimeMillis();
+    Map<String, Long> stageTimes = new ConcurrentHashMap<>();
     Map<String, Object> userMap = actorMessage.getRequest();
     String id = (String) userMap.get(JsonKey.USER_ID);
     String userId;
@@ -140,36 +213,98 @@ public class UserProfileReadActor extends BaseActor {
       showMaskedData = false;
     }
     boolean isPrivate = (boolean) actorMessage.getContext().get(JsonKey.PRIVATE);
-    Map<String, Object> result = null;
+    String requestedById =
+        (String) actorMessage.getContext().getOrDefault(JsonKey.REQUESTED_BY, "");
+    String cacheVariant =
+        UserProfileCache.getVariant(
+            isPrivate,
+            userId.equalsIgnoreCase(requestedById) || showMaskedData,
+            (String) actorMessage.getContext().get(JsonKey.FIELDS));
+    Map<String, Object> cachedProfile = UserProfileCache.getInstance().get(userId, cacheVariant);
+    if (cachedProfile != null) {
+      Response response = new Response();
+      response.put(JsonKey.RESPONSE, cachedProfile);
+      return Futures.successful(response);
+    }
+    Future<Map<String, Object>> resultF;
     if (!isPrivate) {
-      Future<Map<String, Object>> resultF =
-          esUtil.getDataByIdentifier(ProjectUtil.EsType.user.getTypeName(), userId);
-      try {
-        Object object = Await.result(resultF, ElasticSearchHelper.timeout.duration());
-        if (object != null) {
-          result = (Map<String, Object>) object;
-        }
-      } catch (Exception e) {
-        ProjectLogger.log(
-            String.format(
-                "%s:%s:User not found with provided id == %s and error %s",
-                this.getClass().getSimpleName(), "getUserProfileData", e.getMessage()),
-            LoggerEnum.ERROR.name());
-      }
+      resultF =
+          esUtil
+              .getDataByIdentifier(ProjectUtil.EsType.user.getTypeName(), userId)
+              .recover(
+                  new Recover<Map<String, Object>>() {
+                    @Override
+                    public Map<String, Object> recover(Throwable e) {
+                      ProjectLogger.log(
+                          String.format(
+                              "%s:%s:User not found with provided id == %s and error %s",
+                              UserProfileReadActor.class.getSimpleName(),
+                              "getUserProfileData",
+                              userId,
+                              e.getMessage()),
+                          LoggerEnum.ERROR.name());
+                      return null;
+                    }
+                  },
+                  ec);
     } else {
-      UserDao userDao = new UserDaoImpl();
-      User foundUser = userDao.getUserById(userId);
-      if (foundUser == null) {
-        throw new ProjectCommonException(
-            ResponseCode.userNotFound.getErrorCode(),
-            ResponseCode.userNotFound.getErrorMessage(),
-            ResponseCode.RESOURCE_NOT_FOUND.getResponseCode());
-      }
-      ObjectMapper objectMapper = new ObjectMapper();
-      objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-      result = objectMapper.convertValue(foundUser, Map.class);
-      result.put(JsonKey.ORGANISATIONS, Util.getUserOrgDetails(userId));
+      resultF =
+          Futures.future(
+              new Callable<Map<String, Object>>() {
+                @Override
+                public Map<String, Object> call() {
+                  UserDao userDao = new UserDaoImpl();
+                  User foundUser = userDao.getUserById(userId);
+                  if (foundUser == null) {
+                    throw new ProjectCommonException(
+                        ResponseCode.userNotFound.getErrorCode(),
+                        ResponseCode.userNotFound.getErrorMessage(),
+                        ResponseCode.RESOURCE_NOT_FOUND.getResponseCode());
+                  }
+                  ObjectMapper objectMapper = new ObjectMapper();
+                  objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+                  Map<String, Object> result = objectMapper.convertValue(foundUser, Map.class);
+                  result.put(JsonKey.ORGANISATIONS, Util.getUserOrgDetails(userId));
+                  return result;
+                }
+              },
+              blockingEc);
     }
+    boolean isMaskedDataShown = showMaskedData;
+    return timed("user", resultF, startTime, stageTimes, ec)
+        .flatMap(
+            new Mapper<Map<String, Object>, Future<Response>>() {
+              @Override
+              public Future<Response> apply(Map<String, Object> result) {
+                return readUserProfile(
+                    actorMessage, userId, isMaskedDataShown, result, startTime, stageTimes, ec);
+              }
+            },
+            ec)
+        .map(
+            new Mapper<Response, Response>() {
+              @Override
+              public Response apply(Response response) {
+                UserProfileCache.getInstance()
+                    .put(
+                        userId,
+                        cacheVariant,
+                        (Map<String, Object>) response.getResult().get(JsonKey.RESPONSE));
+                return response;
+              }
+            },
+            ec);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Future<Response> readUserProfile(
+      Request actorMessage,
+      String userId,
+      boolean showMaskedData,
+      Map<String, Object> result,
+      long startTime,
+      Map<String, Long> stageTimes,
+      ExecutionContextExecutor ec) {
     // check user found or not
     if (result == null || result.size() == 0) {
       throw new ProjectCommonException(
@@ -184,37 +319,123 @@ public class UserProfileReadActor extends BaseActor {
         && (Boolean) result.get(JsonKey.IS_DELETED)) {
       ProjectCommonException.throwClientErrorException(ResponseCode.userAccountlocked);
     }
-    Future<Map<String, Object>> esResultF = fetchRootAndRegisterOrganisation(result);
-    Map<String, Object> esResult =
-        (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(esResultF);
-    result.put(JsonKey.ROOT_ORG, esResult);
+    Future<Map<String, Object>> rootOrgF = fetchRootAndRegisterOrganisation(result);
+    if (rootOrgF == null) {
+      rootOrgF = Futures.successful(null);
+    }
+    // The root organisation is left out of the profile when it cannot be read
+    rootOrgF =
+        timed("rootOrg", rootOrgF, startTime, stageTimes, ec)
+            .recover(
+                new Recover<Map<String, Object>>() {
+                  @Override
+                  public Map<String, Object> recover(Throwable failure) {
+                    ProjectLogger.log(
+                        "UserProfileReadActor:readUserProfile: Root organisation read failed",
+                        failure);
+                    return null;
+                  }
+                },
+                ec);
     // having check for removing private filed from user , if call user and response
     // user data id is not same.
     String requestedById =
         (String) actorMessage.getContext().getOrDefault(JsonKey.REQUESTED_BY, "");
     ProjectLogger.log(
         "requested By and requested user id == " + requestedById + "  " + (String) userId);
+    boolean isSelfRead = (userId).equalsIgnoreCase(requestedById) || showMaskedData;
+    Future<Tuple2<Map<String, Object>, List<Map<String, String>>>> privateDataF;
+    if (isSelfRead) {
+      // If the user requests his data then we are fetching the private data from
+      // userprofilevisibility index and user external identities, and merge them with user index
+      // data
+      Future<Map<String, Object>> privateResultF =
+          timed(
+              "privateData",
+              esUtil.getDataByIdentifier(
+                  ProjectUtil.EsType.userprofilevisibility.getTypeName(), userId),
+              startTime,
+              stageTimes,
+              ec);
+      Future<List<Map<String, String>>> externalIdsF =
+          timed(
+              "externalIds",
+              Futures.future(
+                  new Callable<List<Map<String, String>>>() {
+                    @Override
+                    public List<Map<String, String>> call() {
+                      return fetchUserExternalIdentity(userId);
+                    }
+                  },
+                  blockingEc),
+              startTime,
+              stageTimes,
+              ec);
+      privateDataF =
+          privateResultF
+              .zip(externalIdsF)
+              .recover(
+                  new Recover<Tuple2<Map<String, Object>, List<Map<String, String>>>>() {
+                    @Override
+                    public Tuple2<Map<String, Object>, List<Map<String, String>>> recover(
+                        Throwable failure) {
+                      ProjectLogger.log(
+                          "UserProfileReadActor:readUserProfile: Private data read failed",
+                          failure);
+                      ProjectCommonException.throwServerErrorException(
+                          ResponseCode.userDataEncryptionError);
+                      return null;
+                    }
+                  },
+                  ec);
+    } else {
+      privateDataF = Futures.successful(null);
+    }
+    return rootOrgF
+        .zip(privateDataF)
+        .map(
+            new Mapper<
+                Tuple2<Map<String, Object>, Tuple2<Map<String, Object>, List<Map<String, String>>>>,
+                Response>() {
+              @Override
+              public Response apply(
+                  Tuple2<
+                          Map<String, Object>,
+                          Tuple2<Map<String, Object>, List<Map<String, String>>>>
+                      fetched) {
+                Response response =
+                    buildUserProfileResponse(
+                        actorMessage, userId, isSelfRead, result, fetched._1(), fetched._2());
+                ProjectLogger.log(
+                    "Timed:UserProfileReadActor:getUserProfileData stage times in ms "
+                        + stageTimes
+                        + " total "
+                        + (System.currentTimeMillis() - startTime),
+                    LoggerEnum.INFO.name());
+                return response;
+              }
+            },
+            blockingEc);
+  }
+
+  private Response buildUserProfileResponse(
+      Request actorMessage,
+      String userId,
+      boolean isSelfRead,
+      Map<String, Object> result,
+      Map<String, Object> rootOrg,
+      Tuple2<Map<String, Object>, List<Map<String, String>>> privateData) {
+    result.put(JsonKey.ROOT_ORG, rootOrg);
     try {
-      if (!(userId).equalsIgnoreCase(requestedById) && !showMaskedData) {
+      if (!isSelfRead) {
         result = removeUserPrivateField(result);
       } else {
         // These values are set to ensure backward compatibility post introduction of global
         // settings in user profile visibility
         setCompleteProfileVisibilityMap(result);
         setDefaultUserProfileVisibility(result);
-
-        // If the user requests his data then we are fetching the private data from
-        // userprofilevisibility index
-        // and merge it with user index data
-        Future<Map<String, Object>> privateResultF =
-            esUtil.getDataByIdentifier(
-                ProjectUtil.EsType.userprofilevisibility.getTypeName(), userId);
-        Map<String, Object> privateResult =
-            (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(privateResultF);
-        // fetch user external identity
-        List<Map<String, String>> dbResExternalIds = fetchUserExternalIdentity(userId);
-        result.put(JsonKey.EXTERNAL_IDS, dbResExternalIds);
-        result.putAll(privateResult);
+        result.put(JsonKey.EXTERNAL_IDS, privateData._2());
+        result.putAll(privateData._1());
       }
     } catch (Exception e) {
       ProjectCommonException.throwServerErrorException(ResponseCode.userDataEncryptionError);
@@ -247,6 +468,24 @@ public class UserProfileReadActor extends BaseActor {
     return response;
   }
 
+  /** Records the time from the start of the profile read to the completion of the given stage. */
+  private static <T> Future<T> timed(
+      String stage,
+      Future<T> future,
+      long startTime,
+      Map<String, Long> stageTimes,
+      ExecutionContextExecutor ec) {
+    return future.map(
+        new Mapper<T, T>() {
+          @Override
+          public T apply(T value) {
+            stageTimes.put(stage, System.currentTimeMillis() - startTime);
+            return value;
+          }
+        },
+        ec);
+  }
+
   @SuppressWarnings("unchecked")
   private List<Map<String, String>> fetchUserExternalIdentity(String userId) {
     Response response =
@@ -480,13 +719,7 @@ public class UserProfileReadActor extends BaseActor {
             .map(m -> (String) m.get(JsonKey.ORGANISATION_ID))
             .distinct()
             .collect(Collectors.toList());
-    List<String> fields =
-        Arrays.asList(
-            JsonKey.ORG_NAME, JsonKey.CHANNEL, JsonKey.HASHTAGID, JsonKey.LOCATION_IDS, JsonKey.ID);
-
-    Map<String, Map<String, Object>> orgInfoMap =
-        getEsResultByListOfIds(orgIds, fields, EsType.organisation);
-    return orgInfoMap;
+    return OrgMetadataCache.getInstance().getOrgs(orgIds);
   }
 
   @SuppressWarnings("unchecked")
@@ -586,7 +819,22 @@ public class UserProfileReadActor extends BaseActor {
    */
   @SuppressWarnings("unchecked")
   private void getUserProfileV2(Request actorMessage) {
-    Response response = getUserProfileData(actorMessage);
+    Future<Response> responseF =
+        getUserProfileData(actorMessage)
+            .map(
+                new Mapper<Response, Response>() {
+                  @Override
+                  public Response apply(Response response) {
+                    removeExcludedFields(response);
+                    return response;
+                  }
+                },
+                blockingEc);
+    pipeProfileResponse(responseF);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void removeExcludedFields(Response response) {
     SystemSettingClient systemSetting = new SystemSettingClientImpl();
     Object excludedFieldList =
         systemSetting.getSystemSettingByFieldAndKey(
@@ -602,7 +850,6 @@ public class UserProfileReadActor extends BaseActor {
           "UserProfileReadActor:getUserProfileV2: System setting userProfileConfig.read.excludedFields not configured.",
           LoggerEnum.INFO.name());
     }
-    sender().tell(response, self());
   }
 
   private void removeExcludedFieldsFromUserProfileResponse(
@@ -1069,4 +1316,12 @@ public class UserProfileReadActor extends BaseActor {
           ResponseCode.RESOURCE_NOT_FOUND.getResponseCode());
     }
   }
+
+  private static int getConfigValue(String key, int defaultValue) {
+    try {
+      return Integer.parseInt(ProjectUtil.getConfigValue(key).trim());
+    } catch (Exception e) {
+      return defaultValue;
+    }
+  }
 }
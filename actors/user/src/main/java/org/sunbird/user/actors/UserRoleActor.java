@@ -21,6 +21,7 @@ import org.sunbird.common.responsecode.ResponseMessage;
 import org.sunbird.helper.ServiceFactory;
 import org.sunbird.learner.actors.role.service.RoleService;
 import org.sunbird.learner.util.DataCacheHandler;
+import org.sunbird.learner.util.UserProfileCache;
 import org.sunbird.learner.util.Util;
 import org.sunbird.models.organisation.Organisation;
 import org.sunbird.models.user.org.UserOrg;
@@ -100,6 +101,7 @@ public class UserRoleActor extends UserBaseActor {
     UserOrgDao userOrgDao = UserOrgDaoImpl.getInstance();
 
     Response response = userOrgDao.updateUserOrg(userOrg);
+    UserProfileCache.getInstance().invalidate(userId);
     sender().tell(response, self());
     if (((String) response.get(JsonKey.RESPONSE)).equalsIgnoreCase(JsonKey.SUCCESS)) {
       syncUserRoles(requestMap, JsonKey.ORGANISATION, userId, organisationId);
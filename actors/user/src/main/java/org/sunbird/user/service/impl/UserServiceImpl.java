@@ -31,7 +31,9 @@ import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.dto.SearchDTO;
 import org.sunbird.helper.ServiceFactory;
+import org.sunbird.learner.util.ChannelRootOrgIndex;
 import org.sunbird.learner.util.DataCacheHandler;
+import org.sunbird.learner.util.UserProfileCache;
 import org.sunbird.learner.util.Util;
 import org.sunbird.models.systemsetting.SystemSetting;
 import org.sunbird.models.user.User;
@@ -113,8 +115,15 @@ public class UserServiceImpl implements UserService {
   @Override
   public void syncUserProfile(
       String userId, Map<String, Object> userDataMap, Map<String, Object> userPrivateDataMap) {
-    esUtil.save(ProjectUtil.EsType.userprofilevisibility.getTypeName(), userId, userPrivateDataMap);
-    esUtil.save(ProjectUtil.EsType.user.getTypeName(), userId, userDataMap);
+    Future<String> privateF =
+        esUtil.save(
+            ProjectUtil.EsType.userprofilevisibility.getTypeName(), userId, userPrivateDataMap);
+    Future<String> publicF =
+        esUtil.save(ProjectUtil.EsType.user.getTypeName(), userId, userDataMap);
+    // Dropped once both documents are written so that a concurrent read cannot cache the old ones
+    ElasticSearchHelper.getResponseFromFuture(privateF);
+    ElasticSearchHelper.getResponseFromFuture(publicF);
+    UserProfileCache.getInstance().invalidate(userId);
   }
 
   @Override
@@ -196,15 +205,12 @@ public class UserServiceImpl implements UserService {
   @Override
   public String getRootOrgIdFromChannel(String channel) {
 
-    Map<String, Object> filters = new HashMap<>();
-    filters.put(JsonKey.IS_ROOT_ORG, true);
-    if (StringUtils.isNotBlank(channel)) {
-      filters.put(JsonKey.CHANNEL, channel);
-    } else {
+    String rootOrgChannel = channel;
+    if (StringUtils.isBlank(rootOrgChannel)) {
       // If channel value is not coming in request then read the default channel value provided from
       // ENV.
       if (StringUtils.isNotBlank(ProjectUtil.getConfigValue(JsonKey.SUNBIRD_DEFAULT_CHANNEL))) {
-        filters.put(JsonKey.CHANNEL, ProjectUtil.getConfigValue(JsonKey.SUNBIRD_DEFAULT_CHANNEL));
+        rootOrgChannel = ProjectUtil.getConfigValue(JsonKey.SUNBIRD_DEFAULT_CHANNEL);
       } else {
         throw new ProjectCommonException(
             ResponseCode.mandatoryParamsMissing.getErrorCode(),
@@ -213,16 +219,8 @@ public class UserServiceImpl implements UserService {
             ResponseCode.CLIENT_ERROR.getResponseCode());
       }
     }
-    SearchDTO searchDTO = new SearchDTO();
-    searchDTO.getAdditionalProperties().put(JsonKey.FILTERS, filters);
-    Future<Map<String, Object>> esResultF =
-        esUtil.search(searchDTO, EsType.organisation.getTypeName());
-    Map<String, Object> esResult =
-        (Map<String, Object>) ElasticSearchHelper.getResponseFromFuture(esResultF);
-    if (MapUtils.isNotEmpty(esResult)
-        && CollectionUtils.isNotEmpty((List) esResult.get(JsonKey.CONTENT))) {
-      Map<String, Object> esContent =
-          ((List<Map<String, Object>>) esResult.get(JsonKey.CONTENT)).get(0);
+    Map<String, Object> esContent = ChannelRootOrgIndex.getInstance().getRootOrg(rootOrgChannel);
+    if (esContent != null) {
       if (null != esContent.get(JsonKey.STATUS)) {
         int status = (int) esContent.get(JsonKey.STATUS);
         if (1 != status) {
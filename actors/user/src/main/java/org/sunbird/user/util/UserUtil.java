@@ -552,13 +552,14 @@ public class UserUtil {
 
       String name = String.join(" ", firstName, StringUtils.isNotBlank(lastName) ? lastName : "");
 
-      String userName = null;
+      String userName =
+          UsernameAllocator.getInstance()
+              .allocate(name, value -> userService.checkUsernameUniqueness(value, false));
+      // Fall back to random candidates if suffixes could not be reserved
       while (StringUtils.isBlank(userName)) {
         userName = getUsername(name);
-        if (StringUtils.isNotBlank(userName)) {
-          userMap.put(JsonKey.USERNAME, userName);
-        }
       }
+      userMap.put(JsonKey.USERNAME, userName);
     } else {
       if (!userService.checkUsernameUniqueness((String) userMap.get(JsonKey.USERNAME), false)) {
         ProjectCommonException.throwClientErrorException(ResponseCode.userNameAlreadyExistError);
@@ -0,0 +1,241 @@
+package org.sunbird.user.util;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.models.util.Slug;
+import org.sunbird.helper.CassandraConnectionMngrFactory;
+import org.sunbird.learner.util.Util;
+
+/**
+ * Hands out usernames of the form name slug followed by a numeric suffix. Suffixes are reserved
+ * per slug in blocks from the username_suffix table using compare and set, so that concurrent
+ * allocations, within this node or across nodes, never receive the same suffix. Each reserved
+ * counter is mapped to a suffix of the configured number of digits by a fixed permutation, which
+ * keeps usernames hard to guess, and moves on to one more digit once a length is used up.
+ *
+ * <p>Usernames generated before this allocator existed use random suffixes, hence every candidate
+ * is still checked with the given availability check. Since reserved suffixes are never handed out
+ * twice, a candidate is only rejected when it collides with such an older username.
+ */
+public final class UsernameAllocator {
+
+  private static final String TABLE_NAME = "username_suffix";
+  private static final String SUNBIRD_USERNAME_SUFFIX_BLOCK_SIZE_KEY =
+      "sunbird_username_suffix_block_size";
+  private static final int DEFAULT_BLOCK_SIZE = 20;
+  private static final int MAX_RESERVE_ATTEMPTS = 10;
+  private static final int MAX_CANDIDATES = 100;
+  private static final int MAX_CACHED_SLUGS = 10000;
+  private static final BigInteger MULTIPLIER = BigInteger.valueOf(7919);
+  private static UsernameAllocator instance;
+
+  private final SuffixStore store;
+  private final int numDigits;
+  private final int blockSize;
+  private final Map<String, SuffixBlock> blocks =
+      Collections.synchronizedMap(
+          new LinkedHashMap<String, SuffixBlock>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SuffixBlock> eldest) {
+              return size() > MAX_CACHED_SLUGS;
+            }
+          });
+
+  /** Storage of the next unreserved suffix counter of each slug. */
+  interface SuffixStore {
+
+    /** Returns the next unreserved counter of the slug, or null if none is reserved yet. */
+    Long read(String slug);
+
+    boolean insertIfAbsent(String slug, long next);
+
+    boolean compareAndSet(String slug, long expected, long next);
+  }
+
+  private static class SuffixBlock {
+    private long next;
+    private long end;
+  }
+
+  UsernameAllocator(SuffixStore store, int numDigits, int blockSize) {
+    this.store = store;
+    this.numDigits = numDigits;
+    this.blockSize = blockSize;
+  }
+
+  public static synchronized UsernameAllocator getInstance() {
+    if (instance == null) {
+      int numDigits =
+          Integer.valueOf(ProjectUtil.getConfigValue(JsonKey.SUNBIRD_USERNAME_NUM_DIGITS).trim());
+      instance = new UsernameAllocator(new CassandraSuffixStore(), numDigits, getBlockSize());
+    }
+    return instance;
+  }
+
+  /**
+   * Allocates a username for the given name.
+   *
+   * @param name Name of the user
+   * @param isAvailable Returns true if the candidate username is not yet taken
+   * @return Allocated username, or null if suffixes could not be reserved or no available
+   *     candidate was found
+   */
+  public String allocate(String name, Predicate<String> isAvailable) {
+    if (StringUtils.isBlank(name)) {
+      return null;
+    }
+    String slug = Slug.makeSlug(name, true).toLowerCase().replaceAll("\\-+", "");
+    for (int i = 0; i < MAX_CANDIDATES; i++) {
+      long counter = nextCounter(slug);
+      if (counter < 0) {
+        return null;
+      }
+      String username = slug + toSuffix(slug, counter);
+      if (isAvailable.test(username)) {
+        return username;
+      }
+    }
+    ProjectLogger.log(
+        "UsernameAllocator:allocate: No available username found for slug " + slug,
+        LoggerEnum.INFO.name());
+    return null;
+  }
+
+  private long nextCounter(String slug) {
+    SuffixBlock block = blocks.computeIfAbsent(slug, key -> new SuffixBlock());
+    synchronized (block) {
+      if (block.next >= block.end) {
+        long start = reserve(slug);
+        if (start < 0) {
+          return -1;
+        }
+        block.next = start;
+        block.end = start + blockSize;
+      }
+      return block.next++;
+    }
+  }
+
+  private long reserve(String slug) {
+    try {
+      for (int i = 0; i < MAX_RESERVE_ATTEMPTS; i++) {
+        Long current = store.read(slug);
+        if (current == null) {
+          if (store.insertIfAbsent(slug, blockSize)) {
+            return 0;
+          }
+        } else if (store.compareAndSet(slug, current, current + blockSize)) {
+          return current;
+        }
+      }
+      ProjectLogger.log(
+          "UsernameAllocator:reserve: Too much contention while reserving suffixes for slug "
+              + slug,
+          LoggerEnum.INFO.name());
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "UsernameAllocator:reserve: Failed to reserve suffixes for slug " + slug, e);
+    }
+    return -1;
+  }
+
+  /**
+   * Maps a counter to a suffix. The first 9 * 10^(numDigits - 1) counters map to the suffixes of
+   * numDigits digits, the following ones to the suffixes of one more digit and so on. Within a
+   * length the order is shuffled by multiplying with a number coprime to the count of suffixes of
+   * that length, which is a bijection.
+   */
+  String toSuffix(String slug, long counter) {
+    int digits = numDigits;
+    long min = BigInteger.TEN.pow(digits - 1).longValue();
+    long range = 9 * min;
+    while (counter >= range) {
+      counter -= range;
+      digits++;
+      min *= 10;
+      range = 9 * min;
+    }
+    BigInteger offset = BigInteger.valueOf(Math.floorMod(slug.hashCode(), range));
+    long permuted =
+        BigInteger.valueOf(counter)
+            .multiply(MULTIPLIER)
+            .add(offset)
+            .mod(BigInteger.valueOf(range))
+            .longValue();
+    return String.valueOf(min + permuted);
+  }
+
+  private static int getBlockSize() {
+    try {
+      return Integer.parseInt(
+          ProjectUtil.getConfigValue(SUNBIRD_USERNAME_SUFFIX_BLOCK_SIZE_KEY).trim());
+    } catch (Exception e) {
+      return DEFAULT_BLOCK_SIZE;
+    }
+  }
+
+  /** Keeps the suffix counters in Cassandra using lightweight transactions. */
+  private static class CassandraSuffixStore implements SuffixStore {
+
+    private Session session;
+    private PreparedStatement selectStatement;
+    private PreparedStatement insertStatement;
+    private PreparedStatement updateStatement;
+
+    @Override
+    public Long read(String slug) {
+      Row row =
+          getSession()
+              .execute(
+                  selectStatement.bind(slug).setConsistencyLevel(ConsistencyLevel.SERIAL))
+              .one();
+      return row == null ? null : row.getLong(0);
+    }
+
+    @Override
+    public boolean insertIfAbsent(String slug, long next) {
+      ResultSet resultSet = getSession().execute(insertStatement.bind(slug, next));
+      return resultSet.wasApplied();
+    }
+
+    @Override
+    public boolean compareAndSet(String slug, long expected, long next) {
+      ResultSet resultSet = getSession().execute(updateStatement.bind(next, slug, expected));
+      return resultSet.wasApplied();
+    }
+
+    private synchronized Session getSession() {
+      if (session == null) {
+        Session newSession =
+            CassandraConnectionMngrFactory.getObject(
+                    PropertiesCache.getInstance().getProperty(JsonKey.SUNBIRD_CASSANDRA_MODE))
+                .getSession(Util.KEY_SPACE_NAME);
+        String table = Util.KEY_SPACE_NAME + "." + TABLE_NAME;
+        selectStatement =
+            newSession.prepare("SELECT nextSuffix FROM " + table + " WHERE slug = ?");
+        insertStatement =
+            newSession.prepare(
+                "INSERT INTO " + table + " (slug, nextSuffix) VALUES (?, ?) IF NOT EXISTS");
+        updateStatement =
+            newSession.prepare(
+                "UPDATE " + table + " SET nextSuffix = ? WHERE slug = ? IF nextSuffix = ?");
+        session = newSession;
+      }
+      return session;
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package org.sunbird.user.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class UsernameAllocatorTest {
+
+  private static final String NAME = "Some Random Name";
+  private static final String SLUG = "somerandomname";
+
+  @Test
+  public void testAllocateConcurrentlyUniqueSuccess() throws Exception {
+    InMemorySuffixStore store = new InMemorySuffixStore();
+    // Several allocators sharing one store stand in for several nodes
+    List<UsernameAllocator> allocators = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      allocators.add(new UsernameAllocator(store, 4, 5));
+    }
+    Set<String> usernames = ConcurrentHashMap.newKeySet();
+    AtomicInteger count = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      UsernameAllocator allocator = allocators.get(i % allocators.size());
+      futures.add(
+          executor.submit(
+              () -> {
+                for (int j = 0; j < 250; j++) {
+                  usernames.add(allocator.allocate(NAME, value -> true));
+                  count.incrementAndGet();
+                }
+              }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+    assertEquals(2000, count.get());
+    assertEquals(2000, usernames.size());
+    assertFalse(usernames.contains(null));
+  }
+
+  @Test
+  public void testAllocateSkipsTakenUsernameSuccess() {
+    UsernameAllocator allocator = new UsernameAllocator(new InMemorySuffixStore(), 4, 20);
+    Set<String> taken = takeRandomUsernames(0.5);
+    for (int i = 0; i < 100; i++) {
+      String username = allocator.allocate(NAME, value -> !taken.contains(value));
+      assertNotNull(username);
+      assertTrue(username.matches(SLUG + "[0-9]{4}"));
+      assertTrue(taken.add(username));
+    }
+  }
+
+  @Test
+  public void testAllocateChecksStayBoundedAsDensityGrows() {
+    for (double density : new double[] {0.0, 0.5, 0.9}) {
+      InMemorySuffixStore store = new InMemorySuffixStore();
+      UsernameAllocator allocator = new UsernameAllocator(store, 4, 20);
+      Set<String> taken = takeRandomUsernames(density);
+      AtomicInteger checks = new AtomicInteger();
+      int allocations = 500;
+      for (int i = 0; i < allocations; i++) {
+        assertNotNull(
+            allocator.allocate(
+                NAME,
+                value -> {
+                  checks.incrementAndGet();
+                  return taken.add(value);
+                }));
+      }
+      double checksPerAllocation = (double) checks.get() / allocations;
+      double storeCallsPerAllocation = (double) store.calls.get() / allocations;
+      // Expected checks are 1 / (1 - density) as taken usernames are spread at random
+      assertTrue(checksPerAllocation < 2 / (1 - density));
+      assertTrue(storeCallsPerAllocation < 2 * checksPerAllocation / 20 + 1);
+    }
+  }
+
+  @Test
+  public void testToSuffixMovesToMoreDigitsSuccess() {
+    UsernameAllocator allocator = new UsernameAllocator(new InMemorySuffixStore(), 1, 5);
+    Set<String> suffixes = new HashSet<>();
+    for (int i = 0; i < 9; i++) {
+      String suffix = allocator.toSuffix(SLUG, i);
+      assertEquals(1, suffix.length());
+      suffixes.add(suffix);
+    }
+    assertEquals(9, suffixes.size());
+    assertEquals(2, allocator.toSuffix(SLUG, 9).length());
+    assertEquals(3, allocator.toSuffix(SLUG, 99).length());
+  }
+
+  @Test
+  public void testAllocateStoreFailureReturnsNull() {
+    InMemorySuffixStore store = new InMemorySuffixStore();
+    store.failing = true;
+    UsernameAllocator allocator = new UsernameAllocator(store, 4, 20);
+    assertNull(allocator.allocate(NAME, value -> true));
+  }
+
+  private static Set<String> takeRandomUsernames(double density) {
+    Set<String> taken = new HashSet<>();
+    Random random = new Random(1);
+    int count = (int) (9000 * density);
+    while (taken.size() < count) {
+      taken.add(SLUG + (1000 + random.nextInt(9000)));
+    }
+    return taken;
+  }
+
+  private static class InMemorySuffixStore implements UsernameAllocator.SuffixStore {
+
+    private final Map<String, Long> counters = new ConcurrentHashMap<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile boolean failing;
+
+    @Override
+    public Long read(String slug) {
+      call();
+      return counters.get(slug);
+    }
+
+    @Override
+    public boolean insertIfAbsent(String slug, long next) {
+      call();
+      return counters.putIfAbsent(slug, next) == null;
+    }
+
+    @Override
+    public boolean compareAndSet(String slug, long expected, long next) {
+      call();
+      return counters.replace(slug, expected, next);
+    }
+
+    private void call() {
+      if (failing) {
+        throw new IllegalStateException("store unavailable");
+      }
+      calls.incrementAndGet();
+      Thread.yield();
+    }
+  }
+}